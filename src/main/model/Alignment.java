@@ -0,0 +1,43 @@
+package model;
+
+// Represents the result of aligning a target sequence against a reference sequence:
+// the similarity score of the best window, the offset in the reference where that window starts
+// and whether the window matched the target itself or its reverse complement (the opposite strand)
+public class Alignment {
+    private final int score;
+    private final int offset;
+    private final boolean reverseStrand;
+
+    // EFFECTS: Constructs a forward strand alignment with the given score that starts at offset in the reference
+    public Alignment(int score, int offset) {
+        this(score, offset, false);
+    }
+
+    // EFFECTS: Constructs an alignment with the given score that starts at offset in the reference,
+    // on the reverse strand if reverseStrand
+    public Alignment(int score, int offset, boolean reverseStrand) {
+        this.score = score;
+        this.offset = offset;
+        this.reverseStrand = reverseStrand;
+    }
+
+    // EFFECTS: Returns the similarity score of the alignment
+    public int getScore() {
+        return this.score;
+    }
+
+    // EFFECTS: Returns the offset in the reference sequence where the aligned window starts
+    public int getOffset() {
+        return this.offset;
+    }
+
+    // EFFECTS: Returns true if the window matched the reverse complement of the target sequence
+    public boolean isReverseStrand() {
+        return this.reverseStrand;
+    }
+
+    // EFFECTS: Returns "-" for a reverse strand alignment and "+" for a forward strand alignment
+    public String getStrand() {
+        return reverseStrand ? "-" : "+";
+    }
+}
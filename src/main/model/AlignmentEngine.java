@@ -0,0 +1,15 @@
+package model;
+
+// An algorithm that finds the window of a reference sequence that is most similar to a target sequence.
+// Every engine must return the same alignment as the naive char by char scan: the highest number of
+// matching chars, and the first offset with that score if several windows tie.
+public interface AlignmentEngine {
+
+    // EFFECTS: Returns the name used to select this engine
+    String getName();
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // EFFECTS: Returns the alignment with the highest similarity score between targetSeq and any
+    // window of refSeq. If multiple windows have the same highest score, the first one is returned.
+    Alignment align(String targetSeq, String refSeq);
+}
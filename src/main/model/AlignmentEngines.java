@@ -0,0 +1,53 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Selects AlignmentEngine implementations by name, either directly or through the
+// clinic.aligner.engine system property (e.g. -Dclinic.aligner.engine=parallel)
+// Exact engines always find the best alignment; heuristic engines may miss it in exchange for speed
+public class AlignmentEngines {
+    public static final String ENGINE_PROPERTY = "clinic.aligner.engine";
+    public static final String DEFAULT_ENGINE = "packed";
+
+    // EFFECTS: Returns a new instance of every exact engine
+    public static List<AlignmentEngine> all() {
+        List<AlignmentEngine> engines = new ArrayList<>();
+        engines.add(new NaiveAligner());
+        engines.add(new SlidingWindowAligner());
+        engines.add(new PackedAligner());
+        engines.add(new ParallelAligner());
+        engines.add(new FftAligner());
+
+        return engines;
+    }
+
+    // EFFECTS: Returns a new instance of every heuristic engine
+    public static List<AlignmentEngine> heuristic() {
+        List<AlignmentEngine> engines = new ArrayList<>();
+        engines.add(new SeedExtendAligner());
+
+        return engines;
+    }
+
+    // EFFECTS: Returns the exact or heuristic engine with the given name,
+    // throws IllegalArgumentException if there is no engine with that name
+    public static AlignmentEngine forName(String name) {
+        List<AlignmentEngine> engines = all();
+        engines.addAll(heuristic());
+
+        for (AlignmentEngine engine : engines) {
+            if (engine.getName().equals(name)) {
+                return engine;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown alignment engine: " + name);
+    }
+
+    // EFFECTS: Returns the engine named by the clinic.aligner.engine system property,
+    // or the default engine if the property is not set
+    public static AlignmentEngine fromSystemProperty() {
+        return forName(System.getProperty(ENGINE_PROPERTY, DEFAULT_ENGINE));
+    }
+}
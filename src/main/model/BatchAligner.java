@@ -0,0 +1,95 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Aligns many condition sequences against the same genome in a single streaming pass.
+// The genome is packed once and walked in blocks of window offsets; every condition is scored against a
+// block while it is still in the CPU cache, before moving on to the next block. Each condition keeps its
+// running best alignment, so the results are the same as aligning each condition separately with
+// PackedAligner (the highest score, and the first offset with that score on ties).
+public class BatchAligner {
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 14;
+
+    private final int blockSize;
+
+    // EFFECTS: Constructs a batch aligner that walks the genome in blocks of DEFAULT_BLOCK_SIZE offsets
+    public BatchAligner() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    // REQUIRES: blockSize > 0
+    // EFFECTS: Constructs a batch aligner that walks the genome in blocks of blockSize offsets
+    public BatchAligner(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    // REQUIRES: every condition sequence is at most as long as the genome
+    // EFFECTS: Returns the best alignment of every condition's sequence against the genome, in the order
+    // of the conditions. Conditions or genomes with characters other than A, C, G, T are aligned one at a
+    // time with PackedAligner instead.
+    public List<Alignment> alignAll(List<Condition> conditions, String genome) {
+        return alignAll(conditions, PackedAligner.pack(genome), genome.length(),
+                seq -> new PackedAligner().align(seq, genome));
+    }
+
+    // REQUIRES: every condition sequence is at most as long as the genome
+    // EFFECTS: Same as alignAll, but walks the packed words of the genome directly instead of unpacking it
+    public List<Alignment> alignAll(List<Condition> conditions, PackedGenome genome) {
+        return alignAll(conditions, genome.hasExceptions() ? null : genome.getWords(), genome.length(),
+                seq -> new PackedAligner().align(seq, genome));
+    }
+
+    // EFFECTS: Returns the best alignment of every condition's sequence against the packed genome ref of
+    // genomeLen bases, in the order of the conditions. If ref is null, or a condition can't be packed, that
+    // condition is aligned with fallback instead.
+    private List<Alignment> alignAll(List<Condition> conditions, long[] ref, int genomeLen,
+                                     Function<String, Alignment> fallback) {
+        List<long[]> targets = new ArrayList<>();
+        Alignment[] best = new Alignment[conditions.size()];
+
+        for (int i = 0; i < conditions.size(); i++) {
+            String seq = conditions.get(i).getSequence();
+            long[] target = ref == null || seq.isEmpty() ? null : PackedAligner.pack(seq);
+            if (target == null) {
+                best[i] = fallback.apply(seq);
+            }
+            targets.add(target);
+        }
+
+        for (int blockStart = 0; blockStart < genomeLen; blockStart += blockSize) {
+            alignBlock(conditions, targets, ref, genomeLen, blockStart, best);
+        }
+
+        List<Alignment> alignments = new ArrayList<>();
+        for (Alignment alignment : best) {
+            alignments.add(alignment == null ? new Alignment(0, 0) : alignment);
+        }
+        return alignments;
+    }
+
+    // MODIFIES: best
+    // EFFECTS: Scores every packed condition against the windows starting in the block of offsets that
+    // begins at blockStart, and keeps each condition's best alignment so far
+    private void alignBlock(List<Condition> conditions, List<long[]> targets, long[] ref, int genomeLen,
+                            int blockStart, Alignment[] best) {
+        PackedAligner packedAligner = new PackedAligner();
+
+        for (int i = 0; i < conditions.size(); i++) {
+            long[] target = targets.get(i);
+            int targetLen = conditions.get(i).getSequence().length();
+            int blockEnd = Math.min(blockStart + blockSize, genomeLen - targetLen + 1);
+            if (target == null || blockStart >= blockEnd) {
+                continue;
+            }
+
+            int floorScore = best[i] == null ? 0 : best[i].getScore();
+            Alignment alignment = packedAligner.alignRange(target, targetLen, ref, blockStart, blockEnd,
+                    floorScore);
+            if (best[i] == null || alignment.getScore() > best[i].getScore()) {
+                best[i] = alignment;
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Bit-parallel Shift-Or (Bitap) matcher that finds every occurrence of a pattern in a text with at most
+// a given number of substituted characters, in a single pass over the text.
+// For each allowed number of mismatches j, bit i of state j is 0 when the first i + 1 characters of the
+// pattern match the text ending at the current position with at most j mismatches. Patterns of up to
+// 64 characters keep each state in one long; longer patterns use multi-word states.
+public class BitapMatcher {
+    private static final int WORD_BITS = 64;
+    private static final int ALPHABET = 256;
+
+    private final String pattern;
+    private final int maxMismatches;
+    private final int words;
+    private final long[][] masks;
+    private final long[] firstWordMasks;
+
+    // REQUIRES: pattern is not empty, only has chars below 256, and maxMismatches >= 0
+    // EFFECTS: Compiles a matcher for the pattern allowing up to maxMismatches substitutions
+    public BitapMatcher(String pattern, int maxMismatches) {
+        this.pattern = pattern;
+        this.maxMismatches = maxMismatches;
+        this.words = (pattern.length() + WORD_BITS - 1) / WORD_BITS;
+        this.masks = new long[ALPHABET + 1][words];
+
+        for (long[] mask : masks) {
+            Arrays.fill(mask, -1L);
+        }
+        for (int i = 0; i < pattern.length(); i++) {
+            masks[pattern.charAt(i)][i / WORD_BITS] &= ~(1L << (i % WORD_BITS));
+        }
+        this.firstWordMasks = new long[ALPHABET + 1];
+        for (int c = 0; c <= ALPHABET; c++) {
+            firstWordMasks[c] = masks[c][0];
+        }
+    }
+
+    // EFFECTS: Returns the offsets in text where the pattern occurs with at most maxMismatches substitutions,
+    // in increasing order
+    public List<Integer> findAll(CharSequence text) {
+        return find(text, false);
+    }
+
+    // EFFECTS: Returns the first offset in text where the pattern occurs with at most maxMismatches
+    // substitutions, or -1 if it doesn't occur
+    public int findFirst(CharSequence text) {
+        List<Integer> first = find(text, true);
+        return first.isEmpty() ? -1 : first.get(0);
+    }
+
+    // EFFECTS: Returns the pattern this matcher was compiled from
+    public String getPattern() {
+        return pattern;
+    }
+
+    // EFFECTS: Returns the number of substitutions this matcher allows
+    public int getMaxMismatches() {
+        return maxMismatches;
+    }
+
+    // EFFECTS: Scans the text once and returns the start offsets of the matches,
+    // stopping at the first one if firstOnly
+    private List<Integer> find(CharSequence text, boolean firstOnly) {
+        if (words == 1) {
+            return findSingleWord(text, firstOnly);
+        }
+
+        List<Integer> offsets = new ArrayList<>();
+        long[][] states = initialStates();
+        long[] previous = new long[words];
+        long[] current = new long[words];
+
+        int last = pattern.length() - 1;
+        for (int t = 0; t < text.length(); t++) {
+            step(states, masks[Math.min(text.charAt(t), ALPHABET)], previous, current);
+            if ((states[maxMismatches][last / WORD_BITS] & (1L << (last % WORD_BITS))) == 0) {
+                offsets.add(t - last);
+                if (firstOnly) {
+                    break;
+                }
+            }
+        }
+
+        return offsets;
+    }
+
+    // MODIFIES: states, previous, current
+    // EFFECTS: Advances the state of every mismatch count past one text character with the given mask.
+    // previous and current are scratch space that hold the state of the count below before it was advanced.
+    private void step(long[][] states, long[] mask, long[] previous, long[] current) {
+        long[] below = previous;
+        long[] saved = current;
+        for (int j = 0; j <= maxMismatches; j++) {
+            System.arraycopy(states[j], 0, saved, 0, words);
+            shiftOr(states[j], mask, j == 0 ? null : below);
+            long[] swap = below;
+            below = saved;
+            saved = swap;
+        }
+    }
+
+    // EFFECTS: Returns one multi-word state per mismatch count, with no pattern prefix matched
+    private long[][] initialStates() {
+        long[][] states = new long[maxMismatches + 1][words];
+        for (long[] state : states) {
+            Arrays.fill(state, -1L);
+        }
+        return states;
+    }
+
+    // MODIFIES: state
+    // EFFECTS: Replaces state with (state << 1) | mask, and with that ANDed with (substituted << 1)
+    // if substituted is not null, shifting across words
+    private void shiftOr(long[] state, long[] mask, long[] substituted) {
+        for (int w = words - 1; w >= 0; w--) {
+            long carry = w == 0 ? 0 : state[w - 1] >>> (WORD_BITS - 1);
+            state[w] = (state[w] << 1) | carry | mask[w];
+            if (substituted != null) {
+                long subCarry = w == 0 ? 0 : substituted[w - 1] >>> (WORD_BITS - 1);
+                state[w] &= (substituted[w] << 1) | subCarry;
+            }
+        }
+    }
+
+    // REQUIRES: pattern.length() <= 64
+    // EFFECTS: Same as find, but with each state in a single long
+    private List<Integer> findSingleWord(CharSequence text, boolean firstOnly) {
+        List<Integer> offsets = new ArrayList<>();
+        long[] states = new long[maxMismatches + 1];
+        Arrays.fill(states, -1L);
+
+        int last = pattern.length() - 1;
+        long matchBit = 1L << last;
+        for (int t = 0; t < text.length(); t++) {
+            long mask = firstWordMasks[Math.min(text.charAt(t), ALPHABET)];
+            long previous = states[0];
+            states[0] = (states[0] << 1) | mask;
+            for (int j = 1; j <= maxMismatches; j++) {
+                long current = states[j];
+                states[j] = ((states[j] << 1) | mask) & (previous << 1);
+                previous = current;
+            }
+            if ((states[maxMismatches] & matchBit) == 0) {
+                offsets.add(t - last);
+                if (firstOnly) {
+                    break;
+                }
+            }
+        }
+
+        return offsets;
+    }
+}
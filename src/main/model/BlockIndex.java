@@ -0,0 +1,213 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Index of the blocks of a block-compressed genome file (see BlockCompressedGenome), in the bgzip .gzi format:
+// the number of blocks after the first, then for each of them the offset of the block in the file and the
+// offset of its first byte in the decompressed data, all as little-endian 64-bit integers. With it, the block
+// holding any byte of the decompressed data is found without decompressing the blocks before it.
+public class BlockIndex {
+    public static final String INDEX_EXTENSION = ".gzi";
+
+    private static final int HEADER_BYTES = 12;
+    private static final int TRAILER_BYTES = 8;
+
+    private final int[] fileOffsets;
+    private final int[] dataOffsets;
+    private final int length;
+
+    // EFFECTS: Constructs an index of the blocks starting at fileOffsets in the file and at dataOffsets in the
+    // decompressed data, which has the given length
+    private BlockIndex(int[] fileOffsets, int[] dataOffsets, int length) {
+        this.fileOffsets = fileOffsets;
+        this.dataOffsets = dataOffsets;
+        this.length = length;
+    }
+
+    // EFFECTS: Returns the index of the block-compressed file mapped in buffer, read from the .gzi file next to
+    // it. The .gzi file is generated first if it is missing or doesn't have the modification time of the
+    // compressed file (see writeFor), so a compressed file replaced by an older one is indexed again.
+    // Throws IOException if either file can't be read or written, or the compressed file is malformed.
+    public static BlockIndex forCompressedFile(Path file, ByteBuffer buffer) throws IOException {
+        Path indexFile = indexFileFor(file);
+        if (Files.exists(indexFile) && Files.getLastModifiedTime(indexFile).equals(Files.getLastModifiedTime(file))) {
+            return read(indexFile, buffer);
+        }
+
+        BlockIndex index = build(buffer);
+        index.writeFor(file);
+        return index;
+    }
+
+    // EFFECTS: Returns the path of the index file of the compressed file (its file name followed by .gzi)
+    public static Path indexFileFor(Path file) {
+        return file.resolveSibling(file.getFileName() + INDEX_EXTENSION);
+    }
+
+    // EFFECTS: Returns the index stored in indexFile for the compressed file mapped in buffer, throws
+    // IOException if it can't be read or doesn't match the compressed file: its blocks must be in the file, and
+    // the blocks after the last of them must hold no data and end with the file
+    public static BlockIndex read(Path indexFile, ByteBuffer buffer) throws IOException {
+        ByteBuffer entries = ByteBuffer.wrap(Files.readAllBytes(indexFile)).order(ByteOrder.LITTLE_ENDIAN);
+        int count = entries.remaining() < 8 ? -1 : (int) entries.getLong() + 1;
+        if (count < 1 || entries.remaining() != 16 * (count - 1)) {
+            throw new IOException("Malformed block index: " + indexFile);
+        }
+        int[] fileOffsets = new int[count];
+        int[] dataOffsets = new int[count];
+        for (int k = 1; k < count; k++) {
+            fileOffsets[k] = (int) entries.getLong();
+            dataOffsets[k] = (int) entries.getLong();
+            if (fileOffsets[k] <= fileOffsets[k - 1] || fileOffsets[k] >= buffer.limit()) {
+                throw new IOException("Block index doesn't match its compressed file: " + indexFile);
+            }
+        }
+
+        int last = fileOffsets[count - 1];
+        int offset = last + blockSize(buffer, last);
+        while (offset < buffer.limit() && dataSize(buffer, offset) == 0) {
+            offset += blockSize(buffer, offset);
+        }
+        if (offset != buffer.limit()) {
+            throw new IOException("Block index doesn't match its compressed file: " + indexFile);
+        }
+        return new BlockIndex(fileOffsets, dataOffsets, dataOffsets[count - 1] + dataSize(buffer, last));
+    }
+
+    // EFFECTS: Returns the index of the block-compressed file mapped in buffer, found by reading the header of
+    // each block (nothing is decompressed), throws IOException if the file is not block-compressed
+    public static BlockIndex build(ByteBuffer buffer) throws IOException {
+        int[] fileOffsets = new int[16];
+        int[] dataOffsets = new int[16];
+        int count = 0;
+        int length = 0;
+        for (int offset = 0; offset < buffer.limit(); offset += blockSize(buffer, offset)) {
+            int size = dataSize(buffer, offset);
+            if (count == 0 || size > 0) {
+                if (count == fileOffsets.length) {
+                    fileOffsets = Arrays.copyOf(fileOffsets, count * 2);
+                    dataOffsets = Arrays.copyOf(dataOffsets, count * 2);
+                }
+                fileOffsets[count] = offset;
+                dataOffsets[count++] = length;
+            }
+            length += size;
+        }
+
+        return new BlockIndex(Arrays.copyOf(fileOffsets, Math.max(count, 1)),
+                Arrays.copyOf(dataOffsets, Math.max(count, 1)), length);
+    }
+
+    // EFFECTS: Writes the index to indexFile, throws IOException if it can't be written
+    public void write(Path indexFile) throws IOException {
+        ByteBuffer entries = ByteBuffer.allocate(8 + 16 * (fileOffsets.length - 1)).order(ByteOrder.LITTLE_ENDIAN);
+        entries.putLong(fileOffsets.length - 1);
+        for (int k = 1; k < fileOffsets.length; k++) {
+            entries.putLong(fileOffsets[k]);
+            entries.putLong(dataOffsets[k]);
+        }
+
+        Files.write(indexFile, entries.array());
+    }
+
+    // EFFECTS: Writes the index to the .gzi file of the compressed file, with the modification time of the
+    // compressed file, which forCompressedFile checks before reusing it. Throws IOException if it can't be
+    // written.
+    public void writeFor(Path file) throws IOException {
+        Path indexFile = indexFileFor(file);
+        write(indexFile);
+        Files.setLastModifiedTime(indexFile, Files.getLastModifiedTime(file));
+    }
+
+    // EFFECTS: Returns the number of blocks
+    public int getBlockCount() {
+        return this.fileOffsets.length;
+    }
+
+    // EFFECTS: Returns the number of bytes of decompressed data
+    public int getLength() {
+        return this.length;
+    }
+
+    // REQUIRES: 0 <= position < getLength()
+    // EFFECTS: Returns the number of the block holding the byte of decompressed data at position
+    public int blockOf(int position) {
+        int k = Arrays.binarySearch(dataOffsets, position);
+        k = k < 0 ? -k - 2 : k;
+        while (k + 1 < dataOffsets.length && dataOffsets[k + 1] <= position) {
+            k++;
+        }
+
+        return k;
+    }
+
+    // REQUIRES: 0 <= block < getBlockCount()
+    // EFFECTS: Returns the offset of the block in the compressed file
+    public int getFileOffset(int block) {
+        return this.fileOffsets[block];
+    }
+
+    // REQUIRES: 0 <= block <= getBlockCount()
+    // EFFECTS: Returns the offset of the first byte of the block in the decompressed data, or the length of the
+    // decompressed data for block == getBlockCount()
+    public int getDataOffset(int block) {
+        return block == dataOffsets.length ? length : this.dataOffsets[block];
+    }
+
+    // EFFECTS: Returns the size in bytes of the block starting at offset in the compressed file mapped in buffer,
+    // read from its header, throws IOException if there is no block-compressed gzip member at offset
+    static int blockSize(ByteBuffer buffer, int offset) throws IOException {
+        if (!isBlockHeader(buffer, offset)) {
+            throw new IOException("Expected a compressed block at byte " + offset);
+        }
+        int extraEnd = dataStart(buffer, offset);
+        int field = offset + HEADER_BYTES;
+        while (field + 4 <= extraEnd && extraEnd <= buffer.limit()) {
+            int fieldLength = unsignedShort(buffer, field + 2);
+            if (buffer.get(field) == 'B' && buffer.get(field + 1) == 'C' && fieldLength == 2) {
+                int size = unsignedShort(buffer, field + 4) + 1;
+                if (offset + size > buffer.limit()) {
+                    throw new IOException("Truncated compressed block at byte " + offset);
+                }
+                return size;
+            }
+            field += 4 + fieldLength;
+        }
+
+        throw new IOException("Compressed block at byte " + offset + " has no block size");
+    }
+
+    // REQUIRES: a compressed block starts at offset in buffer
+    // EFFECTS: Returns the offset of the compressed data of the block, just after its header
+    static int dataStart(ByteBuffer buffer, int offset) {
+        return offset + HEADER_BYTES + unsignedShort(buffer, offset + 10);
+    }
+
+    // REQUIRES: a compressed block starts at offset in buffer
+    // EFFECTS: Returns the number of bytes of decompressed data in the block, read from its trailer
+    static int dataSize(ByteBuffer buffer, int offset) throws IOException {
+        return littleEndianInt(buffer, offset + blockSize(buffer, offset) - 4);
+    }
+
+    // EFFECTS: Returns true if a gzip member with extra fields starts at offset in buffer
+    static boolean isBlockHeader(ByteBuffer buffer, int offset) {
+        return offset + HEADER_BYTES + TRAILER_BYTES <= buffer.limit() && buffer.get(offset) == 0x1f
+                && buffer.get(offset + 1) == (byte) 0x8b && buffer.get(offset + 2) == 8
+                && (buffer.get(offset + 3) & 4) != 0;
+    }
+
+    // EFFECTS: Returns the little-endian 32-bit integer at offset in buffer
+    static int littleEndianInt(ByteBuffer buffer, int offset) {
+        return unsignedShort(buffer, offset) | unsignedShort(buffer, offset + 2) << 16;
+    }
+
+    // EFFECTS: Returns the little-endian unsigned 16-bit integer at offset in buffer
+    private static int unsignedShort(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset) & 0xff) | (buffer.get(offset + 1) & 0xff) << 8;
+    }
+}
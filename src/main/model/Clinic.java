@@ -3,13 +3,26 @@ package model;
 import org.json.JSONObject;
 import persistence.Writable;
 
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 // A clinic that has a list of patients and a list of conditions
 public class Clinic implements Writable {
     private PatientList patients;
     private ConditionList conditions;
+    private final Map<String, Map<Condition, List<Integer>>> sharedResults = new ConcurrentHashMap<>();
 
     // EFFECTS: Constructs a clinic with provided patient list and condition list
     // or the patients and conditions is empty if null is provided;
@@ -60,6 +73,173 @@ public class Clinic implements Writable {
         return patients.findPatient(phn);
     }
 
+    // EFFECTS: Diagnoses the patient for all the genetic conditions in a single pass over their genome.
+    // Returns the conditions the patient is positive for, mapped to the offsets in the genome where the
+    // condition sequence occurs.
+    // If the patient's genome is stored per chromosome, each condition is only searched for in the chromosome
+    // it is located on (with offsets in that chromosome): the conditions of each chromosome are matched in a
+    // single pass over it, and the chromosomes are searched in parallel. Otherwise the records of a FASTA genome
+    // file are searched the same way, one by one (see Patient.getSearchedSources), with offsets in each record.
+    // If the patient's genome is in the GenomeStore, the results are shared with every patient with the same
+    // genome, so a condition is only searched for once per distinct genome (unless the genome couldn't be read).
+    public Map<Condition, List<Integer>> diagnoseAll(Patient patient) {
+        EventLog.getInstance().logEvent(new Event("Diagnosed the patient with PHN, "
+                + patient.getPHN() + " for genetic conditions."));
+        String hash = patient.getGenomeHash();
+        if (hash == null) {
+            return findAll(patient, getConditions());
+        }
+
+        Map<Condition, List<Integer>> known = sharedResults.computeIfAbsent(hash, h -> new ConcurrentHashMap<>());
+        List<Condition> unknown = new ArrayList<>();
+        for (Condition c : getConditions()) {
+            if (!known.containsKey(c)) {
+                unknown.add(c);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            Map<Condition, List<Integer>> found = findAll(patient, unknown);
+            if (patient.getPackedGenome().length() == 0) {
+                return found;
+            }
+            for (Condition c : unknown) {
+                known.put(c, found.getOrDefault(c, Collections.emptyList()));
+            }
+        }
+
+        return positives(getConditions(), known);
+    }
+
+    // MODIFIES: the genome files of the patients
+    // EFFECTS: Moves the genome file of every patient that has one into the GenomeStore (see GenomeStore.add),
+    // so identical genomes are stored, cached and diagnosed once. FASTA genome files are left as they are.
+    // Returns the number of genome files moved. Throws IOException if one can't be moved into the store.
+    public int storeGenomes() throws IOException {
+        int moved = 0;
+        for (Patient patient : getPatients()) {
+            Path genomeFile = Paths.get(patient.getGenomeFileName());
+            if (Files.isRegularFile(genomeFile) && GenomeStore.hashOf(genomeFile) == null
+                    && !GenomeFiles.isFasta(genomeFile)) {
+                GenomeStore.add(genomeFile);
+                GenomeCache.getInstance().invalidate(genomeFile);
+                patient.readGenome();
+                moved++;
+            }
+        }
+
+        return moved;
+    }
+
+    // MODIFIES: this, patient
+    // EFFECTS: Reads the patient's genome again after their genome files have been created, changed or deleted
+    // (see GenomeWatcher), and drops what was cached for the genome they had: the GenomeCache entries of their
+    // own genome files, and the shared diagnosis results of their old genome unless another patient still has
+    // it. Files in the GenomeStore never change, so they stay cached for the patients that share them.
+    // The .fai, .gzi and .fmi indexes built from their genome files are deleted too, so they are rebuilt from the
+    // new files rather than read for the old ones.
+    // A patient whose genome files have all been deleted no longer has a genome.
+    public void reloadGenome(Patient patient) {
+        for (String extension : GenomeFiles.EXTENSIONS) {
+            GenomeCache.getInstance().invalidate(Paths.get(GenomeFiles.getDirectory() + patient.getPHN()
+                    + "_genome" + extension));
+        }
+        deleteIndexes(patient.getPHN());
+        patient.reloadGenome();
+
+        Set<String> hashes = new HashSet<>();
+        for (Patient p : getPatients()) {
+            String hash = p.getGenomeHash();
+            if (hash != null) {
+                hashes.add(hash);
+            }
+        }
+        sharedResults.keySet().retainAll(hashes);
+    }
+
+    // EFFECTS: Deletes the indexes in the genome directory built from the genome files of the patient with the
+    // given PHN: PHN_genome.fa.fai, PHN_genome.txt.gz.gzi, PHN_genome.fmi and the PHN_genome.RECORD.fmi of each
+    // FASTA record. An index that can't be deleted is logged, and is still checked against its genome file
+    // when it is read.
+    private static void deleteIndexes(String phn) {
+        String glob = phn + "_genome*{" + FastaIndex.INDEX_EXTENSION + "," + BlockIndex.INDEX_EXTENSION + ","
+                + FmIndex.INDEX_EXTENSION + "}";
+        try (DirectoryStream<Path> indexes = Files.newDirectoryStream(Paths.get(GenomeFiles.getDirectory()), glob)) {
+            for (Path index : indexes) {
+                Files.deleteIfExists(index);
+            }
+        } catch (IOException e) {
+            EventLog.getInstance().logEvent(new Event("Couldn't delete the genome indexes of the patient with PHN, "
+                    + phn + ": " + e.getMessage()));
+        }
+    }
+
+    // EFFECTS: Returns the searched conditions the patient is positive for, mapped to where they occur in the
+    // patient's genome (see diagnoseAll). A genome stored as variants is searched with Patient.locateCondition,
+    // which overlays the variants on the reference genome instead of scanning the patient's sequence.
+    private Map<Condition, List<Integer>> findAll(Patient patient, List<Condition> searched) {
+        if (patient.getVariantGenome() != null) {
+            return locateAll(patient, searched);
+        }
+        Map<Condition, List<GenomeSource>> sources = new LinkedHashMap<>();
+        Map<GenomeSource, List<Condition>> groups = new LinkedHashMap<>();
+        for (Condition c : searched) {
+            sources.put(c, patient.getSearchedSources(c));
+            for (GenomeSource source : sources.get(c)) {
+                groups.computeIfAbsent(source, s -> new ArrayList<>()).add(c);
+            }
+        }
+        if (groups.keySet().equals(Collections.singleton(null))) {
+            ConditionMatcher matcher = searched.size() == getConditions().size()
+                    ? conditions.getMatcher() : new ConditionMatcher(searched);
+            return matcher.findAll(patient.getPackedGenome());
+        }
+
+        List<GenomeSource> searchedSources = new ArrayList<>(groups.keySet());
+        List<Map<Condition, List<Integer>>> foundPerSource = searchedSources.parallelStream()
+                .map(source -> new ConditionMatcher(groups.get(source)).findAll(patient.getPackedGenome(source)))
+                .collect(Collectors.toList());
+        return positives(searched, merge(sources, searchedSources, foundPerSource));
+    }
+
+    // EFFECTS: Returns the searched conditions the patient is positive for, mapped to where they occur in the
+    // patient's genome, located one by one with Patient.locateCondition
+    private static Map<Condition, List<Integer>> locateAll(Patient patient, List<Condition> searched) {
+        Map<Condition, List<Integer>> found = new LinkedHashMap<>();
+        for (Condition c : searched) {
+            found.put(c, patient.locateCondition(c, 0));
+        }
+        return positives(searched, found);
+    }
+
+    // EFFECTS: Returns each condition mapped to the offsets found for it in each of its sources, source by source,
+    // where foundPerSource has what was found in each of searchedSources
+    private static Map<Condition, List<Integer>> merge(Map<Condition, List<GenomeSource>> sources,
+            List<GenomeSource> searchedSources, List<Map<Condition, List<Integer>>> foundPerSource) {
+        Map<Condition, List<Integer>> found = new LinkedHashMap<>();
+        sources.forEach((c, conditionSources) -> {
+            List<Integer> offsets = new ArrayList<>();
+            for (GenomeSource source : conditionSources) {
+                offsets.addAll(foundPerSource.get(searchedSources.indexOf(source))
+                        .getOrDefault(c, Collections.emptyList()));
+            }
+            found.put(c, offsets);
+        });
+        return found;
+    }
+
+    // EFFECTS: Returns the conditions with a non-empty list of offsets in found, in the order of searched
+    private static Map<Condition, List<Integer>> positives(List<Condition> searched,
+                                                           Map<Condition, List<Integer>> found) {
+        Map<Condition, List<Integer>> positives = new LinkedHashMap<>();
+        for (Condition c : searched) {
+            if (found.containsKey(c) && !found.get(c).isEmpty()) {
+                positives.put(c, found.get(c));
+            }
+        }
+
+        return positives;
+    }
+
     // EFFECTS: Returns the list of patients
     public List<Patient> getPatients() {
         return this.patients.getPatients();
@@ -5,19 +5,32 @@ import persistence.Writable;
 
 /*
 Represents a genetic condition that a patient can suffer from.
-Contains the name of the condition, the mutated DNA sequence, and its chromosome location
+Contains the name of the condition, the mutated DNA sequence, and its chromosome location.
+A condition can also declare the region of the genome its sequence should be aligned against.
  */
 public class Condition implements Writable {
 
     private final String name;
     private final String sequence;
     private final int chromosomeNum;
+    private final int regionStart;
+    private final int regionEnd;
 
     // EFFECTS: Constructs a genetic condition with the given name, sequence, and chromosome number
+    // that doesn't declare a region
     public Condition(String name, String seq, int chromosomeNum) {
+        this(name, seq, chromosomeNum, -1, -1);
+    }
+
+    // REQUIRES: 0 <= regionStart <= regionEnd, or both are -1 for no region
+    // EFFECTS: Constructs a genetic condition with the given name, sequence, and chromosome number whose
+    // sequence is aligned against the genome between offsets regionStart (inclusive) and regionEnd (exclusive)
+    public Condition(String name, String seq, int chromosomeNum, int regionStart, int regionEnd) {
         this.name = name;
         this.sequence = seq;
         this.chromosomeNum = chromosomeNum;
+        this.regionStart = regionStart;
+        this.regionEnd = regionEnd;
     }
 
     // EFFECTS: Returns the full information about the genetic condition
@@ -46,7 +59,23 @@ public class Condition implements Writable {
         return this.chromosomeNum;
     }
 
+    // EFFECTS: Returns true if the condition declares a region of the genome to align against
+    public boolean hasRegion() {
+        return this.regionStart >= 0;
+    }
+
+    // EFFECTS: Returns the offset in the genome where the condition's region starts, or -1 if it has none
+    public int getRegionStart() {
+        return this.regionStart;
+    }
+
+    // EFFECTS: Returns the offset in the genome just past the condition's region, or -1 if it has none
+    public int getRegionEnd() {
+        return this.regionEnd;
+    }
+
     // EFFECTS: Converts Condition object to a JSONObject and returns it
+    // The region is only included if the condition declares one
     @Override
     public JSONObject toJson() {
         JSONObject jsonObj = new JSONObject();
@@ -54,6 +83,10 @@ public class Condition implements Writable {
         jsonObj.put("name", name);
         jsonObj.put("seq", sequence);
         jsonObj.put("chrNum", chromosomeNum);
+        if (hasRegion()) {
+            jsonObj.put("regionStart", regionStart);
+            jsonObj.put("regionEnd", regionEnd);
+        }
 
         return jsonObj;
     }
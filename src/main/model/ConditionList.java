@@ -8,6 +8,7 @@ import java.util.*;
 // Stores a list of genetic conditions that patients can possibly suffer from
 public class ConditionList implements WritableArray {
     private List<Condition> conditions;
+    private ConditionMatcher matcher;
 
     // EFFECTS: Constructs an empty list to hold genetic conditions
     public ConditionList() {
@@ -23,6 +24,7 @@ public class ConditionList implements WritableArray {
             return false;
         } else {
             conditions.add(condition);
+            matcher = null;
             EventLog.getInstance().logEvent(new Event("Added a new condition, "
                     + condition.getName() + ", to the list of conditions."));
             return true;
@@ -48,6 +50,9 @@ public class ConditionList implements WritableArray {
         }
 
         this.conditions = newConditions;
+        if (found) {
+            matcher = null;
+        }
         return found;
     }
 
@@ -67,6 +72,17 @@ public class ConditionList implements WritableArray {
         return conditions;
     }
 
+    // MODIFIES: this
+    // EFFECTS: Returns a matcher compiled from the current list of conditions.
+    // The matcher is only rebuilt after conditions have been added or removed.
+    public ConditionMatcher getMatcher() {
+        if (matcher == null || !matcher.getConditions().equals(conditions)) {
+            matcher = new ConditionMatcher(conditions);
+        }
+
+        return matcher;
+    }
+
     // EFFECTS: Converts ConditionList object to a JSONObject and returns it
     @Override
     public JSONArray toJsonArray() {
@@ -0,0 +1,182 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+// Aho-Corasick automaton compiled from the sequences of a list of genetic conditions.
+// Finds every exact occurrence of every condition sequence in a genome with a single pass over the genome,
+// instead of searching the genome once per condition.
+public class ConditionMatcher {
+    private final List<Condition> conditions;
+    private final int[] alphabet;
+    private final int alphabetSize;
+    private int[][] transitions;
+    private int[] failures;
+    private int[][] outputs;
+    private int states;
+
+    // EFFECTS: Compiles the sequences of the given conditions into a matcher
+    public ConditionMatcher(List<Condition> conditions) {
+        this.conditions = new ArrayList<>(conditions);
+        this.alphabet = buildAlphabet(this.conditions);
+        this.alphabetSize = Arrays.stream(alphabet).max().orElse(-1) + 1;
+        buildTrie();
+        buildFailureLinks();
+    }
+
+    // EFFECTS: Returns the conditions whose sequence occurs in the genome, in the order the conditions
+    // were given, mapped to the offsets in the genome where each occurrence starts (in increasing order).
+    // A condition with an empty sequence occurs at offset 0.
+    public Map<Condition, List<Integer>> findAll(CharSequence genome) {
+        List<List<Integer>> hits = new ArrayList<>();
+        for (Condition c : conditions) {
+            List<Integer> conditionHits = new ArrayList<>();
+            if (c.getSequence().isEmpty()) {
+                conditionHits.add(0);
+            }
+            hits.add(conditionHits);
+        }
+
+        int state = 0;
+        for (int i = 0; i < genome.length(); i++) {
+            state = step(state, genome.charAt(i));
+            scanOutputs(state, i, hits);
+        }
+
+        Map<Condition, List<Integer>> positives = new LinkedHashMap<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            if (!hits.get(i).isEmpty()) {
+                positives.put(conditions.get(i), hits.get(i));
+            }
+        }
+
+        return positives;
+    }
+
+    // EFFECTS: Returns the conditions this matcher was compiled from
+    public List<Condition> getConditions() {
+        return conditions;
+    }
+
+    // MODIFIES: hits
+    // EFFECTS: Records a hit for every condition whose sequence ends at index end of the genome
+    private void scanOutputs(int state, int end, List<List<Integer>> hits) {
+        for (int condition : outputs[state]) {
+            hits.get(condition).add(end - conditions.get(condition).getSequence().length() + 1);
+        }
+    }
+
+    // EFFECTS: Returns the state reached from state after reading c
+    private int step(int state, char c) {
+        int symbol = symbolOf(c);
+        if (symbol < 0) {
+            return 0;
+        }
+        return transitions[state][symbol];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Builds the trie of all condition sequences, where the outputs of a state are the
+    // conditions whose sequence ends there
+    private void buildTrie() {
+        int maxStates = 1;
+        for (Condition c : conditions) {
+            maxStates += c.getSequence().length();
+        }
+        transitions = new int[maxStates][alphabetSize];
+        outputs = new int[maxStates][0];
+        states = 1;
+
+        for (int i = 0; i < conditions.size(); i++) {
+            String seq = conditions.get(i).getSequence();
+            if (seq.isEmpty()) {
+                continue;
+            }
+
+            int state = 0;
+            for (int j = 0; j < seq.length(); j++) {
+                int symbol = symbolOf(seq.charAt(j));
+                if (transitions[state][symbol] == 0) {
+                    transitions[state][symbol] = states++;
+                }
+                state = transitions[state][symbol];
+            }
+            outputs[state] = append(outputs[state], i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Computes the failure link of every state in breadth-first order, completes the transitions
+    // into a full automaton and merges the outputs of each state's failure state into its own outputs
+    private void buildFailureLinks() {
+        failures = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            if (transitions[0][symbol] != 0) {
+                queue.add(transitions[0][symbol]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            outputs[state] = merge(outputs[state], outputs[failures[state]]);
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = transitions[state][symbol];
+                if (next != 0) {
+                    failures[next] = transitions[failures[state]][symbol];
+                    queue.add(next);
+                } else {
+                    transitions[state][symbol] = transitions[failures[state]][symbol];
+                }
+            }
+        }
+    }
+
+    // EFFECTS: Returns the index of c in the alphabet, or -1 if no condition sequence contains c
+    private int symbolOf(char c) {
+        return c < alphabet.length ? alphabet[c] : -1;
+    }
+
+    // EFFECTS: Returns a table from each char to its index in the alphabet of the condition sequences,
+    // where chars that do not appear in any sequence map to -1
+    private static int[] buildAlphabet(List<Condition> conditions) {
+        int maxChar = 0;
+        for (Condition c : conditions) {
+            for (char base : c.getSequence().toCharArray()) {
+                maxChar = Math.max(maxChar, base);
+            }
+        }
+
+        int[] table = new int[maxChar + 1];
+        Arrays.fill(table, -1);
+        int symbols = 0;
+        for (Condition c : conditions) {
+            for (char base : c.getSequence().toCharArray()) {
+                if (table[base] < 0) {
+                    table[base] = symbols++;
+                }
+            }
+        }
+
+        return table;
+    }
+
+    // EFFECTS: Returns the array with value appended
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    // EFFECTS: Returns the values of both arrays in one array
+    private static int[] merge(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
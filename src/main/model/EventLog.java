@@ -25,7 +25,7 @@ public class EventLog implements Iterable<Event> {
 
     // EFFECTS: Returns the instance of EventLog and creates one
     // if it doesn't exist.
-    public static EventLog getInstance() {
+    public static synchronized EventLog getInstance() {
         if (theLog == null) {
             theLog = new EventLog();
         }
@@ -35,13 +35,13 @@ public class EventLog implements Iterable<Event> {
 
     // MODIFIES: this
     // EFFECTS: Adds the event to the list
-    public void logEvent(Event e) {
+    public synchronized void logEvent(Event e) {
         events.add(e);
     }
 
     // MODIFIES: this
     // EFFECTS: Clears the events in the list and logs this event
-    public void clear() {
+    public synchronized void clear() {
         events.clear();
         logEvent(new Event("Event log cleared."));
     }
@@ -0,0 +1,115 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+// A memory-mapped FASTA file with its .fai index (see FastaIndex), giving random access to its records.
+// A record, or a region of one, is read straight from the mapped file without reading anything before it,
+// so an aligner can fetch just the chromosome or region it needs.
+public class FastaFile {
+    private final ByteBuffer buffer;
+    private final FastaIndex index;
+
+    // EFFECTS: Constructs a FASTA file mapped in buffer with the given index
+    private FastaFile(ByteBuffer buffer, FastaIndex index) {
+        this.buffer = buffer;
+        this.index = index;
+    }
+
+    // EFFECTS: Memory-maps the FASTA file and loads its index, generating the .fai file if it is missing or
+    // out of date. Throws IOException if the file can't be read or is malformed.
+    public static FastaFile open(Path fastaFile) throws IOException {
+        FastaIndex index = FastaIndex.forFastaFile(fastaFile);
+        return new FastaFile(MappedGenome.map(fastaFile), index);
+    }
+
+    // EFFECTS: Returns the FASTA file held in buffer, indexed without writing a .fai file,
+    // throws IOException if it is malformed
+    static FastaFile read(ByteBuffer buffer) throws IOException {
+        return new FastaFile(buffer, FastaIndex.build(buffer));
+    }
+
+    // EFFECTS: Returns the names of the records, in the order they appear in the file
+    public List<String> getRecordNames() {
+        return index.getNames();
+    }
+
+    // EFFECTS: Returns true if the file has a record with the given name
+    public boolean hasRecord(String name) {
+        return index.contains(name);
+    }
+
+    // REQUIRES: hasRecord(name)
+    // EFFECTS: Returns a read-only view of the bases of the record, without copying them
+    public CharSequence getRecord(String name) {
+        return index.view(buffer, name);
+    }
+
+    // REQUIRES: hasRecord(name) and 0 <= start <= end <= the length of the record
+    // EFFECTS: Returns the bases in [start, end) of the record. Only that region of the file is read.
+    public String fetch(String name, int start, int end) {
+        return index.view(buffer, name).subSequence(start, end);
+    }
+
+    // EFFECTS: Returns a read-only view of the bases of every record, one after the other in file order
+    public CharSequence getSequence() {
+        List<String> names = index.getNames();
+        MappedGenome[] records = new MappedGenome[names.size()];
+        int[] starts = new int[names.size()];
+        int length = 0;
+        for (int k = 0; k < records.length; k++) {
+            records[k] = index.view(buffer, names.get(k));
+            starts[k] = length;
+            length += records[k].length();
+        }
+
+        return new Records(records, starts, length);
+    }
+
+    // The bases of several records read as one sequence
+    private static class Records implements CharSequence {
+        private final MappedGenome[] records;
+        private final int[] starts;
+        private final int length;
+
+        Records(MappedGenome[] records, int[] starts, int length) {
+            this.records = records;
+            this.starts = starts;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            int k = Arrays.binarySearch(starts, index);
+            k = k < 0 ? -k - 2 : k;
+            while (records[k].length() == 0 || index - starts[k] >= records[k].length()) {
+                k++;
+            }
+
+            return records[k].charAt(index - starts[k]);
+        }
+
+        @Override
+        public String subSequence(int start, int end) {
+            char[] bases = new char[end - start];
+            for (int i = start; i < end; i++) {
+                bases[i - start] = charAt(i);
+            }
+
+            return new String(bases);
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length);
+        }
+    }
+}
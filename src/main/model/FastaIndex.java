@@ -0,0 +1,239 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Index of the records of a FASTA file, in the samtools .fai format: one line per record with its name, its
+// number of bases, the offset in the file of its first base, the number of bases per line and the number of
+// bytes per line (with the line break), separated by tabs. With it, any base of any record can be found in
+// the file without reading the records before it.
+public class FastaIndex {
+    public static final String INDEX_EXTENSION = ".fai";
+
+    private final Map<String, Record> records = new LinkedHashMap<>();
+
+    // EFFECTS: Constructs an index with no records
+    private FastaIndex() {
+    }
+
+    // EFFECTS: Returns the index of the FASTA file, read from the .fai file next to it. The .fai file is
+    // generated first if it is missing or doesn't match the FASTA file (see matches), whatever its age, so a
+    // FASTA file replaced by an older one is indexed again.
+    // Throws IOException if either file can't be read or written, or the FASTA file is malformed.
+    public static FastaIndex forFastaFile(Path fastaFile) throws IOException {
+        Path indexFile = indexFileFor(fastaFile);
+        ByteBuffer buffer = MappedGenome.map(fastaFile);
+        if (Files.exists(indexFile)) {
+            FastaIndex index = read(indexFile);
+            if (index.matches(buffer)) {
+                return index;
+            }
+        }
+
+        FastaIndex index = build(buffer);
+        index.write(indexFile);
+        return index;
+    }
+
+    // EFFECTS: Returns the path of the index file of the FASTA file (the FASTA file name followed by .fai)
+    public static Path indexFileFor(Path fastaFile) {
+        return fastaFile.resolveSibling(fastaFile.getFileName() + INDEX_EXTENSION);
+    }
+
+    // EFFECTS: Returns the index stored in indexFile, throws IOException if it can't be read or is malformed
+    public static FastaIndex read(Path indexFile) throws IOException {
+        FastaIndex index = new FastaIndex();
+        for (String line : Files.readAllLines(indexFile, StandardCharsets.ISO_8859_1)) {
+            String[] fields = line.split("\t");
+            if (fields.length < 5) {
+                throw new IOException("Malformed FASTA index line: " + line);
+            }
+            try {
+                index.add(new Record(fields[0], Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4])));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed FASTA index line: " + line, e);
+            }
+        }
+
+        return index;
+    }
+
+    // EFFECTS: Returns the index of the FASTA file mapped in buffer, throws IOException if it is not a FASTA file
+    // or a record has lines of different widths (other than its last line)
+    public static FastaIndex build(ByteBuffer buffer) throws IOException {
+        FastaIndex index = new FastaIndex();
+        int position = 0;
+        while (position < buffer.limit()) {
+            if (buffer.get(position) != '>') {
+                throw new IOException("Expected a FASTA header at byte " + position);
+            }
+            int headerEnd = lineEnd(buffer, position);
+            position = index.addRecord(buffer, nameOf(buffer, position, headerEnd),
+                    Math.min(headerEnd + 1, buffer.limit()));
+        }
+
+        return index;
+    }
+
+    // EFFECTS: Returns true if the records of this index are those of the FASTA file mapped in buffer: they
+    // follow each other from the start of the file to its end, each after a header with its name and with as
+    // many bases, in lines as wide, as indexed. Only the headers and the line breaks ending the first and last
+    // line of each record are read, so this takes time proportional to the number of records.
+    public boolean matches(ByteBuffer buffer) {
+        int position = 0;
+        for (Record r : records.values()) {
+            if (position >= buffer.limit() || buffer.get(position) != '>') {
+                return false;
+            }
+            int headerEnd = lineEnd(buffer, position);
+            if (!r.name.equals(nameOf(buffer, position, headerEnd))
+                    || r.offset != Math.min(headerEnd + 1, buffer.limit())) {
+                return false;
+            }
+            position = r.endIn(buffer);
+            if (position < 0) {
+                return false;
+            }
+        }
+
+        return position == buffer.limit();
+    }
+
+    // EFFECTS: Writes the index to indexFile, throws IOException if it can't be written
+    public void write(Path indexFile) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Record r : records.values()) {
+            lines.add(r.name + "\t" + r.length + "\t" + r.offset + "\t" + r.lineBases + "\t" + r.lineWidth);
+        }
+
+        Files.write(indexFile, lines, StandardCharsets.ISO_8859_1);
+    }
+
+    // EFFECTS: Returns the names of the records, in the order they appear in the FASTA file
+    public List<String> getNames() {
+        return Collections.unmodifiableList(new ArrayList<>(records.keySet()));
+    }
+
+    // EFFECTS: Returns true if the FASTA file has a record with the given name
+    public boolean contains(String name) {
+        return records.containsKey(name);
+    }
+
+    // REQUIRES: contains(name)
+    // EFFECTS: Returns the number of bases in the record
+    public int getLength(String name) {
+        return records.get(name).length;
+    }
+
+    // REQUIRES: contains(name)
+    // EFFECTS: Returns a view of the bases of the record in the FASTA file mapped in buffer
+    MappedGenome view(ByteBuffer buffer, String name) {
+        Record r = records.get(name);
+        return MappedGenome.region(buffer, r.offset, r.length, r.lineBases, r.lineWidth);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Indexes the sequence lines of the record starting at start in the file and returns the position
+    // of the next header (or the end of the file)
+    private int addRecord(ByteBuffer buffer, String name, int start) throws IOException {
+        int position = start;
+        int length = 0;
+        int lineBases = -1;
+        int lineWidth = 0;
+        boolean ended = false;
+        while (position < buffer.limit() && buffer.get(position) != '>') {
+            int end = lineEnd(buffer, position);
+            int bases = end - position - (end > position && buffer.get(end - 1) == '\r' ? 1 : 0);
+            if (lineBases < 0) {
+                lineBases = bases;
+                lineWidth = end + 1 - position;
+            } else if (ended || bases > lineBases) {
+                throw new IOException("Different line length in FASTA record " + name);
+            }
+            ended = bases < lineBases;
+            length += bases;
+            position = Math.min(end + 1, buffer.limit());
+        }
+
+        add(new Record(name, length, start, Math.max(lineBases, 0), Math.max(lineWidth, 1)));
+        return position;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Adds the record to the index
+    private void add(Record record) {
+        records.put(record.name, record);
+    }
+
+    // EFFECTS: Returns the position of the line break ending the line that starts at start, or the end of the
+    // buffer if the line has none
+    private static int lineEnd(ByteBuffer buffer, int start) {
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != '\n') {
+            end++;
+        }
+
+        return end;
+    }
+
+    // EFFECTS: Returns the name of the record whose header line is [start, end) in buffer: the first word after
+    // the >
+    private static String nameOf(ByteBuffer buffer, int start, int end) {
+        return new String(bytes(buffer, start + 1, end), StandardCharsets.ISO_8859_1).trim().split("\\s+")[0];
+    }
+
+    // EFFECTS: Returns a copy of the bytes of buffer in [start, end)
+    private static byte[] bytes(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            bytes[i - start] = buffer.get(i);
+        }
+
+        return bytes;
+    }
+
+    // One record of a FASTA file, as stored in a line of the .fai file
+    private static class Record {
+        private final String name;
+        private final int length;
+        private final int offset;
+        private final int lineBases;
+        private final int lineWidth;
+
+        Record(String name, int length, int offset, int lineBases, int lineWidth) {
+            this.name = name;
+            this.length = length;
+            this.offset = offset;
+            this.lineBases = lineBases;
+            this.lineWidth = lineWidth;
+        }
+
+        // EFFECTS: Returns the position just after the lines of this record in the FASTA file mapped in buffer
+        // (the end of the file if its last line has no line break), or -1 if its first or last line doesn't
+        // end where a line break is expected
+        int endIn(ByteBuffer buffer) {
+            if (lineBases <= 0) {
+                return length == 0 ? offset : -1;
+            }
+            int breakWidth = lineWidth - lineBases;
+            int rest = length % lineBases;
+            long end = offset + (long) (length / lineBases) * lineWidth + (rest > 0 ? rest + breakWidth : 0);
+            long firstBreak = offset + (long) lineWidth - 1;
+            if (length > lineBases && (firstBreak >= buffer.limit() || buffer.get((int) firstBreak) != '\n')) {
+                return -1;
+            } else if (end <= buffer.limit() && buffer.get((int) end - 1) == '\n') {
+                return (int) end;
+            }
+            return end - breakWidth == buffer.limit() ? buffer.limit() : -1;
+        }
+    }
+}
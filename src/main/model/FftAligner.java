@@ -0,0 +1,170 @@
+package model;
+
+// Aligner that computes the similarity score of every window of the reference at once using FFT
+// cross-correlation, which is much faster than the sliding window for long target sequences.
+// Each pair of nucleotides is encoded into one complex signal (A and G as the real part, C and T as the
+// imaginary part) so the real part of the correlation counts the matches of both nucleotides in the pair.
+// The reference is processed in overlapping blocks (overlap-save) so memory stays proportional to the
+// target length rather than the genome length.
+// Produces exactly the same score and offset as the char by char scan of NaiveAligner.
+public class FftAligner implements AlignmentEngine {
+    private static final int MIN_BLOCK_SIZE = 1024;
+
+    private double[] cos;
+    private double[] sin;
+
+    // EFFECTS: Returns the name used to select this engine
+    @Override
+    public String getName() {
+        return "fft";
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // EFFECTS: Returns the alignment with the highest similarity score between targetSeq and any
+    // window of refSeq. If multiple windows have the same highest score, the first one is returned.
+    // Sequences with characters other than A, C, G, T are aligned with PackedAligner instead.
+    @Override
+    public Alignment align(String targetSeq, String refSeq) {
+        if (targetSeq.isEmpty() || !PackedAligner.isPackable(targetSeq) || !PackedAligner.isPackable(refSeq)) {
+            return new PackedAligner().align(targetSeq, refSeq);
+        }
+
+        int blockSize = Math.max(MIN_BLOCK_SIZE, Integer.highestOneBit(targetSeq.length()) << 2);
+        initTwiddles(blockSize);
+        double[][] targetAc = transformedTarget(targetSeq, 'A', 'C', blockSize);
+        double[][] targetGt = transformedTarget(targetSeq, 'G', 'T', blockSize);
+
+        int step = blockSize - targetSeq.length() + 1;
+        int lastOffset = refSeq.length() - targetSeq.length();
+        int highestScore = 0;
+        int bestOffset = 0;
+
+        for (int start = 0; start <= lastOffset; start += step) {
+            double[] scores = correlateBlock(refSeq, start, targetAc, targetGt);
+            int count = Math.min(step, lastOffset - start + 1);
+
+            for (int i = 0; i < count; i++) {
+                int score = (int) Math.round(scores[i] / blockSize);
+                if (score > highestScore) {
+                    highestScore = score;
+                    bestOffset = start + i;
+                }
+            }
+        }
+
+        return new Alignment(highestScore, bestOffset);
+    }
+
+    // EFFECTS: Returns the (unnormalized) number of matches between the target and every window
+    // that starts in the block of refSeq beginning at start
+    private double[] correlateBlock(String refSeq, int start, double[][] targetAc, double[][] targetGt) {
+        int blockSize = cos.length * 2;
+        double[][] ac = encode(refSeq, start, 'A', 'C', blockSize);
+        double[][] gt = encode(refSeq, start, 'G', 'T', blockSize);
+        transform(ac[0], ac[1], false);
+        transform(gt[0], gt[1], false);
+
+        for (int i = 0; i < blockSize; i++) {
+            double re = ac[0][i] * targetAc[0][i] + ac[1][i] * targetAc[1][i]
+                    + gt[0][i] * targetGt[0][i] + gt[1][i] * targetGt[1][i];
+            double im = ac[1][i] * targetAc[0][i] - ac[0][i] * targetAc[1][i]
+                    + gt[1][i] * targetGt[0][i] - gt[0][i] * targetGt[1][i];
+            ac[0][i] = re;
+            ac[1][i] = im;
+        }
+
+        transform(ac[0], ac[1], true);
+        return ac[0];
+    }
+
+    // EFFECTS: Returns the forward transform of the target encoded with the given pair of nucleotides
+    private double[][] transformedTarget(String targetSeq, char realBase, char imagBase, int blockSize) {
+        double[][] signal = encode(targetSeq, 0, realBase, imagBase, blockSize);
+        transform(signal[0], signal[1], false);
+        return signal;
+    }
+
+    // EFFECTS: Returns {real, imaginary} parts of a signal of the given size made from seq starting at
+    // start, where realBase sets the real part to 1 and imagBase sets the imaginary part to 1.
+    // Positions past the end of seq are 0.
+    private static double[][] encode(String seq, int start, char realBase, char imagBase, int size) {
+        double[] re = new double[size];
+        double[] im = new double[size];
+        int end = Math.min(seq.length(), start + size);
+
+        for (int i = start; i < end; i++) {
+            char base = seq.charAt(i);
+            if (base == realBase) {
+                re[i - start] = 1;
+            } else if (base == imagBase) {
+                im[i - start] = 1;
+            }
+        }
+
+        return new double[][] {re, im};
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Precomputes the twiddle factors for transforms of the given size
+    private void initTwiddles(int size) {
+        cos = new double[size / 2];
+        sin = new double[size / 2];
+
+        for (int i = 0; i < size / 2; i++) {
+            double angle = -2 * Math.PI * i / size;
+            cos[i] = Math.cos(angle);
+            sin[i] = Math.sin(angle);
+        }
+    }
+
+    // REQUIRES: re.length == im.length == 2 * cos.length, and that length is a power of 2
+    // MODIFIES: re, im
+    // EFFECTS: Replaces the signal with its discrete Fourier transform (iterative radix-2 Cooley-Tukey).
+    // The inverse transform is not divided by the size of the signal.
+    private void transform(double[] re, double[] im, boolean inverse) {
+        int size = re.length;
+        bitReverse(re, im);
+
+        for (int len = 2; len <= size; len <<= 1) {
+            int half = len >> 1;
+            int stride = size / len;
+            for (int i = 0; i < size; i += len) {
+                for (int j = 0; j < half; j++) {
+                    double wr = cos[j * stride];
+                    double wi = inverse ? -sin[j * stride] : sin[j * stride];
+                    int a = i + j;
+                    int b = a + half;
+                    double tr = re[b] * wr - im[b] * wi;
+                    double ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+
+    // MODIFIES: re, im
+    // EFFECTS: Reorders the signal into bit-reversed index order
+    private static void bitReverse(double[] re, double[] im) {
+        int size = re.length;
+
+        for (int i = 1, j = 0; i < size; i++) {
+            int bit = size >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+
+            if (i < j) {
+                double tmp = re[i];
+                re[i] = re[j];
+                re[j] = tmp;
+                tmp = im[i];
+                im[i] = im[j];
+                im[j] = tmp;
+            }
+        }
+    }
+}
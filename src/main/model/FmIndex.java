@@ -0,0 +1,394 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+// FM-index of a genome: the Burrows-Wheeler transform of the genome with occurrence checkpoints and a
+// sampled suffix array. Counting the occurrences of a sequence takes time proportional to the length of
+// the sequence, not the genome, and each occurrence is then located with a short walk to a sampled row.
+// The index is stored in one flat buffer that is written next to the genome file and memory-mapped when it
+// is loaded again, so a persisted index is never copied onto the heap.
+// Symbols: 0 = end of genome ($), 1-4 = A, C, G, T, 5 = any other character (never matched by a query).
+public class FmIndex {
+    public static final String INDEX_EXTENSION = ".fmi";
+
+    private static final int MAGIC = 0x464D4958;
+    private static final int VERSION = 1;
+    private static final int SYMBOLS = 6;
+    private static final int OCC_RATE = 64;
+    private static final int SA_RATE = 32;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + SYMBOLS * 4;
+
+    private final ByteBuffer buffer;
+    private final int length;
+    private final int[] counts;
+    private final int occStart;
+    private final int samplesStart;
+
+    // EFFECTS: Wraps a buffer that holds an index in the layout written by build
+    private FmIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.length = buffer.getInt(24);
+        this.counts = new int[SYMBOLS];
+        for (int s = 0; s < SYMBOLS; s++) {
+            counts[s] = buffer.getInt(28 + s * 4);
+        }
+        this.occStart = align(HEADER_SIZE + length);
+        this.samplesStart = occStart + (length / OCC_RATE + 1) * SYMBOLS * 4;
+    }
+
+    // EFFECTS: Builds the index of the genome in memory. sourceLength and sourceModified describe the file
+    // the genome was read from, so a persisted index can tell whether that file has changed since.
+    public static FmIndex build(CharSequence genome, long sourceLength, long sourceModified) {
+        byte[] text = toSymbols(genome);
+        int[] suffixArray = buildSuffixArray(text);
+        int n = text.length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(align(HEADER_SIZE + n) + (n / OCC_RATE + 1) * SYMBOLS * 4
+                + ((n - 1) / SA_RATE + 1) * 4);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(sourceLength).putLong(sourceModified).putInt(n);
+        int[] symbolCounts = new int[SYMBOLS];
+        for (byte symbol : text) {
+            symbolCounts[symbol]++;
+        }
+        int smaller = 0;
+        for (int count : symbolCounts) {
+            buffer.putInt(smaller);
+            smaller += count;
+        }
+
+        writeTransform(buffer, text, suffixArray);
+        for (int row = 0; row < n; row += SA_RATE) {
+            buffer.putInt(suffixArray[row]);
+        }
+        return new FmIndex(buffer);
+    }
+
+    // EFFECTS: Returns the index of the genome file, memory-mapped from the index file next to it.
+    // The index file is built and written first if it doesn't exist or if the genome file has changed since
+    // the index was built. Throws IOException if the genome or index file can't be read or written.
+    public static FmIndex forGenomeFile(Path genomeFile) throws IOException {
+        return forSource(new GenomeSource(genomeFile));
+    }
+
+    // EFFECTS: Same as forGenomeFile, but indexes only the bases of the source (e.g. a single chromosome
+    // record of a FASTA genome file), in the index file of the source
+    public static FmIndex forSource(GenomeSource source) throws IOException {
+        Path indexFile = source.getIndexFile();
+        File genome = source.getFile().toFile();
+
+        if (Files.exists(indexFile)) {
+            FmIndex index = load(indexFile);
+            if (index.isBuiltFrom(genome.length(), genome.lastModified())) {
+                return index;
+            }
+        }
+
+        build(source.open(), genome.length(), genome.lastModified()).write(indexFile);
+        return load(indexFile);
+    }
+
+    // EFFECTS: Returns the path of the index file of the genome file (the genome file name with .fmi
+    // instead of its extension)
+    public static Path indexFileFor(Path genomeFile) {
+        String name = genomeFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot < 0 ? name : name.substring(0, dot);
+        return genomeFile.resolveSibling(base + INDEX_EXTENSION);
+    }
+
+    // EFFECTS: Memory-maps the index stored in indexFile,
+    // throws IOException if it can't be read or is not an index file
+    public static FmIndex load(Path indexFile) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(indexFile.toFile(), "r")) {
+            ByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a genome index file: " + indexFile);
+            }
+            return new FmIndex(buffer);
+        }
+    }
+
+    // EFFECTS: Writes the index to indexFile, throws IOException if it can't be written.
+    // The index is written to a temporary file next to indexFile and then moved over it, so an index that is
+    // memory-mapped from indexFile is never truncated under its reader, and a write that is cut short never
+    // leaves a partial index behind.
+    public void write(Path indexFile) throws IOException {
+        ByteBuffer data = buffer.duplicate();
+        data.clear();
+        Path written = Files.createTempFile(indexFile.toAbsolutePath().getParent(),
+                indexFile.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(written, StandardOpenOption.WRITE)) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            Files.move(written, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(written);
+        }
+    }
+
+    // EFFECTS: Returns true if the index was built from a file with the given length and modification time
+    public boolean isBuiltFrom(long sourceLength, long sourceModified) {
+        return buffer.getLong(8) == sourceLength && buffer.getLong(16) == sourceModified;
+    }
+
+    // EFFECTS: Returns the length of the indexed genome
+    public int getGenomeLength() {
+        return length - 1;
+    }
+
+    // EFFECTS: Returns the number of times seq occurs in the genome
+    public int count(String seq) {
+        int[] range = searchExact(seq);
+        return range[1] - range[0];
+    }
+
+    // EFFECTS: Returns the offsets where seq occurs in the genome, in increasing order
+    public List<Integer> locate(String seq) {
+        int[] range = searchExact(seq);
+        List<Integer> offsets = new ArrayList<>();
+        for (int row = range[0]; row < range[1]; row++) {
+            offsets.add(locateRow(row));
+        }
+
+        Collections.sort(offsets);
+        return offsets;
+    }
+
+    // REQUIRES: maxMismatches >= 0
+    // EFFECTS: Returns the offsets where seq occurs in the genome with at most maxMismatches substituted
+    // bases, in increasing order
+    public List<Integer> locate(String seq, int maxMismatches) {
+        List<Integer> offsets = new ArrayList<>();
+        Deque<int[]> pending = new ArrayDeque<>();
+        pending.push(new int[] {seq.length(), 0, length, maxMismatches});
+
+        while (!pending.isEmpty()) {
+            int[] state = pending.pop();
+            if (state[0] == 0) {
+                for (int row = state[1]; row < state[2]; row++) {
+                    offsets.add(locateRow(row));
+                }
+            } else {
+                extend(seq, state, pending);
+            }
+        }
+
+        Collections.sort(offsets);
+        return offsets;
+    }
+
+    // MODIFIES: pending
+    // EFFECTS: Pushes every way of extending the search state {remaining chars, lo, hi, mismatches left}
+    // one base to the left that stays within the mismatch budget
+    private void extend(String seq, int[] state, Deque<int[]> pending) {
+        int expected = symbolOf(seq.charAt(state[0] - 1));
+        for (int s = 1; s <= 4; s++) {
+            int left = state[3] - (s == expected ? 0 : 1);
+            int lo = counts[s] + occurrences(s, state[1]);
+            int hi = counts[s] + occurrences(s, state[2]);
+            if (left >= 0 && lo < hi) {
+                pending.push(new int[] {state[0] - 1, lo, hi, left});
+            }
+        }
+    }
+
+    // EFFECTS: Returns the range {lo, hi} of rows whose suffixes start with seq (empty if lo == hi)
+    private int[] searchExact(String seq) {
+        int lo = 0;
+        int hi = length;
+        for (int i = seq.length() - 1; i >= 0 && lo < hi; i--) {
+            int s = symbolOf(seq.charAt(i));
+            if (s > 4) {
+                return new int[] {0, 0};
+            }
+            lo = counts[s] + occurrences(s, lo);
+            hi = counts[s] + occurrences(s, hi);
+        }
+
+        return new int[] {lo, Math.max(lo, hi)};
+    }
+
+    // EFFECTS: Returns the genome offset of the suffix in the given row, walking backwards through the
+    // genome until reaching a row whose suffix array entry is sampled
+    private int locateRow(int row) {
+        int steps = 0;
+        while (row % SA_RATE != 0) {
+            int s = buffer.get(HEADER_SIZE + row);
+            if (s == 0) {
+                return steps;
+            }
+            row = counts[s] + occurrences(s, row);
+            steps++;
+        }
+
+        return buffer.getInt(samplesStart + (row / SA_RATE) * 4) + steps;
+    }
+
+    // EFFECTS: Returns the number of times the symbol occurs in the first rows of the transform
+    private int occurrences(int symbol, int rows) {
+        int checkpoint = rows / OCC_RATE;
+        int result = buffer.getInt(occStart + (checkpoint * SYMBOLS + symbol) * 4);
+        for (int row = checkpoint * OCC_RATE; row < rows; row++) {
+            if (buffer.get(HEADER_SIZE + row) == symbol) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: Writes the Burrows-Wheeler transform of the text followed by the occurrence checkpoints,
+    // where checkpoint k holds the count of each symbol in the first k * OCC_RATE rows
+    private static void writeTransform(ByteBuffer buffer, byte[] text, int[] suffixArray) {
+        int n = text.length;
+        int[] running = new int[SYMBOLS];
+        ByteBuffer occ = buffer.duplicate();
+        occ.position(align(HEADER_SIZE + n));
+
+        for (int row = 0; row < n; row++) {
+            if (row % OCC_RATE == 0) {
+                for (int count : running) {
+                    occ.putInt(count);
+                }
+            }
+            byte symbol = text[(suffixArray[row] + n - 1) % n];
+            buffer.put(symbol);
+            running[symbol]++;
+        }
+        if (n % OCC_RATE == 0) {
+            for (int count : running) {
+                occ.putInt(count);
+            }
+        }
+        buffer.position(occ.position());
+    }
+
+    // REQUIRES: text ends with the end symbol, which occurs nowhere else
+    // EFFECTS: Returns the suffix array of text: the start positions of its suffixes in sorted order.
+    // Sorts the cyclic shifts of text by prefixes of doubling length with counting sorts, which gives the
+    // suffix order because the end symbol is unique and smallest. The four int[n] buffers are allocated once;
+    // each round sorts into order from shifted and writes the new classes into next, which then swaps with classes.
+    private static int[] buildSuffixArray(byte[] text) {
+        int n = text.length;
+        int[] order = new int[n];
+        int[] classes = new int[n];
+        int[] shifted = new int[n];
+        int[] next = new int[n];
+        int[] buckets = new int[Math.max(SYMBOLS, n)];
+        int classCount = sortBySymbol(text, order, classes, buckets);
+
+        for (int h = 1; h < n && classCount < n; h <<= 1) {
+            sortByDoubledPrefix(order, classes, shifted, buckets, h, classCount);
+            classCount = reclassify(order, classes, next, h);
+            int[] swap = classes;
+            classes = next;
+            next = swap;
+        }
+        return order;
+    }
+
+    // MODIFIES: order, classes, buckets
+    // EFFECTS: Sets order and classes to the sorted order and equivalence classes of the cyclic shifts of text
+    // by their first symbol, with a counting sort, and returns the class count
+    private static int sortBySymbol(byte[] text, int[] order, int[] classes, int[] buckets) {
+        int n = text.length;
+        for (byte symbol : text) {
+            buckets[symbol]++;
+        }
+        for (int s = 1; s < SYMBOLS; s++) {
+            buckets[s] += buckets[s - 1];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            order[--buckets[text[i]]] = i;
+        }
+
+        int classCount = 1;
+        for (int i = 1; i < n; i++) {
+            if (text[order[i]] != text[order[i - 1]]) {
+                classCount++;
+            }
+            classes[order[i]] = classCount - 1;
+        }
+        return classCount;
+    }
+
+    // REQUIRES: order and classes give the sorted order and equivalence classes of the cyclic shifts by
+    // their first h symbols; shifted has the length of order
+    // MODIFIES: order, shifted, buckets
+    // EFFECTS: Sorts order by the first 2h symbols of the shifts, using shifted as scratch space
+    private static void sortByDoubledPrefix(int[] order, int[] classes, int[] shifted, int[] buckets, int h,
+            int classCount) {
+        int n = order.length;
+        for (int i = 0; i < n; i++) {
+            shifted[i] = order[i] - h < 0 ? order[i] - h + n : order[i] - h;
+        }
+
+        Arrays.fill(buckets, 0, classCount, 0);
+        for (int start : shifted) {
+            buckets[classes[start]]++;
+        }
+        for (int c = 1; c < classCount; c++) {
+            buckets[c] += buckets[c - 1];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            order[--buckets[classes[shifted[i]]]] = shifted[i];
+        }
+    }
+
+    // REQUIRES: order is sorted by the first 2h symbols of the shifts, classes are the classes of the first
+    // h symbols; next has the length of order
+    // MODIFIES: next
+    // EFFECTS: Sets next to the classes of the first 2h symbols and returns the class count
+    private static int reclassify(int[] order, int[] classes, int[] next, int h) {
+        int n = order.length;
+        next[order[0]] = 0;
+        int count = 1;
+        for (int i = 1; i < n; i++) {
+            int cur = order[i];
+            int prev = order[i - 1];
+            if (classes[cur] != classes[prev] || classes[(cur + h) % n] != classes[(prev + h) % n]) {
+                count++;
+            }
+            next[cur] = count - 1;
+        }
+        return count;
+    }
+
+    // EFFECTS: Returns the genome as symbols, followed by the end symbol
+    private static byte[] toSymbols(CharSequence genome) {
+        byte[] text = new byte[genome.length() + 1];
+        for (int i = 0; i < genome.length(); i++) {
+            text[i] = (byte) symbolOf(genome.charAt(i));
+        }
+
+        return text;
+    }
+
+    // EFFECTS: Returns the symbol of the base
+    private static int symbolOf(char base) {
+        return PackedAligner.encode(base) < 0 ? 5 : PackedAligner.encode(base) + 1;
+    }
+
+    // EFFECTS: Returns offset rounded up to a multiple of 4
+    private static int align(int offset) {
+        return (offset + 3) & ~3;
+    }
+}
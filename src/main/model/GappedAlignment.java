@@ -0,0 +1,110 @@
+package model;
+
+// Represents the result of a gapped local alignment of a target sequence against a reference sequence:
+// the alignment score, the aligned regions of both sequences, and the edit operations that turn one region
+// into the other as a CIGAR string (M for an aligned base, I for a base only in the target, D for a base
+// only in the reference)
+public class GappedAlignment {
+    private final int score;
+    private final int targetStart;
+    private final int refStart;
+    private final String cigar;
+    private final String alignedTarget;
+    private final String alignedRef;
+
+    // REQUIRES: alignedTarget and alignedRef have the same length and only have dashes where cigar has a gap
+    // EFFECTS: Constructs a gapped alignment with the given score, where the aligned regions start at
+    // targetStart in the target and refStart in the reference. The aligned regions are given with a dash
+    // wherever the other sequence has a base that they don't have.
+    public GappedAlignment(int score, int targetStart, int refStart, String cigar, String alignedTarget,
+            String alignedRef) {
+        this.score = score;
+        this.targetStart = targetStart;
+        this.refStart = refStart;
+        this.cigar = cigar;
+        this.alignedTarget = alignedTarget;
+        this.alignedRef = alignedRef;
+    }
+
+    // REQUIRES: operations only has the chars M, I and D, and applying them from targetStart and refStart
+    // stays within target and ref
+    // EFFECTS: Returns the alignment with the given score that applies operations (one char per aligned
+    // column, M for an aligned base, I for a base only in the target and D for a base only in the reference)
+    // from targetStart in the target and refStart in the reference
+    static GappedAlignment fromOperations(int score, byte[] target, byte[] ref, int targetStart, int refStart,
+            String operations) {
+        StringBuilder alignedTarget = new StringBuilder();
+        StringBuilder alignedRef = new StringBuilder();
+        StringBuilder cigar = new StringBuilder();
+        int t = targetStart;
+        int r = refStart;
+        int run = 0;
+
+        for (int k = 0; k < operations.length(); k++) {
+            char operation = operations.charAt(k);
+            alignedTarget.append(operation == 'D' ? '-' : (char) (target[t++] & 0xFF));
+            alignedRef.append(operation == 'I' ? '-' : (char) (ref[r++] & 0xFF));
+            run++;
+            if (k + 1 == operations.length() || operations.charAt(k + 1) != operation) {
+                cigar.append(run).append(operation);
+                run = 0;
+            }
+        }
+
+        return new GappedAlignment(score, targetStart, refStart, cigar.toString(), alignedTarget.toString(),
+                alignedRef.toString());
+    }
+
+    // EFFECTS: Returns the score of the alignment, or 0 if nothing could be aligned
+    public int getScore() {
+        return this.score;
+    }
+
+    // EFFECTS: Returns the offset in the target sequence where the aligned region starts
+    public int getTargetStart() {
+        return this.targetStart;
+    }
+
+    // EFFECTS: Returns the offset in the target sequence just past the aligned region
+    public int getTargetEnd() {
+        return this.targetStart + countBases(alignedTarget);
+    }
+
+    // EFFECTS: Returns the offset in the reference sequence where the aligned region starts
+    public int getRefStart() {
+        return this.refStart;
+    }
+
+    // EFFECTS: Returns the offset in the reference sequence just past the aligned region
+    public int getRefEnd() {
+        return this.refStart + countBases(alignedRef);
+    }
+
+    // EFFECTS: Returns the CIGAR string of the alignment, e.g. 12M1D30M, or an empty string if
+    // nothing could be aligned
+    public String getCigar() {
+        return this.cigar;
+    }
+
+    // EFFECTS: Returns the aligned region of the target sequence with dashes for bases only in the reference
+    public String getAlignedTarget() {
+        return this.alignedTarget;
+    }
+
+    // EFFECTS: Returns the aligned region of the reference sequence with dashes for bases only in the target
+    public String getAlignedRef() {
+        return this.alignedRef;
+    }
+
+    // EFFECTS: Returns the number of characters in aligned that are not dashes
+    private static int countBases(String aligned) {
+        int bases = 0;
+        for (int i = 0; i < aligned.length(); i++) {
+            if (aligned.charAt(i) != '-') {
+                bases++;
+            }
+        }
+
+        return bases;
+    }
+}
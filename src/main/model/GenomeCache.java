@@ -0,0 +1,202 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Cache of genomes read from genome files (whole, or a single chromosome record of a FASTA file, see
+// GenomeSource), so a genome is only loaded the first time it is needed and the
+// genomes kept in memory stay within a byte budget. When the budget is exceeded, the least recently used
+// genomes are evicted; an evicted genome is read again from its file the next time it is needed.
+// A cached genome is only returned while its file has the same length and modification time as when it was
+// read, so a changed genome file is never served from the cache.
+// We use the Singleton Design Pattern, as for EventLog, so all patients share one budget. The budget is set
+// by the clinic.genome.cache.bytes system property (e.g. -Dclinic.genome.cache.bytes=268435456).
+public class GenomeCache {
+    public static final String BUDGET_PROPERTY = "clinic.genome.cache.bytes";
+    public static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+    private static GenomeCache theCache;
+
+    private final LinkedHashMap<GenomeSource, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxBytes;
+    private long sizeInBytes;
+    private long hits;
+    private long misses;
+
+    // REQUIRES: maxBytes >= 0
+    // EFFECTS: Constructs an empty cache that keeps at most maxBytes of genomes in memory
+    public GenomeCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // EFFECTS: Returns the instance of GenomeCache shared by all patients and creates one, with the budget
+    // from the clinic.genome.cache.bytes system property, if it doesn't exist
+    public static synchronized GenomeCache getInstance() {
+        if (theCache == null) {
+            theCache = new GenomeCache(Long.getLong(BUDGET_PROPERTY, DEFAULT_MAX_BYTES));
+        }
+
+        return theCache;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Returns the genome stored in genomeFile, reading it from the file if it isn't cached or the
+    // file has changed since it was cached. Returns an empty genome if the file can't be read.
+    public PackedGenome get(Path genomeFile) {
+        return get(new GenomeSource(genomeFile));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Same as get(genomeFile), but for any source, e.g. a single chromosome record of a FASTA file
+    public PackedGenome get(GenomeSource source) {
+        try {
+            return load(source);
+        } catch (IOException e) {
+            return PackedGenome.EMPTY;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Same as get, but throws IOException if the file can't be read.
+    // The file is read without holding the cache, so several genomes can be read at the same time.
+    public PackedGenome load(Path genomeFile) throws IOException {
+        return load(new GenomeSource(genomeFile));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Same as load(genomeFile), but for any source, e.g. a single chromosome record of a FASTA file
+    public PackedGenome load(GenomeSource source) throws IOException {
+        File file = source.getFile().toFile();
+        long length = file.length();
+        long modified = file.lastModified();
+
+        synchronized (this) {
+            Entry entry = entries.get(source);
+            if (entry != null && entry.length == length && entry.modified == modified) {
+                hits++;
+                return entry.genome;
+            }
+            misses++;
+        }
+
+        PackedGenome genome = new PackedGenome(source.open());
+        put(source, new Entry(genome, length, modified));
+        return genome;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Removes every genome read from genomeFile from the cache, including its single records
+    public synchronized void invalidate(Path genomeFile) {
+        Iterator<Map.Entry<GenomeSource, Entry>> cached = entries.entrySet().iterator();
+        while (cached.hasNext()) {
+            Map.Entry<GenomeSource, Entry> entry = cached.next();
+            if (entry.getKey().getFile().equals(genomeFile)) {
+                sizeInBytes -= entry.getValue().genome.getSizeInBytes();
+                cached.remove();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Removes every genome from the cache and resets its hit and miss counts
+    public synchronized void clear() {
+        entries.clear();
+        sizeInBytes = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    // EFFECTS: Returns true if the whole genome of genomeFile is cached
+    public boolean contains(Path genomeFile) {
+        return contains(new GenomeSource(genomeFile));
+    }
+
+    // EFFECTS: Returns true if the genome of the source is cached
+    public synchronized boolean contains(GenomeSource source) {
+        return entries.containsKey(source);
+    }
+
+    // EFFECTS: Returns the fraction of lookups that were served from the cache, or 0 if there were none
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    // EFFECTS: Returns the number of lookups served from the cache
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    // EFFECTS: Returns the number of lookups that had to read the genome file
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    // EFFECTS: Returns the number of cached genomes
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // EFFECTS: Returns the number of bytes taken by the cached genomes
+    public synchronized long getSizeInBytes() {
+        return this.sizeInBytes;
+    }
+
+    // EFFECTS: Returns the number of bytes of genomes the cache keeps in memory
+    public synchronized long getMaxBytes() {
+        return this.maxBytes;
+    }
+
+    // REQUIRES: maxBytes >= 0
+    // MODIFIES: this
+    // EFFECTS: Sets the number of bytes of genomes the cache keeps in memory, evicting the least recently
+    // used genomes until the cached genomes fit
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Caches the entry for the source, replacing any entry it had, and evicts the least recently
+    // used genomes until the cached genomes fit. A genome larger than the whole budget is not cached.
+    private synchronized void put(GenomeSource source, Entry entry) {
+        Entry replaced = entries.remove(source);
+        if (replaced != null) {
+            sizeInBytes -= replaced.genome.getSizeInBytes();
+        }
+        if (entry.genome.getSizeInBytes() > maxBytes) {
+            return;
+        }
+
+        entries.put(source, entry);
+        sizeInBytes += entry.genome.getSizeInBytes();
+        evict();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Evicts the least recently used genomes until the cached genomes fit in the budget
+    private void evict() {
+        Iterator<Map.Entry<GenomeSource, Entry>> eldest = entries.entrySet().iterator();
+        while (sizeInBytes > maxBytes && eldest.hasNext()) {
+            sizeInBytes -= eldest.next().getValue().genome.getSizeInBytes();
+            eldest.remove();
+        }
+    }
+
+    // A cached genome, with the length and modification time of its file when it was read
+    private static class Entry {
+        private final PackedGenome genome;
+        private final long length;
+        private final long modified;
+
+        Entry(PackedGenome genome, long length, long modified) {
+            this.genome = genome;
+            this.length = length;
+            this.modified = modified;
+        }
+    }
+}
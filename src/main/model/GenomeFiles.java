@@ -0,0 +1,152 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Finds and opens patients' genome files. A genome file is either plain text (the bases, in lines of any
+// width), FASTA (one or more records, each a >name header followed by its bases) or block-compressed
+// (see BlockCompressedGenome), and may be named PHN_genome.txt, PHN_genome.fa, PHN_genome.fasta or
+// PHN_genome.txt.gz. Whatever the format, it is opened as one read-only view of all its bases. A FASTA genome
+// file is also stored per chromosome: each chromosome is a record named after it (e.g. chr7), which can be
+// read and indexed on its own.
+// Genome files are in the genome directory, set by the clinic.genome.directory system property
+// (e.g. -Dclinic.genome.directory=/srv/genomes), which is ./data/genomes/ by default.
+public class GenomeFiles {
+    public static final String GENOME_DIRECTORY = "./data/genomes/";
+    public static final String DIRECTORY_PROPERTY = "clinic.genome.directory";
+    public static final List<String> EXTENSIONS =
+            Arrays.asList(".txt", ".fa", ".fasta", BlockCompressedGenome.EXTENSION);
+
+    // EFFECTS: Returns the genome directory, from the clinic.genome.directory system property, ending with a
+    // separator
+    public static String getDirectory() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY, GENOME_DIRECTORY);
+        return directory.endsWith("/") || directory.endsWith(File.separator) ? directory : directory + "/";
+    }
+
+    // EFFECTS: Returns the name of the genome file of the patient with the given PHN: the stored file
+    // PHN_genome.ref points to if the genome is in the GenomeStore, otherwise the first of PHN_genome.txt,
+    // PHN_genome.fa, PHN_genome.fasta and PHN_genome.txt.gz in the genome directory that exists, or
+    // PHN_genome.txt if none does
+    public static String find(String phn) {
+        String directory = getDirectory();
+        Path pointer = Paths.get(directory + phn + "_genome" + GenomeStore.POINTER_EXTENSION);
+        if (Files.isRegularFile(pointer)) {
+            try {
+                return GenomeStore.resolve(pointer).toString();
+            } catch (IOException e) {
+                return pointer.toString();
+            }
+        }
+        for (String extension : EXTENSIONS) {
+            String fileName = directory + phn + "_genome" + extension;
+            if (Files.isRegularFile(Paths.get(fileName))) {
+                return fileName;
+            }
+        }
+
+        return directory + phn + "_genome" + EXTENSIONS.get(0);
+    }
+
+    // EFFECTS: Returns the names a FASTA record of the chromosome with the given number may have, in the
+    // order they are looked for: chr7 and 7 for chromosome 7, and chrX, X, chrY and Y for chromosomes 23 and 24
+    public static List<String> chromosomeNames(int chromosome) {
+        List<String> names = new ArrayList<>(Arrays.asList("chr" + chromosome, Integer.toString(chromosome)));
+        if (chromosome == 23 || chromosome == 24) {
+            String sex = chromosome == 23 ? "X" : "Y";
+            names.addAll(Arrays.asList("chr" + sex, sex));
+        }
+
+        return names;
+    }
+
+    // EFFECTS: Returns the source of the chromosome with the given number in the genome file, if the genome
+    // file is a FASTA file with a record for it (see chromosomeNames); otherwise returns null.
+    // Only the .fai index of the FASTA file is read for this, and it is generated if needed.
+    public static GenomeSource findChromosome(Path genomeFile, int chromosome) {
+        try {
+            if (!Files.isRegularFile(genomeFile) || !isFasta(genomeFile)) {
+                return null;
+            }
+            FastaIndex index = FastaIndex.forFastaFile(genomeFile);
+            for (String name : chromosomeNames(chromosome)) {
+                if (index.contains(name)) {
+                    return new GenomeSource(genomeFile, name);
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        return null;
+    }
+
+    // EFFECTS: Returns the sources of the records of the genome file with at least minLength bases, in file
+    // order, if the genome file is a FASTA file with more than one record; otherwise returns null.
+    // Only the .fai index of the FASTA file is read for this, and it is generated if needed.
+    public static List<GenomeSource> findRecords(Path genomeFile, int minLength) {
+        try {
+            if (!Files.isRegularFile(genomeFile) || !isFasta(genomeFile)) {
+                return null;
+            }
+            FastaIndex index = FastaIndex.forFastaFile(genomeFile);
+            if (index.getNames().size() < 2) {
+                return null;
+            }
+            List<GenomeSource> records = new ArrayList<>();
+            for (String name : index.getNames()) {
+                if (index.getLength(name) >= minLength) {
+                    records.add(new GenomeSource(genomeFile, name));
+                }
+            }
+            return records;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: Returns true if the file is a FASTA file, i.e. starts with a > header,
+    // throws IOException if it can't be read
+    public static boolean isFasta(Path genomeFile) throws IOException {
+        try (InputStream in = Files.newInputStream(genomeFile)) {
+            return in.read() == '>';
+        }
+    }
+
+    // EFFECTS: Returns the number of bases in the genome file, or 0 if it doesn't exist. The bases are counted
+    // from the .fai index of a FASTA file or the .gzi index of a block-compressed file (generated if needed),
+    // or from the lines of a plain text file, so headers and line breaks don't count.
+    // Throws IOException if the file can't be read or is malformed (see open).
+    public static long countBases(Path genomeFile) throws IOException {
+        if (!Files.isRegularFile(genomeFile) || Files.size(genomeFile) == 0) {
+            return 0;
+        }
+
+        return open(genomeFile).length();
+    }
+
+    // EFFECTS: Returns a read-only view of all the bases in the genome file, memory-mapped rather than read.
+    // The records of a FASTA file follow each other in file order, and its .fai index is generated if needed;
+    // so is the .gzi index of a block-compressed file, whose blocks are decompressed as they are read.
+    // Throws IOException if the file can't be read or is a malformed FASTA or block-compressed file, or is
+    // a pointer file that couldn't be resolved.
+    public static CharSequence open(Path genomeFile) throws IOException {
+        if (GenomeStore.isPointer(genomeFile)) {
+            throw new IOException("Unreadable genome pointer: " + genomeFile);
+        }
+        if (BlockCompressedGenome.isBlockCompressed(genomeFile)) {
+            return BlockCompressedGenome.open(genomeFile);
+        }
+        if (isFasta(genomeFile)) {
+            return FastaFile.open(genomeFile).getSequence();
+        }
+        return MappedGenome.open(genomeFile);
+    }
+}
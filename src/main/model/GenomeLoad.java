@@ -0,0 +1,89 @@
+package model;
+
+import java.nio.file.Path;
+
+// The outcome of loading one patient's genome file with GenomeLoader: how many bases were loaded and how long
+// it took, why the file couldn't be read, or that it wasn't loaded ahead of time because the GenomeCache budget
+// was already taken by the genomes loaded before it
+public class GenomeLoad {
+    private final String phn;
+    private final Path genomeFile;
+    private final int bases;
+    private final long nanos;
+    private final String error;
+    private final boolean skipped;
+
+    // EFFECTS: Constructs the outcome of loading the genome file of the patient with the given PHN, which took
+    // nanos nanoseconds and either loaded the given number of bases (error is null) or failed with error
+    public GenomeLoad(String phn, Path genomeFile, int bases, long nanos, String error) {
+        this(phn, genomeFile, bases, nanos, error, false);
+    }
+
+    // EFFECTS: Constructs the outcome of loading the genome file as in GenomeLoad above, or of skipping it if
+    // skipped
+    private GenomeLoad(String phn, Path genomeFile, int bases, long nanos, String error, boolean skipped) {
+        this.phn = phn;
+        this.genomeFile = genomeFile;
+        this.bases = bases;
+        this.nanos = nanos;
+        this.error = error;
+        this.skipped = skipped;
+    }
+
+    // EFFECTS: Returns the outcome of not loading the genome file of the patient with the given PHN ahead of
+    // time because it doesn't fit in what is left of the GenomeCache budget; it is read when first needed
+    public static GenomeLoad skipped(String phn, Path genomeFile) {
+        return new GenomeLoad(phn, genomeFile, 0, 0, null, true);
+    }
+
+    // EFFECTS: Returns true if the genome was loaded
+    public boolean isLoaded() {
+        return error == null && !skipped;
+    }
+
+    // EFFECTS: Returns true if the genome wasn't loaded ahead of time because the GenomeCache budget was taken
+    public boolean isSkipped() {
+        return this.skipped;
+    }
+
+    // EFFECTS: Returns the PHN of the patient whose genome was loaded
+    public String getPHN() {
+        return this.phn;
+    }
+
+    // EFFECTS: Returns the genome file that was loaded
+    public Path getGenomeFile() {
+        return this.genomeFile;
+    }
+
+    // EFFECTS: Returns the number of bases loaded, or 0 if the genome couldn't be loaded or was skipped
+    public int getBases() {
+        return this.bases;
+    }
+
+    // EFFECTS: Returns how long loading the genome took, in nanoseconds
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    // EFFECTS: Returns how long loading the genome took, in milliseconds
+    public long getMillis() {
+        return this.nanos / 1_000_000;
+    }
+
+    // EFFECTS: Returns why the genome couldn't be loaded, or null if it was loaded
+    public String getError() {
+        return this.error;
+    }
+
+    // EFFECTS: Returns a one line summary of the load
+    @Override
+    public String toString() {
+        if (isLoaded()) {
+            return phn + ": loaded " + bases + " bases in " + getMillis() + " ms";
+        } else if (skipped) {
+            return phn + ": not loaded ahead (the genome cache is full)";
+        }
+        return phn + ": failed after " + getMillis() + " ms (" + error + ")";
+    }
+}
@@ -0,0 +1,171 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Loads the genome files of many patients into the GenomeCache at the same time, so the genomes are ready
+// before they are first diagnosed. Loading runs in the background on a pool of at most parallelism threads
+// (set by the clinic.genome.loader.threads system property), so the caller can carry on while genomes arrive,
+// and reports how long each file took or why it failed.
+// Only as many genomes are loaded as fit in the cache's budget together: a genome that would make the ones
+// loaded before it be evicted is skipped instead. A patient diagnosed before their genome has arrived, or whose
+// genome was skipped, simply reads it through the cache themselves.
+public class GenomeLoader {
+    public static final String PARALLELISM_PROPERTY = "clinic.genome.loader.threads";
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final int parallelism;
+    private final GenomeCache cache;
+
+    // EFFECTS: Constructs a loader into the shared GenomeCache with the parallelism from the
+    // clinic.genome.loader.threads system property
+    public GenomeLoader() {
+        this(Integer.getInteger(PARALLELISM_PROPERTY, DEFAULT_PARALLELISM), GenomeCache.getInstance());
+    }
+
+    // REQUIRES: parallelism > 0
+    // EFFECTS: Constructs a loader that reads at most parallelism genome files at a time into the cache
+    public GenomeLoader(int parallelism, GenomeCache cache) {
+        this.parallelism = parallelism;
+        this.cache = cache;
+    }
+
+    // MODIFIES: patients
+    // EFFECTS: Updates every patient's genome from their genome file (see Patient.readGenome), then starts
+    // loading the genome files in the background and returns right away. listener is told about each file
+    // as soon as it has loaded, failed or been skipped, from a loader thread; if the listener throws, the
+    // failure is logged to the EventLog and the loading carries on. Returns a future that completes with the
+    // outcome of every file once they have all loaded, in the order of the patients.
+    // Patients with a variant file (see VariantFile) are read in the background too, since the first of them
+    // reads and packs the clinic's whole ReferenceGenome; they keep their current genome until then.
+    public CompletableFuture<List<GenomeLoad>> loadAll(List<Patient> patients, Consumer<GenomeLoad> listener) {
+        List<Patient> withGenomes = withGenomes(patients);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, withGenomes.size())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "genome-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        List<CompletableFuture<GenomeLoad>> loads = new ArrayList<>();
+        AtomicLong reserved = new AtomicLong();
+        for (Patient p : withGenomes) {
+            Supplier<GenomeLoad> load = hasVariantFile(p) ? () -> loadVariants(p, reserved) : () -> load(p, reserved);
+            loads.add(CompletableFuture.supplyAsync(load, pool).thenApply(done -> notify(listener, done)));
+        }
+        pool.shutdown();
+
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0])).thenApply(done -> results(loads));
+    }
+
+    // EFFECTS: Returns the number of genome files loaded at a time
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    // MODIFIES: this, reserved
+    // EFFECTS: Loads the patient's genome file into the cache and returns how it went. reserved holds the bytes
+    // of the cache budget taken by the genomes of this loadAll so far: the genome is skipped if it doesn't fit
+    // in the rest of the budget, and otherwise adds its estimated size to reserved.
+    private GenomeLoad load(Patient patient, AtomicLong reserved) {
+        Path genomeFile = Paths.get(patient.getGenomeFileName());
+        long start = System.nanoTime();
+        try {
+            long size = estimateSizeInBytes(genomeFile);
+            if (reserved.addAndGet(size) > cache.getMaxBytes()) {
+                reserved.addAndGet(-size);
+                return GenomeLoad.skipped(patient.getPHN(), genomeFile);
+            }
+            int bases = cache.load(genomeFile).length();
+            return new GenomeLoad(patient.getPHN(), genomeFile, bases, System.nanoTime() - start, null);
+        } catch (IOException | RuntimeException e) {
+            return new GenomeLoad(patient.getPHN(), genomeFile, 0, System.nanoTime() - start, e.toString());
+        }
+    }
+
+    // EFFECTS: Returns an estimate of the bytes the genome file takes in the cache once packed: from its
+    // number of bases if it is block-compressed (read from its index), or else from its size, which is at least
+    // its number of bases. Throws IOException if the file can't be read.
+    private static long estimateSizeInBytes(Path genomeFile) throws IOException {
+        long bases = BlockCompressedGenome.isBlockCompressed(genomeFile) ? GenomeFiles.countBases(genomeFile)
+                : Files.size(genomeFile);
+        return PackedGenome.sizeInBytesFor(bases);
+    }
+
+    // EFFECTS: Tells listener about the load and returns it. If the listener throws, logs the failure to the
+    // EventLog instead of failing the load.
+    private static GenomeLoad notify(Consumer<GenomeLoad> listener, GenomeLoad load) {
+        try {
+            listener.accept(load);
+        } catch (RuntimeException e) {
+            EventLog.getInstance().logEvent(new Event("Failed to report the genome load of patient with PHN: "
+                    + load.getPHN() + " (" + e + ")"));
+        }
+
+        return load;
+    }
+
+    // MODIFIES: patients
+    // EFFECTS: Updates the genome of every patient without a variant file from their genome file, and returns
+    // the patients that have a variant file or a genome, in order
+    private static List<Patient> withGenomes(List<Patient> patients) {
+        List<Patient> withGenomes = new ArrayList<>();
+        for (Patient p : patients) {
+            boolean variants = hasVariantFile(p);
+            if (!variants) {
+                p.readGenome();
+            }
+            if (variants || !p.hasNoGenome()) {
+                withGenomes.add(p);
+            }
+        }
+
+        return withGenomes;
+    }
+
+    // MODIFIES: patient
+    // EFFECTS: Reads the patient's genome stored as variants from the clinic's reference genome, reading the
+    // reference first if no other patient has, and returns how it went. If the variants can't be read, the
+    // patient's genome file is loaded instead if they have one (see load); otherwise the load fails with why the
+    // variants couldn't be read (see Patient.getGenomeError).
+    private GenomeLoad loadVariants(Patient patient, AtomicLong reserved) {
+        Path variantFile = VariantFile.forPatient(patient.getPHN());
+        long start = System.nanoTime();
+        patient.readGenome();
+        VariantGenome variants = patient.getVariantGenome();
+        if (variants != null) {
+            return new GenomeLoad(patient.getPHN(), variantFile, variants.length(), System.nanoTime() - start, null);
+        } else if (!patient.hasNoGenome()) {
+            return load(patient, reserved);
+        }
+
+        String error = patient.getGenomeError();
+        return new GenomeLoad(patient.getPHN(), variantFile, 0, System.nanoTime() - start,
+                error != null ? error : "the variants or the reference genome couldn't be read");
+    }
+
+    // EFFECTS: Returns true if the patient's genome is stored as a variant file
+    private static boolean hasVariantFile(Patient patient) {
+        return Files.isRegularFile(VariantFile.forPatient(patient.getPHN()));
+    }
+
+    // REQUIRES: every load has completed
+    // EFFECTS: Returns the outcome of every load, in order
+    private static List<GenomeLoad> results(List<CompletableFuture<GenomeLoad>> loads) {
+        List<GenomeLoad> results = new ArrayList<>();
+        for (CompletableFuture<GenomeLoad> load : loads) {
+            results.add(load.join());
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,87 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+// Where a genome sequence is stored: either a whole genome file, or a single record (usually a chromosome) of
+// a FASTA genome file. Sources are used as keys of the GenomeCache and name the FM-index persisted for them.
+public class GenomeSource {
+    private final Path file;
+    private final String record;
+
+    // EFFECTS: Constructs the source of all the bases in the genome file
+    public GenomeSource(Path file) {
+        this(file, null);
+    }
+
+    // EFFECTS: Constructs the source of the record of the FASTA genome file with the given name, or of the
+    // whole file if record is null
+    public GenomeSource(Path file, String record) {
+        this.file = file;
+        this.record = record;
+    }
+
+    // EFFECTS: Returns a read-only view of the bases of this source, memory-mapped rather than read.
+    // Throws IOException if the file can't be read, is malformed, or has no record with this source's name.
+    public CharSequence open() throws IOException {
+        if (record == null) {
+            return GenomeFiles.open(file);
+        }
+
+        FastaFile fasta = FastaFile.open(file);
+        if (!fasta.hasRecord(record)) {
+            throw new IOException("No record " + record + " in " + file);
+        }
+        return fasta.getRecord(record);
+    }
+
+    // EFFECTS: Returns the file the FM-index of this source is persisted in: the genome file name with .fmi
+    // instead of its extension, with the record name before the .fmi for a single record
+    public Path getIndexFile() {
+        Path indexFile = FmIndex.indexFileFor(file);
+        if (record == null) {
+            return indexFile;
+        }
+
+        String name = indexFile.getFileName().toString();
+        return indexFile.resolveSibling(name.substring(0, name.length() - FmIndex.INDEX_EXTENSION.length())
+                + "." + record + FmIndex.INDEX_EXTENSION);
+    }
+
+    // EFFECTS: Returns the genome file
+    public Path getFile() {
+        return this.file;
+    }
+
+    // EFFECTS: Returns the name of the record, or null if this source is the whole file
+    public String getRecord() {
+        return this.record;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == null) {
+            return false;
+        }
+
+        if (other.getClass() != this.getClass()) {
+            return false;
+        }
+
+        GenomeSource otherSource = (GenomeSource) other;
+
+        return this.file.equals(otherSource.file) && Objects.equals(this.record, otherSource.record);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(file, record);
+    }
+
+    // EFFECTS: Returns the genome file, followed by the record name if this source is a single record
+    @Override
+    public String toString() {
+        return record == null ? file.toString() : file + "#" + record;
+    }
+}
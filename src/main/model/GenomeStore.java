@@ -0,0 +1,126 @@
+package model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+// Content-addressed store of genome sequences, in the store directory of a genome directory. Each sequence is
+// stored once, block-compressed (see BlockCompressedGenome), in a file named after the SHA-256 hash of its bases.
+// A patient whose genome is in the store has a pointer file PHN_genome.ref holding that hash in place of a
+// genome file, so relatives and re-sequenced patients with identical genomes share one stored file, along with
+// its indexes, its entry in the GenomeCache and their diagnosis results (see Clinic.diagnoseAll).
+public class GenomeStore {
+    public static final String STORE_DIRECTORY = "store";
+    public static final String POINTER_EXTENSION = ".ref";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    // EFFECTS: Returns the SHA-256 hash of the bases, in hexadecimal
+    public static String hash(CharSequence bases) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] chunk = new byte[1 << 16];
+        for (int start = 0; start < bases.length(); start += chunk.length) {
+            int end = Math.min(start + chunk.length, bases.length());
+            for (int i = start; i < end; i++) {
+                chunk[i - start] = (byte) bases.charAt(i);
+            }
+            digest.update(chunk, 0, end - start);
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    // EFFECTS: Returns the stored file of the sequence with the given hash in the store of genomeDirectory
+    public static Path getFile(Path genomeDirectory, String hash) {
+        return genomeDirectory.resolve(STORE_DIRECTORY).resolve(hash + BlockCompressedGenome.EXTENSION);
+    }
+
+    // MODIFIES: the store of genomeDirectory
+    // EFFECTS: Stores the bases in the store of genomeDirectory, unless an identical sequence already is, and
+    // returns their hash. Throws IOException if the stored file can't be written.
+    public static String put(Path genomeDirectory, CharSequence bases) throws IOException {
+        String hash = hash(bases);
+        Path file = getFile(genomeDirectory, hash);
+        if (!Files.isRegularFile(file)) {
+            Files.createDirectories(file.getParent());
+            Path written = file.resolveSibling(hash + ".tmp");
+            BlockCompressedGenome.compress(bases, written);
+            Files.move(written, file, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(BlockIndex.indexFileFor(written), BlockIndex.indexFileFor(file),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return hash;
+    }
+
+    // MODIFIES: genomeFile, the store of its directory
+    // EFFECTS: Moves the sequence of the genome file into the store of its directory (see put) and replaces the
+    // genome file, and its .gzi and .fmi indexes, with a pointer file holding its hash. Returns the pointer file.
+    // Throws IOException if the genome file is a FASTA file (which is kept as it is, to be read per chromosome),
+    // or if any of the files can't be read, written or deleted.
+    public static Path add(Path genomeFile) throws IOException {
+        if (GenomeFiles.isFasta(genomeFile)) {
+            throw new IOException("FASTA genome files are not added to the store: " + genomeFile);
+        }
+        String hash = put(genomeFile.getParent(), GenomeFiles.open(genomeFile));
+        Path pointer = pointerFileFor(genomeFile);
+        Files.write(pointer, hash.getBytes(StandardCharsets.US_ASCII));
+
+        Files.deleteIfExists(BlockIndex.indexFileFor(genomeFile));
+        Files.deleteIfExists(FmIndex.indexFileFor(genomeFile));
+        Files.delete(genomeFile);
+        return pointer;
+    }
+
+    // EFFECTS: Returns the pointer file that replaces the genome file once it is in the store: the genome file
+    // name without its extensions, followed by .ref
+    public static Path pointerFileFor(Path genomeFile) {
+        String name = genomeFile.getFileName().toString();
+        int dot = name.indexOf('.');
+        return genomeFile.resolveSibling((dot < 0 ? name : name.substring(0, dot)) + POINTER_EXTENSION);
+    }
+
+    // EFFECTS: Returns the stored file the pointer file points to, throws IOException if it can't be read or
+    // doesn't hold a hash
+    public static Path resolve(Path pointerFile) throws IOException {
+        String hash = new String(Files.readAllBytes(pointerFile), StandardCharsets.US_ASCII).trim();
+        if (!HASH.matcher(hash).matches()) {
+            throw new IOException("Malformed genome pointer: " + pointerFile);
+        }
+
+        return pointerFile.resolveSibling(STORE_DIRECTORY).resolve(hash + BlockCompressedGenome.EXTENSION);
+    }
+
+    // EFFECTS: Returns the hash of the sequence stored in the genome file, or null if it is not a stored file
+    public static String hashOf(Path genomeFile) {
+        String name = genomeFile.getFileName().toString();
+        Path directory = genomeFile.getParent();
+        if (directory == null || directory.getFileName() == null
+                || !directory.getFileName().toString().equals(STORE_DIRECTORY)
+                || !name.endsWith(BlockCompressedGenome.EXTENSION)) {
+            return null;
+        }
+
+        String hash = name.substring(0, name.length() - BlockCompressedGenome.EXTENSION.length());
+        return HASH.matcher(hash).matches() ? hash : null;
+    }
+
+    // EFFECTS: Returns true if the file is a pointer file
+    public static boolean isPointer(Path file) {
+        return file.getFileName().toString().endsWith(POINTER_EXTENSION);
+    }
+}
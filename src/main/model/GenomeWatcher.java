@@ -0,0 +1,164 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Watches the genome directory in the background and reloads the genome of a patient whenever one of their
+// genome files (PHN_genome.txt, .fa, .fasta, .txt.gz, .ref or .vcf) is created, changed or deleted, so the
+// clinic never has to re-read every genome to pick up a new one (see Clinic.reloadGenome).
+// Changes come in bursts (a file is created, then written in several steps, or replaced with a pointer when it
+// is moved into the GenomeStore), so they are coalesced: patients are only reloaded once no file has changed
+// for debounceMillis (set by the clinic.genome.watcher.debounce system property), and each patient is reloaded
+// once per burst. Index files written next to the genomes (.fmi, .fai, .gzi) are ignored.
+public class GenomeWatcher implements Closeable {
+    public static final String DEBOUNCE_PROPERTY = "clinic.genome.watcher.debounce";
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+    private static final String SUFFIX = "_genome";
+    private static final List<String> WATCHED_EXTENSIONS = new ArrayList<>(GenomeFiles.EXTENSIONS);
+
+    static {
+        WATCHED_EXTENSIONS.add(GenomeStore.POINTER_EXTENSION);
+        WATCHED_EXTENSIONS.add(VariantFile.EXTENSION);
+    }
+
+    private final Clinic clinic;
+    private final long debounceMillis;
+    private final Consumer<List<Patient>> listener;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    // EFFECTS: Constructs a watcher of the genome directory (see GenomeFiles.getDirectory) for the clinic's
+    // patients, with the debounce from the clinic.genome.watcher.debounce system property.
+    // Throws IOException if the directory can't be watched.
+    public GenomeWatcher(Clinic clinic, Consumer<List<Patient>> listener) throws IOException {
+        this(clinic, Long.getLong(DEBOUNCE_PROPERTY, DEFAULT_DEBOUNCE_MILLIS), listener);
+    }
+
+    // REQUIRES: debounceMillis > 0
+    // EFFECTS: Constructs a watcher of the genome directory for the clinic's patients that reloads them once no
+    // genome file has changed for debounceMillis. listener is told about the patients reloaded after each burst
+    // of changes, from the watcher thread. Throws IOException if the directory can't be watched.
+    public GenomeWatcher(Clinic clinic, long debounceMillis, Consumer<List<Patient>> listener) throws IOException {
+        this.clinic = clinic;
+        this.debounceMillis = debounceMillis;
+        this.listener = listener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Paths.get(GenomeFiles.getDirectory()).register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.thread = new Thread(this::watch, "genome-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Starts watching the genome directory in the background and returns right away
+    public void start() {
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Stops watching the genome directory, waiting for a reload in progress to finish
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // EFFECTS: Returns the PHN of the patient whose genome file has the given name, or null if it isn't a
+    // genome file
+    public static String phnOf(String fileName) {
+        int suffix = fileName.indexOf(SUFFIX + ".");
+        if (suffix <= 0 || !WATCHED_EXTENSIONS.contains(fileName.substring(suffix + SUFFIX.length()))) {
+            return null;
+        }
+
+        return fileName.substring(0, suffix);
+    }
+
+    // MODIFIES: this, the clinic's patients
+    // EFFECTS: Waits for genome files to change and reloads the patients they belong to after each burst of
+    // changes, until the watcher is closed. A burst that fails to reload is logged, and the watcher goes on.
+    private void watch() {
+        try {
+            while (true) {
+                Set<String> changed = new LinkedHashSet<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    collect(key, changed);
+                    key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                }
+                reloadReporting(changed);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher was closed
+        }
+    }
+
+    // MODIFIES: changed
+    // EFFECTS: Adds the PHNs of the patients whose genome files the key's events are about to changed, or the
+    // PHNs of every patient if events were lost, and readies the key for the next events. The clinic's list of
+    // patients is a snapshot (see PatientList), so patients can be added or removed meanwhile.
+    private void collect(WatchKey key, Set<String> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                for (Patient p : clinic.getPatients()) {
+                    changed.add(p.getPHN());
+                }
+            } else {
+                String phn = phnOf(((Path) event.context()).getFileName().toString());
+                if (phn != null) {
+                    changed.add(phn);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    // MODIFIES: the clinic's patients
+    // EFFECTS: Reloads the patients with a PHN in changed (see reload), and logs the failure if reloading them or
+    // telling the listener throws, so one failed burst doesn't stop the watcher
+    private void reloadReporting(Set<String> changed) {
+        try {
+            reload(changed);
+        } catch (RuntimeException e) {
+            EventLog.getInstance().logEvent(new Event("Couldn't reload the genomes of the patients with PHNs, "
+                    + String.join(", ", changed) + ": " + e));
+        }
+    }
+
+    // MODIFIES: the clinic's patients
+    // EFFECTS: Reloads the genome of each of the clinic's patients with a PHN in changed and tells the listener
+    // about them, if there are any
+    private void reload(Set<String> changed) {
+        List<Patient> reloaded = new ArrayList<>();
+        for (String phn : changed) {
+            Patient patient = clinic.findPatient(phn);
+            if (patient != null) {
+                clinic.reloadGenome(patient);
+                reloaded.add(patient);
+            }
+        }
+
+        if (!reloaded.isEmpty()) {
+            listener.accept(reloaded);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+
+// Global (Needleman-Wunsch) aligner that aligns the whole target against a whole region of the reference in
+// linear space with Hirschberg's divide and conquer. The target is split in half, the scores of its first
+// half against every prefix of the region and of its second half against every suffix are computed with
+// one row each, and the region is split where the two add up to the best score. Both halves are then
+// aligned recursively, so memory stays O(n + m) while the full alignment is still recovered. Small
+// subproblems are aligned directly with a traceback matrix.
+// Each aligned base scores matchScore or mismatchScore and each gap base costs gapPenalty.
+public class HirschbergAligner {
+    public static final int DEFAULT_MATCH = 2;
+    public static final int DEFAULT_MISMATCH = -3;
+    public static final int DEFAULT_GAP_PENALTY = 4;
+
+    private static final int DIRECT_CELLS = 1 << 16;
+    private static final byte FROM_DIAGONAL = 1;
+    private static final byte FROM_ABOVE = 2;
+    private static final byte FROM_LEFT = 3;
+
+    private final int matchScore;
+    private final int mismatchScore;
+    private final int gapPenalty;
+
+    // EFFECTS: Constructs an aligner with the default scores
+    public HirschbergAligner() {
+        this(DEFAULT_MATCH, DEFAULT_MISMATCH, DEFAULT_GAP_PENALTY);
+    }
+
+    // REQUIRES: gapPenalty >= 0
+    // EFFECTS: Constructs an aligner with the given scores
+    public HirschbergAligner(int matchScore, int mismatchScore, int gapPenalty) {
+        this.matchScore = matchScore;
+        this.mismatchScore = mismatchScore;
+        this.gapPenalty = gapPenalty;
+    }
+
+    // EFFECTS: Returns the highest scoring global alignment of the whole targetSeq against the whole refSeq
+    public GappedAlignment align(String targetSeq, String refSeq) {
+        return align(targetSeq, refSeq, 0, refSeq.length());
+    }
+
+    // REQUIRES: 0 <= regionStart <= regionEnd <= refSeq.length()
+    // EFFECTS: Returns the highest scoring global alignment of the whole targetSeq against the region
+    // [regionStart, regionEnd) of refSeq. Only the region is copied out of refSeq, so refSeq can be a whole
+    // genome (e.g. a PackedGenome) without being unpacked.
+    public GappedAlignment align(String targetSeq, CharSequence refSeq, int regionStart, int regionEnd) {
+        byte[] target = targetSeq.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] region = refSeq.subSequence(regionStart, regionEnd).toString().getBytes(StandardCharsets.ISO_8859_1);
+        Run run = new Run(target, region, region.length);
+        run.align(0, target.length, 0, region.length);
+
+        String operations = run.operations.toString();
+        GappedAlignment alignment = GappedAlignment.fromOperations(scoreOf(operations, target, region, 0), target,
+                region, 0, 0, operations);
+        return new GappedAlignment(alignment.getScore(), 0, regionStart, alignment.getCigar(),
+                alignment.getAlignedTarget(), alignment.getAlignedRef());
+    }
+
+    // EFFECTS: Returns the score of applying operations from the start of target and refStart in ref
+    private int scoreOf(String operations, byte[] target, byte[] ref, int refStart) {
+        int score = 0;
+        int t = 0;
+        int r = refStart;
+
+        for (int k = 0; k < operations.length(); k++) {
+            char operation = operations.charAt(k);
+            if (operation == 'M') {
+                score += substitution(target[t++], ref[r++]);
+            } else {
+                score -= gapPenalty;
+                t += operation == 'I' ? 1 : 0;
+                r += operation == 'D' ? 1 : 0;
+            }
+        }
+
+        return score;
+    }
+
+    // EFFECTS: Returns the score of aligning base a against base b
+    private int substitution(byte a, byte b) {
+        return a == b ? matchScore : mismatchScore;
+    }
+
+    // One alignment in progress: the sequences, the two score rows reused at every level of the recursion,
+    // and the operations (M, I or D per aligned column) found so far, in order
+    private class Run {
+        private final byte[] target;
+        private final byte[] ref;
+        private final int[] forward;
+        private final int[] backward;
+        private final StringBuilder operations = new StringBuilder();
+
+        Run(byte[] target, byte[] ref, int regionLength) {
+            this.target = target;
+            this.ref = ref;
+            this.forward = new int[regionLength + 1];
+            this.backward = new int[regionLength + 1];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: Appends the operations of the best global alignment of target[tLo, tHi) against
+        // ref[rLo, rHi)
+        void align(int tLo, int tHi, int rLo, int rHi) {
+            if (tHi - tLo <= 1 || rHi - rLo <= 1 || (long) (tHi - tLo + 1) * (rHi - rLo + 1) <= DIRECT_CELLS) {
+                alignDirectly(tLo, tHi, rLo, rHi);
+                return;
+            }
+
+            int tMid = (tLo + tHi) >>> 1;
+            scoreForward(tLo, tMid, rLo, rHi);
+            scoreBackward(tMid, tHi, rLo, rHi);
+
+            int length = rHi - rLo;
+            int split = 0;
+            for (int j = 1; j <= length; j++) {
+                if (forward[j] + backward[length - j] > forward[split] + backward[length - split]) {
+                    split = j;
+                }
+            }
+
+            align(tLo, tMid, rLo, rLo + split);
+            align(tMid, tHi, rLo + split, rHi);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: Sets forward[j] to the best score of target[tLo, tHi) against ref[rLo, rLo + j)
+        private void scoreForward(int tLo, int tHi, int rLo, int rHi) {
+            int length = rHi - rLo;
+            for (int j = 0; j <= length; j++) {
+                forward[j] = -j * gapPenalty;
+            }
+
+            for (int i = tLo; i < tHi; i++) {
+                int diagonal = forward[0];
+                forward[0] -= gapPenalty;
+                for (int j = 1; j <= length; j++) {
+                    int above = forward[j];
+                    forward[j] = Math.max(diagonal + substitution(target[i], ref[rLo + j - 1]),
+                            Math.max(above, forward[j - 1]) - gapPenalty);
+                    diagonal = above;
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: Sets backward[j] to the best score of target[tLo, tHi) against ref[rHi - j, rHi)
+        private void scoreBackward(int tLo, int tHi, int rLo, int rHi) {
+            int length = rHi - rLo;
+            for (int j = 0; j <= length; j++) {
+                backward[j] = -j * gapPenalty;
+            }
+
+            for (int i = tHi - 1; i >= tLo; i--) {
+                int diagonal = backward[0];
+                backward[0] -= gapPenalty;
+                for (int j = 1; j <= length; j++) {
+                    int above = backward[j];
+                    backward[j] = Math.max(diagonal + substitution(target[i], ref[rHi - j]),
+                            Math.max(above, backward[j - 1]) - gapPenalty);
+                    diagonal = above;
+                }
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: Appends the operations of the best global alignment of target[tLo, tHi) against
+        // ref[rLo, rHi), found with a full traceback matrix
+        private void alignDirectly(int tLo, int tHi, int rLo, int rHi) {
+            int rows = tHi - tLo;
+            int cols = rHi - rLo;
+            byte[] directions = fillDirections(tLo, rows, rLo, cols);
+
+            StringBuilder reversed = new StringBuilder();
+            int i = rows;
+            int j = cols;
+            while (i > 0 || j > 0) {
+                byte direction = directions[i * (cols + 1) + j];
+                reversed.append(direction == FROM_DIAGONAL ? 'M' : direction == FROM_ABOVE ? 'I' : 'D');
+                i -= direction == FROM_LEFT ? 0 : 1;
+                j -= direction == FROM_ABOVE ? 0 : 1;
+            }
+
+            operations.append(reversed.reverse());
+        }
+
+        // EFFECTS: Returns for every cell of the matrix of target[tLo, tLo + rows) against
+        // ref[rLo, rLo + cols) (row-major, with a zero row and column) which cell its best score came from
+        private byte[] fillDirections(int tLo, int rows, int rLo, int cols) {
+            byte[] directions = new byte[(rows + 1) * (cols + 1)];
+            int[] scores = new int[cols + 1];
+            for (int j = 1; j <= cols; j++) {
+                scores[j] = -j * gapPenalty;
+                directions[j] = FROM_LEFT;
+            }
+
+            for (int i = 1; i <= rows; i++) {
+                int diagonal = scores[0];
+                scores[0] -= gapPenalty;
+                directions[i * (cols + 1)] = FROM_ABOVE;
+                for (int j = 1; j <= cols; j++) {
+                    int matched = diagonal + substitution(target[tLo + i - 1], ref[rLo + j - 1]);
+                    int above = scores[j] - gapPenalty;
+                    int left = scores[j - 1] - gapPenalty;
+                    diagonal = scores[j];
+                    scores[j] = Math.max(matched, Math.max(above, left));
+                    directions[i * (cols + 1) + j] = scores[j] == matched ? FROM_DIAGONAL
+                            : scores[j] == above ? FROM_ABOVE : FROM_LEFT;
+                }
+            }
+
+            return directions;
+        }
+    }
+}
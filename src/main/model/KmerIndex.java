@@ -0,0 +1,106 @@
+package model;
+
+import java.util.Arrays;
+
+// Index of every k-mer of a sequence, used to look up where a short k-base sequence occurs.
+// Each k-mer is encoded at 2 bits per base, and the index is a sorted array of (k-mer code, position) pairs
+// so all positions of one k-mer are contiguous and found with a binary search. K-mers are at most 15 bases
+// so that a code and a position fit in one non-negative long.
+// K-mers that contain a character other than A, C, G, T are not indexed.
+public class KmerIndex {
+    public static final int MAX_K = 15;
+
+    private final String sequence;
+    private final int kmerLength;
+    private final long[] entries;
+
+    // REQUIRES: 0 < kmerLength <= MAX_K
+    // EFFECTS: Builds the index of every k-mer of the sequence with the given length
+    public KmerIndex(String sequence, int kmerLength) {
+        this.sequence = sequence;
+        this.kmerLength = kmerLength;
+        this.entries = buildEntries(sequence, kmerLength);
+    }
+
+    // EFFECTS: Returns the positions where the k-mer with the given code starts, in increasing order
+    public int[] lookup(long code) {
+        long first = code << 32;
+        int from = lowerBound(first);
+        int to = lowerBound(first + (1L << 32));
+
+        int[] positions = new int[to - from];
+        for (int i = from; i < to; i++) {
+            positions[i - from] = (int) entries[i];
+        }
+        return positions;
+    }
+
+    // EFFECTS: Returns the number of k-mers in the index
+    public int size() {
+        return entries.length;
+    }
+
+    // EFFECTS: Returns the indexed sequence
+    public String getSequence() {
+        return sequence;
+    }
+
+    // EFFECTS: Returns the length of the indexed k-mers
+    public int getKmerLength() {
+        return kmerLength;
+    }
+
+    // REQUIRES: start + kmerLength <= seq.length()
+    // EFFECTS: Returns the 2-bit code of the k-mer of seq that starts at start,
+    // or -1 if it contains a character other than A, C, G, T
+    public static long encode(String seq, int start, int kmerLength) {
+        long code = 0;
+        for (int i = start; i < start + kmerLength; i++) {
+            int base = PackedAligner.encode(seq.charAt(i));
+            if (base < 0) {
+                return -1;
+            }
+            code = (code << 2) | base;
+        }
+        return code;
+    }
+
+    // EFFECTS: Returns the sorted (code, position) pairs of every k-mer of seq, rolling the code
+    // forward one base at a time
+    private static long[] buildEntries(String seq, int kmerLength) {
+        long[] pairs = new long[Math.max(0, seq.length() - kmerLength + 1)];
+        long mask = (1L << (2 * kmerLength)) - 1;
+        long code = 0;
+        int valid = 0;
+        int count = 0;
+
+        for (int i = 0; i < seq.length(); i++) {
+            int base = PackedAligner.encode(seq.charAt(i));
+            valid = base < 0 ? 0 : valid + 1;
+            code = ((code << 2) | (base & 3)) & mask;
+
+            if (valid >= kmerLength) {
+                pairs[count++] = (code << 32) | (i - kmerLength + 1);
+            }
+        }
+
+        long[] entries = Arrays.copyOf(pairs, count);
+        Arrays.sort(entries);
+        return entries;
+    }
+
+    // EFFECTS: Returns the index of the first entry that is not less than key
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,198 @@
+package model;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Read-only view of the genome sequence in a genome file, with the line breaks (\n or \r\n) left out.
+// The file is memory-mapped rather than read, so the sequence is never copied onto the heap: each base is
+// read from the mapped file when it is asked for, and the operating system pages the file in as needed.
+// Genome files almost always have lines of the same width, so the position of a base in the file is
+// computed from its index. Only files with lines of different widths keep a table of where each line starts.
+public class MappedGenome implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int length;
+    private final int lineWidth;
+    private final int breakWidth;
+    private final int[] lineStarts;
+    private final int[] lineOffsets;
+
+    // EFFECTS: Constructs a view of the mapped file with lines of lineWidth bases separated by line breaks of
+    // breakWidth bytes
+    private MappedGenome(ByteBuffer buffer, int length, int lineWidth, int breakWidth) {
+        this.buffer = buffer;
+        this.length = length;
+        this.lineWidth = lineWidth;
+        this.breakWidth = breakWidth;
+        this.lineStarts = null;
+        this.lineOffsets = null;
+    }
+
+    // EFFECTS: Constructs a view of the mapped file whose k-th line starts at byte lineStarts[k] of the file and
+    // at index lineOffsets[k] of the sequence
+    private MappedGenome(ByteBuffer buffer, int length, int[] lineStarts, int[] lineOffsets) {
+        this.buffer = buffer;
+        this.length = length;
+        this.lineWidth = 0;
+        this.breakWidth = 0;
+        this.lineStarts = lineStarts;
+        this.lineOffsets = lineOffsets;
+    }
+
+    // REQUIRES: the file is smaller than 2 GB
+    // EFFECTS: Memory-maps the genome file and returns a view of its sequence,
+    // throws IOException if it can't be read
+    public static MappedGenome open(Path genomeFile) throws IOException {
+        return of(map(genomeFile));
+    }
+
+    // EFFECTS: Returns a view of the sequence in the contents of a genome file held in buffer
+    static MappedGenome of(ByteBuffer buffer) {
+        Lines lines = new Lines(buffer);
+        if (lines.uniform) {
+            return new MappedGenome(buffer, lines.length, Math.max(lines.width, 1), lines.breakWidth);
+        }
+        return new MappedGenome(buffer, lines.length, lines.starts, lines.offsets);
+    }
+
+    // REQUIRES: the region of buffer from offset has length bases in lines of lineBases bases, each line taking
+    // lineWidth bytes with its line break, except that the last line may be shorter
+    // EFFECTS: Returns a view of the bases in that region of the mapped file
+    static MappedGenome region(ByteBuffer buffer, int offset, int length, int lineBases, int lineWidth) {
+        ByteBuffer region = buffer.duplicate();
+        region.position(offset);
+        return new MappedGenome(region.slice(), length, Math.max(lineBases, 1), lineWidth - lineBases);
+    }
+
+    // REQUIRES: the file is smaller than 2 GB
+    // EFFECTS: Memory-maps the whole file read-only, throws IOException if it can't be read
+    static ByteBuffer map(Path file) throws IOException {
+        try (RandomAccessFile mapped = new RandomAccessFile(file.toFile(), "r")) {
+            if (mapped.length() > Integer.MAX_VALUE) {
+                throw new IOException("Genome file is too large to map: " + file);
+            }
+            return mapped.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, mapped.length());
+        }
+    }
+
+    // EFFECTS: Returns the number of bases in the genome
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    // REQUIRES: 0 <= index < length()
+    // EFFECTS: Returns the base at index
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(position(index)) & 0xFF);
+    }
+
+    // REQUIRES: 0 <= start <= end <= length()
+    // EFFECTS: Returns the bases in [start, end) copied into a String
+    @Override
+    public String subSequence(int start, int end) {
+        char[] bases = new char[end - start];
+        for (int i = start; i < end; i++) {
+            bases[i - start] = charAt(i);
+        }
+
+        return new String(bases);
+    }
+
+    // EFFECTS: Returns the whole genome copied into a String
+    @Override
+    public String toString() {
+        return subSequence(0, length);
+    }
+
+    // EFFECTS: Returns the position in the file of the base at index
+    private int position(int index) {
+        if (lineStarts == null) {
+            return index + index / lineWidth * breakWidth;
+        }
+
+        int line = lineOf(index);
+        return lineStarts[line] + index - lineOffsets[line];
+    }
+
+    // EFFECTS: Returns the line of the file that has the base at index, for files with lines of different widths
+    private int lineOf(int index) {
+        int line = Arrays.binarySearch(lineOffsets, index);
+        if (line < 0) {
+            return -line - 2;
+        }
+        while (line + 1 < lineOffsets.length && lineOffsets[line + 1] == index) {
+            line++;
+        }
+
+        return line;
+    }
+
+    // The lines of a genome file: the number of bases, and either the width of its lines and line breaks if
+    // they are uniform, or where each line starts in the file and in the sequence
+    private static class Lines {
+        private final ByteBuffer buffer;
+        private int width = -1;
+        private int breakWidth;
+        private boolean uniform = true;
+        private boolean ended;
+        private int length;
+        private int count;
+        private int[] starts;
+        private int[] offsets;
+
+        // EFFECTS: Finds the lines of the mapped file. The start of every line is only recorded, in a second
+        // pass, if the lines turn out not to be uniform.
+        Lines(ByteBuffer buffer) {
+            this.buffer = buffer;
+            scan(false);
+            if (!uniform) {
+                starts = new int[count];
+                offsets = new int[count];
+                length = 0;
+                count = 0;
+                scan(true);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: Visits every line of the file, recording where it starts if record
+        private void scan(boolean record) {
+            int start = 0;
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    int carriageReturn = i > start && buffer.get(i - 1) == '\r' ? 1 : 0;
+                    visit(start, i - start - carriageReturn, carriageReturn + 1, record);
+                    start = i + 1;
+                }
+            }
+            if (start < buffer.limit() || count == 0) {
+                visit(start, buffer.limit() - start, 0, record);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: Visits a line of lineWidth bases starting at start in the file, followed by a line break of
+        // lineBreak bytes. Lines stay uniform while every line has the width and line break of the first,
+        // except that the last line may be shorter and have no line break.
+        private void visit(int start, int lineWidth, int lineBreak, boolean record) {
+            if (record) {
+                starts[count] = start;
+                offsets[count] = length;
+            } else if (width < 0) {
+                width = lineWidth;
+                breakWidth = lineBreak;
+            } else if (ended || lineWidth > width || lineWidth == 0) {
+                uniform = false;
+            } else {
+                ended = lineWidth < width || lineBreak != breakWidth;
+            }
+            count++;
+            length += lineWidth;
+        }
+    }
+}
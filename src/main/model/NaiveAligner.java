@@ -0,0 +1,44 @@
+package model;
+
+// Aligner that creates a substring for every window of the reference and compares it with the
+// target char by char. This is the original alignment algorithm of SequenceAligner and serves as
+// the reference the other engines are checked against.
+public class NaiveAligner implements AlignmentEngine {
+
+    // EFFECTS: Returns the name used to select this engine
+    @Override
+    public String getName() {
+        return "naive";
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // EFFECTS: Returns the alignment with the highest similarity score between targetSeq and any
+    // window of refSeq. If multiple windows have the same highest score, the first one is returned.
+    @Override
+    public Alignment align(String targetSeq, String refSeq) {
+        int startIdx = 0;
+        int endIdx = targetSeq.length();
+        int highestScore = 0;
+        int highestIdx = 0;
+
+        while (endIdx <= refSeq.length()) {
+            String secRef = refSeq.substring(startIdx, endIdx);
+            int score = 0;
+            for (int i = 0; i < targetSeq.length(); i++) {
+                if (targetSeq.charAt(i) == secRef.charAt(i)) {
+                    score++;
+                }
+            }
+
+            if (score > highestScore) {
+                highestScore = score;
+                highestIdx = startIdx;
+            }
+
+            startIdx++;
+            endIdx++;
+        }
+
+        return new Alignment(highestScore, highestIdx);
+    }
+}
@@ -0,0 +1,619 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Aligner that packs the target and reference sequences into 2 bits per base (A=0, C=1, G=2, T=3)
+// so that 32 bases fit into one long. A window of the reference is compared against the target
+// 32 bases at a time with a single XOR and popcount, instead of one char comparison per base.
+// Produces exactly the same score and offset as the char by char scan of NaiveAligner.
+public class PackedAligner implements AlignmentEngine {
+    private static final int BASES_PER_WORD = 32;
+    private static final long LOW_BITS = 0x5555555555555555L;
+    private static final int[] CODES = new int[256];
+
+    static {
+        Arrays.fill(CODES, -1);
+        for (char base : "ACGT".toCharArray()) {
+            CODES[base] = encode(base);
+        }
+    }
+
+    // EFFECTS: Returns the name used to select this engine
+    @Override
+    public String getName() {
+        return "packed";
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // EFFECTS: Returns the alignment with the highest similarity score between targetSeq and any
+    // window of refSeq. If multiple windows have the same highest score, the first one is returned.
+    // Sequences with characters other than A, C, G, T are aligned with SlidingWindowAligner instead.
+    @Override
+    public Alignment align(String targetSeq, String refSeq) {
+        long[] target = pack(targetSeq);
+        long[] ref = pack(refSeq);
+        if (target == null || ref == null || targetSeq.isEmpty()) {
+            return new SlidingWindowAligner().align(targetSeq, refSeq);
+        }
+
+        return alignRange(target, targetSeq.length(), ref, 0, refSeq.length() - targetSeq.length() + 1);
+    }
+
+    // REQUIRES: targetSeq.length() <= genome.length()
+    // EFFECTS: Same as align, but scans the packed words of the genome directly instead of unpacking it.
+    // Windows that hold an exception of the genome are corrected for it after their packed scan. A target with
+    // characters other than A, C, G, T is aligned against the unpacked genome with align instead.
+    public Alignment align(String targetSeq, PackedGenome genome) {
+        long[] target = pack(targetSeq);
+        if (target == null || targetSeq.isEmpty()) {
+            return align(targetSeq, genome.toString());
+        }
+
+        return bestOf(scorerFor(target, targetSeq.length(), genome), targetSeq.length(), genome.length());
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // EFFECTS: Returns the alignment with the highest similarity score between any window of refSeq and either
+    // targetSeq (forward strand) or its reverse complement (reverse strand). Each window is read once and
+    // compared against both strands. If multiple windows have the same highest score, the first one is
+    // returned, and the forward strand is preferred over the reverse strand at the same offset.
+    public Alignment alignBothStrands(String targetSeq, String refSeq) {
+        long[] forward = pack(targetSeq);
+        if (forward == null || targetSeq.isEmpty()) {
+            return alignStrandsSeparately(targetSeq, reverseComplement(targetSeq), refSeq);
+        }
+
+        return bestOfBothStrands(forward, pack(reverseComplement(targetSeq)), targetSeq.length(),
+                new PackedGenome(refSeq));
+    }
+
+    // REQUIRES: targetSeq.length() <= genome.length()
+    // EFFECTS: Same as alignBothStrands, but scans the packed words of the genome directly instead of unpacking
+    // it. A target with characters other than A, C, G, T is aligned against the unpacked genome instead.
+    public Alignment alignBothStrands(String targetSeq, PackedGenome genome) {
+        long[] forward = pack(targetSeq);
+        if (forward == null || targetSeq.isEmpty()) {
+            return alignBothStrands(targetSeq, genome.toString());
+        }
+
+        return bestOfBothStrands(forward, pack(reverseComplement(targetSeq)), targetSeq.length(), genome);
+    }
+
+    // REQUIRES: forward and reverse are the packed target and its reverse complement, and targetLen > 0
+    // EFFECTS: Returns the best alignment of either strand against the windows of the genome, as in
+    // alignBothStrands. Windows that hold an exception are corrected for the mismatches it hides on each strand.
+    private Alignment bestOfBothStrands(long[] forward, long[] reverse, int targetLen, PackedGenome genome) {
+        long lastMask = lastWordMask(targetLen);
+        long[] ref = genome.getWords();
+        ExceptionTracker exceptions = new ExceptionTracker(genome, targetLen);
+        Alignment best = new Alignment(0, 0);
+
+        for (int offset = 0; offset + targetLen <= genome.length() && best.getScore() < targetLen; offset++) {
+            long mismatches = countStrandMismatches(forward, reverse, targetLen, lastMask, ref, offset,
+                    targetLen - best.getScore());
+            if (exceptions.hasExceptionsAt(offset)) {
+                long[] masks = exceptions.masksAt(offset);
+                mismatches += ((long) countHiddenMismatches(forward, targetLen, lastMask, masks) << 32)
+                        + countHiddenMismatches(reverse, targetLen, lastMask, masks);
+            }
+            int forwardScore = targetLen - (int) (mismatches >>> 32);
+            int reverseScore = targetLen - (int) mismatches;
+
+            if (forwardScore > best.getScore()) {
+                best = new Alignment(forwardScore, offset);
+            }
+            if (reverseScore > best.getScore()) {
+                best = new Alignment(reverseScore, offset, true);
+            }
+        }
+
+        return best;
+    }
+
+    // EFFECTS: Same as alignBothStrands, but aligns each strand with its own scan of refSeq
+    private Alignment alignStrandsSeparately(String targetSeq, String reverseSeq, String refSeq) {
+        Alignment forward = align(targetSeq, refSeq);
+        Alignment reverse = align(reverseSeq, refSeq);
+
+        if (reverse.getScore() > forward.getScore()
+                || (reverse.getScore() == forward.getScore() && reverse.getOffset() < forward.getOffset())) {
+            return new Alignment(reverse.getScore(), reverse.getOffset(), true);
+        }
+        return forward;
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // EFFECTS: Returns the alignment with the highest total score under matrix between targetSeq and any
+    // window of refSeq. If multiple windows have the same highest score, the first one is returned.
+    // Windows are scored 32 bases at a time, and a window is abandoned as soon as even the highest pair score
+    // on all its remaining bases can't make it beat the best window so far. A target with characters other
+    // than A, C, G, T is scored one pair at a time instead.
+    public Alignment alignWeighted(String targetSeq, String refSeq, ScoringMatrix matrix) {
+        long[] target = pack(targetSeq);
+        if (target == null || targetSeq.isEmpty()) {
+            return alignWeightedByPairs(targetSeq, refSeq, matrix);
+        }
+
+        return bestWeighted(target, targetSeq.length(), new PackedGenome(refSeq), matrix);
+    }
+
+    // REQUIRES: targetSeq.length() <= genome.length()
+    // EFFECTS: Same as alignWeighted, but scans the packed words of the genome directly instead of unpacking it.
+    // A target with characters other than A, C, G, T is scored against the unpacked genome instead.
+    public Alignment alignWeighted(String targetSeq, PackedGenome genome, ScoringMatrix matrix) {
+        long[] target = pack(targetSeq);
+        if (target == null || targetSeq.isEmpty()) {
+            return alignWeightedByPairs(targetSeq, genome.toString(), matrix);
+        }
+
+        return bestWeighted(target, targetSeq.length(), genome, matrix);
+    }
+
+    // EFFECTS: Same as alignWeighted, but scores each window one pair of chars at a time
+    private Alignment alignWeightedByPairs(String targetSeq, String refSeq, ScoringMatrix matrix) {
+        int highestScore = Integer.MIN_VALUE;
+        int bestOffset = 0;
+
+        for (int offset = 0; offset + targetSeq.length() <= refSeq.length(); offset++) {
+            int score = matrix.score(targetSeq, 0, refSeq, offset, targetSeq.length());
+            if (score > highestScore) {
+                highestScore = score;
+                bestOffset = offset;
+            }
+        }
+
+        return new Alignment(highestScore, bestOffset);
+    }
+
+    // REQUIRES: target was packed with pack and targetLen > 0
+    // EFFECTS: Returns the window of the genome with the highest score under matrix, as in alignWeighted.
+    // Windows that hold an exception are scored in full and then corrected for it, since the correction can
+    // raise the score and so can't be bounded while the window is scored.
+    private Alignment bestWeighted(long[] target, int targetLen, PackedGenome genome, ScoringMatrix matrix) {
+        long[] prepared = matrix.prepare(target, (targetLen - 1) / BASES_PER_WORD + 1, lastWordMask(targetLen));
+        long[] ref = genome.getWords();
+        ExceptionTracker exceptions = new ExceptionTracker(genome, targetLen);
+        int highestScore = Integer.MIN_VALUE;
+        int bestOffset = 0;
+
+        for (int offset = 0; offset + targetLen <= genome.length(); offset++) {
+            int score = !exceptions.hasExceptionsAt(offset)
+                    ? scoreWeighted(prepared, targetLen, ref, offset, matrix, highestScore)
+                    : scoreWeighted(prepared, targetLen, ref, offset, matrix, Integer.MIN_VALUE)
+                            + scoreExceptions(target, targetLen, exceptions.masksAt(offset), matrix);
+            if (score > highestScore) {
+                highestScore = score;
+                bestOffset = offset;
+            }
+        }
+
+        return new Alignment(highestScore, bestOffset);
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length() and k > 0
+    // EFFECTS: Returns the k alignments with the highest scores between targetSeq and the windows of refSeq,
+    // highest score first and lower offset first on ties (fewer if refSeq has fewer than k windows).
+    // Once k windows are kept, a window is abandoned as soon as it can't beat the lowest of them, and the
+    // scan stops when all k are perfect matches.
+    public List<Alignment> alignTop(String targetSeq, String refSeq, int k) {
+        return topOf(scorerFor(targetSeq, refSeq), targetSeq.length(), refSeq.length(), k);
+    }
+
+    // REQUIRES: targetSeq.length() <= genome.length() and k > 0
+    // EFFECTS: Same as alignTop, but scans the packed words of the genome directly instead of unpacking it
+    public List<Alignment> alignTop(String targetSeq, PackedGenome genome, int k) {
+        return topOf(scorerFor(targetSeq, genome), targetSeq.length(), genome.length(), k);
+    }
+
+    // REQUIRES: k > 0
+    // EFFECTS: Returns the k windows of a reference of refLen bases with the highest scores under scorer, as in
+    // alignTop
+    private static List<Alignment> topOf(WindowScorer scorer, int targetLen, int refLen, int k) {
+        Comparator<Alignment> worstFirst = Comparator.comparingInt(Alignment::getScore)
+                .thenComparing(Comparator.comparingInt(Alignment::getOffset).reversed());
+        PriorityQueue<Alignment> kept = new PriorityQueue<>(worstFirst);
+
+        for (int offset = 0; offset + targetLen <= refLen; offset++) {
+            int floor = kept.size() < k ? -1 : kept.peek().getScore();
+            if (floor == targetLen) {
+                break;
+            }
+
+            int score = scorer.score(offset, floor);
+            if (score > floor) {
+                kept.add(new Alignment(score, offset));
+                if (kept.size() > k) {
+                    kept.remove();
+                }
+            }
+        }
+
+        List<Alignment> top = new ArrayList<>(kept);
+        top.sort(worstFirst.reversed());
+        return top;
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // EFFECTS: Returns the alignments of every window of refSeq that scores at least minScore against
+    // targetSeq, in increasing offset order. A window is abandoned as soon as it can no longer reach minScore.
+    // If firstOnly, the scan stops at the first such window.
+    public List<Alignment> alignAtLeast(String targetSeq, String refSeq, int minScore, boolean firstOnly) {
+        return atLeastOf(scorerFor(targetSeq, refSeq), targetSeq.length(), refSeq.length(), minScore, firstOnly);
+    }
+
+    // REQUIRES: targetSeq.length() <= genome.length()
+    // EFFECTS: Same as alignAtLeast, but scans the packed words of the genome directly instead of unpacking it
+    public List<Alignment> alignAtLeast(String targetSeq, PackedGenome genome, int minScore, boolean firstOnly) {
+        return atLeastOf(scorerFor(targetSeq, genome), targetSeq.length(), genome.length(), minScore, firstOnly);
+    }
+
+    // EFFECTS: Returns the windows of a reference of refLen bases that score at least minScore under scorer, as
+    // in alignAtLeast
+    private static List<Alignment> atLeastOf(WindowScorer scorer, int targetLen, int refLen, int minScore,
+            boolean firstOnly) {
+        List<Alignment> found = new ArrayList<>();
+
+        for (int offset = 0; offset + targetLen <= refLen; offset++) {
+            int score = scorer.score(offset, minScore - 1);
+            if (score >= minScore) {
+                found.add(new Alignment(score, offset));
+                if (firstOnly) {
+                    break;
+                }
+            }
+        }
+
+        return found;
+    }
+
+    // EFFECTS: Returns a scorer for the windows of refSeq against targetSeq, which compares packed words if
+    // both sequences can be packed and bytes otherwise
+    private WindowScorer scorerFor(String targetSeq, String refSeq) {
+        long[] target = pack(targetSeq);
+        long[] ref = pack(refSeq);
+        int targetLen = targetSeq.length();
+
+        if (target == null || ref == null || targetLen == 0) {
+            byte[] targetBytes = targetSeq.getBytes(StandardCharsets.ISO_8859_1);
+            byte[] refBytes = refSeq.getBytes(StandardCharsets.ISO_8859_1);
+            return (offset, floor) -> SimilarityKernel.countMatches(targetBytes, 0, refBytes, offset, targetLen);
+        }
+
+        long lastMask = lastWordMask(targetLen);
+        return (offset, floor) -> targetLen - countMismatches(target, targetLen, lastMask, ref, offset,
+                targetLen - Math.max(floor, 0));
+    }
+
+    // EFFECTS: Same as scorerFor above, but for the windows of the genome, which compares packed words unless
+    // targetSeq has characters other than A, C, G, T
+    private WindowScorer scorerFor(String targetSeq, PackedGenome genome) {
+        long[] target = pack(targetSeq);
+        if (target == null || targetSeq.isEmpty()) {
+            return scorerFor(targetSeq, genome.toString());
+        }
+
+        return scorerFor(target, targetSeq.length(), genome);
+    }
+
+    // REQUIRES: target was packed with pack and targetLen > 0
+    // EFFECTS: Returns a scorer for the windows of the genome against the packed target, which compares packed
+    // words and then adds the mismatches hidden by the A held in the packed slot of each exception. The windows
+    // must be scored in increasing offset order.
+    private WindowScorer scorerFor(long[] target, int targetLen, PackedGenome genome) {
+        long lastMask = lastWordMask(targetLen);
+        long[] ref = genome.getWords();
+        ExceptionTracker exceptions = new ExceptionTracker(genome, targetLen);
+
+        return (offset, floor) -> {
+            int limit = targetLen - Math.max(floor, 0);
+            int mismatches = countMismatches(target, targetLen, lastMask, ref, offset, limit);
+            if (mismatches >= limit || !exceptions.hasExceptionsAt(offset)) {
+                return targetLen - mismatches;
+            }
+            return targetLen - mismatches - countHiddenMismatches(target, targetLen, lastMask,
+                    exceptions.masksAt(offset));
+        };
+    }
+
+    // Scores the window of the reference at an offset. Only scores above floor need to be exact:
+    // scoring may stop early and return any value <= floor once the window can't score above it.
+    private interface WindowScorer {
+        int score(int offset, int floor);
+    }
+
+    // Finds the exceptions of a packed genome in the windows of a scan over its packed words, where each
+    // exception reads as an A. The windows must be visited in increasing offset order, so the next exception is
+    // only looked up again once the scan has passed it, and windows without exceptions cost one comparison.
+    private static class ExceptionTracker {
+        private final PackedGenome genome;
+        private final int windowLength;
+        private final long[] masks;
+        private int nextException = -1;
+
+        ExceptionTracker(PackedGenome genome, int windowLength) {
+            this.genome = genome;
+            this.windowLength = windowLength;
+            this.masks = new long[(windowLength - 1) / BASES_PER_WORD + 1];
+        }
+
+        // EFFECTS: Returns true if the window at offset holds an exception
+        boolean hasExceptionsAt(int offset) {
+            if (nextException < offset) {
+                nextException = genome.nextException(offset);
+            }
+            return nextException < offset + windowLength;
+        }
+
+        // REQUIRES: hasExceptionsAt(offset)
+        // EFFECTS: Returns the masks of the exceptions in the window at offset (see PackedGenome.exceptionMasks),
+        // which are overwritten by the next call
+        long[] masksAt(int offset) {
+            genome.exceptionMasks(offset, windowLength, masks);
+            return masks;
+        }
+    }
+
+    // EFFECTS: Returns the alignment with the highest score among the windows of a reference of refLen bases,
+    // scored by scorer in increasing offset order, and the first one on ties. Stops at the first perfect
+    // match. If no window matches at all, the alignment has score 0 and offset 0.
+    private static Alignment bestOf(WindowScorer scorer, int targetLen, int refLen) {
+        int highestScore = 0;
+        int bestOffset = 0;
+
+        for (int offset = 0; offset + targetLen <= refLen && highestScore < targetLen; offset++) {
+            int score = scorer.score(offset, highestScore);
+            if (score > highestScore) {
+                highestScore = score;
+                bestOffset = offset;
+            }
+        }
+
+        return new Alignment(highestScore, bestOffset);
+    }
+
+    // REQUIRES: target and ref were packed with pack, targetLen > 0 and 0 <= from < to,
+    // and every window starting before to lies within ref
+    // EFFECTS: Returns the alignment with the highest score among the windows starting at offsets in
+    // [from, to). If multiple windows have the same highest score, the first one is returned.
+    // If no window matches at all, the alignment has score 0 and offset from.
+    Alignment alignRange(long[] target, int targetLen, long[] ref, int from, int to) {
+        return alignRange(target, targetLen, ref, from, to, 0);
+    }
+
+    // REQUIRES: same as alignRange above
+    // EFFECTS: Same as alignRange above, but only windows scoring more than floorScore are considered,
+    // which lets windows be abandoned earlier. If no window scores more than floorScore, the alignment
+    // has score floorScore and offset from.
+    Alignment alignRange(long[] target, int targetLen, long[] ref, int from, int to, int floorScore) {
+        long lastMask = lastWordMask(targetLen);
+        int highestScore = floorScore;
+        int bestOffset = from;
+
+        for (int offset = from; offset < to && highestScore < targetLen; offset++) {
+            int score = targetLen - countMismatches(target, targetLen, lastMask, ref, offset,
+                    targetLen - highestScore);
+
+            if (score > highestScore) {
+                highestScore = score;
+                bestOffset = offset;
+            }
+        }
+
+        return new Alignment(highestScore, bestOffset);
+    }
+
+    // REQUIRES: target was packed with pack and targetLen > 0
+    // EFFECTS: Returns the first offset where the packed target occurs exactly in the genome, or -1 if it
+    // doesn't occur. Each window is abandoned at its first mismatching word, and a window holding an exception
+    // of the genome can't match since the target only has A, C, G and T.
+    static int indexOf(long[] target, int targetLen, PackedGenome genome) {
+        long lastMask = lastWordMask(targetLen);
+        long[] ref = genome.getWords();
+        ExceptionTracker exceptions = new ExceptionTracker(genome, targetLen);
+
+        for (int offset = 0; offset + targetLen <= genome.length(); offset++) {
+            if (countMismatches(target, targetLen, lastMask, ref, offset, 1) == 0
+                    && !exceptions.hasExceptionsAt(offset)) {
+                return offset;
+            }
+        }
+
+        return -1;
+    }
+
+    // EFFECTS: Returns the number of mismatching bases between the packed target and the window of the
+    // packed reference starting at offset. Stops counting once the count reaches limit, since the window
+    // can then no longer beat the best score found so far. lastMask keeps only the bases of the last
+    // target word that are part of the target.
+    private static int countMismatches(long[] target, int targetLen, long lastMask, long[] ref, int offset,
+            int limit) {
+        int mismatches = 0;
+        int lastWord = (targetLen - 1) / BASES_PER_WORD;
+
+        for (int i = 0; i < lastWord && mismatches < limit; i++) {
+            long diff = target[i] ^ window(ref, offset + i * BASES_PER_WORD);
+            mismatches += Long.bitCount((diff | (diff >>> 1)) & LOW_BITS);
+        }
+
+        long diff = target[lastWord] ^ window(ref, offset + lastWord * BASES_PER_WORD);
+        return mismatches + Long.bitCount((diff | (diff >>> 1)) & lastMask);
+    }
+
+    // REQUIRES: exceptions are the masks of the exceptions in a window of a packed genome (see
+    // PackedGenome.exceptionMasks)
+    // EFFECTS: Returns the number of bases of the packed target that are an A where the window holds an
+    // exception: the packed slot of the exception holds an A too, so countMismatches counted them as matches
+    private static int countHiddenMismatches(long[] target, int targetLen, long lastMask, long[] exceptions) {
+        int lastWord = (targetLen - 1) / BASES_PER_WORD;
+        int hidden = 0;
+
+        for (int i = 0; i <= lastWord; i++) {
+            long isA = ~(target[i] | (target[i] >>> 1)) & (i == lastWord ? lastMask : LOW_BITS);
+            hidden += Long.bitCount(exceptions[i] & isA);
+        }
+
+        return hidden;
+    }
+
+    // REQUIRES: exceptions are the masks of the exceptions in a window of a packed genome (see
+    // PackedGenome.exceptionMasks)
+    // EFFECTS: Returns how much the score under matrix of the packed target against the window changes when each
+    // exception is scored as the character other than A, C, G, T it is, instead of as the A in its packed slot
+    private static int scoreExceptions(long[] target, int targetLen, long[] exceptions, ScoringMatrix matrix) {
+        int lastWord = (targetLen - 1) / BASES_PER_WORD;
+        int change = 0;
+
+        for (int i = 0; i <= lastWord; i++) {
+            long low = target[i] & LOW_BITS;
+            long high = (target[i] >>> 1) & LOW_BITS;
+            for (int code = 0; code < 4; code++) {
+                long bases = ((code & 1) != 0 ? low : ~low) & ((code & 2) != 0 ? high : ~high) & exceptions[i];
+                char base = "ACGT".charAt(code);
+                change += Long.bitCount(bases) * (matrix.score(base, 'N') - matrix.score(base, 'A'));
+            }
+        }
+
+        return change;
+    }
+
+    // EFFECTS: Returns the number of mismatching bases between the window of the packed reference starting
+    // at offset and each of the packed forward and reverse targets, forward in the high 32 bits and reverse
+    // in the low 32 bits. Each reference word is read once for both. Stops counting once both counts reach
+    // limit.
+    private long countStrandMismatches(long[] forward, long[] reverse, int targetLen, long lastMask, long[] ref,
+            int offset, int limit) {
+        int forwardMismatches = 0;
+        int reverseMismatches = 0;
+        int lastWord = (targetLen - 1) / BASES_PER_WORD;
+
+        for (int i = 0; i < lastWord && Math.min(forwardMismatches, reverseMismatches) < limit; i++) {
+            long window = window(ref, offset + i * BASES_PER_WORD);
+            long forwardDiff = forward[i] ^ window;
+            long reverseDiff = reverse[i] ^ window;
+            forwardMismatches += Long.bitCount((forwardDiff | (forwardDiff >>> 1)) & LOW_BITS);
+            reverseMismatches += Long.bitCount((reverseDiff | (reverseDiff >>> 1)) & LOW_BITS);
+        }
+
+        long window = window(ref, offset + lastWord * BASES_PER_WORD);
+        long forwardDiff = forward[lastWord] ^ window;
+        long reverseDiff = reverse[lastWord] ^ window;
+        forwardMismatches += Long.bitCount((forwardDiff | (forwardDiff >>> 1)) & lastMask);
+        reverseMismatches += Long.bitCount((reverseDiff | (reverseDiff >>> 1)) & lastMask);
+        return ((long) forwardMismatches << 32) | reverseMismatches;
+    }
+
+    // REQUIRES: prepared is the packed target prepared by matrix.prepare
+    // EFFECTS: Returns the total score under matrix of the target against the window of the packed
+    // reference starting at offset. Only scores above floor need to be exact: once the window can't score
+    // above floor, the scoring stops and returns a value <= floor.
+    private int scoreWeighted(long[] prepared, int targetLen, long[] ref, int offset, ScoringMatrix matrix,
+            int floor) {
+        int lastWord = (targetLen - 1) / BASES_PER_WORD;
+        long score = 0;
+
+        for (int i = 0; i < lastWord; i++) {
+            score += matrix.scorePrepared(prepared, i, window(ref, offset + i * BASES_PER_WORD));
+            long bound = score + (long) (targetLen - (i + 1) * BASES_PER_WORD) * matrix.getMaxScore();
+            if (bound <= floor) {
+                return (int) bound;
+            }
+        }
+
+        return (int) score + matrix.scorePrepared(prepared, lastWord, window(ref, offset + lastWord * BASES_PER_WORD));
+    }
+
+    // EFFECTS: Returns the 32 bases of the packed sequence that start at base index pos
+    private static long window(long[] words, int pos) {
+        int word = pos >>> 5;
+        int shift = (pos & (BASES_PER_WORD - 1)) << 1;
+
+        if (shift == 0) {
+            return words[word];
+        }
+        return (words[word] >>> shift) | (words[word + 1] << (64 - shift));
+    }
+
+    // EFFECTS: Returns a mask that keeps only the low bit of each base that is actually part of the
+    // last word of a packed sequence of the given length
+    private static long lastWordMask(int length) {
+        int used = length % BASES_PER_WORD;
+
+        if (used == 0) {
+            return LOW_BITS;
+        }
+        return LOW_BITS & ((1L << (used << 1)) - 1);
+    }
+
+    // EFFECTS: Returns seq packed at 2 bits per base, with one extra word of padding at the end
+    // so a window can always be read from two adjacent words.
+    // Returns null if seq has a character other than A, C, G, T.
+    public static long[] pack(String seq) {
+        byte[] bases = seq.getBytes(StandardCharsets.ISO_8859_1);
+        long[] words = new long[bases.length / BASES_PER_WORD + 2];
+        int invalid = 0;
+
+        for (int start = 0; start < bases.length; start += BASES_PER_WORD) {
+            int end = Math.min(start + BASES_PER_WORD, bases.length);
+            long word = 0;
+            for (int i = start; i < end; i++) {
+                int code = CODES[bases[i] & 0xFF];
+                invalid |= code;
+                word |= (long) (code & 3) << ((i - start) << 1);
+            }
+            words[start >>> 5] = word;
+        }
+
+        return invalid < 0 ? null : words;
+    }
+
+    // EFFECTS: Returns the reverse complement of seq, the sequence of the opposite strand read in the same
+    // direction. A, C, G and T are swapped with T, G, C and A, and any other character is kept as is.
+    public static String reverseComplement(String seq) {
+        char[] complement = new char[seq.length()];
+        for (int i = 0; i < seq.length(); i++) {
+            char base = seq.charAt(seq.length() - 1 - i);
+            int code = encode(base);
+            complement[i] = code < 0 ? base : "ACGT".charAt(code ^ 3);
+        }
+
+        return new String(complement);
+    }
+
+    // EFFECTS: Returns true if seq only consists of the characters A, C, G and T
+    public static boolean isPackable(String seq) {
+        for (int i = 0; i < seq.length(); i++) {
+            if (encode(seq.charAt(i)) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // EFFECTS: Same as encode, but looks the base up in a table instead of branching on it, which is faster
+    // on sequences whose bases don't follow a predictable pattern
+    static int lookup(char base) {
+        return base < CODES.length ? CODES[base] : -1;
+    }
+
+    // EFFECTS: Returns the 2-bit code of the base, or -1 if it is not one of A, C, G, T
+    public static int encode(char base) {
+        switch (base) {
+            case 'A':
+                return 0;
+            case 'C':
+                return 1;
+            case 'G':
+                return 2;
+            case 'T':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+}
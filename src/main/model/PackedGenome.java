@@ -0,0 +1,211 @@
+package model;
+
+import java.util.Arrays;
+
+// Genome sequence stored at 2 bits per base (A=0, C=1, G=2, T=3), 32 bases per long, in the same layout as
+// PackedAligner.pack, so the packed aligners can scan it without unpacking it.
+// Characters other than A, C, G, T (N and other ambiguity codes) are rare, so they are kept in a sorted side
+// list of exceptions, and their packed slots hold an A. The exceptions are also kept as a mask per packed word
+// that holds any, so packed scans can still compare the packed words and only correct the windows that hold
+// an exception (see PackedAligner).
+public class PackedGenome implements CharSequence {
+    public static final PackedGenome EMPTY = new PackedGenome("");
+
+    private static final int BASES_PER_WORD = 32;
+    private static final String BASES = "ACGT";
+    private static final int OVERHEAD_BYTES = 64;
+
+    private final long[] words;
+    private final int length;
+    private final int[] exceptionPositions;
+    private final char[] exceptionChars;
+    private final int[] exceptionWords;
+    private final long[] exceptionMasks;
+
+    // EFFECTS: Constructs a packed copy of the sequence
+    public PackedGenome(CharSequence seq) {
+        this.length = seq.length();
+        this.words = new long[length / BASES_PER_WORD + 2];
+        int[] positions = new int[0];
+        int exceptions = 0;
+
+        for (int start = 0; start < length; start += BASES_PER_WORD) {
+            long word = 0;
+            for (int i = start; i < Math.min(start + BASES_PER_WORD, length); i++) {
+                int code = PackedAligner.lookup(seq.charAt(i));
+                if (code < 0) {
+                    positions = recordException(positions, exceptions++, i);
+                    code = 0;
+                }
+                word |= (long) code << ((i - start) << 1);
+            }
+            words[start >>> 5] = word;
+        }
+
+        this.exceptionPositions = Arrays.copyOf(positions, exceptions);
+        this.exceptionChars = new char[exceptions];
+        for (int k = 0; k < exceptions; k++) {
+            exceptionChars[k] = seq.charAt(exceptionPositions[k]);
+        }
+
+        this.exceptionWords = wordsOf(exceptionPositions);
+        this.exceptionMasks = masksOf(exceptionPositions, exceptionWords);
+    }
+
+    // REQUIRES: positions is sorted
+    // EFFECTS: Returns the indexes of the packed words that hold the given positions, sorted and without repeats
+    private static int[] wordsOf(int[] positions) {
+        int[] words = new int[positions.length];
+        int count = 0;
+        for (int position : positions) {
+            if (count == 0 || words[count - 1] != position >>> 5) {
+                words[count++] = position >>> 5;
+            }
+        }
+
+        return Arrays.copyOf(words, count);
+    }
+
+    // REQUIRES: words are the packed words that hold the positions, as returned by wordsOf
+    // EFFECTS: Returns a mask per word with the low bit of each base at one of the positions set
+    private static long[] masksOf(int[] positions, int[] words) {
+        long[] masks = new long[words.length];
+        for (int position : positions) {
+            int word = Arrays.binarySearch(words, position >>> 5);
+            masks[word] |= 1L << ((position & (BASES_PER_WORD - 1)) << 1);
+        }
+
+        return masks;
+    }
+
+    // REQUIRES: positions holds at least the given number of exceptions
+    // EFFECTS: Returns positions with position stored after its first exceptions entries, grown by doubling if
+    // it is full
+    private static int[] recordException(int[] positions, int exceptions, int position) {
+        int[] recorded = exceptions < positions.length ? positions
+                : Arrays.copyOf(positions, Math.max(16, exceptions * 2));
+        recorded[exceptions] = position;
+        return recorded;
+    }
+
+    // EFFECTS: Returns the number of bases in the genome
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    // REQUIRES: 0 <= index < length()
+    // EFFECTS: Returns the base at index
+    @Override
+    public char charAt(int index) {
+        if (exceptionPositions.length > 0) {
+            int exception = Arrays.binarySearch(exceptionPositions, index);
+            if (exception >= 0) {
+                return exceptionChars[exception];
+            }
+        }
+
+        return BASES.charAt((int) (words[index >>> 5] >>> ((index & (BASES_PER_WORD - 1)) << 1)) & 3);
+    }
+
+    // REQUIRES: 0 <= start <= end <= length()
+    // EFFECTS: Returns the bases in [start, end) unpacked into a String
+    @Override
+    public String subSequence(int start, int end) {
+        char[] bases = new char[end - start];
+        for (int i = start; i < end; i++) {
+            bases[i - start] = BASES.charAt((int) (words[i >>> 5] >>> ((i & (BASES_PER_WORD - 1)) << 1)) & 3);
+        }
+
+        int first = Arrays.binarySearch(exceptionPositions, start);
+        for (int k = first >= 0 ? first : -first - 1; k < exceptionPositions.length; k++) {
+            if (exceptionPositions[k] >= end) {
+                break;
+            }
+            bases[exceptionPositions[k] - start] = exceptionChars[k];
+        }
+
+        return new String(bases);
+    }
+
+    // EFFECTS: Returns the offset of the first occurrence of seq in the genome, or -1 if it doesn't occur.
+    // If seq is packable, windows are compared 32 bases at a time without unpacking the genome.
+    public int indexOf(String seq) {
+        long[] target = PackedAligner.pack(seq);
+        if (target == null || seq.isEmpty()) {
+            return toString().indexOf(seq);
+        }
+
+        return PackedAligner.indexOf(target, seq.length(), this);
+    }
+
+    // EFFECTS: Returns the position of the first exception at or after from, or length() if there is none
+    int nextException(int from) {
+        int next = Arrays.binarySearch(exceptionPositions, from);
+        next = next >= 0 ? next : -next - 1;
+        return next < exceptionPositions.length ? exceptionPositions[next] : length;
+    }
+
+    // REQUIRES: 0 <= offset and masks has at least (windowLength - 1) / 32 + 1 entries
+    // MODIFIES: masks
+    // EFFECTS: Sets masks[i] to the exceptions among the bases offset + 32 * i to offset + 32 * i + 31 that lie
+    // in the window of windowLength bases from offset, in the layout of PackedAligner.pack with only the low
+    // bit of each base, which is set if the base is an exception
+    void exceptionMasks(int offset, int windowLength, long[] masks) {
+        int words = (windowLength - 1) / BASES_PER_WORD + 1;
+        Arrays.fill(masks, 0, words, 0);
+        int k = Arrays.binarySearch(exceptionWords, offset >>> 5);
+
+        for (k = k >= 0 ? k : -k - 1; k < exceptionWords.length; k++) {
+            int relative = exceptionWords[k] * BASES_PER_WORD - offset;
+            if (relative >= windowLength) {
+                break;
+            }
+            long mask = relative < 0 ? exceptionMasks[k] >>> (-relative << 1) : exceptionMasks[k];
+            relative = Math.max(relative, 0);
+            int shift = (relative & (BASES_PER_WORD - 1)) << 1;
+            masks[relative >>> 5] |= mask << shift;
+            if (shift != 0 && (relative >>> 5) + 1 < words) {
+                masks[(relative >>> 5) + 1] |= mask >>> (64 - shift);
+            }
+        }
+
+        int used = windowLength % BASES_PER_WORD;
+        if (used != 0) {
+            masks[words - 1] &= (1L << (used << 1)) - 1;
+        }
+    }
+
+    // EFFECTS: Returns true if the genome has a character other than A, C, G, T
+    public boolean hasExceptions() {
+        return exceptionPositions.length > 0;
+    }
+
+    // EFFECTS: Returns the number of characters in the genome other than A, C, G, T
+    public int getExceptionCount() {
+        return exceptionPositions.length;
+    }
+
+    // EFFECTS: Returns the approximate number of bytes of heap taken by the genome
+    public long getSizeInBytes() {
+        return sizeInBytesFor(length) + 6L * exceptionPositions.length + 12L * exceptionWords.length;
+    }
+
+    // EFFECTS: Returns the approximate number of bytes of heap taken by a genome of the given length without
+    // exceptions
+    public static long sizeInBytesFor(long length) {
+        return OVERHEAD_BYTES + 8L * (length / BASES_PER_WORD + 2);
+    }
+
+    // EFFECTS: Returns the packed words of the genome, in the layout of PackedAligner.pack.
+    // The words are shared, not copied, and hold an A wherever the genome has an exception.
+    long[] getWords() {
+        return this.words;
+    }
+
+    // EFFECTS: Returns the whole genome unpacked into a String
+    @Override
+    public String toString() {
+        return subSequence(0, length);
+    }
+}
@@ -0,0 +1,114 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Aligner that splits the reference into overlapping chunks and scores them in parallel on a ForkJoinPool.
+// A chunk covers a range of window offsets, so it overlaps the next chunk by targetSeq.length() - 1 bases.
+// Each chunk is scored with PackedAligner (or SlidingWindowAligner for non-ACGT sequences), and the
+// per-chunk best alignments are merged preferring the lower offset on ties, so the result is the same as
+// the sequential scan. References shorter than the minimum parallel length are scanned sequentially.
+public class ParallelAligner implements AlignmentEngine {
+    public static final int DEFAULT_MIN_PARALLEL_LENGTH = 1 << 18;
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private final int minParallelLength;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    // EFFECTS: Constructs a parallel aligner on the common pool with the default minimum
+    // reference length and chunk size
+    public ParallelAligner() {
+        this(DEFAULT_MIN_PARALLEL_LENGTH, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    // REQUIRES: chunkSize > 0
+    // EFFECTS: Constructs a parallel aligner on the common pool that only runs in parallel for references
+    // of at least minParallelLength bases, and scores chunkSize window offsets per task
+    public ParallelAligner(int minParallelLength, int chunkSize) {
+        this(minParallelLength, chunkSize, ForkJoinPool.commonPool());
+    }
+
+    // REQUIRES: chunkSize > 0
+    // EFFECTS: Constructs a parallel aligner that runs its chunks on the given pool
+    public ParallelAligner(int minParallelLength, int chunkSize, ForkJoinPool pool) {
+        this.minParallelLength = minParallelLength;
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+    }
+
+    // EFFECTS: Returns the name used to select this engine
+    @Override
+    public String getName() {
+        return "parallel";
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // EFFECTS: Returns the alignment with the highest similarity score between targetSeq and any
+    // window of refSeq. If multiple windows have the same highest score, the first one is returned.
+    @Override
+    public Alignment align(String targetSeq, String refSeq) {
+        if (refSeq.length() < minParallelLength || targetSeq.isEmpty()) {
+            return new PackedAligner().align(targetSeq, refSeq);
+        }
+
+        int offsets = refSeq.length() - targetSeq.length() + 1;
+        long[] packedTarget = PackedAligner.pack(targetSeq);
+        long[] packedRef = PackedAligner.pack(refSeq);
+
+        if (packedTarget == null || packedRef == null) {
+            byte[] target = targetSeq.getBytes(StandardCharsets.ISO_8859_1);
+            byte[] ref = refSeq.getBytes(StandardCharsets.ISO_8859_1);
+            return pool.invoke(new ChunkTask(0, offsets,
+                    (from, to) -> new SlidingWindowAligner().alignRange(target, ref, from, to)));
+        }
+
+        int targetLen = targetSeq.length();
+        return pool.invoke(new ChunkTask(0, offsets,
+                    (from, to) -> new PackedAligner().alignRange(packedTarget, targetLen, packedRef, from, to)));
+    }
+
+    // EFFECTS: Returns the better of two alignments, where left covers lower offsets than right
+    // and wins ties so that the first offset with the highest score is kept
+    private static Alignment merge(Alignment left, Alignment right) {
+        if (right.getScore() > left.getScore()) {
+            return right;
+        }
+        return left;
+    }
+
+    // Scores the windows starting in a range of offsets
+    private interface RangeScorer {
+        Alignment score(int from, int to);
+    }
+
+    // Fork/join task that scores the offsets in [from, to), splitting in half until a range fits in a chunk
+    private class ChunkTask extends RecursiveTask<Alignment> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final RangeScorer scorer;
+
+        ChunkTask(int from, int to, RangeScorer scorer) {
+            this.from = from;
+            this.to = to;
+            this.scorer = scorer;
+        }
+
+        @Override
+        protected Alignment compute() {
+            if (to - from <= chunkSize) {
+                return scorer.score(from, to);
+            }
+
+            int mid = from + (to - from) / 2;
+            ChunkTask left = new ChunkTask(from, mid, scorer);
+            ChunkTask right = new ChunkTask(mid, to, scorer);
+            left.fork();
+            Alignment rightResult = right.compute();
+            return merge(left.join(), rightResult);
+        }
+    }
+}
@@ -6,15 +6,23 @@ import persistence.Writable;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.io.File;
-import java.io.FileNotFoundException;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Period;
-import java.util.Scanner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 /*
 Represents a patient at the clinic who has a full name, date of birth, age (in years),
-personal health number (PHN, 10-digit number), genomic profile (as a string that consists of {A,T,G,C}),
+personal health number (PHN, 10-digit number), genomic profile (packed at 2 bits per base, see PackedGenome),
 and patient notes
  */
 public class Patient implements Writable {
@@ -23,8 +31,9 @@ public class Patient implements Writable {
     private String dob;
     private String phn;
     private int age;
-    private String genome;
     private String notes;
+    private volatile GenomeState genomeState = GenomeState.EMPTY;
+    private volatile String genomeError;
 
     // REQUIRES: dob must be written with format MM/DD/YYYY and phn must be a valid 10-digit personal health number
     // EFFECTS: Constructs a new patient given their full name, date of birth,
@@ -33,7 +42,6 @@ public class Patient implements Writable {
         this.fullName = fullName;
         this.dob = dob;
         this.phn = phn;
-        this.genome = "";
         this.notes = "";
 
         updateAge();
@@ -41,9 +49,16 @@ public class Patient implements Writable {
 
     // REQUIRES: genome is a valid DNA sequence which only consists of characters in {A,T,G,C}
     // MODIFIES: this
-    // EFFECTS:  Replaces the patient's current genome with the given genome sequence
+    // EFFECTS:  Replaces the patient's current genome with the given genome sequence, stored packed
     public void updateGenome(String genome) {
-        this.genome = genome;
+        this.genomeState = new GenomeState(new PackedGenome(genome), false, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Replaces the patient's current genome with the given genome, stored as variants from a reference
+    // genome. The patient's sequence is never stored: every diagnosis overlays the variants on the reference.
+    public void updateVariants(VariantGenome variants) {
+        this.genomeState = new GenomeState(PackedGenome.EMPTY, false, variants);
     }
 
     // MODIFIES: this
@@ -56,69 +71,473 @@ public class Patient implements Writable {
     // where this condition is located
     // EFFECTS: Returns True if the patient has the specified genetic condition
     // based on their genome. Returns False if patient doesn't have condition.
+    // If the genome was read from file, the lookup uses the genome's persisted FM-index
+    // Like every diagnosis, only the chromosome the condition is located on is searched if the genome is stored
+    // per chromosome, and the records of a FASTA genome file are otherwise searched one by one, so a match never
+    // spans two records (see getSearchedSources)
     public boolean diagnose(Condition condition) {
         EventLog.getInstance().logEvent(new Event("Diagnosed the patient with PHN, "
                 + phn + " for genetic conditions."));
-        return this.genome.contains(condition.getSequence());
+        GenomeState current = genomeState;
+        String sequence = condition.getSequence();
+        if (current.variants != null) {
+            return sequence.isEmpty() || !locateVariants(current.variants, sequence, 0).isEmpty();
+        }
+        for (GenomeSource source : sourcesOf(current, condition)) {
+            if (current.fromFile ? genomeIndexOf(current, source).count(sequence) > 0
+                    : packedGenomeOf(current, source).indexOf(sequence) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // REQUIRES: maxMismatches >= 0
+    // EFFECTS: Returns True if the condition sequence occurs in the patient's genome with at most
+    // maxMismatches substituted bases, scanning the genome once with a BitapMatcher
+    public boolean diagnose(Condition condition, int maxMismatches) {
+        EventLog.getInstance().logEvent(new Event("Diagnosed the patient with PHN, "
+                + phn + " for genetic conditions."));
+        GenomeState current = genomeState;
+        String sequence = condition.getSequence();
+        if (sequence.isEmpty()) {
+            return true;
+        } else if (current.variants != null) {
+            return !locateVariants(current.variants, sequence, maxMismatches).isEmpty();
+        }
+        BitapMatcher matcher = new BitapMatcher(sequence, maxMismatches);
+        for (GenomeSource source : sourcesOf(current, condition)) {
+            if (matcher.findFirst(packedGenomeOf(current, source)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: Returns True if the condition sequence or its reverse complement (the same sequence on the
+    // opposite strand) occurs in the patient's genome. Both strands are searched in a single pass.
+    public boolean diagnoseBothStrands(Condition condition) {
+        EventLog.getInstance().logEvent(new Event("Diagnosed the patient with PHN, "
+                + phn + " for genetic conditions."));
+        Condition reverse = new Condition(condition.getName(),
+                PackedAligner.reverseComplement(condition.getSequence()), condition.getChromosomeNumber());
+        GenomeState current = genomeState;
+        if (current.variants != null) {
+            return !locateVariants(current.variants, condition.getSequence(), 0).isEmpty()
+                    || !locateVariants(current.variants, reverse.getSequence(), 0).isEmpty();
+        }
+        ConditionMatcher matcher = new ConditionMatcher(Arrays.asList(condition, reverse));
+        for (GenomeSource source : sourcesOf(current, condition)) {
+            if (!matcher.findAll(packedGenomeOf(current, source)).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // REQUIRES: condition sequence is not empty and maxMismatches >= 0
+    // EFFECTS: Returns the offsets in the patient's genome where the condition sequence occurs with at most
+    // maxMismatches substituted bases, in increasing order, scanning the genome once without an index.
+    // If the records of a FASTA genome file are searched one by one (see getSearchedSources), the offsets are
+    // offsets in each record, in increasing order record by record.
+    public List<Integer> findCondition(Condition condition, int maxMismatches) {
+        GenomeState current = genomeState;
+        if (current.variants != null) {
+            return locateVariants(current.variants, condition.getSequence(), maxMismatches);
+        }
+        BitapMatcher matcher = new BitapMatcher(condition.getSequence(), maxMismatches);
+        List<Integer> offsets = new ArrayList<>();
+        for (GenomeSource source : sourcesOf(current, condition)) {
+            offsets.addAll(matcher.findAll(packedGenomeOf(current, source)));
+        }
+        return offsets;
+    }
+
+    // REQUIRES: maxMismatches >= 0
+    // MODIFIES: this
+    // EFFECTS: Returns the offsets in the patient's genome where the condition sequence occurs with at most
+    // maxMismatches substituted bases, in increasing order, using the FM-index of the genome (of each record,
+    // with offsets as in findCondition, if the records of a FASTA genome file are searched one by one)
+    public List<Integer> locateCondition(Condition condition, int maxMismatches) {
+        GenomeState current = genomeState;
+        if (current.variants != null) {
+            return locateVariants(current.variants, condition.getSequence(), maxMismatches);
+        }
+        List<Integer> offsets = new ArrayList<>();
+        for (GenomeSource source : sourcesOf(current, condition)) {
+            offsets.addAll(genomeIndexOf(current, source).locate(condition.getSequence(), maxMismatches));
+        }
+        return offsets;
+    }
+
+    // EFFECTS: Returns the offsets in the patient's genome stored as the given variants where seq occurs with at
+    // most maxMismatches substituted bases (see VariantGenome.locate), or none if the reference can't be read.
+    // An empty seq occurs at offset 0.
+    private static List<Integer> locateVariants(VariantGenome variants, String seq, int maxMismatches) {
+        if (seq.isEmpty()) {
+            return new ArrayList<>(Arrays.asList(0));
+        }
+        try {
+            return variants.locate(seq, maxMismatches);
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Returns the FM-index of the patient's genome. A genome read from file uses the index stored
+    // next to the genome file, which is only rebuilt when the genome file has changed. Any other genome
+    // is indexed in memory.
+    public FmIndex getGenomeIndex() {
+        return genomeIndexOf(genomeState);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Returns the FM-index of the part of the patient's genome returned by getPackedGenome(Condition).
+    // The index of a chromosome stored on its own is persisted next to the genome file, like getGenomeIndex.
+    public FmIndex getGenomeIndex(Condition condition) {
+        return genomeIndexOf(genomeState, condition);
+    }
+
+    // MODIFIES: current
+    // EFFECTS: Returns the FM-index of the genome in current (see getGenomeIndex), building it the first time
+    private FmIndex genomeIndexOf(GenomeState current) {
+        FmIndex index = current.index;
+        if (index == null && current.fromFile) {
+            try {
+                index = FmIndex.forGenomeFile(Paths.get(getGenomeFileName()));
+            } catch (IOException e) {
+                index = null;
+            }
+        }
+        if (index == null) {
+            PackedGenome genome = packedGenomeOf(current);
+            index = FmIndex.build(genome, genome.length(), 0);
+        }
+        current.index = index;
+
+        return index;
+    }
+
+    // MODIFIES: current
+    // EFFECTS: Returns the FM-index of the part of the genome in current returned by getPackedGenome(Condition)
+    // (see getGenomeIndex(Condition)), building it the first time
+    private FmIndex genomeIndexOf(GenomeState current, Condition condition) {
+        return genomeIndexOf(current, chromosomeSourceOf(current, condition));
+    }
+
+    // MODIFIES: current
+    // EFFECTS: Returns the FM-index of the source of the genome in current, or of the whole genome if source is
+    // null, building it the first time. The index of a source is persisted next to the genome file.
+    private FmIndex genomeIndexOf(GenomeState current, GenomeSource source) {
+        if (source == null) {
+            return genomeIndexOf(current);
+        }
+
+        return current.chromosomeIndexes.computeIfAbsent(source, s -> {
+            try {
+                return FmIndex.forSource(s);
+            } catch (IOException e) {
+                PackedGenome genome = packedGenomeOf(current, s);
+                return FmIndex.build(genome, genome.length(), 0);
+            }
+        });
     }
 
     // EFFECTS: Returns the results of a sequence alignment with the condition sequence
     // The condition sequence and the most similar part of the reference sequence is returned with
     // the non-similar parts redacted
     // The score of the alignment is displayed
+    // If the condition declares a region, the whole condition sequence is instead globally aligned against
+    // that region of the genome (cut off at the end of the genome), as in the gapped report
+    // If the records of a FASTA genome file are searched one by one (see getSearchedSources), the report is for
+    // the record the condition aligns best with, the first on ties
     public String getDiagnosisReport(Condition condition) {
-        if (genome.equals("")) {
+        return diagnosisReportOf(genomeState, condition);
+    }
+
+    // EFFECTS: Same as getDiagnosisReport, but if gapped the condition is aligned with gaps allowed, and the
+    // report shows both aligned regions with dashes where one has a base the other lacks, followed by the
+    // CIGAR string, the offset in the genome and the score of the alignment
+    public String getDiagnosisReport(Condition condition, boolean gapped) {
+        GenomeState current = genomeState;
+        if (!gapped || isEmpty(current) || condition.hasRegion()) {
+            return diagnosisReportOf(current, condition);
+        }
+        return formatGappedReport(condition, gappedAlignmentOf(current, condition));
+    }
+
+    // EFFECTS: Returns the diagnosis report for the condition against the genome in current (see
+    // getDiagnosisReport)
+    private String diagnosisReportOf(GenomeState current, Condition condition) {
+        if (isEmpty(current)) {
             return ""; // todo: throw a GenomeNotFoundError
         }
-        SequenceAligner seqAligner = new SequenceAligner(condition.getSequence(), genome);
+        if (condition.hasRegion()) {
+            return formatGappedReport(condition, gappedAlignmentOf(current, condition));
+        }
+        SequenceAligner seqAligner = sequenceAlignerOf(current, condition);
         seqAligner.getMostSimilarAlignment();
-        String similarityScore = Integer.toString(seqAligner.getSimilarityPercentage());
-        return "Diagnosis for " + condition.getName() + "\n"
-                + "Patient Genome: " + seqAligner.getRedactedSeq() + "\n"
-                + "Condition Seq:  " + seqAligner.getTargetSeq() + "\n"
-                + "(Similarity: " + similarityScore + "%)\n\n";
+        return formatDiagnosisReport(condition, seqAligner);
+    }
+
+    // EFFECTS: Returns the gapped alignment of the condition against the genome in current (see
+    // getDiagnosisReport(Condition, boolean)): a local alignment, or a global alignment against the region
+    // of the condition if it declares one. The alignment against the part of the genome it scores highest in
+    // is returned, the first on ties.
+    private GappedAlignment gappedAlignmentOf(GenomeState current, Condition condition) {
+        GappedAlignment best = null;
+        for (SequenceAligner aligner : alignersOf(current, condition)) {
+            GappedAlignment alignment;
+            if (condition.hasRegion()) {
+                int regionEnd = Math.min(condition.getRegionEnd(), aligner.getRefLength());
+                alignment = aligner.getGlobalAlignment(Math.min(condition.getRegionStart(), regionEnd), regionEnd);
+            } else {
+                alignment = aligner.getGappedAlignment();
+            }
+            if (best == null || alignment.getScore() > best.getScore()) {
+                best = alignment;
+            }
+        }
+        return best;
+    }
+
+    // EFFECTS: Returns an aligner of the condition sequence against the part of the patient's genome it is
+    // searched in (see getSearchedSources), or against the genome stored as variants. If the records of a FASTA
+    // genome file are searched one by one, it is the aligner against the record the condition aligns best with
+    // (the first on ties), which has already been aligned.
+    public SequenceAligner getSequenceAligner(Condition condition) {
+        return sequenceAlignerOf(genomeState, condition);
+    }
+
+    // EFFECTS: Returns an aligner of the condition sequence against the genome in current (see
+    // getSequenceAligner)
+    private SequenceAligner sequenceAlignerOf(GenomeState current, Condition condition) {
+        List<SequenceAligner> aligners = alignersOf(current, condition);
+        if (aligners.size() == 1) {
+            return aligners.get(0);
+        }
+        SequenceAligner best = null;
+        for (SequenceAligner aligner : aligners) {
+            aligner.getMostSimilarAlignment();
+            if (best == null || aligner.getSimilarityScore() > best.getSimilarityScore()) {
+                best = aligner;
+            }
+        }
+        return best;
+    }
+
+    // EFFECTS: Returns aligners of the condition sequence against each part of the genome in current it is
+    // searched in (see getSearchedSources), or against an empty genome if it is searched in none, or against
+    // the genome stored as variants
+    private List<SequenceAligner> alignersOf(GenomeState current, Condition condition) {
+        List<SequenceAligner> aligners = new ArrayList<>();
+        if (current.variants != null) {
+            aligners.add(new SequenceAligner(condition.getSequence(), current.variants));
+            return aligners;
+        }
+        for (GenomeSource source : sourcesOf(current, condition)) {
+            aligners.add(new SequenceAligner(condition.getSequence(), packedGenomeOf(current, source)));
+        }
+        if (aligners.isEmpty()) {
+            aligners.add(new SequenceAligner(condition.getSequence(), PackedGenome.EMPTY));
+        }
+        return aligners;
     }
 
     // EFFECTS: Returns all the results of the sequence alignment with condition sequences
+    // All the conditions are aligned together in a single pass over the genome with BatchAligner, except for
+    // conditions that declare a region, which are reported as in getDiagnosisReport
     public String getFullDiagnosisReport(List<Condition> conditions) {
-        if (genome.equals("")) {
+        GenomeState current = genomeState;
+        if (isEmpty(current)) {
             return "";
-        } else {
-            EventLog.getInstance().logEvent(new Event("Retrieved a full diagnosis report for"
-                    + " patient with PHN, " + phn));
-            StringBuilder report = new StringBuilder();
-            for (Condition c : conditions) {
-                report.append(getDiagnosisReport(c));
+        }
+
+        EventLog.getInstance().logEvent(new Event("Retrieved a full diagnosis report for"
+                + " patient with PHN, " + phn));
+        Alignment[] alignments = new Alignment[conditions.size()];
+        PackedGenome[] searched = new PackedGenome[conditions.size()];
+        if (current.variants == null) {
+            alignAll(current, conditions, alignments, searched);
+        }
+        StringBuilder report = new StringBuilder();
+        for (int i = 0; i < conditions.size(); i++) {
+            Condition c = conditions.get(i);
+            if (c.hasRegion() || current.variants != null) {
+                report.append(diagnosisReportOf(current, c));
+                continue;
             }
-            return report.toString();
+            SequenceAligner seqAligner = new SequenceAligner(c.getSequence(), searched[i]);
+            seqAligner.recordAlignment(alignments[i]);
+            report.append(formatDiagnosisReport(c, seqAligner));
         }
+        return report.toString();
     }
 
-    // REQUIRES: The file must exist in data directory in the format PHN_genome.txt
-    // MODIFIES: this
-    // EFFECTS: Reads the patient's genome sequence from a text file in data
-    // and updates the patient's genome. If the file doesn't exist, do nothing.
-    public void readGenome() {
-        String fileName = "./data/genomes/" + this.phn + "_genome.txt";
-        StringBuilder genome = new StringBuilder();
+    // MODIFIES: alignments, searched
+    // EFFECTS: Sets alignments[i] to the best alignment of the i-th condition against the parts of the genome in
+    // current it is searched in (see getSearchedSources), and searched[i] to the part it is in: the first part
+    // with the highest score, or an empty genome if the condition is searched in none.
+    // Conditions searched in the same part are aligned together in one pass with BatchAligner, and different
+    // parts in parallel.
+    private void alignAll(GenomeState current, List<Condition> conditions, Alignment[] alignments,
+            PackedGenome[] searched) {
+        Map<GenomeSource, List<Integer>> groups = groupsOf(current, conditions);
+        List<GenomeSource> sources = new ArrayList<>(groups.keySet());
+        PackedGenome[] genomes = new PackedGenome[sources.size()];
+        Alignment[][] found = new Alignment[sources.size()][];
+        IntStream.range(0, sources.size()).parallel().forEach(g -> {
+            genomes[g] = packedGenomeOf(current, sources.get(g));
+            List<Condition> members = new ArrayList<>();
+            for (int i : groups.get(sources.get(g))) {
+                members.add(conditions.get(i));
+            }
+            found[g] = new BatchAligner().alignAll(members, genomes[g]).toArray(new Alignment[0]);
+        });
+        for (int g = 0; g < sources.size(); g++) {
+            keepBest(groups.get(sources.get(g)), found[g], genomes[g], alignments, searched);
+        }
+        for (int i = 0; i < conditions.size(); i++) {
+            if (alignments[i] == null) {
+                alignments[i] = new Alignment(0, 0);
+                searched[i] = PackedGenome.EMPTY;
+            }
+        }
+    }
 
-        try {
-            File file = new File(fileName);
-            Scanner fileReader = new Scanner(file);
+    // EFFECTS: Returns each part of the genome in current that any of the conditions is searched in (see
+    // getSearchedSources), mapped to the indexes of the conditions searched in it
+    private Map<GenomeSource, List<Integer>> groupsOf(GenomeState current, List<Condition> conditions) {
+        Map<GenomeSource, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            for (GenomeSource source : sourcesOf(current, conditions.get(i))) {
+                groups.computeIfAbsent(source, s -> new ArrayList<>()).add(i);
+            }
+        }
+        return groups;
+    }
 
-            while (fileReader.hasNextLine()) {
-                genome.append(fileReader.nextLine());
+    // MODIFIES: alignments, searched
+    // EFFECTS: For each k, replaces alignments[members[k]] with found[k] and searched[members[k]] with genome if
+    // found[k] has a higher score, or if there is no alignment yet
+    private static void keepBest(List<Integer> members, Alignment[] found, PackedGenome genome,
+            Alignment[] alignments, PackedGenome[] searched) {
+        for (int k = 0; k < found.length; k++) {
+            int i = members.get(k);
+            if (alignments[i] == null || found[k].getScore() > alignments[i].getScore()) {
+                alignments[i] = found[k];
+                searched[i] = genome;
             }
+        }
+    }
+
+    // EFFECTS: Returns the diagnosis report for the condition from an aligner that has already been aligned
+    private String formatDiagnosisReport(Condition condition, SequenceAligner seqAligner) {
+        String similarityScore = Integer.toString(seqAligner.getSimilarityPercentage());
+        return "Diagnosis for " + condition.getName() + "\n"
+                + "Patient Genome: " + seqAligner.getRedactedSeq() + "\n"
+                + "Condition Seq:  " + seqAligner.getTargetSeq() + "\n"
+                + "(Similarity: " + similarityScore + "%)\n\n";
+    }
+
+    // EFFECTS: Returns the diagnosis report for the condition from a gapped alignment
+    private String formatGappedReport(Condition condition, GappedAlignment alignment) {
+        return "Diagnosis for " + condition.getName() + "\n"
+                + "Patient Genome: " + alignment.getAlignedRef() + "\n"
+                + "Condition Seq:  " + alignment.getAlignedTarget() + "\n"
+                + "(CIGAR: " + alignment.getCigar() + ", Offset: " + alignment.getRefStart()
+                + ", Score: " + alignment.getScore() + ")\n\n";
+    }
 
-            fileReader.close();
-        } catch (FileNotFoundException e) {
-            return;
+    // REQUIRES: The file must exist in data directory in the format PHN_genome.txt, be a FASTA file
+    // named PHN_genome.fa or PHN_genome.fasta, be block-compressed as PHN_genome.txt.gz, or be in the
+    // GenomeStore with a pointer file PHN_genome.ref
+    // MODIFIES: this
+    // EFFECTS: Replaces the patient's genome with the genome sequence in the file in data.
+    // If the file doesn't exist, do nothing. The sequence isn't read here: it is loaded through the
+    // GenomeCache the first time it is needed, and read again if it has been evicted since.
+    // If there is a variant file PHN_genome.vcf (see VariantFile), the genome is instead stored as its variants
+    // from the clinic's ReferenceGenome.
+    public void readGenome() {
+        GenomeState read = readGenomeState();
+        if (read != null) {
+            this.genomeState = read;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Same as readGenome, but a patient whose genome files have all been deleted no longer has a genome.
+    // The new genome replaces the old one in one step, so the genome can be reloaded while it is being diagnosed
+    // on another thread (see GenomeWatcher).
+    public void reloadGenome() {
+        GenomeState read = readGenomeState();
+        this.genomeState = read != null ? read : GenomeState.EMPTY;
+    }
+
+    // EFFECTS: Returns the patient's genome read from their variant file or genome file (see readGenome), or null
+    // if they have neither
+    private GenomeState readGenomeState() {
+        genomeError = null;
+        Path variantFile = VariantFile.forPatient(phn);
+        GenomeState variants = Files.isRegularFile(variantFile) ? readVariants(variantFile) : null;
+        if (variants != null) {
+            return variants;
+        }
+        if (!new File(getGenomeFileName()).isFile()) {
+            return null;
         }
 
         EventLog.getInstance().logEvent(new Event("Fetched the genome for the patient with PHN, "
                 + phn + " from the data folder."));
-        updateGenome(genome.toString());
+        return new GenomeState(null, true, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Returns the patient's genome stored as the variants in the variant file from the clinic's reference
+    // genome, or null if the file or the reference can't be read or the variants don't fit the reference, in which
+    // case why is logged and kept (see getGenomeError)
+    private GenomeState readVariants(Path variantFile) {
+        GenomeState read;
+        try {
+            read = new GenomeState(PackedGenome.EMPTY, false,
+                    new VariantGenome(ReferenceGenome.getInstance(), VariantFile.read(variantFile)));
+        } catch (IOException e) {
+            return variantsError("the variants or the reference genome couldn't be read: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return variantsError("the variants don't fit the reference genome: " + e.getMessage());
+        }
 
+        EventLog.getInstance().logEvent(new Event("Fetched the genome variants for the patient with PHN, "
+                + phn + " from the data folder."));
+        return read;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Keeps and logs why the patient's variants couldn't be read, and returns null
+    private GenomeState variantsError(String error) {
+        genomeError = error;
+        EventLog.getInstance().logEvent(new Event("Couldn't fetch the genome variants for the patient with PHN, "
+                + phn + ": " + error + "."));
+        return null;
+    }
+
+    // EFFECTS: Returns why the patient's variant file couldn't be read the last time their genome was read, or
+    // null if it could or they have none
+    public String getGenomeError() {
+        return genomeError;
+    }
+
+    // EFFECTS: Returns the name of the file the patient's genome is read from, which is a plain text, FASTA
+    // or block-compressed file named PHN_genome.txt, PHN_genome.fa, PHN_genome.fasta or PHN_genome.txt.gz,
+    // or the file in the GenomeStore that PHN_genome.ref points to (see GenomeFiles)
+    public String getGenomeFileName() {
+        return GenomeFiles.find(this.phn);
+    }
+
+    // EFFECTS: Returns the hash of the patient's genome if it is read from the GenomeStore, otherwise null
+    public String getGenomeHash() {
+        return genomeState.fromFile ? GenomeStore.hashOf(Paths.get(getGenomeFileName())) : null;
     }
 
     // REQUIRES: Patient has a valid date of birth (MM/DD/YYYY)
@@ -138,9 +557,34 @@ public class Patient implements Writable {
         this.age = howLong.getYears();
     }
 
-    // EFFECTS: Returns true if patient has no genome yet and false otherwise
+    // EFFECTS: Returns true if patient has no genome yet and false otherwise, i.e. if the genome has no bases.
+    // A genome read from file is not loaded for this: its bases are counted from its index or its lines (see
+    // GenomeFiles.countBases), once per genome. A file that can't be read counts as a genome, so the error is
+    // reported when it is loaded.
     public boolean hasNoGenome() {
-        return genome.equals("");
+        return isEmpty(genomeState);
+    }
+
+    // EFFECTS: Returns true if the genome in current has no bases (see hasNoGenome)
+    private boolean isEmpty(GenomeState current) {
+        if (current.variants != null) {
+            return current.variants.length() == 0;
+        } else if (current.fromFile) {
+            if (current.noBases == null) {
+                current.noBases = hasNoBases(Paths.get(getGenomeFileName()));
+            }
+            return current.noBases;
+        }
+        return current.genome.length() == 0;
+    }
+
+    // EFFECTS: Returns true if the genome file has no bases, and false if it has some or can't be read
+    private static boolean hasNoBases(Path genomeFile) {
+        try {
+            return GenomeFiles.countBases(genomeFile) == 0;
+        } catch (IOException e) {
+            return false;
+        }
     }
 
     // EFFECTS: Returns all the information about a patient
@@ -177,9 +621,90 @@ public class Patient implements Writable {
         return this.age;
     }
 
-    // EFFECTS: Returns the patient's genome
+    // EFFECTS: Returns the patient's genome, unpacked into a String
     public String getGenome() {
-        return this.genome;
+        return getPackedGenome().toString();
+    }
+
+    // EFFECTS: Returns the patient's genome as it is stored, packed at 2 bits per base
+    // A genome read from file is loaded through the GenomeCache. A genome stored as variants is materialised
+    // and packed on every call, so diagnoses use getVariantGenome instead.
+    public PackedGenome getPackedGenome() {
+        return packedGenomeOf(genomeState);
+    }
+
+    // EFFECTS: Returns the part of the patient's genome the condition is searched in: the chromosome the
+    // condition is located on if the genome is stored per chromosome, or else the whole genome, even if its
+    // records are searched one by one (see getSearchedSources).
+    // Offsets found in it are offsets in that chromosome.
+    public PackedGenome getPackedGenome(Condition condition) {
+        return packedGenomeOf(genomeState, condition);
+    }
+
+    // EFFECTS: Returns the bases of the source of the patient's genome, or the whole genome if source is null
+    public PackedGenome getPackedGenome(GenomeSource source) {
+        return packedGenomeOf(genomeState, source);
+    }
+
+    // EFFECTS: Returns the parts of the patient's genome the condition is searched in, each searched on its own
+    // with offsets in it: the chromosome the condition is located on if it is stored on its own (see
+    // getChromosomeSource), or else each record of a FASTA genome file with several records that is at least
+    // as long as the condition sequence, so no match spans two records, or else the whole genome, as null
+    public List<GenomeSource> getSearchedSources(Condition condition) {
+        return sourcesOf(genomeState, condition);
+    }
+
+    // EFFECTS: Returns where the chromosome the condition is located on is stored on its own, which is a record
+    // of the patient's FASTA genome file named after the chromosome (see GenomeFiles.chromosomeNames).
+    // Returns null if the genome isn't stored per chromosome or has no record for that chromosome.
+    public GenomeSource getChromosomeSource(Condition condition) {
+        return chromosomeSourceOf(genomeState, condition);
+    }
+
+    // EFFECTS: Returns the patient's genome stored as variants from a reference genome, or null if it isn't
+    public VariantGenome getVariantGenome() {
+        return this.genomeState.variants;
+    }
+
+    // EFFECTS: Returns the genome in current (see getPackedGenome)
+    private PackedGenome packedGenomeOf(GenomeState current) {
+        if (current.variants != null) {
+            return new PackedGenome(current.variants);
+        } else if (current.fromFile) {
+            return GenomeCache.getInstance().get(Paths.get(getGenomeFileName()));
+        }
+        return current.genome;
+    }
+
+    // EFFECTS: Returns the part of the genome in current the condition is searched in (see
+    // getPackedGenome(Condition))
+    private PackedGenome packedGenomeOf(GenomeState current, Condition condition) {
+        return packedGenomeOf(current, chromosomeSourceOf(current, condition));
+    }
+
+    // EFFECTS: Returns the source of the genome in current (see getPackedGenome(GenomeSource))
+    private PackedGenome packedGenomeOf(GenomeState current, GenomeSource source) {
+        return source == null ? packedGenomeOf(current) : GenomeCache.getInstance().get(source);
+    }
+
+    // EFFECTS: Returns the parts of the genome in current the condition is searched in (see getSearchedSources)
+    private List<GenomeSource> sourcesOf(GenomeState current, Condition condition) {
+        GenomeSource chromosome = chromosomeSourceOf(current, condition);
+        if (chromosome != null) {
+            return Collections.singletonList(chromosome);
+        }
+        List<GenomeSource> records = current.fromFile
+                ? GenomeFiles.findRecords(Paths.get(getGenomeFileName()), condition.getSequence().length()) : null;
+        return records != null ? records : Collections.singletonList(null);
+    }
+
+    // EFFECTS: Returns where the chromosome the condition is located on is stored on its own for the genome in
+    // current (see getChromosomeSource)
+    private GenomeSource chromosomeSourceOf(GenomeState current, Condition condition) {
+        if (!current.fromFile) {
+            return null;
+        }
+        return GenomeFiles.findChromosome(Paths.get(getGenomeFileName()), condition.getChromosomeNumber());
     }
 
     // EFFECTS: Returns the notes stored for the patient
@@ -205,4 +730,27 @@ public class Patient implements Writable {
     public String toString() {
         return fullName + " (PHN: " + phn + ")";
     }
+
+    // The patient's genome at one moment: a packed sequence, the patient's genome file read through the
+    // GenomeCache, or variants from a reference genome, with the FM-indexes built for it. A new genome gets a new
+    // state, which replaces the old one in one step, so a diagnosis that runs while the genome is reloaded on
+    // another thread (see GenomeWatcher) sees either the old genome or the new one, never one half replaced.
+    private static class GenomeState {
+        private static final GenomeState EMPTY = new GenomeState(PackedGenome.EMPTY, false, null);
+
+        private final PackedGenome genome;
+        private final boolean fromFile;
+        private final VariantGenome variants;
+        private final Map<GenomeSource, FmIndex> chromosomeIndexes = new ConcurrentHashMap<>();
+        private volatile FmIndex index;
+        private volatile Boolean noBases;
+
+        // EFFECTS: Constructs the state of a genome that is read from the patient's genome file if fromFile, or
+        // else stored as variants if variants isn't null, or else the packed genome
+        GenomeState(PackedGenome genome, boolean fromFile, VariantGenome variants) {
+            this.genome = genome;
+            this.fromFile = fromFile;
+            this.variants = variants;
+        }
+    }
 }
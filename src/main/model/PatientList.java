@@ -9,10 +9,12 @@ import java.util.*;
 
 /*
 Stores a list of patients who are registered with the clinic
+The list is copied whenever a patient is added or removed, so a list returned by getPatients never changes and can
+be iterated on one thread (e.g. by GenomeWatcher) while patients are added or removed on another
 toJson method is derived from JsonSeralizationDemo
  */
 public class PatientList implements WritableArray {
-    private List<Patient> patients;
+    private volatile List<Patient> patients;
 
     // EFFECTS: Constructs a new PatientList with an empty list of patients.
     public PatientList() {
@@ -22,9 +24,11 @@ public class PatientList implements WritableArray {
     // MODIFIES: this
     // EFFECTS: Adds patient to the list if not already present, otherwise do nothing
     // Returns true if patient was added, false otherwise.
-    public boolean addPatient(Patient patient) {
+    public synchronized boolean addPatient(Patient patient) {
         if (!isPatientRegistered(patient)) {
-            this.patients.add(patient);
+            List<Patient> newPatients = new ArrayList<Patient>(this.patients);
+            newPatients.add(patient);
+            this.patients = newPatients;
             EventLog.getInstance().logEvent(new Event("Added a new patient, "
                     + patient.getFullName() + ", to the list of patients."));
             return true;
@@ -36,7 +40,7 @@ public class PatientList implements WritableArray {
     // MODIFIES: this
     // EFFECTS: Removes patient with specified PHN from the list if present, otherwise do nothing
     // Returns true if patient was found and removed, false otherwise
-    public boolean removePatient(String phn) {
+    public synchronized boolean removePatient(String phn) {
         List<Patient> newPatients = new ArrayList<Patient>();
         boolean found = false;
 
@@ -76,9 +80,9 @@ public class PatientList implements WritableArray {
         return false;
     }
 
-    // EFFECTS: Returns the list of patients registered so far
+    // EFFECTS: Returns the list of patients registered so far, which isn't changed by later additions or removals
     public List<Patient> getPatients() {
-        return this.patients;
+        return Collections.unmodifiableList(this.patients);
     }
 
     // EFFECTS: Converts PatientList object to a JSONObject and returns it
@@ -0,0 +1,71 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// The reference genome the clinic stores patients' genomes against. A patient whose genome is stored as a list of
+// variants from the reference (see VariantGenome) doesn't have a sequence of their own: every such patient
+// shares the clinic's one reference, with its FM-index. The clinic's reference is read from the genome file
+// named by the clinic.genome.reference system property (./data/genomes/reference.txt by default).
+public class ReferenceGenome {
+    public static final String REFERENCE_PROPERTY = "clinic.genome.reference";
+    public static final String DEFAULT_REFERENCE_FILE = GenomeFiles.GENOME_DIRECTORY + "reference.txt";
+
+    private static ReferenceGenome theReference;
+
+    private final Path file;
+    private PackedGenome sequence;
+    private FmIndex index;
+
+    // EFFECTS: Constructs the reference genome in the genome file, which is only read when first needed
+    public ReferenceGenome(Path file) {
+        this.file = file;
+    }
+
+    // REQUIRES: sequence only consists of characters in {A,T,G,C}
+    // EFFECTS: Constructs a reference genome with the given sequence, held in memory
+    public ReferenceGenome(String sequence) {
+        this.file = null;
+        this.sequence = new PackedGenome(sequence);
+    }
+
+    // EFFECTS: Returns the clinic's reference genome, read from the file named by clinic.genome.reference
+    public static synchronized ReferenceGenome getInstance() {
+        if (theReference == null) {
+            theReference = new ReferenceGenome(Paths.get(System.getProperty(REFERENCE_PROPERTY,
+                    DEFAULT_REFERENCE_FILE)));
+        }
+
+        return theReference;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Returns the sequence of the reference, reading it from its file the first time.
+    // Throws IOException if the file can't be read.
+    public synchronized PackedGenome getSequence() throws IOException {
+        if (sequence == null) {
+            sequence = new PackedGenome(GenomeFiles.open(file));
+        }
+
+        return sequence;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Returns the FM-index of the reference. The index of a reference read from file is stored next to
+    // it (see FmIndex.forGenomeFile); any other reference is indexed in memory.
+    // Throws IOException if the reference file or its index can't be read.
+    public synchronized FmIndex getIndex() throws IOException {
+        if (index == null) {
+            PackedGenome genome = getSequence();
+            index = file != null ? FmIndex.forGenomeFile(file) : FmIndex.build(genome, genome.length(), 0);
+        }
+
+        return index;
+    }
+
+    // EFFECTS: Returns the file the reference is read from, or null if it is held in memory
+    public Path getFile() {
+        return this.file;
+    }
+}
@@ -0,0 +1,211 @@
+package model;
+
+import java.util.Arrays;
+
+// Substitution matrix giving the score of aligning each base against each other base, compiled into a flat
+// int lookup table indexed by the encoded pair of bases (A=0, C=1, G=2, T=3, anything else 4).
+// Any character other than A, C, G, T scores otherScore against everything.
+// Packed sequences (see PackedAligner) are scored 32 bases at a time with popcounts. A matrix that only depends
+// on whether a pair is a match, a transition (A-G, C-T) or a transversion, which is the XOR of the 2-bit codes,
+// needs just two popcounts per word. Any other matrix is expanded over the bits of the target base t and of
+// d = t XOR r, where r is the reference base: the score of a pair is a sum of terms, each a coefficient times a
+// product of some of those bits. Terms of t alone only depend on the target, so they are added up once per
+// target word (see prepare); the others need one popcount each, 3 for a matrix that only depends on d and at
+// most 12 for any other matrix. The packed target's bit masks are also computed once, not once per window.
+// A full 4x4 matrix still scans about 2x slower than the unweighted scan, which needs one popcount per word,
+// against about 1.2x for a transition/transversion matrix (see PackedAlignerBenchmark in the tests).
+public class ScoringMatrix {
+    private static final int BASES = 4;
+    private static final int OTHER = 4;
+    private static final int STRIDE = 8;
+    private static final long LOW_BITS = 0x5555555555555555L;
+    private static final int[] CODES = new int[256];
+    private static final int PREPARED_STRIDE = 5;
+    private static final int D0 = 4;
+    private static final int D1 = 8;
+    private static final int D01 = 12;
+
+    static {
+        Arrays.fill(CODES, OTHER);
+        for (char base : "ACGT".toCharArray()) {
+            CODES[base] = PackedAligner.encode(base);
+        }
+    }
+
+    private final int[] table;
+    private final int maxScore;
+    private final boolean byTransitionClass;
+    private final int[] coefficients;
+
+    // REQUIRES: scores is a 4x4 matrix whose rows and columns are in the order A, C, G, T
+    // EFFECTS: Constructs a scoring matrix from the full 4x4 matrix of scores between bases, where any other
+    // character scores otherScore
+    public ScoringMatrix(int[][] scores, int otherScore) {
+        this.table = new int[STRIDE * STRIDE];
+        Arrays.fill(table, otherScore);
+        int max = otherScore;
+        for (int a = 0; a < BASES; a++) {
+            for (int b = 0; b < BASES; b++) {
+                table[a * STRIDE + b] = scores[a][b];
+                max = Math.max(max, scores[a][b]);
+            }
+        }
+
+        this.maxScore = max;
+        this.byTransitionClass = dependsOnlyOnTransitionClass();
+        this.coefficients = expand();
+    }
+
+    // EFFECTS: Returns the matrix that scores 1 for a match and 0 for any mismatch, the same as the
+    // unweighted similarity score on sequences of A, C, G and T
+    public static ScoringMatrix unit() {
+        return transitionTransversion(1, 0, 0);
+    }
+
+    // EFFECTS: Returns the matrix that scores matchScore for a match, transitionScore for a transition
+    // (A-G or C-T), and transversionScore for any other pair of different bases. Any other character
+    // scores transversionScore.
+    public static ScoringMatrix transitionTransversion(int matchScore, int transitionScore, int transversionScore) {
+        int[][] scores = new int[BASES][BASES];
+        for (int a = 0; a < BASES; a++) {
+            for (int b = 0; b < BASES; b++) {
+                int xor = a ^ b;
+                scores[a][b] = xor == 0 ? matchScore : xor == 2 ? transitionScore : transversionScore;
+            }
+        }
+
+        return new ScoringMatrix(scores, transversionScore);
+    }
+
+    // EFFECTS: Returns the score of aligning base a against base b
+    public int score(char a, char b) {
+        return table[code(a) * STRIDE + code(b)];
+    }
+
+    // REQUIRES: seqA has at least aOffset + length chars and seqB at least bOffset + length chars
+    // EFFECTS: Returns the total score of aligning the length chars of seqA from aOffset against the
+    // length chars of seqB from bOffset, one table lookup per pair
+    public int score(String seqA, int aOffset, String seqB, int bOffset, int length) {
+        int total = 0;
+        for (int i = 0; i < length; i++) {
+            total += table[code(seqA.charAt(aOffset + i)) * STRIDE + code(seqB.charAt(bOffset + i))];
+        }
+
+        return total;
+    }
+
+    // EFFECTS: Returns the highest score any pair of characters can get
+    public int getMaxScore() {
+        return this.maxScore;
+    }
+
+    // REQUIRES: a and b are words of sequences packed by PackedAligner.pack, and mask has the low bit set for
+    // each base in the words that should be scored, and no other bits
+    // EFFECTS: Returns the total score of the bases selected by mask in a against those in b
+    int scoreWord(long a, long b, long mask) {
+        long[] prepared = new long[PREPARED_STRIDE];
+        prepareWord(prepared, 0, a, mask);
+        return scorePrepared(prepared, 0, b);
+    }
+
+    // REQUIRES: target is packed by PackedAligner.pack into at least the given number of words > 0, and
+    // lastMask has the low bit set for each base of the last of those words
+    // EFFECTS: Returns the words of the target prepared for scoring against windows with scorePrepared: each
+    // word with its mask, the bit masks of its bases and the sum of the terms that only depend on them
+    long[] prepare(long[] target, int words, long lastMask) {
+        long[] prepared = new long[words * PREPARED_STRIDE];
+        for (int i = 0; i < words; i++) {
+            prepareWord(prepared, i, target[i], i == words - 1 ? lastMask : LOW_BITS);
+        }
+
+        return prepared;
+    }
+
+    // REQUIRES: prepared is returned by prepare, and word is one of its words
+    // EFFECTS: Returns the total score of the given word of the prepared target against window, the 32 bases
+    // of the packed reference aligned with it
+    int scorePrepared(long[] prepared, int word, long window) {
+        int k = word * PREPARED_STRIDE;
+        long diff = prepared[k] ^ window;
+        long mask = prepared[k + 1];
+        if (byTransitionClass) {
+            long transversions = diff & mask;
+            long transitions = (diff >>> 1) & ~diff & mask;
+            return (int) prepared[k + 4] + Long.bitCount(transitions) * (table[2] - table[0])
+                    + Long.bitCount(transversions) * (table[1] - table[0]);
+        }
+
+        long t0 = prepared[k + 2];
+        long t1 = prepared[k + 3];
+        long d0 = diff & mask;
+        long d1 = (diff >>> 1) & mask;
+        return (int) prepared[k + 4] + terms(D0, d0, t0, t1) + terms(D1, d1, t0, t1) + terms(D01, d0 & d1, t0, t1);
+    }
+
+    // MODIFIES: prepared
+    // EFFECTS: Stores the packed target word a, with the mask of its bases, as word i of prepared
+    private void prepareWord(long[] prepared, int i, long a, long mask) {
+        int k = i * PREPARED_STRIDE;
+        long t0 = a & mask;
+        long t1 = (a >>> 1) & mask;
+        prepared[k] = a;
+        prepared[k + 1] = mask;
+        prepared[k + 2] = t0;
+        prepared[k + 3] = t1;
+        if (byTransitionClass) {
+            prepared[k + 4] = (long) Long.bitCount(mask) * table[0];
+        } else {
+            prepared[k + 4] = (long) Long.bitCount(mask) * coefficients[0] + Long.bitCount(t0) * coefficients[1]
+                    + Long.bitCount(t1) * coefficients[2] + Long.bitCount(t0 & t1) * coefficients[3];
+        }
+    }
+
+    // EFFECTS: Returns the sum of the terms with the bits of d in the product (D0, D1 or D01), where d masks the
+    // bases whose bits they are: the term of d alone and its products with the bits of the target base
+    private int terms(int dBits, long d, long t0, long t1) {
+        return coefficients[dBits] * Long.bitCount(d) + coefficients[dBits | 1] * Long.bitCount(d & t0)
+                + coefficients[dBits | 2] * Long.bitCount(d & t1)
+                + coefficients[dBits | 3] * Long.bitCount(d & t0 & t1);
+    }
+
+    // EFFECTS: Returns the coefficients of the score of a pair of bases as a sum of products of the bits t0,
+    // t1 of the target base t and d0, d1 of d = t XOR r. The coefficient of a product is at the index with
+    // bit 0 set for t0, bit 1 for t1, bit 2 for d0 and bit 3 for d1 (the Mobius transform of the scores).
+    private int[] expand() {
+        int[] expanded = new int[16];
+        for (int bits = 0; bits < 16; bits++) {
+            int t = bits & 3;
+            expanded[bits] = table[t * STRIDE + (t ^ (bits >>> 2))];
+        }
+        for (int bit = 1; bit < 16; bit <<= 1) {
+            for (int bits = 0; bits < 16; bits++) {
+                if ((bits & bit) != 0) {
+                    expanded[bits] -= expanded[bits ^ bit];
+                }
+            }
+        }
+
+        return expanded;
+    }
+
+    // EFFECTS: Returns true if the score of every pair of bases only depends on the XOR of their codes, i.e.
+    // whether they match, are a transition or are a transversion, and every transversion scores the same
+    private boolean dependsOnlyOnTransitionClass() {
+        for (int a = 0; a < BASES; a++) {
+            for (int b = 0; b < BASES; b++) {
+                int xor = a ^ b;
+                int expected = xor == 3 ? table[1] : table[xor];
+                if (table[a * STRIDE + b] != expected) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    // EFFECTS: Returns the code of the character used to index the lookup table
+    private static int code(char c) {
+        return c < CODES.length ? CODES[c] : OTHER;
+    }
+}
@@ -0,0 +1,127 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.TreeSet;
+
+// Heuristic aligner for whole-genome references. A k-mer index is built over the reference, the k-mers of
+// the target are looked up in it as seeds, and only the windows that line up with a seed are scored.
+// The sensitivity trades recall for speed:
+//  - kmerLength: longer k-mers give fewer, more specific seeds
+//  - seedStride: only every seedStride-th k-mer of the target is used as a seed
+//  - maxSeedHits: k-mers that occur more often than this (repeats) are not used as seeds
+// If no seed lines up with any window, every window is scored as with PackedAligner.
+// Unlike the exact engines, the result can miss the best window when it shares no seed with the target.
+public class SeedExtendAligner implements AlignmentEngine {
+    public static final int DEFAULT_KMER_LENGTH = 11;
+    public static final int DEFAULT_SEED_STRIDE = 1;
+    public static final int DEFAULT_MAX_SEED_HITS = 256;
+
+    private final int kmerLength;
+    private final int seedStride;
+    private final int maxSeedHits;
+    private KmerIndex index;
+
+    // EFFECTS: Constructs a seed-and-extend aligner with the default sensitivity
+    public SeedExtendAligner() {
+        this(DEFAULT_KMER_LENGTH, DEFAULT_SEED_STRIDE, DEFAULT_MAX_SEED_HITS);
+    }
+
+    // REQUIRES: 0 < kmerLength <= KmerIndex.MAX_K, seedStride > 0 and maxSeedHits > 0
+    // EFFECTS: Constructs a seed-and-extend aligner with the given sensitivity
+    public SeedExtendAligner(int kmerLength, int seedStride, int maxSeedHits) {
+        this.kmerLength = kmerLength;
+        this.seedStride = seedStride;
+        this.maxSeedHits = maxSeedHits;
+    }
+
+    // EFFECTS: Returns the name used to select this engine
+    @Override
+    public String getName() {
+        return "seed";
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // MODIFIES: this
+    // EFFECTS: Returns the alignment with the highest similarity score among the windows of refSeq that
+    // share a seed with targetSeq, preferring the first offset on ties. The k-mer index of refSeq is kept
+    // so that aligning more targets against the same reference does not rebuild it.
+    @Override
+    public Alignment align(String targetSeq, String refSeq) {
+        if (targetSeq.length() < kmerLength) {
+            return new PackedAligner().align(targetSeq, refSeq);
+        }
+
+        TreeSet<Integer> candidates = findCandidateOffsets(targetSeq, refSeq);
+        if (candidates.isEmpty()) {
+            return new PackedAligner().align(targetSeq, refSeq);
+        }
+
+        byte[] target = targetSeq.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] ref = refSeq.getBytes(StandardCharsets.ISO_8859_1);
+        int highestScore = -1;
+        int bestOffset = 0;
+        for (int offset : candidates) {
+            int score = SimilarityKernel.countMatches(target, 0, ref, offset, target.length);
+            if (score > highestScore) {
+                highestScore = score;
+                bestOffset = offset;
+            }
+        }
+
+        return new Alignment(highestScore, bestOffset);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Returns the offsets of the windows of refSeq that line up with at least one seed of targetSeq
+    private TreeSet<Integer> findCandidateOffsets(String targetSeq, String refSeq) {
+        if (index == null || index.getSequence() != refSeq || index.getKmerLength() != kmerLength) {
+            index = new KmerIndex(refSeq, kmerLength);
+        }
+
+        TreeSet<Integer> candidates = new TreeSet<>();
+        int lastOffset = refSeq.length() - targetSeq.length();
+        for (int start = 0; start + kmerLength <= targetSeq.length(); start += seedStride) {
+            long code = KmerIndex.encode(targetSeq, start, kmerLength);
+            int[] hits = code < 0 ? new int[0] : index.lookup(code);
+            if (hits.length > maxSeedHits) {
+                continue;
+            }
+
+            for (int hit : hits) {
+                int offset = hit - start;
+                if (offset >= 0 && offset <= lastOffset) {
+                    candidates.add(offset);
+                }
+            }
+        }
+
+        return candidates;
+    }
+
+    // EFFECTS: Returns a report that compares the seed-and-extend alignment of every condition against the
+    // genome with the exhaustive alignment from PackedAligner: the score and offset found by both, whether
+    // the seeded search found the best score, and the time each search took
+    public String getComparisonReport(List<Condition> conditions, String genome) {
+        StringBuilder report = new StringBuilder();
+        int found = 0;
+
+        for (Condition c : conditions) {
+            long start = System.nanoTime();
+            Alignment seeded = align(c.getSequence(), genome);
+            long seededTime = System.nanoTime() - start;
+            Alignment exhaustive = new PackedAligner().align(c.getSequence(), genome);
+            long exhaustiveTime = System.nanoTime() - start - seededTime;
+
+            boolean bestFound = seeded.getScore() == exhaustive.getScore();
+            found += bestFound ? 1 : 0;
+            report.append(c.getName() + ": seeded " + seeded.getScore() + " at " + seeded.getOffset()
+                    + " (" + seededTime / 1000 + " us), exhaustive " + exhaustive.getScore() + " at "
+                    + exhaustive.getOffset() + " (" + exhaustiveTime / 1000 + " us)"
+                    + (bestFound ? "" : " - best alignment missed") + "\n");
+        }
+
+        report.append("Best alignment found for " + found + " of " + conditions.size() + " conditions\n");
+        return report.toString();
+    }
+}
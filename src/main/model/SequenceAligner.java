@@ -1,31 +1,91 @@
 package model;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 // Sequence aligner stores two sequences and compares their similarity to find the
 // section from both sequences that are most similar. Stores the redacted sequence from ref after alignment and
-// the score of the maximum alignment
+// the score and offset of the maximum alignment
 public class SequenceAligner {
+    public static final int DEFAULT_FFT_THRESHOLD = 2048;
+
     private String targetSeq;
     private String refSeq;
+    private PackedGenome packedRef;
+    private VariantGenome variantRef;
     private String redSeq;
     private int score;
+    private int offset;
+    private boolean reverseStrand;
+    private int fftThreshold;
+    private AlignmentEngine engine;
 
     // REQUIRES: Length of seqB should be larger than seqA and needs to be valid genome sequence
     // i.e. consists of ATGC only
     // EFFECTS: Constructs a new sequence aligner object with the two sequences to compare initialized
-    // The redacted sequence is empty and the score is -1 to begin with
+    // The redacted sequence is empty and the score and offset are -1 to begin with
+    // Alignments use the engine selected by the clinic.aligner.engine system property, and target
+    // sequences of at least DEFAULT_FFT_THRESHOLD bases are aligned with FFT cross-correlation
     public SequenceAligner(String targetSeq, String refSeq) {
+        this(targetSeq, refSeq, AlignmentEngines.fromSystemProperty());
+    }
+
+    // REQUIRES: Length of seqB should be larger than seqA and needs to be valid genome sequence
+    // i.e. consists of ATGC only
+    // EFFECTS: Constructs a new sequence aligner object that aligns the two sequences with the given engine
+    // The redacted sequence is empty and the score and offset are -1 to begin with
+    public SequenceAligner(String targetSeq, String refSeq, AlignmentEngine engine) {
         this.targetSeq = targetSeq;
         this.refSeq = refSeq;
         this.redSeq = "";
         this.score = -1;
+        this.offset = -1;
+        this.fftThreshold = DEFAULT_FFT_THRESHOLD;
+        this.engine = engine;
+    }
+
+    // REQUIRES: The genome should be longer than targetSeq
+    // EFFECTS: Same as SequenceAligner(targetSeq, refSeq), but the reference is a packed genome. The ungapped
+    // alignments with PackedAligner (the most similar, both strands, weighted, top and by similarity) scan its
+    // packed words directly, and global alignments only copy their region. The genome is only unpacked (once)
+    // for other engines, for FFT alignment of long targets and for gapped alignments, which need it as a String.
+    public SequenceAligner(String targetSeq, PackedGenome genome) {
+        this(targetSeq, genome, AlignmentEngines.fromSystemProperty());
+    }
+
+    // REQUIRES: The genome should be longer than targetSeq
+    // EFFECTS: Same as SequenceAligner(targetSeq, genome), but aligns with the given engine
+    public SequenceAligner(String targetSeq, PackedGenome genome, AlignmentEngine engine) {
+        this(targetSeq, (String) null, engine);
+        this.packedRef = genome;
+    }
+
+    // REQUIRES: The genome should be longer than targetSeq
+    // EFFECTS: Same as SequenceAligner(targetSeq, refSeq), but the reference is a genome stored as variants from
+    // a reference genome. The most similar alignment is found by overlaying the variants on the reference (see
+    // VariantGenome.align), without materialising the genome; it is only materialised (once) for the other
+    // alignments, which need it as a String.
+    public SequenceAligner(String targetSeq, VariantGenome genome) {
+        this(targetSeq, genome, AlignmentEngines.fromSystemProperty());
+    }
+
+    // REQUIRES: The genome should be longer than targetSeq
+    // EFFECTS: Same as SequenceAligner(targetSeq, genome), but aligns with the given engine
+    public SequenceAligner(String targetSeq, VariantGenome genome, AlignmentEngine engine) {
+        this(targetSeq, (String) null, engine);
+        this.variantRef = genome;
     }
 
     // REQUIRES: seqA.length() == seqB.length()
     // EFFECTS: Returns the similarity score between two sequences
     // Each match in a char counts as +1, each mismatch counts as 0
+    // Long sequences are compared 8 bases at a time with SimilarityKernel
     public int calculateSimilarityScore(String seqA, String seqB) {
+        if (seqA.length() >= SimilarityKernel.MIN_WIDE_LENGTH) {
+            return SimilarityKernel.countMatches(seqA.getBytes(StandardCharsets.ISO_8859_1), 0,
+                    seqB.getBytes(StandardCharsets.ISO_8859_1), 0, seqA.length());
+        }
+
         int score = 0;
         for (int i = 0; i < seqA.length(); i++) {
             if (seqA.charAt(i) == seqB.charAt(i)) {
@@ -37,33 +97,145 @@ public class SequenceAligner {
     }
 
 
+    // REQUIRES: seqA.length() == seqB.length()
+    // EFFECTS: Returns the similarity score between two sequences where each pair of chars is scored
+    // with the given scoring matrix, e.g. to weigh transitions and transversions differently
+    public int calculateSimilarityScore(String seqA, String seqB, ScoringMatrix matrix) {
+        return matrix.score(seqA, 0, seqB, 0, seqA.length());
+    }
+
     // REQUIRES: seqA.length() < refSeq.length()
     // MODIFIES: this
     // EFFECTS: Returns the section of seqA and refSeq which are most similar in terms of
-    // similarity score, calculated using the calculateSimilarityScore function and also returns a
+    // similarity score, calculated with this aligner's AlignmentEngine and also returns a
     // redacted version of seqA with the same chars only present in that order
     // If multiple sections have same highest score, then return the first section with highest score
+    // If seqA is at least as long as the FFT threshold, the alignment is computed with FftAligner instead
+    // If refSeq is shorter than seqA, no section can be compared, so nothing is recorded
     public void getMostSimilarAlignment() {
-        int startIdx = 0;
-        int endIdx = targetSeq.length();
-        int highestScore = 0;
-        String mostSimilarSectionRef = refSeq.substring(0, targetSeq.length());
-
-        while (endIdx <= refSeq.length()) {
-            String secRef = refSeq.substring(startIdx, endIdx);
-            int score = calculateSimilarityScore(targetSeq, secRef);
-
-            if (score > highestScore) {
-                highestScore = score;
-                mostSimilarSectionRef = secRef;
-            }
+        if (targetSeq.length() >= fftThreshold) {
+            getMostSimilarAlignment(new FftAligner());
+        } else {
+            getMostSimilarAlignment(engine);
+        }
+    }
+
+    // REQUIRES: seqA.length() < refSeq.length()
+    // MODIFIES: this
+    // EFFECTS: Same as getMostSimilarAlignment, but the alignment is always computed with the given engine
+    public void getMostSimilarAlignment(AlignmentEngine engine) {
+        if (getRef().length() < targetSeq.length()) {
+            return;
+        } else if (variantRef != null) {
+            recordAlignment(variantRef.align(targetSeq, engine));
+        } else if (packedRef != null && engine instanceof PackedAligner) {
+            recordAlignment(((PackedAligner) engine).align(targetSeq, packedRef));
+        } else {
+            recordAlignment(engine.align(targetSeq, getRefSeq()));
+        }
+    }
+
+    // REQUIRES: seqA.length() < refSeq.length()
+    // MODIFIES: this
+    // EFFECTS: Same as getMostSimilarAlignment, but the sections of refSeq are compared against both seqA and
+    // its reverse complement in a single pass over refSeq, so a condition on the opposite strand is found too.
+    // On ties the first section is returned, preferring the forward strand at the same section.
+    public void getMostSimilarAlignmentBothStrands() {
+        if (getRef().length() < targetSeq.length()) {
+            return;
+        }
+        PackedAligner aligner = new PackedAligner();
+        recordAlignment(packedRef != null ? aligner.alignBothStrands(targetSeq, packedRef)
+                : aligner.alignBothStrands(targetSeq, getRefSeq()));
+    }
+
+    // EFFECTS: Returns the best gapped local alignment between seqA and refSeq, computed with
+    // SmithWatermanAligner, so an insertion or deletion in refSeq doesn't shift the rest of seqA out of place.
+    // Does not change the alignment stored in this aligner.
+    public GappedAlignment getGappedAlignment() {
+        return new SmithWatermanAligner().align(targetSeq, getRefSeq());
+    }
+
+    // REQUIRES: 0 <= regionStart <= regionEnd <= refSeq.length()
+    // EFFECTS: Returns the best global alignment of the whole seqA against the region [regionStart, regionEnd)
+    // of refSeq, computed in linear space with HirschbergAligner. Only the region is copied out of a packed
+    // or variant reference, so the genome is not unpacked.
+    // Does not change the alignment stored in this aligner.
+    public GappedAlignment getGlobalAlignment(int regionStart, int regionEnd) {
+        return new HirschbergAligner().align(targetSeq, getRef(), regionStart, regionEnd);
+    }
+
+    // REQUIRES: seqA.length() < refSeq.length()
+    // EFFECTS: Returns the section of refSeq with the highest similarity score with seqA when each pair of
+    // chars is scored with the given scoring matrix, and the first such section on ties.
+    // Does not change the alignment stored in this aligner.
+    public Alignment getWeightedAlignment(ScoringMatrix matrix) {
+        PackedAligner aligner = new PackedAligner();
+        return packedRef != null ? aligner.alignWeighted(targetSeq, packedRef, matrix)
+                : aligner.alignWeighted(targetSeq, getRefSeq(), matrix);
+    }
+
+    // REQUIRES: seqA.length() < refSeq.length() and k > 0
+    // EFFECTS: Returns the k sections of refSeq most similar to seqA, highest score first and the first
+    // section first on ties. Does not change the alignment stored in this aligner.
+    public List<Alignment> getTopAlignments(int k) {
+        PackedAligner aligner = new PackedAligner();
+        return packedRef != null ? aligner.alignTop(targetSeq, packedRef, k)
+                : aligner.alignTop(targetSeq, getRefSeq(), k);
+    }
+
+    // REQUIRES: seqA.length() < refSeq.length()
+    // EFFECTS: Returns every section of refSeq whose similarity percentage with seqA is at least
+    // minPercentage, in the order they appear in refSeq. Does not change the alignment stored in this aligner.
+    public List<Alignment> getAlignmentsWithSimilarity(int minPercentage) {
+        return alignAtLeast(minScoreFor(minPercentage), false);
+    }
+
+    // REQUIRES: seqA.length() < refSeq.length()
+    // EFFECTS: Returns true if any section of refSeq has a similarity percentage with seqA of at least
+    // minPercentage, stopping at the first such section
+    public boolean hasAlignmentWithSimilarity(int minPercentage) {
+        return !alignAtLeast(minScoreFor(minPercentage), true).isEmpty();
+    }
+
+    // EFFECTS: Returns the windows of the reference that score at least minScore against seqA, scanning the
+    // packed words of a packed genome directly (see PackedAligner.alignAtLeast)
+    private List<Alignment> alignAtLeast(int minScore, boolean firstOnly) {
+        PackedAligner aligner = new PackedAligner();
+        return packedRef != null ? aligner.alignAtLeast(targetSeq, packedRef, minScore, firstOnly)
+                : aligner.alignAtLeast(targetSeq, getRefSeq(), minScore, firstOnly);
+    }
+
+    // EFFECTS: Returns the lowest score whose similarity percentage, rounded as in getSimilarityPercentage,
+    // is at least minPercentage (or seqA.length() + 1 if no score is high enough)
+    private int minScoreFor(int minPercentage) {
+        int score = 0;
+        while (score <= targetSeq.length()
+                && Math.round((float) score / (float) targetSeq.length() * 100) < minPercentage) {
+            score++;
+        }
+
+        return score;
+    }
 
-            startIdx++;
-            endIdx++;
+    // REQUIRES: alignment was computed for this aligner's target and reference sequences
+    // MODIFIES: this
+    // EFFECTS: Stores the score, offset and strand of the alignment and redacts the target sequence (or its
+    // reverse complement for a reverse strand alignment) against the window of the reference sequence
+    // where the alignment starts. If the reference sequence is shorter than the target sequence, it has no such
+    // window, so nothing is recorded.
+    public void recordAlignment(Alignment alignment) {
+        if (getRef().length() < targetSeq.length()) {
+            return;
         }
+        String mostSimilarSectionRef = getRef().subSequence(alignment.getOffset(),
+                alignment.getOffset() + targetSeq.length()).toString();
+        String alignedSeq = alignment.isReverseStrand() ? PackedAligner.reverseComplement(targetSeq) : targetSeq;
 
-        this.score = highestScore;
-        this.redSeq = nonSimilarCharsRedacted(targetSeq, mostSimilarSectionRef);
+        this.score = alignment.getScore();
+        this.offset = alignment.getOffset();
+        this.reverseStrand = alignment.isReverseStrand();
+        this.redSeq = nonSimilarCharsRedacted(alignedSeq, mostSimilarSectionRef);
     }
 
     // REQUIRES: seqA.length() < refSeq.length()
@@ -89,21 +261,65 @@ public class SequenceAligner {
         return Math.round((float) score / (float) targetSeq.length() * 100);
     }
 
+    // REQUIRES: fftThreshold > 0
+    // MODIFIES: this
+    // EFFECTS: Sets the target sequence length from which alignments switch to FFT cross-correlation
+    public void setFftThreshold(int fftThreshold) {
+        this.fftThreshold = fftThreshold;
+    }
+
+    // EFFECTS: Returns the target sequence length from which alignments switch to FFT cross-correlation
+    public int getFftThreshold() {
+        return this.fftThreshold;
+    }
+
+    // EFFECTS: Returns the engine used to align the sequences
+    public AlignmentEngine getEngine() {
+        return this.engine;
+    }
+
     // EFFECTS: Returns the sequence A, the target sequence
     public String getTargetSeq() {
         return this.targetSeq;
     }
 
-    // EFFECTS: Returns the reference sequence
+    // MODIFIES: this
+    // EFFECTS: Returns the reference sequence, unpacking it the first time if it is a packed genome, or
+    // overlaying its variants on the reference the first time if it is stored as variants
     public String getRefSeq() {
+        if (refSeq == null) {
+            refSeq = packedRef != null ? packedRef.toString() : variantRef.toString();
+        }
         return this.refSeq;
     }
 
+    // EFFECTS: Returns the length of the reference sequence, without unpacking or materialising it
+    public int getRefLength() {
+        return getRef().length();
+    }
+
+    // EFFECTS: Returns the reference sequence as it is stored, without unpacking or materialising it
+    private CharSequence getRef() {
+        return refSeq != null ? refSeq : packedRef != null ? packedRef : variantRef;
+    }
+
     // EFFECTS: Returns the similarity score of the most similar alignment
     public int getSimilarityScore() {
         return this.score;
     }
 
+    // EFFECTS: Returns the offset in the reference sequence where the most similar alignment starts
+    // or -1 if no alignment has been done yet
+    public int getAlignmentOffset() {
+        return this.offset;
+    }
+
+    // EFFECTS: Returns true if the most similar alignment is on the reverse strand, i.e. the section of
+    // the reference matched the reverse complement of the target sequence
+    public boolean isReverseStrand() {
+        return this.reverseStrand;
+    }
+
     // EFFECTS: Returns the reference seq with the non-similar parts redacted with dashes
     public String getRedactedSeq() {
         return this.redSeq;
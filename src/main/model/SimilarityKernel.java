@@ -0,0 +1,58 @@
+package model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+// Counts the matching positions of two byte-encoded sequence windows.
+// The wide kernel reads 8 bases at a time as one long and counts the equal bytes of both words with
+// SIMD-within-a-register bit tricks, so one XOR and one popcount handle 8 positions. Windows shorter than
+// MIN_WIDE_LENGTH, and the tail of longer windows, use the scalar byte by byte loop.
+public class SimilarityKernel {
+    public static final int MIN_WIDE_LENGTH = 16;
+
+    private static final int LANES = Long.BYTES;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final VarHandle WORDS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+
+    // REQUIRES: aOff + len <= a.length and bOff + len <= b.length
+    // EFFECTS: Returns the number of positions i in [0, len) where a[aOff + i] == b[bOff + i]
+    public static int countMatches(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        if (len < MIN_WIDE_LENGTH) {
+            return countMatchesScalar(a, aOff, b, bOff, len);
+        }
+
+        int matches = 0;
+        int wideLen = len - len % LANES;
+
+        for (int i = 0; i < wideLen; i += LANES) {
+            long diff = (long) WORDS.get(a, aOff + i) ^ (long) WORDS.get(b, bOff + i);
+            matches += countZeroBytes(diff);
+        }
+
+        return matches + countMatchesScalar(a, aOff + wideLen, b, bOff + wideLen, len - wideLen);
+    }
+
+    // REQUIRES: aOff + len <= a.length and bOff + len <= b.length
+    // EFFECTS: Returns the number of positions i in [0, len) where a[aOff + i] == b[bOff + i],
+    // comparing one byte at a time
+    public static int countMatchesScalar(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        int matches = 0;
+
+        for (int i = 0; i < len; i++) {
+            if (a[aOff + i] == b[bOff + i]) {
+                matches++;
+            }
+        }
+
+        return matches;
+    }
+
+    // EFFECTS: Returns the number of bytes in word that are zero. The high bit of each byte of
+    // nonZero is set exactly when that byte of word is not zero.
+    private static int countZeroBytes(long word) {
+        long nonZero = ((word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | word;
+        return LANES - Long.bitCount(nonZero & ~LOW_SEVEN_BITS);
+    }
+}
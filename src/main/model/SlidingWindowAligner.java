@@ -0,0 +1,45 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+
+// Aligner that slides a window over the byte-encoded reference and compares it with the target
+// using SimilarityKernel, without creating a substring for each window
+public class SlidingWindowAligner implements AlignmentEngine {
+
+    // EFFECTS: Returns the name used to select this engine
+    @Override
+    public String getName() {
+        return "sliding";
+    }
+
+    // REQUIRES: targetSeq.length() <= refSeq.length()
+    // EFFECTS: Returns the alignment with the highest similarity score between targetSeq and any
+    // window of refSeq. If multiple windows have the same highest score, the first one is returned.
+    @Override
+    public Alignment align(String targetSeq, String refSeq) {
+        byte[] target = targetSeq.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] ref = refSeq.getBytes(StandardCharsets.ISO_8859_1);
+
+        return alignRange(target, ref, 0, ref.length - target.length + 1);
+    }
+
+    // REQUIRES: 0 <= from < to and every window starting before to lies within ref
+    // EFFECTS: Returns the alignment with the highest score among the windows starting at offsets in
+    // [from, to). If multiple windows have the same highest score, the first one is returned.
+    // If no window matches at all, the alignment has score 0 and offset from.
+    Alignment alignRange(byte[] target, byte[] ref, int from, int to) {
+        int highestScore = 0;
+        int bestOffset = from;
+
+        for (int offset = from; offset < to; offset++) {
+            int score = SimilarityKernel.countMatches(target, 0, ref, offset, target.length);
+
+            if (score > highestScore) {
+                highestScore = score;
+                bestOffset = offset;
+            }
+        }
+
+        return new Alignment(highestScore, bestOffset);
+    }
+}
@@ -0,0 +1,432 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Gapped local aligner: Smith-Waterman with Gotoh's affine gap penalties, so an indel costs one gap instead
+// of shifting every following base out of place. A gap of length L costs gapOpen + L * gapExtend.
+// The best score is found with a linear space pass over the reference that keeps one column of scores per
+// target base and looks up substitution scores in a precomputed query profile. Long references are split
+// into chunks scored in parallel on a ForkJoinPool; each chunk rescans enough of the reference before it
+// to contain any alignment ending inside it. The alignment ending at the best cell is then recovered in linear
+// space too, so gene-length targets never need a traceback matrix: a backward pass from the best cell finds
+// where the alignment starts, and the regions between its start and end are aligned globally with Myers and
+// Miller's affine gap version of Hirschberg's divide and conquer (see HirschbergAligner).
+public class SmithWatermanAligner {
+    public static final int DEFAULT_MATCH = 2;
+    public static final int DEFAULT_MISMATCH = -3;
+    public static final int DEFAULT_GAP_OPEN = 5;
+    public static final int DEFAULT_GAP_EXTEND = 2;
+    public static final int DEFAULT_MIN_PARALLEL_LENGTH = 1 << 17;
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private static final int NEGATIVE_INFINITY = Integer.MIN_VALUE / 2;
+
+    private final int matchScore;
+    private final int mismatchScore;
+    private final int gapOpen;
+    private final int gapExtend;
+    private final int minParallelLength;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    // EFFECTS: Constructs an aligner with the default scores and parallelism settings
+    public SmithWatermanAligner() {
+        this(DEFAULT_MATCH, DEFAULT_MISMATCH, DEFAULT_GAP_OPEN, DEFAULT_GAP_EXTEND);
+    }
+
+    // REQUIRES: matchScore > 0, mismatchScore <= 0, gapOpen >= 0 and gapExtend > 0
+    // EFFECTS: Constructs an aligner with the given scores and the default parallelism settings
+    public SmithWatermanAligner(int matchScore, int mismatchScore, int gapOpen, int gapExtend) {
+        this(matchScore, mismatchScore, gapOpen, gapExtend, DEFAULT_MIN_PARALLEL_LENGTH, DEFAULT_CHUNK_SIZE);
+    }
+
+    // REQUIRES: matchScore > 0, mismatchScore <= 0, gapOpen >= 0, gapExtend > 0 and chunkSize > 0
+    // EFFECTS: Constructs an aligner with the given scores that scores references of at least
+    // minParallelLength bases on the common pool, in chunks of chunkSize reference bases
+    public SmithWatermanAligner(int matchScore, int mismatchScore, int gapOpen, int gapExtend,
+            int minParallelLength, int chunkSize) {
+        this.matchScore = matchScore;
+        this.mismatchScore = mismatchScore;
+        this.gapOpen = gapOpen;
+        this.gapExtend = gapExtend;
+        this.minParallelLength = minParallelLength;
+        this.chunkSize = chunkSize;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    // EFFECTS: Returns the highest scoring local alignment between any region of targetSeq and any region
+    // of refSeq. If multiple alignments have the same highest score, the one ending first in refSeq is
+    // returned (then the one ending first in targetSeq). If no bases match, the alignment has score 0 and
+    // an empty CIGAR string.
+    public GappedAlignment align(String targetSeq, String refSeq) {
+        byte[] target = targetSeq.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] ref = refSeq.getBytes(StandardCharsets.ISO_8859_1);
+        if (target.length == 0 || ref.length == 0) {
+            return new GappedAlignment(0, 0, 0, "", "", "");
+        }
+
+        int[][] profile = buildProfile(target);
+        BestCell best;
+        if (ref.length < minParallelLength) {
+            best = scoreRange(profile, target.length, ref, 0, 0, ref.length);
+        } else {
+            int context = (int) Math.min(ref.length, maxSpan(target.length, 0));
+            int step = Math.max(chunkSize, context * 4);
+            best = pool.invoke(new ChunkTask(profile, target.length, ref, context, step, 0, ref.length));
+        }
+
+        if (best.score == 0) {
+            return new GappedAlignment(0, 0, 0, "", "", "");
+        }
+        return traceback(target, ref, best);
+    }
+
+    // EFFECTS: Returns the substitution scores of every target base against each possible reference byte,
+    // so that scoring a reference base against the whole target column needs no comparisons
+    private int[][] buildProfile(byte[] target) {
+        int[] mismatches = new int[target.length];
+        Arrays.fill(mismatches, mismatchScore);
+        int[][] profile = new int[256][];
+        Arrays.fill(profile, mismatches);
+
+        for (byte base : target) {
+            int code = base & 0xFF;
+            if (profile[code] == mismatches) {
+                profile[code] = new int[target.length];
+                for (int i = 0; i < target.length; i++) {
+                    profile[code][i] = target[i] == base ? matchScore : mismatchScore;
+                }
+            }
+        }
+
+        return profile;
+    }
+
+    // EFFECTS: Returns the longest stretch of reference that an alignment of targetLen target bases scoring
+    // more than minScore can cover: every reference base beyond targetLen has to be a deletion, and each
+    // deletion costs at least gapExtend out of the targetLen * matchScore the alignment can score at most
+    private long maxSpan(int targetLen, int minScore) {
+        return targetLen + Math.max(0, ((long) targetLen * matchScore - minScore) / gapExtend) + 1;
+    }
+
+    // REQUIRES: 0 <= start <= from <= to <= ref.length
+    // EFFECTS: Scores every alignment of the target against ref[start, to) with a single pass over the
+    // reference, and returns the best cell among the alignments that end in ref[from, to)
+    private BestCell scoreRange(int[][] profile, int targetLen, byte[] ref, int start, int from, int to) {
+        int[] scores = new int[targetLen + 1];
+        int[] deletions = new int[targetLen + 1];
+        Arrays.fill(deletions, NEGATIVE_INFINITY);
+        BestCell best = new BestCell(0, 0, from);
+
+        for (int j = start; j < to; j++) {
+            int row = scoreColumn(profile[ref[j] & 0xFF], scores, deletions, j < from ? Integer.MAX_VALUE
+                    : best.score);
+            if (row > 0) {
+                best = new BestCell(scores[row], row, j);
+            }
+        }
+
+        return best;
+    }
+
+    // MODIFIES: scores, deletions
+    // EFFECTS: Advances the scores of every target row, and of the alignments ending in a deletion, by one
+    // reference base whose substitution scores are column. Returns the first row whose new score is the
+    // highest in the column and above floor, or 0 if there is none.
+    private int scoreColumn(int[] column, int[] scores, int[] deletions, int floor) {
+        int openCost = gapOpen + gapExtend;
+        int bestRow = 0;
+        int diagonal = 0;
+        int up = 0;
+        int insertion = NEGATIVE_INFINITY;
+        for (int i = 1; i < scores.length; i++) {
+            int left = scores[i];
+            deletions[i] = Math.max(deletions[i] - gapExtend, left - openCost);
+            insertion = Math.max(insertion - gapExtend, up - openCost);
+            up = Math.max(Math.max(0, diagonal + column[i - 1]), Math.max(deletions[i], insertion));
+            diagonal = left;
+            scores[i] = up;
+            if (up > floor) {
+                floor = up;
+                bestRow = i;
+            }
+        }
+
+        return bestRow;
+    }
+
+    // REQUIRES: best.score > 0
+    // EFFECTS: Finds where an alignment with the best score ending at the best cell starts, then recovers
+    // its operations by globally aligning the target and reference regions between the two in linear space
+    private GappedAlignment traceback(byte[] target, byte[] ref, BestCell best) {
+        int[] start = findStart(target, ref, best);
+        Traceback run = new Traceback(target, ref, best.refEnd + 1 - start[1]);
+        run.align(start[0], best.targetEnd, start[1], best.refEnd + 1, gapOpen, gapOpen);
+
+        return GappedAlignment.fromOperations(best.score, target, ref, start[0], start[1],
+                run.operations.toString());
+    }
+
+    // REQUIRES: best.score > 0
+    // EFFECTS: Returns the target and reference offsets where an alignment with the best score ending at the
+    // best cell starts: aligns backwards from the best cell one reference base at a time, keeping one column
+    // of scores, until some target row scores best.score. The closest such start to the best cell is returned.
+    private int[] findStart(byte[] target, byte[] ref, BestCell best) {
+        int rows = best.targetEnd;
+        int width = (int) Math.min(best.refEnd + 1, maxSpan(rows, best.score));
+        int[] scores = new int[rows + 1];
+        int[] deletions = new int[rows + 1];
+        Arrays.fill(deletions, NEGATIVE_INFINITY);
+        for (int i = 1; i <= rows; i++) {
+            scores[i] = -gapOpen - gapExtend * i;
+        }
+
+        for (int c = 1; c <= width; c++) {
+            int row = anchorColumn(target, ref[best.refEnd + 1 - c], c, scores, deletions, best.score);
+            if (row > 0) {
+                return new int[] {rows - row, best.refEnd + 1 - c};
+            }
+        }
+        throw new IllegalStateException("No alignment with score " + best.score + " ends at the best cell");
+    }
+
+    // MODIFIES: scores, deletions
+    // EFFECTS: Advances the scores of the alignments anchored at the best cell (see findStart), where row i
+    // holds the last i bases before the end of the alignment in the target, by base, the reference base c
+    // bases back from the best cell. Returns the first row that scores goal, or 0 if there is none.
+    private int anchorColumn(byte[] target, byte base, int c, int[] scores, int[] deletions, int goal) {
+        int rows = scores.length - 1;
+        int openCost = gapOpen + gapExtend;
+        int diagonal = scores[0];
+        scores[0] = -gapOpen - gapExtend * c;
+        int up = scores[0];
+        int insertion = NEGATIVE_INFINITY;
+        for (int i = 1; i <= rows; i++) {
+            int left = scores[i];
+            deletions[i] = Math.max(deletions[i] - gapExtend, left - openCost);
+            insertion = Math.max(insertion - gapExtend, up - openCost);
+            up = Math.max(diagonal + substitution(target[rows - i], base), Math.max(deletions[i], insertion));
+            diagonal = left;
+            scores[i] = up;
+            if (up == goal) {
+                return i;
+            }
+        }
+
+        return 0;
+    }
+
+    // EFFECTS: Returns the score of aligning base a against base b
+    private int substitution(byte a, byte b) {
+        return a == b ? matchScore : mismatchScore;
+    }
+
+    // The score of a cell of the dynamic programming matrix, at a 1-based target row and 0-based
+    // reference index
+    private static class BestCell {
+        private final int score;
+        private final int targetEnd;
+        private final int refEnd;
+
+        BestCell(int score, int targetEnd, int refEnd) {
+            this.score = score;
+            this.targetEnd = targetEnd;
+            this.refEnd = refEnd;
+        }
+    }
+
+    // A global alignment of a target region against a reference region in progress, found with Myers and
+    // Miller's divide and conquer: the target is split in half, the scores of its first half against every
+    // prefix of the reference region and of its second half against every suffix are computed one row at a
+    // time, and the reference is split where the two add up to the best score, either between two aligned
+    // columns or inside a deletion of target bases that crosses the middle. tb and te are the cost of opening
+    // a gap of target bases at the start and end of a region: 0 if it continues a gap of the region before
+    // or after it, gapOpen otherwise.
+    private class Traceback {
+        private final byte[] target;
+        private final byte[] ref;
+        private final int[] forward;
+        private final int[] forwardGaps;
+        private final int[] backward;
+        private final int[] backwardGaps;
+        private final StringBuilder operations = new StringBuilder();
+
+        Traceback(byte[] target, byte[] ref, int regionLength) {
+            this.target = target;
+            this.ref = ref;
+            this.forward = new int[regionLength + 1];
+            this.forwardGaps = new int[regionLength + 1];
+            this.backward = new int[regionLength + 1];
+            this.backwardGaps = new int[regionLength + 1];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: Appends the operations of the best global alignment of target[tLo, tHi) against
+        // ref[rLo, rHi)
+        void align(int tLo, int tHi, int rLo, int rHi, int tb, int te) {
+            if (tHi - tLo <= 1 || rHi == rLo) {
+                alignShort(tLo, tHi, rLo, rHi, tb, te);
+                return;
+            }
+
+            int tMid = (tLo + tHi) >>> 1;
+            scoreRows(forward, forwardGaps, tLo, 1, tMid - tLo, rLo, 1, rHi - rLo, tb);
+            scoreRows(backward, backwardGaps, tHi - 1, -1, tHi - tMid, rHi - 1, -1, rHi - rLo, te);
+            int split = split(rHi - rLo);
+
+            if (split >= 0) {
+                align(tLo, tMid, rLo, rLo + split, tb, gapOpen);
+                align(tMid, tHi, rLo + split, rHi, gapOpen, te);
+            } else {
+                align(tLo, tMid - 1, rLo, rLo - split - 1, tb, 0);
+                operations.append("II");
+                align(tMid + 1, tHi, rLo - split - 1, rHi, 0, te);
+            }
+        }
+
+        // EFFECTS: Returns where the best alignment crosses from the first half of the target to the second:
+        // the offset j in the reference region if it goes through an aligned column there, or -j - 1 if it
+        // deletes the last base of the first half and the first base of the second in one gap at offset j.
+        // On ties the last offset is chosen, so gaps are placed as early as possible.
+        private int split(int length) {
+            int best = NEGATIVE_INFINITY;
+            int split = 0;
+            for (int j = 0; j <= length; j++) {
+                if (forward[j] + backward[length - j] >= best) {
+                    best = forward[j] + backward[length - j];
+                    split = j;
+                }
+                if (forwardGaps[j] + backwardGaps[length - j] + gapOpen > best) {
+                    best = forwardGaps[j] + backwardGaps[length - j] + gapOpen;
+                    split = -j - 1;
+                }
+            }
+
+            return split;
+        }
+
+        // MODIFIES: scores, gaps
+        // EFFECTS: Sets scores[j] to the best score of the rows target bases from firstRow (stepping by
+        // rowStep) against the j reference bases from firstCol (stepping by colStep), and gaps[j] to the best
+        // such score that ends in a deletion of target bases, where a deletion at the start costs tb to open
+        private void scoreRows(int[] scores, int[] gaps, int firstRow, int rowStep, int rows, int firstCol,
+                int colStep, int cols, int tb) {
+            scores[0] = 0;
+            for (int j = 1; j <= cols; j++) {
+                scores[j] = -gapOpen - gapExtend * j;
+                gaps[j] = scores[j] - gapOpen;
+            }
+
+            for (int k = 0; k < rows; k++) {
+                byte base = target[firstRow + k * rowStep];
+                int diagonal = scores[0];
+                scores[0] = -tb - gapExtend * (k + 1);
+                int insertion = scores[0] - gapOpen;
+                for (int j = 1; j <= cols; j++) {
+                    insertion = Math.max(insertion, scores[j - 1] - gapOpen) - gapExtend;
+                    gaps[j] = Math.max(gaps[j], scores[j] - gapOpen) - gapExtend;
+                    int score = Math.max(Math.max(gaps[j], insertion),
+                            diagonal + substitution(base, ref[firstCol + (j - 1) * colStep]));
+                    diagonal = scores[j];
+                    scores[j] = score;
+                }
+            }
+            gaps[0] = scores[0];
+        }
+
+        // MODIFIES: this
+        // EFFECTS: Appends the operations of the best global alignment of target[tLo, tHi) against
+        // ref[rLo, rHi), where the target has at most one base or the reference region is empty
+        private void alignShort(int tLo, int tHi, int rLo, int rHi, int tb, int te) {
+            int cols = rHi - rLo;
+            if (tHi == tLo || cols == 0) {
+                appendRun('I', tHi - tLo);
+                appendRun('D', cols);
+                return;
+            }
+
+            int matched = bestColumn(target[tLo], rLo, cols, -Math.min(tb, te) - gapExtend - gapCost(cols));
+            if (matched >= 0) {
+                appendRun('D', matched);
+                operations.append('M');
+                appendRun('D', cols - matched - 1);
+            } else {
+                operations.append(tb <= te ? "I" : "");
+                appendRun('D', cols);
+                operations.append(tb <= te ? "" : "I");
+            }
+        }
+
+        // EFFECTS: Returns the offset in ref[rLo, rLo + cols) that aligning base against scores best, with
+        // the rest of the region deleted, or -1 if deleting base instead, which scores deleted, is better.
+        // On ties the last offset is chosen.
+        private int bestColumn(byte base, int rLo, int cols, int deleted) {
+            int best = deleted;
+            int matched = -1;
+            for (int j = 0; j < cols; j++) {
+                int score = substitution(base, ref[rLo + j]) - gapCost(j) - gapCost(cols - j - 1);
+                if (score >= best) {
+                    best = score;
+                    matched = j;
+                }
+            }
+
+            return matched;
+        }
+
+        // EFFECTS: Returns the cost of a gap of length bases, or 0 if length is 0
+        private int gapCost(int length) {
+            return length == 0 ? 0 : gapOpen + gapExtend * length;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: Appends count copies of operation
+        private void appendRun(char operation, int count) {
+            for (int k = 0; k < count; k++) {
+                operations.append(operation);
+            }
+        }
+    }
+
+    // Fork/join task that finds the best cell among alignments ending in ref[from, to), splitting in half
+    // until a range fits in a chunk. Each chunk also rescans context reference bases before it.
+    private class ChunkTask extends RecursiveTask<BestCell> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[][] profile;
+        private final int targetLen;
+        private final byte[] ref;
+        private final int context;
+        private final int step;
+        private final int from;
+        private final int to;
+
+        ChunkTask(int[][] profile, int targetLen, byte[] ref, int context, int step, int from, int to) {
+            this.profile = profile;
+            this.targetLen = targetLen;
+            this.ref = ref;
+            this.context = context;
+            this.step = step;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BestCell compute() {
+            if (to - from <= step) {
+                return scoreRange(profile, targetLen, ref, Math.max(0, from - context), from, to);
+            }
+
+            int mid = from + (to - from) / 2;
+            ChunkTask left = new ChunkTask(profile, targetLen, ref, context, step, from, mid);
+            ChunkTask right = new ChunkTask(profile, targetLen, ref, context, step, mid, to);
+            left.fork();
+            BestCell rightResult = right.compute();
+            BestCell leftResult = left.join();
+            return rightResult.score > leftResult.score ? rightResult : leftResult;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package model;
+
+import java.util.Objects;
+
+// A difference between a patient's genome and the reference genome, as in a VCF file: the bases ref starting at
+// position in the reference are replaced with the bases alt in the patient's genome. A substitution replaces one
+// base with another; as in VCF, an insertion or deletion keeps the base before it in both ref and alt, so
+// neither is ever empty.
+public class Variant {
+    private final int position;
+    private final String ref;
+    private final String alt;
+
+    // REQUIRES: position >= 0, ref and alt are not empty
+    // EFFECTS: Constructs a variant replacing ref at position in the reference with alt
+    public Variant(int position, String ref, String alt) {
+        this.position = position;
+        this.ref = ref;
+        this.alt = alt;
+    }
+
+    // EFFECTS: Returns the offset in the reference of the first replaced base
+    public int getPosition() {
+        return this.position;
+    }
+
+    // EFFECTS: Returns the offset in the reference just after the last replaced base
+    public int getEnd() {
+        return this.position + this.ref.length();
+    }
+
+    // EFFECTS: Returns the replaced bases of the reference
+    public String getRef() {
+        return this.ref;
+    }
+
+    // EFFECTS: Returns the bases the patient has in their place
+    public String getAlt() {
+        return this.alt;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == null) {
+            return false;
+        }
+
+        if (other.getClass() != this.getClass()) {
+            return false;
+        }
+
+        Variant otherVariant = (Variant) other;
+
+        return this.position == otherVariant.position && this.ref.equals(otherVariant.ref)
+                && this.alt.equals(otherVariant.alt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(position, ref, alt);
+    }
+
+    // EFFECTS: Returns the variant as position:ref>alt
+    @Override
+    public String toString() {
+        return position + ":" + ref + ">" + alt;
+    }
+}
@@ -0,0 +1,88 @@
+package model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Reads and writes the variants of a patient's genome from the reference genome (see VariantGenome) in a VCF
+// file named PHN_genome.vcf. Only the CHROM, POS, REF and ALT columns are used: POS counts from 1, as in VCF, and
+// only the first of several ALT alleles is kept. Lines without an ALT allele (.) and header lines are skipped.
+// The reference genome is one sequence, so every variant must have the same CHROM; a file with variants on
+// several chromosomes is rejected rather than having them all applied to the one sequence.
+public class VariantFile {
+    public static final String EXTENSION = ".vcf";
+
+    private static final String HEADER = "##fileformat=VCFv4.2";
+    private static final String COLUMNS = "#CHROM\tPOS\tID\tREF\tALT";
+
+    // EFFECTS: Returns the variant file of the patient with the given PHN
+    public static Path forPatient(String phn) {
+        return Paths.get(GenomeFiles.getDirectory() + phn + "_genome" + EXTENSION);
+    }
+
+    // EFFECTS: Returns the variants in the VCF file, sorted by position,
+    // throws IOException if it can't be read, a line is malformed or the lines have different CHROMs
+    public static List<Variant> read(Path variantFile) throws IOException {
+        List<Variant> variants = new ArrayList<>();
+        String chromosome = null;
+        for (String line : Files.readAllLines(variantFile, StandardCharsets.ISO_8859_1)) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            if (fields.length < 5 || fields[3].isEmpty()) {
+                throw new IOException("Malformed VCF line: " + line);
+            }
+            chromosome = checkChromosome(chromosome, fields[0]);
+            String alt = fields[4].split(",")[0];
+            if (!alt.equals(".") && !alt.isEmpty()) {
+                variants.add(new Variant(position(fields[1], line), fields[3], alt));
+            }
+        }
+
+        variants.sort(Comparator.comparingInt(Variant::getPosition));
+        return variants;
+    }
+
+    // EFFECTS: Writes the variants to the VCF file, throws IOException if it can't be written
+    public static void write(Path variantFile, List<Variant> variants) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        lines.add(COLUMNS);
+        for (Variant v : variants) {
+            lines.add(".\t" + (v.getPosition() + 1) + "\t.\t" + v.getRef() + "\t" + v.getAlt());
+        }
+
+        Files.write(variantFile, lines, StandardCharsets.ISO_8859_1);
+    }
+
+    // EFFECTS: Returns the CHROM of a line, throws IOException if it isn't the CHROM of the lines before it
+    // (null if there are none)
+    private static String checkChromosome(String previous, String chromosome) throws IOException {
+        if (previous != null && !previous.equals(chromosome)) {
+            throw new IOException("VCF file has variants on more than one chromosome (" + previous + " and "
+                    + chromosome + "), but the reference genome is a single sequence");
+        }
+
+        return chromosome;
+    }
+
+    // EFFECTS: Returns the 0-based position of a POS column, throws IOException if it is not a positive number
+    private static int position(String pos, String line) throws IOException {
+        try {
+            int position = Integer.parseInt(pos) - 1;
+            if (position >= 0) {
+                return position;
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed VCF line: " + line, e);
+        }
+
+        throw new IOException("Malformed VCF line: " + line);
+    }
+}
@@ -0,0 +1,230 @@
+package model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+// A patient's genome stored as the sorted list of its variants from the clinic's reference genome (see Variant),
+// read as a sequence by overlaying the variants on the reference. Patients usually differ from the reference in
+// well under 1% of positions, so this takes a fraction of the memory of the patient's own sequence, which is
+// never materialised: each base is read from a variant or from the reference.
+// Between two variants (and before the first and after the last) the patient's genome is an unchanged segment
+// of the reference. A condition occurs in the patient's genome either inside such a segment, where it is an
+// occurrence in the reference found with the reference's FM-index, or across a variant, where it is found by
+// scanning just the bases around that variant.
+public class VariantGenome implements CharSequence {
+    private final ReferenceGenome reference;
+    private final PackedGenome ref;
+    private final Variant[] variants;
+    private final int[] starts;
+    private final int[] ends;
+    private final int length;
+
+    // REQUIRES: variants are sorted by position, don't overlap, and their ref bases are those of the reference
+    // at their position
+    // EFFECTS: Constructs the genome with the given variants from the reference,
+    // throws IOException if the reference can't be read and IllegalArgumentException if a variant is invalid
+    public VariantGenome(ReferenceGenome reference, List<Variant> variants) throws IOException {
+        this.reference = reference;
+        this.ref = reference.getSequence();
+        this.variants = variants.toArray(new Variant[0]);
+        this.starts = new int[this.variants.length];
+        this.ends = new int[this.variants.length];
+
+        int shift = 0;
+        for (int k = 0; k < this.variants.length; k++) {
+            Variant v = this.variants[k];
+            checkVariant(v, k == 0 ? 0 : ends[k - 1]);
+            starts[k] = v.getPosition() + shift;
+            ends[k] = v.getEnd();
+            shift += v.getAlt().length() - v.getRef().length();
+        }
+        this.length = ref.length() + shift;
+    }
+
+    // EFFECTS: Returns the number of bases in the patient's genome
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    // REQUIRES: 0 <= index < length()
+    // EFFECTS: Returns the base of the patient's genome at index
+    @Override
+    public char charAt(int index) {
+        int k = variantAtOrBefore(index);
+        if (k >= 0 && index < altEnd(k)) {
+            return variants[k].getAlt().charAt(index - starts[k]);
+        }
+
+        return ref.charAt(refSegmentStart(k + 1) + index - segmentStart(k + 1));
+    }
+
+    // REQUIRES: 0 <= start <= end <= length()
+    // EFFECTS: Returns the bases of the patient's genome in [start, end), copied a segment or variant at a time
+    @Override
+    public String subSequence(int start, int end) {
+        StringBuilder bases = new StringBuilder(end - start);
+        int position = start;
+        while (position < end) {
+            int k = variantAtOrBefore(position);
+            if (k >= 0 && position < altEnd(k)) {
+                int to = Math.min(end, altEnd(k));
+                bases.append(variants[k].getAlt(), position - starts[k], to - starts[k]);
+                position = to;
+            } else {
+                int to = Math.min(end, segmentEnd(k + 1));
+                int from = refSegmentStart(k + 1) + position - segmentStart(k + 1);
+                bases.append(ref.subSequence(from, from + to - position));
+                position = to;
+            }
+        }
+
+        return bases.toString();
+    }
+
+    // EFFECTS: Returns the whole patient's genome. Unlike every other method, this materialises the sequence.
+    @Override
+    public String toString() {
+        return subSequence(0, length);
+    }
+
+    // REQUIRES: seq is not empty and maxMismatches >= 0
+    // EFFECTS: Returns the offsets in the patient's genome where seq occurs with at most maxMismatches substituted
+    // bases, in increasing order. Occurrences inside unchanged segments are found with the reference's FM-index,
+    // and the others by scanning the bases around each variant. Throws IOException if the index can't be read.
+    public List<Integer> locate(String seq, int maxMismatches) throws IOException {
+        int m = seq.length();
+        TreeSet<Integer> found = new TreeSet<>();
+        for (int r : reference.getIndex().locate(seq, maxMismatches)) {
+            int j = segmentOfRef(r);
+            if (r + m <= refSegmentEnd(j)) {
+                found.add(segmentStart(j) + r - refSegmentStart(j));
+            }
+        }
+
+        BitapMatcher matcher = new BitapMatcher(seq, maxMismatches);
+        for (int k = 0; k < variants.length; k++) {
+            int from = Math.max(0, starts[k] - m + 1);
+            for (int offset : matcher.findAll(subSequence(from, Math.min(length, altEnd(k) + m - 1)))) {
+                if (from + offset < altEnd(k)) {
+                    found.add(from + offset);
+                }
+            }
+        }
+
+        return new ArrayList<>(found);
+    }
+
+    // REQUIRES: target is not empty
+    // EFFECTS: Returns the section of the patient's genome most similar to target (the first one on ties). Each
+    // unchanged segment is aligned as the segment of the reference it is, scanning the reference's packed words
+    // in place (see PackedAligner.alignRange), and each variant is aligned with the engine and the bases around
+    // it. Segments are only copied and aligned with the engine if the reference or target can't be packed.
+    public Alignment align(String target, AlignmentEngine engine) {
+        int m = target.length();
+        long[] packedTarget = ref.hasExceptions() ? null : PackedAligner.pack(target);
+        Alignment best = null;
+        for (int j = 0; j <= variants.length; j++) {
+            if (refSegmentEnd(j) - refSegmentStart(j) >= m) {
+                best = better(best, alignSegment(target, packedTarget, j, engine), segmentStart(j));
+            }
+        }
+        for (int k = 0; k < variants.length; k++) {
+            int from = Math.max(0, starts[k] - m + 1);
+            int to = Math.min(length, altEnd(k) + m - 1);
+            if (to - from >= m) {
+                best = better(best, engine.align(target, subSequence(from, to)), from);
+            }
+        }
+
+        return best == null ? new Alignment(0, 0) : best;
+    }
+
+    // EFFECTS: Returns the variants, sorted by position
+    public List<Variant> getVariants() {
+        return Collections.unmodifiableList(Arrays.asList(variants));
+    }
+
+    // EFFECTS: Returns the reference genome the variants are from
+    public ReferenceGenome getReference() {
+        return this.reference;
+    }
+
+    // EFFECTS: Throws IllegalArgumentException if the variant starts before after (the end of the previous
+    // variant), has no ref or alt bases, or doesn't replace the bases of the reference at its position
+    private void checkVariant(Variant v, int after) {
+        if (v.getPosition() < after || v.getRef().isEmpty() || v.getAlt().isEmpty() || v.getEnd() > ref.length()
+                || !ref.subSequence(v.getPosition(), v.getEnd()).toString().equals(v.getRef())) {
+            throw new IllegalArgumentException("Invalid variant " + v);
+        }
+    }
+
+    // REQUIRES: unchanged segment j is at least as long as target
+    // EFFECTS: Returns the alignment of target with the highest score in unchanged segment j, at an offset in
+    // the segment. It is found in the reference's packed words, or with the engine if packedTarget is null.
+    private Alignment alignSegment(String target, long[] packedTarget, int j, AlignmentEngine engine) {
+        int from = refSegmentStart(j);
+        int to = refSegmentEnd(j);
+        if (packedTarget == null) {
+            return engine.align(target, ref.subSequence(from, to).toString());
+        }
+
+        Alignment found = new PackedAligner().alignRange(packedTarget, target.length(), ref.getWords(), from,
+                to - target.length() + 1);
+        return new Alignment(found.getScore(), found.getOffset() - from);
+    }
+
+    // EFFECTS: Returns the better of best and found (shifted by offset): the one with the higher score, or the
+    // one with the lower offset on ties
+    private static Alignment better(Alignment best, Alignment found, int offset) {
+        Alignment shifted = new Alignment(found.getScore(), found.getOffset() + offset, found.isReverseStrand());
+        if (best == null || shifted.getScore() > best.getScore()
+                || shifted.getScore() == best.getScore() && shifted.getOffset() < best.getOffset()) {
+            return shifted;
+        }
+
+        return best;
+    }
+
+    // EFFECTS: Returns the last variant whose alt bases start at or before position, or -1 if there is none
+    private int variantAtOrBefore(int position) {
+        int k = Arrays.binarySearch(starts, position);
+        return k < 0 ? -k - 2 : k;
+    }
+
+    // EFFECTS: Returns the segment of the reference that position of the reference is in or after, i.e. the
+    // number of variants that end at or before it
+    private int segmentOfRef(int position) {
+        int j = Arrays.binarySearch(ends, position);
+        return j < 0 ? -j - 1 : j + 1;
+    }
+
+    // EFFECTS: Returns the offset in the patient's genome just after the alt bases of variant k
+    private int altEnd(int k) {
+        return starts[k] + variants[k].getAlt().length();
+    }
+
+    // EFFECTS: Returns the offset in the patient's genome where unchanged segment j starts
+    private int segmentStart(int j) {
+        return j == 0 ? 0 : altEnd(j - 1);
+    }
+
+    // EFFECTS: Returns the offset in the patient's genome where unchanged segment j ends
+    private int segmentEnd(int j) {
+        return j == variants.length ? length : starts[j];
+    }
+
+    // EFFECTS: Returns the offset in the reference where unchanged segment j starts
+    private int refSegmentStart(int j) {
+        return j == 0 ? 0 : ends[j - 1];
+    }
+
+    // EFFECTS: Returns the offset in the reference where unchanged segment j ends
+    private int refSegmentEnd(int j) {
+        return j == variants.length ? ref.length() : variants[j].getPosition();
+    }
+}
@@ -95,11 +95,16 @@ public class JsonReader {
     }
 
     // EFFECTS: Parses Condition from JSON object and returns Condition
+    // The region is optional, so conditions saved without one (or without both of its ends) are read as having
+    // no region
     private Condition parseCondition(JSONObject jsonObj) {
         String name = jsonObj.getString("name");
         String seq = jsonObj.getString("seq");
         int chrNum = jsonObj.getInt("chrNum");
 
+        if (jsonObj.has("regionStart") && jsonObj.has("regionEnd")) {
+            return new Condition(name, seq, chrNum, jsonObj.getInt("regionStart"), jsonObj.getInt("regionEnd"));
+        }
         return new Condition(name, seq, chrNum);
     }
 }
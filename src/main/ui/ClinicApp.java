@@ -13,6 +13,7 @@ public class ClinicApp {
 
     private JsonWriter jsonWriter;
     private JsonReader jsonReader;
+    private GenomeWatcher genomeWatcher;
     private static final String saveLocation = "./data/clinicData.json";
 
     public ClinicApp() {
@@ -41,6 +42,7 @@ public class ClinicApp {
         if (saveOpt.equals("y")) {
             saveData();
         }
+        stopWatchingGenomes();
         System.out.println("\nThe clinic is now closing... Goodbye");
     }
 
@@ -61,12 +63,22 @@ public class ClinicApp {
             diagnosePatient();
         } else if (command.equals("lc")) {
             listConditions();
-        } else if (command.equals("u")) {
-            updateGenomeForPatient();
         } else if (command.equals("v")) {
             showPatientInfo();
+        } else {
+            readDataCommand(command);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: processes a user command about the genome files and the saved clinic data
+    private void readDataCommand(String command) {
+        if (command.equals("u")) {
+            updateGenomeForPatient();
         } else if (command.equals("s")) {
             saveData();
+        } else if (command.equals("sg")) {
+            storeGenomes();
         } else {
             System.out.println("Invalid command, please try again.");
         }
@@ -95,6 +107,7 @@ public class ClinicApp {
         loadLastSave();
 
         updateAllGenomesforPatients();
+        watchGenomes();
     }
 
     // MODIFIES: this
@@ -130,6 +143,7 @@ public class ClinicApp {
         System.out.println("\tlc -> List Current Genetic Conditions");
         System.out.println("\td -> Diagnosis Report for Patient");
         System.out.println("\ts -> Save the Clinic Data");
+        System.out.println("\tsg -> Store Identical Genomes Once");
         System.out.println("\tq -> Close the Clinic");
     }
 
@@ -191,7 +205,7 @@ public class ClinicApp {
             Patient curPatient = patients.get(i);
             String hasGenome;
 
-            if (curPatient.getGenome().equals("")) {
+            if (curPatient.hasNoGenome()) {
                 hasGenome = "Patient doesn't have a genome imported yet.";
             } else {
                 hasGenome = "Patient has a genome imported.";
@@ -216,8 +230,9 @@ public class ClinicApp {
             System.out.println("\nThe specified patient does not have a genome file yet, so we can't diagnose.");
         } else {
             System.out.println("\nDiagnosis report for " + patient.getFullName() + " (" + patient.getPHN() + ")");
+            Map<Condition, List<Integer>> positives = clinic.diagnoseAll(patient);
             for (Condition c : clinic.getConditions()) {
-                boolean res = patient.diagnose(c);
+                boolean res = positives.containsKey(c);
 
                 if (res) {
                     System.out.println(c.getName() + " - positive");
@@ -236,7 +251,7 @@ public class ClinicApp {
     // the non-similar parts redacted
     // The score of the alignment is displayed
     public String printDiagnosisReport(Condition condition, Patient p) {
-        SequenceAligner seqAligner = new SequenceAligner(condition.getSequence(), p.getGenome());
+        SequenceAligner seqAligner = p.getSequenceAligner(condition);
         seqAligner.getMostSimilarAlignment();
         String similarityScore = Integer.toString(seqAligner.getSimilarityPercentage());
         return "Patient Genome: " + seqAligner.getRedactedSeq() + "\n"
@@ -324,9 +339,56 @@ public class ClinicApp {
     // MODIFIES: this
     // EFFECTS: Updates all the patients' genomes who are registered in the clinic
     // Nothing happens for a patient if they do not have a genome file stored
+    // The genomes are loaded in the background with a GenomeLoader; any genome file that couldn't be loaded
+    // is reported once they have all been tried
     private void updateAllGenomesforPatients() {
-        for (Patient p : clinic.getPatients()) {
-            p.readGenome();
+        new GenomeLoader().loadAll(clinic.getPatients(), load -> { }).thenAccept(loads -> {
+            for (GenomeLoad load : loads) {
+                if (!load.isLoaded() && !load.isSkipped()) {
+                    System.out.println("\nCouldn't load a genome. " + load);
+                }
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Moves the patients' genome files into the GenomeStore, so identical genomes are stored and
+    // diagnosed once, and tells the user how many genome files were moved
+    private void storeGenomes() {
+        try {
+            int moved = clinic.storeGenomes();
+            System.out.println("\n" + moved + " genome file(s) were moved into the genome store.");
+        } catch (IOException e) {
+            System.out.println("\nThe genome files couldn't all be moved into the genome store.");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Starts reloading the genome of a patient in the background whenever their genome files change
+    // (see GenomeWatcher), so the "u" command is only needed if the genome directory can't be watched
+    private void watchGenomes() {
+        try {
+            genomeWatcher = new GenomeWatcher(clinic, reloaded -> {
+                for (Patient p : reloaded) {
+                    System.out.println("\nThe genome of the patient with PHN, " + p.getPHN() + " was reloaded.");
+                }
+            });
+            genomeWatcher.start();
+        } catch (IOException e) {
+            System.out.println("\nThe genome folder can't be watched, use \"u\" to update a patient's genome.");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Stops watching the genome files, if they are watched
+    private void stopWatchingGenomes() {
+        if (genomeWatcher == null) {
+            return;
+        }
+        try {
+            genomeWatcher.close();
+        } catch (IOException e) {
+            System.out.println("\nThe genome folder couldn't stop being watched.");
         }
     }
 
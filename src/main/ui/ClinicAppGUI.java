@@ -16,6 +16,7 @@ import static java.lang.System.exit;
 // The graphical user interface for the clinic app
 public class ClinicAppGUI extends JFrame implements ActionListener, WindowListener {
     private Clinic clinic;
+    private GenomeWatcher genomeWatcher;
 
     private JsonWriter jsonWriter;
     private JsonReader jsonReader;
@@ -35,6 +36,7 @@ public class ClinicAppGUI extends JFrame implements ActionListener, WindowListen
         drawComponents();
         pack();
         promptLoadMostRecentSave();
+        watchGenomes();
         addWindowListener(this);
     }
 
@@ -96,8 +98,13 @@ public class ClinicAppGUI extends JFrame implements ActionListener, WindowListen
         loadBtn.setActionCommand("load");
         loadBtn.addActionListener(this);
 
+        JButton storeBtn = new JButton("Store Genomes");
+        storeBtn.setActionCommand("storeGenomes");
+        storeBtn.addActionListener(this);
+
         persistenceArea.add(saveBtn);
         persistenceArea.add(loadBtn);
+        persistenceArea.add(storeBtn);
 
         add(persistenceArea);
     }
@@ -170,6 +177,48 @@ public class ClinicAppGUI extends JFrame implements ActionListener, WindowListen
         conditionComponent.updateConditionList();
     }
 
+    // MODIFIES: this
+    // EFFECTS: Moves the patients' genome files into the GenomeStore, so identical genomes are stored and
+    // diagnosed once, and lets the user know with a dialog box how many genome files were moved
+    private void storeGenomes() {
+        try {
+            int moved = clinic.storeGenomes();
+            showDialogBox(moved + " genome file(s) were moved into the genome store.");
+        } catch (IOException e) {
+            showDialogBox("Error occurred while moving the genome files into the genome store.");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Starts reloading the genome of a patient of the clinic in the background whenever their genome
+    // files change (see GenomeWatcher), and stops watching for the previously loaded clinic. The patient view is
+    // refreshed on the event dispatch thread after each reload.
+    private void watchGenomes() {
+        stopWatchingGenomes();
+        try {
+            genomeWatcher = new GenomeWatcher(clinic,
+                    reloaded -> SwingUtilities.invokeLater(() -> patientComponent.showReloadedGenomes(reloaded)));
+            genomeWatcher.start();
+        } catch (IOException e) {
+            showDialogBox("The genome folder can't be watched, so changed genomes are only read when the clinic "
+                    + "is loaded.");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Stops watching the genome files, if they are watched
+    private void stopWatchingGenomes() {
+        if (genomeWatcher == null) {
+            return;
+        }
+        try {
+            genomeWatcher.close();
+        } catch (IOException e) {
+            System.out.println("The genome folder couldn't stop being watched.");
+        }
+        genomeWatcher = null;
+    }
+
     @Override
     // EFFECTS: Reads the action command and performs the corresponding action
     public void actionPerformed(ActionEvent e) {
@@ -177,6 +226,9 @@ public class ClinicAppGUI extends JFrame implements ActionListener, WindowListen
             saveClinic();
         } else if (e.getActionCommand().equals("load")) {
             loadClinic();
+            watchGenomes();
+        } else if (e.getActionCommand().equals("storeGenomes")) {
+            storeGenomes();
         }
     }
 
@@ -184,9 +236,11 @@ public class ClinicAppGUI extends JFrame implements ActionListener, WindowListen
     public void windowOpened(WindowEvent e) {
     }
 
-    // EFFECTS: Prints out each event in the event log when the main window is closed
+    // EFFECTS: Stops watching the genome files and prints out each event in the event log when the main window
+    // is closed
     @Override
     public void windowClosing(WindowEvent e) {
+        stopWatchingGenomes();
         EventLog log = EventLog.getInstance();
         for (Event evt : log) {
             System.out.println(evt.toString());
@@ -2,6 +2,8 @@ package ui;
 
 import model.Clinic;
 import model.Condition;
+import model.GenomeLoad;
+import model.GenomeLoader;
 import model.Patient;
 
 import javax.swing.*;
@@ -9,6 +11,7 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowEvent;
+import java.util.List;
 
 // The patient-related components for the main GUI
 public class PatientComponent extends ComponentUtils implements ActionListener {
@@ -18,6 +21,7 @@ public class PatientComponent extends ComponentUtils implements ActionListener {
     private JLabel patientInfoLabel;
     private JTextArea patientInfo;
     private JList patientList;
+    private JLabel genomeStatusLabel;
 
     private JFrame patientViewFrame;
 
@@ -136,8 +140,11 @@ public class PatientComponent extends ComponentUtils implements ActionListener {
         listScroller.setPreferredSize(new Dimension(250, 80));
         listScroller.setAlignmentX(patientPanel.LEFT_ALIGNMENT);
 
+        genomeStatusLabel = new JLabel(" ");
+
         listPanel.add(patientListLabel);
         listPanel.add(listScroller);
+        listPanel.add(genomeStatusLabel);
 
         patientPanel.add(listPanel);
     }
@@ -201,9 +208,52 @@ public class PatientComponent extends ComponentUtils implements ActionListener {
     // MODIFIES: this
     // EFFECTS: Updates all the patients' genomes who are registered in the clinic
     // Nothing happens for a patient if they do not have a genome file stored
+    // The genomes are loaded in the background with a GenomeLoader, so the GUI can be used right away; the
+    // status label below the patient list shows each genome as it arrives and a summary once all have
     public void updateAllGenomesforPatients() {
-        for (Patient p : clinic.getPatients()) {
-            p.readGenome();
+        genomeStatusLabel.setText("Loading genomes...");
+        new GenomeLoader().loadAll(clinic.getPatients(),
+                load -> SwingUtilities.invokeLater(() -> genomeStatusLabel.setText(load.toString())))
+                .thenAccept(loads -> SwingUtilities.invokeLater(() -> showGenomeLoads(loads)));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Shows how many genomes were loaded, with the timing of every genome file in the tooltip of the
+    // status label, and tells the user about any genome file that couldn't be loaded
+    private void showGenomeLoads(List<GenomeLoad> loads) {
+        StringBuilder timings = new StringBuilder("<html>");
+        StringBuilder failures = new StringBuilder();
+        int loaded = 0;
+        for (GenomeLoad load : loads) {
+            timings.append(load).append("<br>");
+            if (load.isLoaded()) {
+                loaded++;
+            } else if (!load.isSkipped()) {
+                failures.append(load).append("\n");
+            }
+        }
+
+        genomeStatusLabel.setText("Loaded " + loaded + " of " + loads.size() + " genomes.");
+        genomeStatusLabel.setToolTipText(timings.append("</html>").toString());
+        if (failures.length() > 0) {
+            showDialogBox("Some genomes couldn't be loaded:\n" + failures);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Refreshes the patient view after the genome files of the reloaded patients changed (see
+    // GenomeWatcher): the status label below the patient list names them, and an open diagnosis report of the
+    // selected patient is redone if they are one of them
+    public void showReloadedGenomes(List<Patient> reloaded) {
+        StringBuilder phns = new StringBuilder();
+        for (Patient p : reloaded) {
+            phns.append(phns.length() == 0 ? "" : ", ").append(p.getPHN());
+        }
+        genomeStatusLabel.setText("Reloaded the genome of PHN " + phns + ".");
+
+        int idx = patientList.getSelectedIndex();
+        if (diagnosisFrame.isVisible() && idx != -1 && reloaded.contains(clinic.getPatients().get(idx))) {
+            diagnosePatient();
         }
     }
 
@@ -0,0 +1,193 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Conformance tests that every AlignmentEngine must pass
+public abstract class AlignmentEngineTest {
+    protected AlignmentEngine engine;
+
+    // EFFECTS: Returns a new instance of the engine under test
+    protected abstract AlignmentEngine createEngine();
+
+    @BeforeEach
+    public void runBefore() {
+        engine = createEngine();
+    }
+
+    @Test
+    public void testAlignExactMatch() {
+        Alignment alignment = engine.align("TGCATGCA", "ATGCATGCATGC");
+        assertEquals(8, alignment.getScore());
+        assertEquals(1, alignment.getOffset());
+    }
+
+    @Test
+    public void testAlignTiesReturnFirstOffset() {
+        Alignment alignment = engine.align("GGGG", "ATGCATGCATGC");
+        assertEquals(1, alignment.getScore());
+        assertEquals(0, alignment.getOffset());
+
+        alignment = engine.align("TGACTG", "ATGCATGCATGC");
+        assertEquals(4, alignment.getScore());
+        assertEquals(1, alignment.getOffset());
+    }
+
+    @Test
+    public void testAlignNoSimilarity() {
+        Alignment alignment = engine.align("ATGC", "GCAT");
+        assertEquals(0, alignment.getScore());
+        assertEquals(0, alignment.getOffset());
+    }
+
+    @Test
+    public void testAlignSameLength() {
+        Alignment alignment = engine.align("ATTC", "AGGC");
+        assertEquals(2, alignment.getScore());
+        assertEquals(0, alignment.getOffset());
+    }
+
+    @Test
+    public void testAlignNonAcgtCharacters() {
+        Alignment alignment = engine.align("ANGC", "TTANGCTT");
+        assertEquals(4, alignment.getScore());
+        assertEquals(2, alignment.getOffset());
+    }
+
+    @Test
+    public void testAlignMatchesNaiveOnRandomSequences() {
+        Random random = new Random(42);
+        int[] targetLengths = {1, 5, 16, 31, 32, 33, 64, 65, 100, 700};
+
+        for (int targetLen : targetLengths) {
+            String target = randomSequence(random, targetLen);
+            String ref = randomSequence(random, targetLen + 3000);
+            Alignment expected = new NaiveAligner().align(target, ref);
+
+            Alignment alignment = engine.align(target, ref);
+            assertEquals(expected.getScore(), alignment.getScore());
+            assertEquals(expected.getOffset(), alignment.getOffset());
+        }
+    }
+
+    @Test
+    public void testAlignFindsPlantedMatch() {
+        Random random = new Random(5);
+        String ref = randomSequence(random, 20000);
+        String target = ref.substring(12345, 12345 + 90);
+
+        Alignment alignment = engine.align(target, ref);
+        assertEquals(90, alignment.getScore());
+        assertEquals(new NaiveAligner().align(target, ref).getOffset(), alignment.getOffset());
+    }
+
+    // EFFECTS: Returns a random sequence of A, C, G, T with the given length
+    public static String randomSequence(Random random, int length) {
+        String bases = "ACGT";
+        StringBuilder seq = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            seq.append(bases.charAt(random.nextInt(4)));
+        }
+        return seq.toString();
+    }
+
+    // REQUIRES: seq is not empty
+    // EFFECTS: Returns seq with three runs of N of up to 70 bases each, so some runs span whole packed words
+    public static String withNs(Random random, String seq) {
+        StringBuilder bases = new StringBuilder(seq);
+        for (int run = 0; run < 3; run++) {
+            int start = random.nextInt(bases.length());
+            int end = Math.min(bases.length(), start + 1 + random.nextInt(70));
+            for (int i = start; i < end; i++) {
+                bases.setCharAt(i, 'N');
+            }
+        }
+
+        return bases.toString();
+    }
+
+    // REQUIRES: seq is not empty, maxLength >= 1
+    // EFFECTS: Returns seq with the given number of random edits: substitutions, and insertions and deletions
+    // of 1 to maxLength bases each. A deletion never empties the sequence.
+    public static String mutate(Random random, String seq, int edits, int maxLength) {
+        StringBuilder mutated = new StringBuilder(seq);
+        for (int k = 0; k < edits; k++) {
+            int at = random.nextInt(mutated.length());
+            int length = 1 + random.nextInt(maxLength);
+            int kind = random.nextInt(3);
+            if (kind == 0) {
+                mutated.setCharAt(at, substituteBase(random, mutated.charAt(at)));
+            } else if (kind == 1 || mutated.length() == 1) {
+                mutated.insert(at, randomSequence(random, length));
+            } else {
+                mutated.delete(at, Math.min(at + length, mutated.length() - (at == 0 ? 1 : 0)));
+            }
+        }
+        return mutated.toString();
+    }
+
+    // REQUIRES: seq is not empty
+    // EFFECTS: Returns seq with count random positions replaced by a different base
+    public static String substitute(Random random, String seq, int count) {
+        char[] chars = seq.toCharArray();
+        for (int i = 0; i < count; i++) {
+            int at = random.nextInt(chars.length);
+            chars[at] = substituteBase(random, chars[at]);
+        }
+        return new String(chars);
+    }
+
+    // EFFECTS: Returns a random base other than base
+    private static char substituteBase(Random random, char base) {
+        String bases = "ACGT";
+        return bases.charAt((bases.indexOf(base) + 1 + random.nextInt(3)) % 4);
+    }
+
+    // EFFECTS: Returns the best global alignment score of target against ref, filling the whole dynamic
+    // programming matrix with a linear gap penalty of gap per base
+    public static int fullMatrixGlobalScore(String target, String ref, int match, int mismatch, int gap) {
+        int[][] h = new int[target.length() + 1][ref.length() + 1];
+        for (int i = 0; i <= target.length(); i++) {
+            for (int j = 0; j <= ref.length(); j++) {
+                if (i == 0 || j == 0) {
+                    h[i][j] = -gap * (i + j);
+                    continue;
+                }
+                int diagonal = h[i - 1][j - 1] + (target.charAt(i - 1) == ref.charAt(j - 1) ? match : mismatch);
+                h[i][j] = Math.max(diagonal, Math.max(h[i - 1][j], h[i][j - 1]) - gap);
+            }
+        }
+        return h[target.length()][ref.length()];
+    }
+
+    // EFFECTS: Returns the best local alignment score of target against ref, filling the whole dynamic
+    // programming matrices with an affine gap penalty: a gap of k bases costs gapOpen + k * gapExtend
+    public static int fullMatrixLocalScore(String target, String ref, int match, int mismatch, int gapOpen,
+            int gapExtend) {
+        int m = target.length();
+        int n = ref.length();
+        int[][] h = new int[m + 1][n + 1];
+        int[][] e = new int[m + 1][n + 1];
+        int[][] f = new int[m + 1][n + 1];
+        int best = 0;
+        for (int i = 0; i <= m; i++) {
+            for (int j = 0; j <= n; j++) {
+                e[i][j] = -1000000;
+                f[i][j] = -1000000;
+                if (i == 0 || j == 0) {
+                    continue;
+                }
+                e[i][j] = Math.max(e[i][j - 1] - gapExtend, h[i][j - 1] - gapOpen - gapExtend);
+                f[i][j] = Math.max(f[i - 1][j] - gapExtend, h[i - 1][j] - gapOpen - gapExtend);
+                int diagonal = h[i - 1][j - 1] + (target.charAt(i - 1) == ref.charAt(j - 1) ? match : mismatch);
+                h[i][j] = Math.max(Math.max(0, diagonal), Math.max(e[i][j], f[i][j]));
+                best = Math.max(best, h[i][j]);
+            }
+        }
+        return best;
+    }
+}
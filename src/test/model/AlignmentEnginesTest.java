@@ -0,0 +1,46 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlignmentEnginesTest {
+    @AfterEach
+    public void runAfter() {
+        System.clearProperty(AlignmentEngines.ENGINE_PROPERTY);
+    }
+
+    @Test
+    public void testAllEnginesHaveUniqueNames() {
+        List<AlignmentEngine> engines = AlignmentEngines.all();
+        assertEquals(5, engines.size());
+        for (AlignmentEngine engine : engines) {
+            assertEquals(engine.getName(), AlignmentEngines.forName(engine.getName()).getName());
+        }
+    }
+
+    @Test
+    public void testForNameUnknownEngine() {
+        try {
+            AlignmentEngines.forName("quantum");
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFromSystemPropertyDefault() {
+        assertEquals(AlignmentEngines.DEFAULT_ENGINE, AlignmentEngines.fromSystemProperty().getName());
+    }
+
+    @Test
+    public void testFromSystemPropertySet() {
+        System.setProperty(AlignmentEngines.ENGINE_PROPERTY, "sliding");
+        assertEquals("sliding", AlignmentEngines.fromSystemProperty().getName());
+        assertEquals("sliding", new SequenceAligner("ATGC", "ATGCATGC").getEngine().getName());
+    }
+}
@@ -0,0 +1,56 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchAlignerTest {
+    @Test
+    public void testAlignAllSmallGenome() {
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(new Condition("Genetic Condition A", "ATGCAATGC", 10));
+        conditions.add(new Condition("Genetic Condition B", "TGCCATGGC", 5));
+
+        List<Alignment> alignments = new BatchAligner().alignAll(conditions, "GTACATGCAATGCATGGG");
+        assertEquals(2, alignments.size());
+        assertEquals(9, alignments.get(0).getScore());
+        assertEquals(4, alignments.get(0).getOffset());
+        assertEquals(6, alignments.get(1).getScore());
+    }
+
+    @Test
+    public void testAlignAllNonAcgtCondition() {
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(new Condition("Ambiguous", "ANGC", 1));
+        conditions.add(new Condition("Genetic Condition A", "ATGC", 1));
+
+        List<Alignment> alignments = new BatchAligner().alignAll(conditions, "TTANGCTTATGC");
+        assertEquals(4, alignments.get(0).getScore());
+        assertEquals(2, alignments.get(0).getOffset());
+        assertEquals(4, alignments.get(1).getScore());
+        assertEquals(8, alignments.get(1).getOffset());
+    }
+
+    @Test
+    public void testAlignAllMatchesSingleAlignmentsAcrossBlocks() {
+        Random random = new Random(21);
+        String genome = AlignmentEngineTest.randomSequence(random, 10000);
+        List<Condition> conditions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String seq = AlignmentEngineTest.randomSequence(random, 1 + i * 7);
+            conditions.add(new Condition("Condition " + i, seq, 1));
+        }
+        conditions.add(new Condition("Planted", genome.substring(9000, 9050), 1));
+
+        List<Alignment> alignments = new BatchAligner(500).alignAll(conditions, genome);
+        for (int i = 0; i < conditions.size(); i++) {
+            Alignment expected = new NaiveAligner().align(conditions.get(i).getSequence(), genome);
+            assertEquals(expected.getScore(), alignments.get(i).getScore());
+            assertEquals(expected.getOffset(), alignments.get(i).getOffset());
+        }
+    }
+}
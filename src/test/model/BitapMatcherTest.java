@@ -0,0 +1,85 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitapMatcherTest {
+    @Test
+    public void testExactMatches() {
+        BitapMatcher matcher = new BitapMatcher("ATG", 0);
+        assertEquals(Arrays.asList(1, 5, 9), matcher.findAll("CATGCATGCATG"));
+        assertEquals(1, matcher.findFirst("CATGCATGCATG"));
+        assertEquals(-1, matcher.findFirst("CCCC"));
+        assertEquals("ATG", matcher.getPattern());
+        assertEquals(0, matcher.getMaxMismatches());
+    }
+
+    @Test
+    public void testMismatches() {
+        BitapMatcher matcher = new BitapMatcher("GGCC", 1);
+        assertEquals(Arrays.asList(0, 4), matcher.findAll("GGCAGTCCTTTT"));
+        assertTrue(new BitapMatcher("GGCC", 0).findAll("GGCAGTCCTTTT").isEmpty());
+        assertEquals(Arrays.asList(0), new BitapMatcher("AAAA", 4).findAll("TTTT"));
+    }
+
+    @Test
+    public void testPatternLongerThanText() {
+        assertTrue(new BitapMatcher("ACGTACGT", 3).findAll("ACGT").isEmpty());
+    }
+
+    @Test
+    public void testNonAcgtCharacters() {
+        assertEquals(Arrays.asList(2), new BitapMatcher("NA", 0).findAll("ACNA"));
+        assertEquals(Arrays.asList(0, 1, 3), new BitapMatcher("NA", 1).findAll("NNA" + (char) 0x100 + "A"));
+    }
+
+    @Test
+    public void testSingleWordMatchesBruteForce() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 50; trial++) {
+            String text = AlignmentEngineTest.randomSequence(random, 300);
+            String pattern = AlignmentEngineTest.randomSequence(random, 1 + random.nextInt(64));
+            int maxMismatches = random.nextInt(4) + pattern.length() / 4;
+            assertEquals(bruteForce(pattern, text, maxMismatches),
+                    new BitapMatcher(pattern, maxMismatches).findAll(text));
+        }
+    }
+
+    @Test
+    public void testMultiWordMatchesBruteForce() {
+        Random random = new Random(12);
+        for (int trial = 0; trial < 30; trial++) {
+            String text = AlignmentEngineTest.randomSequence(random, 600);
+            int start = random.nextInt(400);
+            String pattern = AlignmentEngineTest.substitute(random,
+                    text.substring(start, start + 65 + random.nextInt(135)), 3);
+            int maxMismatches = random.nextInt(5);
+            List<Integer> expected = bruteForce(pattern, text, maxMismatches);
+            BitapMatcher matcher = new BitapMatcher(pattern, maxMismatches);
+            assertEquals(expected, matcher.findAll(text));
+            assertEquals(expected.isEmpty() ? -1 : expected.get(0), matcher.findFirst(text));
+        }
+    }
+
+    private static List<Integer> bruteForce(String pattern, String text, int maxMismatches) {
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i + pattern.length() <= text.length(); i++) {
+            int mismatches = 0;
+            for (int j = 0; j < pattern.length(); j++) {
+                if (pattern.charAt(j) != text.charAt(i + j)) {
+                    mismatches++;
+                }
+            }
+            if (mismatches <= maxMismatches) {
+                offsets.add(i);
+            }
+        }
+        return offsets;
+    }
+}
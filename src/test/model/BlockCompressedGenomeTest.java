@@ -0,0 +1,144 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockCompressedGenomeTest {
+    private Path dir;
+    private Path file;
+    private String bases;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = Files.createTempDirectory("compressed");
+        file = dir.resolve("a_genome.txt.gz");
+        bases = AlignmentEngineTest.randomSequence(new Random(22), 5 * BlockCompressedGenome.BLOCK_SIZE + 123);
+        BlockCompressedGenome.compress(bases, file);
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        Files.deleteIfExists(BlockIndex.indexFileFor(file));
+        Files.deleteIfExists(file);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testCompressedFileIsGzip() throws IOException {
+        ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                decompressed.write(buffer, 0, read);
+            }
+        }
+
+        assertEquals(bases, new String(decompressed.toByteArray(), StandardCharsets.ISO_8859_1));
+        assertTrue(Files.size(file) < bases.length() / 2);
+        assertTrue(BlockCompressedGenome.isBlockCompressed(file));
+    }
+
+    @Test
+    public void testRegionDecompressesOnlyCoveringBlocks() throws IOException {
+        BlockCompressedGenome genome = (BlockCompressedGenome) BlockCompressedGenome.open(file);
+        assertEquals(6, genome.getBlockCount());
+        assertEquals(bases.length(), genome.length());
+        long opened = genome.getBlocksDecompressed();
+
+        int start = 3 * BlockCompressedGenome.BLOCK_SIZE - 10;
+        assertEquals(bases.substring(start, start + 20), genome.subSequence(start, start + 20));
+        assertEquals(opened + 2, genome.getBlocksDecompressed());
+        assertEquals(bases.charAt(start), genome.charAt(start));
+        assertEquals(opened + 3, genome.getBlocksDecompressed());
+        assertEquals("", genome.subSequence(start, start));
+        assertEquals(bases.charAt(bases.length() - 1), genome.charAt(bases.length() - 1));
+        assertEquals(opened + 4, genome.getBlocksDecompressed());
+    }
+
+    @Test
+    public void testSequentialScanReadsAhead() throws IOException {
+        CharSequence genome = BlockCompressedGenome.open(file);
+        StringBuilder scanned = new StringBuilder();
+        for (int i = 0; i < genome.length(); i++) {
+            scanned.append(genome.charAt(i));
+        }
+
+        assertEquals(bases, scanned.toString());
+        assertEquals(bases, genome.toString());
+        assertEquals(bases, new PackedGenome(BlockCompressedGenome.open(file)).toString());
+    }
+
+    @Test
+    public void testCompressGenomeFile() throws IOException {
+        Path text = dir.resolve("b_genome.txt");
+        Files.write(text, "ACGT\nACGT\nAC\n".getBytes(StandardCharsets.ISO_8859_1));
+        Path compressed = BlockCompressedGenome.compress(text);
+
+        assertEquals(dir.resolve("b_genome.txt.gz"), compressed);
+        assertEquals("ACGTACGTAC", BlockCompressedGenome.open(compressed).toString());
+        assertEquals("ACGTACGTAC", GenomeFiles.open(compressed).toString());
+        Files.delete(BlockIndex.indexFileFor(compressed));
+        Files.delete(compressed);
+        Files.delete(text);
+    }
+
+    @Test
+    public void testOpensCompressedTextAndFasta() throws IOException {
+        Path text = dir.resolve("c_genome.txt.gz");
+        Path fasta = dir.resolve("d_genome.txt.gz");
+        BlockCompressedGenome.compress("ACGT\nACGT\nAC\n", text);
+        BlockCompressedGenome.compress(">chr1\nACGT\nAC\n>chr2\nGG\n", fasta);
+
+        assertEquals("ACGTACGTAC", BlockCompressedGenome.open(text).toString());
+        assertEquals("ACGTACGG", BlockCompressedGenome.open(fasta).toString());
+        for (Path path : new Path[] {text, fasta}) {
+            Files.delete(BlockIndex.indexFileFor(path));
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testEmptyGenome() throws IOException {
+        Path empty = dir.resolve("e_genome.txt.gz");
+        BlockCompressedGenome.compress("", empty);
+        CharSequence genome = BlockCompressedGenome.open(empty);
+
+        assertEquals(0, genome.length());
+        assertEquals("", genome.toString());
+        Files.delete(BlockIndex.indexFileFor(empty));
+        Files.delete(empty);
+    }
+
+    @Test
+    public void testRejectsPlainGzipAndCorruptBlocks() throws IOException {
+        Path gzip = dir.resolve("f_genome.txt.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            out.write("ACGT".getBytes(StandardCharsets.ISO_8859_1));
+        }
+        assertFalse(BlockCompressedGenome.isBlockCompressed(gzip));
+        assertThrows(IOException.class, () -> BlockCompressedGenome.open(gzip));
+        Files.delete(gzip);
+
+        BlockCompressedGenome.compress(bases, file);
+        byte[] contents = Files.readAllBytes(file);
+        contents[100] ^= 0x55;
+        Files.write(file, contents);
+        Files.delete(BlockIndex.indexFileFor(file));
+        assertThrows(UncheckedIOException.class, () -> BlockCompressedGenome.open(file));
+    }
+}
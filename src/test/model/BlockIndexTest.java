@@ -0,0 +1,92 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockIndexTest {
+    private static final int BLOCK = BlockCompressedGenome.BLOCK_SIZE;
+
+    private Path dir;
+    private Path file;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = Files.createTempDirectory("blockindex");
+        file = dir.resolve("a_genome.txt.gz");
+        StringBuilder bases = new StringBuilder();
+        for (int i = 0; i < 2 * BLOCK + 10; i++) {
+            bases.append("ACGT".charAt(i % 4));
+        }
+        BlockCompressedGenome.compress(bases, file);
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        Files.deleteIfExists(BlockIndex.indexFileFor(file));
+        Files.delete(file);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testBuild() throws IOException {
+        BlockIndex index = BlockIndex.build(MappedGenome.map(file));
+        assertEquals(3, index.getBlockCount());
+        assertEquals(2 * BLOCK + 10, index.getLength());
+        assertEquals(0, index.getFileOffset(0));
+        assertTrue(index.getFileOffset(1) > 0);
+        assertEquals(BLOCK, index.getDataOffset(1));
+        assertEquals(2 * BLOCK + 10, index.getDataOffset(3));
+
+        assertEquals(0, index.blockOf(0));
+        assertEquals(0, index.blockOf(BLOCK - 1));
+        assertEquals(1, index.blockOf(BLOCK));
+        assertEquals(2, index.blockOf(2 * BLOCK + 9));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path indexFile = BlockIndex.indexFileFor(file);
+        assertEquals(dir.resolve("a_genome.txt.gz.gzi"), indexFile);
+        assertEquals(8 + 16 * 2, Files.size(indexFile));
+
+        ByteBuffer buffer = MappedGenome.map(file);
+        BlockIndex index = BlockIndex.forCompressedFile(file, buffer);
+        BlockIndex built = BlockIndex.build(buffer);
+        assertEquals(built.getLength(), index.getLength());
+        for (int k = 0; k < built.getBlockCount(); k++) {
+            assertEquals(built.getFileOffset(k), index.getFileOffset(k));
+            assertEquals(built.getDataOffset(k), index.getDataOffset(k));
+        }
+    }
+
+    @Test
+    public void testRebuildsIndexOfFileReplacedByOlderOne() throws IOException {
+        Path older = dir.resolve("b_genome.txt.gz");
+        BlockCompressedGenome.compress("ACGT", older);
+        Files.delete(BlockIndex.indexFileFor(older));
+        assertThrows(IOException.class, () -> BlockIndex.read(BlockIndex.indexFileFor(file), MappedGenome.map(older)));
+
+        Files.move(older, file, StandardCopyOption.REPLACE_EXISTING);
+        file.toFile().setLastModified(BlockIndex.indexFileFor(file).toFile().lastModified() - 10000);
+        assertEquals(4, BlockIndex.forCompressedFile(file, MappedGenome.map(file)).getLength());
+        assertEquals(4, BlockIndex.forCompressedFile(file, MappedGenome.map(file)).getLength());
+        assertEquals(Files.getLastModifiedTime(file), Files.getLastModifiedTime(BlockIndex.indexFileFor(file)));
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        Path indexFile = BlockIndex.indexFileFor(file);
+        Files.write(indexFile, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> BlockIndex.read(indexFile, MappedGenome.map(file)));
+        assertThrows(IOException.class, () -> BlockIndex.build(ByteBuffer.wrap("ACGT".getBytes())));
+    }
+}
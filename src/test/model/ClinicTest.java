@@ -1,21 +1,33 @@
 package model;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ClinicTest {
+    private TempGenomeDirectory genomes;
     private Clinic testClinic;
     private Patient testPatient;
     private Patient testPatient2;
     private Condition conditionA;
     private Condition conditionB;
+    private Patient relative;
+    private Patient resequenced;
 
     @BeforeEach
-    public void runBefore() {
+    public void runBefore() throws IOException {
+        genomes = new TempGenomeDirectory();
         testClinic = new Clinic(null, null);
 
         testPatient = new Patient("Patient Zero", "11/11/1999", "1091239501");
@@ -26,6 +38,11 @@ public class ClinicTest {
 
     }
 
+    @AfterEach
+    public void runAfter() throws IOException {
+        genomes.close();
+    }
+
     @Test
     public void testConstructorWithNullInput() {
         testClinic = new Clinic(null, null);
@@ -193,4 +210,139 @@ public class ClinicTest {
         patient = testClinic.findPatient("1091239501");
         assertEquals(testPatient, patient);
     }
+
+    @Test
+    public void testDiagnoseAll() {
+        testClinic.addCondition(conditionA);
+        testClinic.addCondition(conditionB);
+        testPatient.updateGenome("GTACATGCAATGCATGGG");
+
+        Map<Condition, List<Integer>> positives = testClinic.diagnoseAll(testPatient);
+        assertEquals(1, positives.size());
+        assertEquals(Arrays.asList(4), positives.get(conditionA));
+
+        testClinic.removeCondition(conditionA.getName());
+        assertTrue(testClinic.diagnoseAll(testPatient).isEmpty());
+
+        Condition conditionC = new Condition("Genetic Condition C", "CATGG", 3);
+        testClinic.addCondition(conditionC);
+        assertEquals(Arrays.asList(12), testClinic.diagnoseAll(testPatient).get(conditionC));
+    }
+
+    @Test
+    public void testDiagnoseAllByChromosome() throws IOException {
+        Path fasta = genomes.resolve(testPatient.getPHN() + "_genome.fa");
+        Files.write(fasta, Arrays.asList(">chr5", "TGCCATGGCA", ">chr10", "GTACATGCAATGCATGGG"));
+        Condition onChr10 = new Condition("Condition on chr10", "TGCCATGGC", 10);
+        Condition unstored = new Condition("Condition on chr7", "CATGG", 7);
+        testClinic.addCondition(conditionA);
+        testClinic.addCondition(conditionB);
+        testClinic.addCondition(onChr10);
+        testClinic.addCondition(unstored);
+        testClinic.addCondition(new Condition("Across chr5 and chr10", "GGCAGTAC", 7));
+        testPatient.readGenome();
+        Map<Condition, List<Integer>> positives = testClinic.diagnoseAll(testPatient);
+        assertEquals(Arrays.asList(conditionA, conditionB, unstored), new ArrayList<>(positives.keySet()));
+        assertEquals(Arrays.asList(4), positives.get(conditionA));
+        assertEquals(Arrays.asList(0), positives.get(conditionB));
+        assertEquals(Arrays.asList(3, 12), positives.get(unstored));
+    }
+
+    @Test
+    public void testDiagnoseAllVariants() throws IOException {
+        ReferenceGenome reference = new ReferenceGenome("GTACATGCTATGCATGGG");
+        testPatient.updateVariants(new VariantGenome(reference, Arrays.asList(new Variant(8, "T", "A"))));
+        Condition empty = new Condition("Empty condition", "", 1);
+        testClinic.addCondition(conditionA);
+        testClinic.addCondition(conditionB);
+        testClinic.addCondition(empty);
+        Map<Condition, List<Integer>> positives = testClinic.diagnoseAll(testPatient);
+        assertEquals(Arrays.asList(conditionA, empty), new ArrayList<>(positives.keySet()));
+        assertEquals(Arrays.asList(4), positives.get(conditionA));
+        assertEquals(Arrays.asList(0), positives.get(empty));
+    }
+
+    @Test
+    public void testReloadGenome() throws IOException {
+        Patient patient = new Patient("", "3/16/2020", "1234567890");
+        testClinic.addPatient(patient);
+        testClinic.addCondition(conditionA);
+        Path genomeFile = genomes.resolve("1234567890_genome.txt");
+        Files.write(genomeFile, Arrays.asList("GTACATGCAATGCATGGG"));
+        testClinic.reloadGenome(patient);
+        assertEquals(Arrays.asList(4), testClinic.diagnoseAll(patient).get(conditionA));
+        assertTrue(GenomeCache.getInstance().contains(genomeFile));
+
+        testClinic.reloadGenome(patient);
+        assertFalse(GenomeCache.getInstance().contains(genomeFile));
+        Files.delete(genomeFile);
+        VariantFile.write(VariantFile.forPatient("1234567890"), Arrays.asList(new Variant(0, "A", "G")));
+        testClinic.reloadGenome(patient);
+        assertTrue(patient.hasNoGenome());
+        assertTrue(testClinic.diagnoseAll(patient).isEmpty());
+    }
+
+    @Test
+    public void testReloadGenomeDeletesIndexes() throws IOException {
+        Patient patient = new Patient("", "3/16/2020", "1234567890");
+        testClinic.addPatient(patient);
+        List<String> indexes = Arrays.asList("1234567890_genome.fa.fai", "1234567890_genome.txt.gz.gzi",
+                "1234567890_genome.fmi", "1234567890_genome.chr7.fmi");
+        for (String index : indexes) {
+            Files.write(genomes.resolve(index), Arrays.asList("stale"));
+        }
+        Path otherIndex = genomes.resolve("2310529181_genome.fmi");
+        Files.write(otherIndex, Arrays.asList("kept"));
+
+        testClinic.reloadGenome(patient);
+        for (String index : indexes) {
+            assertFalse(Files.exists(genomes.resolve(index)));
+        }
+        assertTrue(Files.exists(otherIndex));
+    }
+
+    @Test
+    public void testReloadGenomeKeepsSharedGenomes() throws IOException {
+        addPatientsWithSameGenome("GTACATGCAATGCATGGG");
+        testClinic.storeGenomes();
+        Path stored = Paths.get(relative.getGenomeFileName());
+        assertTrue(stored.startsWith(genomes.getPath()));
+        assertEquals(Arrays.asList(4), testClinic.diagnoseAll(relative).get(conditionA));
+
+        Files.delete(genomes.resolve("1111111111_genome.ref"));
+        testClinic.reloadGenome(relative);
+        assertTrue(relative.hasNoGenome());
+        assertTrue(testClinic.diagnoseAll(relative).isEmpty());
+        assertTrue(GenomeCache.getInstance().contains(stored));
+        assertEquals(Arrays.asList(4), testClinic.diagnoseAll(resequenced).get(conditionA));
+    }
+
+    @Test
+    public void testStoreGenomesSharesDiagnoses() throws IOException {
+        addPatientsWithSameGenome("GTACATGCAA", "TGCATGGG");
+        assertEquals(2, testClinic.storeGenomes());
+        assertEquals(0, testClinic.storeGenomes());
+        assertEquals(relative.getGenomeFileName(), resequenced.getGenomeFileName());
+        assertNotNull(relative.getGenomeHash());
+        assertEquals(Arrays.asList(4), testClinic.diagnoseAll(relative).get(conditionA));
+
+        Path stored = Paths.get(relative.getGenomeFileName());
+        GenomeCache.getInstance().invalidate(stored);
+        Files.move(stored, stored.resolveSibling("moved"));
+        assertEquals(Arrays.asList(4), testClinic.diagnoseAll(resequenced).get(conditionA));
+        Files.move(stored.resolveSibling("moved"), stored);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Adds conditionA and two patients to the clinic, a relative whose genome file has the given lines
+    // and a resequenced patient whose genome file has the same genome on one line
+    private void addPatientsWithSameGenome(String... relativeLines) throws IOException {
+        relative = new Patient("", "3/16/2020", "1111111111");
+        resequenced = new Patient("", "3/16/2020", "2222222222");
+        testClinic.addPatient(relative);
+        testClinic.addPatient(resequenced);
+        testClinic.addCondition(conditionA);
+        Files.write(genomes.resolve("1111111111_genome.txt"), Arrays.asList(relativeLines));
+        Files.write(genomes.resolve("2222222222_genome.txt"), Arrays.asList(String.join("", relativeLines)));
+    }
 }
@@ -87,4 +87,19 @@ public class ConditionListTest {
         assertTrue(res1);
         assertTrue(res2);
     }
+
+    @Test
+    public void testGetMatcherRebuiltAfterChanges() {
+        testConditionList.addCondition(testCondition1);
+        ConditionMatcher matcher = testConditionList.getMatcher();
+        assertSame(matcher, testConditionList.getMatcher());
+
+        testConditionList.addCondition(testCondition2);
+        ConditionMatcher updated = testConditionList.getMatcher();
+        assertNotSame(matcher, updated);
+        assertEquals(2, updated.getConditions().size());
+
+        testConditionList.removeCondition(testCondition1.getName());
+        assertEquals(1, testConditionList.getMatcher().getConditions().size());
+    }
 }
@@ -0,0 +1,80 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConditionMatcherTest {
+    private Condition conditionA;
+    private Condition conditionB;
+    private Condition conditionC;
+    private List<Condition> conditions;
+
+    @BeforeEach
+    public void runBefore() {
+        conditionA = new Condition("Genetic Condition A", "ATGCAATGC", 10);
+        conditionB = new Condition("Genetic Condition B", "TGCCATGGC", 5);
+        conditionC = new Condition("Genetic Condition C", "AATG", 7);
+        conditions = new ArrayList<>();
+        conditions.add(conditionA);
+        conditions.add(conditionB);
+        conditions.add(conditionC);
+    }
+
+    @Test
+    public void testFindAllPositiveConditions() {
+        ConditionMatcher matcher = new ConditionMatcher(conditions);
+        Map<Condition, List<Integer>> hits = matcher.findAll("GTACATGCAATGCATGGG");
+
+        assertEquals(2, hits.size());
+        assertEquals(Arrays.asList(4), hits.get(conditionA));
+        assertEquals(Arrays.asList(8), hits.get(conditionC));
+        assertFalse(hits.containsKey(conditionB));
+    }
+
+    @Test
+    public void testFindAllOverlappingHits() {
+        Condition repeat = new Condition("Repeat", "AA", 1);
+        Map<Condition, List<Integer>> hits = new ConditionMatcher(Arrays.asList(repeat)).findAll("AAAATAA");
+        assertEquals(Arrays.asList(0, 1, 2, 5), hits.get(repeat));
+    }
+
+    @Test
+    public void testFindAllNoConditions() {
+        ConditionMatcher matcher = new ConditionMatcher(new ArrayList<>());
+        assertTrue(matcher.findAll("ATGC").isEmpty());
+    }
+
+    @Test
+    public void testFindAllEmptySequence() {
+        Condition empty = new Condition("Empty", "", 1);
+        Map<Condition, List<Integer>> hits = new ConditionMatcher(Arrays.asList(empty)).findAll("ATGC");
+        assertEquals(Arrays.asList(0), hits.get(empty));
+    }
+
+    @Test
+    public void testFindAllAgreesWithDiagnose() {
+        Random random = new Random(12);
+        String genome = AlignmentEngineTest.randomSequence(random, 5000);
+        List<Condition> randomConditions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String seq = AlignmentEngineTest.randomSequence(random, 3 + i % 6);
+            randomConditions.add(new Condition("Condition " + i, seq, 1));
+        }
+
+        Map<Condition, List<Integer>> hits = new ConditionMatcher(randomConditions).findAll(genome);
+        for (Condition c : randomConditions) {
+            assertEquals(genome.contains(c.getSequence()), hits.containsKey(c));
+            if (hits.containsKey(c)) {
+                assertEquals(genome.indexOf(c.getSequence()), hits.get(c).get(0));
+            }
+        }
+    }
+}
@@ -21,6 +21,20 @@ public class ConditionTest {
         assertEquals(10, testCondition.getChromosomeNumber());
     }
 
+    @Test
+    public void testRegion() {
+        assertFalse(testCondition.hasRegion());
+        assertEquals(-1, testCondition.getRegionStart());
+        assertFalse(testCondition.toJson().has("regionStart"));
+
+        Condition regionCondition = new Condition("Genetic Condition B", "ACATG", 3, 100, 250);
+        assertTrue(regionCondition.hasRegion());
+        assertEquals(100, regionCondition.getRegionStart());
+        assertEquals(250, regionCondition.getRegionEnd());
+        assertEquals(100, regionCondition.toJson().getInt("regionStart"));
+        assertEquals(250, regionCondition.toJson().getInt("regionEnd"));
+    }
+
     @Test
     public void testToString() {
         assertEquals("Genetic Condition A", testCondition.toString());
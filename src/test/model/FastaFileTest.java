@@ -0,0 +1,66 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastaFileTest {
+    private Path dir;
+    private Path fasta;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = Files.createTempDirectory("fastafile");
+        fasta = dir.resolve("1234567890_genome.fa");
+        Files.write(fasta, ">chr1\nACGTA\nCGTAC\nGG\n>empty\n>chr2 second\nTTTT\r\nTG\r\n"
+                .getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        Files.deleteIfExists(FastaIndex.indexFileFor(fasta));
+        Files.delete(fasta);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testRecords() throws IOException {
+        FastaFile file = FastaFile.open(fasta);
+        assertTrue(Files.exists(FastaIndex.indexFileFor(fasta)));
+        assertEquals(Arrays.asList("chr1", "empty", "chr2"), file.getRecordNames());
+        assertTrue(file.hasRecord("chr2"));
+        assertFalse(file.hasRecord("chr3"));
+
+        assertEquals("ACGTACGTACGG", file.getRecord("chr1").toString());
+        assertEquals("", file.getRecord("empty").toString());
+        assertEquals("TTTTTG", file.getRecord("chr2").toString());
+        assertEquals('G', file.getRecord("chr2").charAt(5));
+    }
+
+    @Test
+    public void testFetchRegion() throws IOException {
+        FastaFile file = FastaFile.open(fasta);
+        assertEquals("TACGTA", file.fetch("chr1", 3, 9));
+        assertEquals("GG", file.fetch("chr1", 10, 12));
+        assertEquals("TTG", file.fetch("chr2", 3, 6));
+        assertEquals("", file.fetch("chr2", 2, 2));
+    }
+
+    @Test
+    public void testWholeSequence() throws IOException {
+        CharSequence sequence = FastaFile.open(fasta).getSequence();
+        assertEquals(18, sequence.length());
+        assertEquals('G', sequence.charAt(11));
+        assertEquals('T', sequence.charAt(12));
+        assertEquals("GGTT", sequence.subSequence(10, 14));
+        assertEquals("ACGTACGTACGGTTTTTG", sequence.toString());
+    }
+}
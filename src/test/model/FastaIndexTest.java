@@ -0,0 +1,124 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastaIndexTest {
+    private Path dir;
+    private Path fasta;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = Files.createTempDirectory("fastaindex");
+        fasta = dir.resolve("1234567890_genome.fa");
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        Files.deleteIfExists(FastaIndex.indexFileFor(fasta));
+        Files.deleteIfExists(fasta);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testGeneratesSamtoolsIndex() throws IOException {
+        write(">chr1 first chromosome\nACGTA\nCGTAC\nGG\n>chr2\nTTTT\r\nTT\r\n");
+        FastaIndex index = FastaIndex.forFastaFile(fasta);
+
+        assertEquals(Arrays.asList("chr1", "chr2"), index.getNames());
+        assertTrue(index.contains("chr2"));
+        assertFalse(index.contains("chr3"));
+        assertEquals(12, index.getLength("chr1"));
+        assertEquals(6, index.getLength("chr2"));
+
+        Path indexFile = FastaIndex.indexFileFor(fasta);
+        assertEquals("1234567890_genome.fa.fai", indexFile.getFileName().toString());
+        assertEquals(Arrays.asList("chr1\t12\t23\t5\t6", "chr2\t6\t44\t4\t6"),
+                Files.readAllLines(indexFile));
+    }
+
+    @Test
+    public void testReadsExistingIndexAndRebuildsStaleOne() throws IOException {
+        write(">chr1\nACGT\n");
+        Path indexFile = FastaIndex.indexFileFor(fasta);
+        Files.write(indexFile, Arrays.asList("chr1\t4\t6\t4\t5"));
+        indexFile.toFile().setLastModified(fasta.toFile().lastModified() - 2000);
+        FileTime written = Files.getLastModifiedTime(indexFile);
+        assertEquals(Arrays.asList("chr1"), FastaIndex.forFastaFile(fasta).getNames());
+        assertEquals(written, Files.getLastModifiedTime(indexFile));
+
+        Files.write(indexFile, Arrays.asList("chrX\t4\t6\t4\t5"));
+        indexFile.toFile().setLastModified(fasta.toFile().lastModified() + 2000);
+        assertEquals(Arrays.asList("chr1"), FastaIndex.forFastaFile(fasta).getNames());
+    }
+
+    @Test
+    public void testRebuildsIndexOfFileReplacedByOlderOne() throws IOException {
+        write(">chr1\nACGTACGT\nAC\n>chr2\nAC\n");
+        assertEquals(10, FastaIndex.forFastaFile(fasta).getLength("chr1"));
+
+        write(">chr1\nACGTACGT\n>chr2\nACGT\n");
+        fasta.toFile().setLastModified(FastaIndex.indexFileFor(fasta).toFile().lastModified() - 10000);
+        FastaIndex index = FastaIndex.forFastaFile(fasta);
+        assertEquals(8, index.getLength("chr1"));
+        assertEquals(4, index.getLength("chr2"));
+    }
+
+    @Test
+    public void testMatches() throws IOException {
+        write(">chr1 first\nACGTA\nCGTAC\nGG\n>chr2\r\nTTTT\r\nTT\r\n>chr3\n>chr4\nACG");
+        FastaIndex index = FastaIndex.build(MappedGenome.map(fasta));
+        assertTrue(index.matches(MappedGenome.map(fasta)));
+
+        write(">chr1 first\nACGTA\nCGTAC\nGG\n>chr2\r\nTTTT\r\nTT\r\n>chr3\n>chr4\nACGT");
+        assertFalse(index.matches(MappedGenome.map(fasta)));
+        write(">chr1 first\nACGTAC\nGTACGG\n>chr2\r\nTTTT\r\nTT\r\n>chr3\n>chr4\nACG");
+        assertFalse(index.matches(MappedGenome.map(fasta)));
+        write(">chr1 first\nACGTA\nCGTAC\nGG\n>chr5\r\nTTTT\r\nTT\r\n>chr3\n>chr4\nACG");
+        assertFalse(index.matches(MappedGenome.map(fasta)));
+    }
+
+    @Test
+    public void testRejectsMalformedFiles() throws IOException {
+        write("ACGT\n");
+        assertMalformed();
+        write(">chr1\nACG\nACGT\n");
+        assertMalformed();
+        write(">chr1\nACGT\nAC\nAC\n");
+        assertMalformed();
+
+        Path indexFile = FastaIndex.indexFileFor(fasta);
+        Files.write(indexFile, Arrays.asList("chr1\tfour\t6\t4\t5"));
+        try {
+            FastaIndex.read(indexFile);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    // EFFECTS: Asserts that the FASTA file can't be indexed
+    private void assertMalformed() {
+        try {
+            FastaIndex.build(MappedGenome.map(fasta));
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    // EFFECTS: Writes contents to the FASTA file
+    private void write(String contents) throws IOException {
+        Files.write(fasta, contents.getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
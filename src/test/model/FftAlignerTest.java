@@ -0,0 +1,35 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FftAlignerTest extends AlignmentEngineTest {
+    @Override
+    protected AlignmentEngine createEngine() {
+        return new FftAligner();
+    }
+
+    @Test
+    public void testGetName() {
+        assertEquals("fft", engine.getName());
+    }
+
+    @Test
+    public void testAlignMatchesNaiveAcrossBlocks() {
+        Random random = new Random(7);
+        int[] targetLengths = {300, 600, 3000};
+
+        for (int targetLen : targetLengths) {
+            String target = randomSequence(random, targetLen);
+            String ref = randomSequence(random, 5000 + targetLen);
+            Alignment expected = new NaiveAligner().align(target, ref);
+
+            Alignment alignment = engine.align(target, ref);
+            assertEquals(expected.getScore(), alignment.getScore());
+            assertEquals(expected.getOffset(), alignment.getOffset());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FmIndexTest {
+    @Test
+    public void testCountAndLocate() {
+        FmIndex index = FmIndex.build("ATGCATGCATGC", 12, 0);
+        assertEquals(12, index.getGenomeLength());
+        assertEquals(3, index.count("ATGC"));
+        assertEquals(Arrays.asList(0, 4, 8), index.locate("ATGC"));
+        assertEquals(Arrays.asList(1, 5), index.locate("TGCA"));
+        assertEquals(0, index.count("GG"));
+        assertTrue(index.locate("AAAA").isEmpty());
+    }
+
+    @Test
+    public void testNonAcgtCharacters() {
+        FmIndex index = FmIndex.build("ACGNACGT", 8, 0);
+        assertEquals(Arrays.asList(0, 4), index.locate("ACG"));
+        assertEquals(0, index.count("GNA"));
+        assertEquals(Arrays.asList(4), index.locate("ACGT"));
+    }
+
+    @Test
+    public void testLocateWithMismatches() {
+        FmIndex index = FmIndex.build("GTACATGCAATGCATGGG", 18, 0);
+        assertEquals(Arrays.asList(4), index.locate("ATGCAATGC", 0));
+        assertEquals(Arrays.asList(4), index.locate("ATGCGATGC", 1));
+        assertTrue(index.locate("ATGCGATGG", 1).isEmpty());
+        assertEquals(Arrays.asList(4), index.locate("ATGCGATGG", 2));
+    }
+
+    @Test
+    public void testLocateMatchesBruteForceOnRandomGenome() {
+        Random random = new Random(17);
+        String genome = AlignmentEngineTest.randomSequence(random, 3000);
+        FmIndex index = FmIndex.build(genome, genome.length(), 0);
+
+        for (int i = 0; i < 30; i++) {
+            String seq = i % 2 == 0 ? genome.substring(i * 90, i * 90 + 8)
+                    : AlignmentEngineTest.randomSequence(random, 6);
+            assertEquals(bruteForce(genome, seq, 0), index.locate(seq));
+            assertEquals(bruteForce(genome, seq, 1), index.locate(seq, 1));
+        }
+    }
+
+    @Test
+    public void testForGenomeFileBuildsOnceAndRebuildsOnChange() throws IOException {
+        Path dir = Files.createTempDirectory("fmindex");
+        Path genomeFile = dir.resolve("1234567890_genome.txt");
+        Files.write(genomeFile, Arrays.asList("ATGCAT", "GCATGC"));
+        Path indexFile = FmIndex.indexFileFor(genomeFile);
+        assertEquals("1234567890_genome.fmi", indexFile.getFileName().toString());
+
+        FmIndex index = FmIndex.forGenomeFile(genomeFile);
+        assertEquals(3, index.count("ATGC"));
+        assertTrue(Files.exists(indexFile));
+        long builtAt = Files.getLastModifiedTime(indexFile).toMillis();
+
+        assertEquals(3, FmIndex.forGenomeFile(genomeFile).count("ATGC"));
+        assertEquals(builtAt, Files.getLastModifiedTime(indexFile).toMillis());
+
+        Files.write(genomeFile, Arrays.asList("GGGGGGGGATGC"));
+        genomeFile.toFile().setLastModified(genomeFile.toFile().lastModified() + 2000);
+        FmIndex rebuilt = FmIndex.forGenomeFile(genomeFile);
+        assertEquals(1, rebuilt.count("ATGC"));
+        assertEquals(Arrays.asList(8), rebuilt.locate("ATGC"));
+        assertEquals(3, index.count("ATGC"));
+        assertEquals(Arrays.asList(0, 4, 8), index.locate("AT"));
+
+        Files.delete(indexFile);
+        Files.delete(genomeFile);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testLoadRejectsOtherFiles() throws IOException {
+        Path file = Files.createTempFile("notanindex", FmIndex.INDEX_EXTENSION);
+        Files.write(file, "ATGC".getBytes());
+        try {
+            FmIndex.load(file);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // expected
+        }
+        Files.delete(file);
+    }
+
+    // EFFECTS: Returns the offsets where seq occurs in genome with at most maxMismatches mismatches
+    private List<Integer> bruteForce(String genome, String seq, int maxMismatches) {
+        List<Integer> offsets = new ArrayList<>();
+        for (int offset = 0; offset + seq.length() <= genome.length(); offset++) {
+            int mismatches = 0;
+            for (int i = 0; i < seq.length(); i++) {
+                if (genome.charAt(offset + i) != seq.charAt(i)) {
+                    mismatches++;
+                }
+            }
+            if (mismatches <= maxMismatches) {
+                offsets.add(offset);
+            }
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,134 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenomeCacheTest {
+    private Path dir;
+    private Path fileA;
+    private Path fileB;
+    private Path fileC;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = Files.createTempDirectory("genomecache");
+        fileA = dir.resolve("a_genome.txt");
+        fileB = dir.resolve("b_genome.txt");
+        fileC = dir.resolve("c_genome.txt");
+        Files.write(fileA, Arrays.asList("ACGT", "ACGT"));
+        Files.write(fileB, Collections.singletonList("GGGG"));
+        Files.write(fileC, Collections.singletonList("TTTT"));
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        Files.delete(fileA);
+        Files.delete(fileB);
+        Files.delete(fileC);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testLoadsOnceAndCountsHits() {
+        GenomeCache cache = new GenomeCache(1 << 20);
+        assertEquals(0, cache.getHitRate());
+
+        assertEquals("ACGTACGT", cache.get(fileA).toString());
+        assertTrue(cache.contains(fileA));
+        assertSame(cache.get(fileA), cache.get(fileA));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2.0 / 3.0, cache.getHitRate(), 1e-9);
+        assertEquals(1, cache.size());
+        assertEquals(cache.get(fileA).getSizeInBytes(), cache.getSizeInBytes());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        long genomeBytes = new PackedGenome("GGGG").getSizeInBytes();
+        GenomeCache cache = new GenomeCache(2 * genomeBytes);
+
+        cache.get(fileA);
+        cache.get(fileB);
+        cache.get(fileA);
+        cache.get(fileC);
+
+        assertTrue(cache.contains(fileA));
+        assertFalse(cache.contains(fileB));
+        assertTrue(cache.contains(fileC));
+        assertEquals(2 * genomeBytes, cache.getSizeInBytes());
+
+        cache.setMaxBytes(genomeBytes);
+        assertFalse(cache.contains(fileA));
+        assertTrue(cache.contains(fileC));
+
+        cache.setMaxBytes(0);
+        assertEquals("GGGG", cache.get(fileB).toString());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getSizeInBytes());
+    }
+
+    @Test
+    public void testReloadsChangedFile() throws IOException {
+        GenomeCache cache = new GenomeCache(1 << 20);
+        assertEquals("GGGG", cache.get(fileB).toString());
+
+        Files.write(fileB, Collections.singletonList("GGGGCC"));
+        fileB.toFile().setLastModified(fileB.toFile().lastModified() + 2000);
+        assertEquals("GGGGCC", cache.get(fileB).toString());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testInvalidateAndClear() {
+        GenomeCache cache = new GenomeCache(1 << 20);
+        cache.get(fileA);
+        cache.get(fileB);
+
+        cache.invalidate(fileA);
+        assertFalse(cache.contains(fileA));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getSizeInBytes());
+        assertEquals(0, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    public void testCachesRecordsSeparately() throws IOException {
+        Path fasta = dir.resolve("d_genome.fa");
+        Files.write(fasta, Arrays.asList(">chr1", "ACGT", ">chr2", "GG"));
+        GenomeCache cache = new GenomeCache(1 << 20);
+
+        assertEquals("GG", cache.get(new GenomeSource(fasta, "chr2")).toString());
+        assertEquals("ACGTGG", cache.get(fasta).toString());
+        assertTrue(cache.contains(new GenomeSource(fasta, "chr2")));
+        assertFalse(cache.contains(new GenomeSource(fasta, "chr1")));
+        assertEquals(2, cache.size());
+
+        cache.invalidate(fasta);
+        assertEquals(0, cache.size());
+        Files.delete(FastaIndex.indexFileFor(fasta));
+        Files.delete(fasta);
+    }
+
+    @Test
+    public void testMissingFile() {
+        GenomeCache cache = new GenomeCache(1 << 20);
+        assertEquals(0, cache.get(dir.resolve("missing_genome.txt")).length());
+        assertEquals(1 << 20, cache.getMaxBytes());
+        assertSame(GenomeCache.getInstance(), GenomeCache.getInstance());
+    }
+}
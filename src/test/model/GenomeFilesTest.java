@@ -0,0 +1,112 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenomeFilesTest {
+
+    @Test
+    public void testFind() throws IOException {
+        assertEquals("./data/genomes/2310529181_genome.txt", GenomeFiles.find("2310529181"));
+        assertEquals("./data/genomes/1234567890_genome.txt", GenomeFiles.find("1234567890"));
+
+        try (TempGenomeDirectory genomes = new TempGenomeDirectory("2310529181")) {
+            assertEquals(genomes.resolve("2310529181_genome.txt").toString(), GenomeFiles.find("2310529181"));
+            assertEquals(genomes.resolve("1234567890_genome.txt").toString(), GenomeFiles.find("1234567890"));
+            Path fasta = genomes.resolve("1234567890_genome.fa");
+            Files.write(fasta, ">chr1\nACGT\n".getBytes(StandardCharsets.ISO_8859_1));
+            assertEquals(fasta.toString(), GenomeFiles.find("1234567890"));
+        }
+        assertEquals("./data/genomes/1234567890_genome.txt", GenomeFiles.find("1234567890"));
+    }
+
+    @Test
+    public void testOpen() throws IOException {
+        Path dir = Files.createTempDirectory("genomefiles");
+        Path text = dir.resolve("a_genome.txt");
+        Path fasta = dir.resolve("b_genome.fa");
+        Files.write(text, "ACGT\nAC\n".getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(fasta, ">chr1\nACGT\nAC\n>chr2\nGG\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        assertFalse(GenomeFiles.isFasta(text));
+        assertTrue(GenomeFiles.isFasta(fasta));
+        assertEquals("ACGTAC", GenomeFiles.open(text).toString());
+        assertEquals("ACGTACGG", GenomeFiles.open(fasta).toString());
+
+        Files.delete(FastaIndex.indexFileFor(fasta));
+        Files.delete(fasta);
+        Files.delete(text);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testCountBases() throws IOException {
+        Path dir = Files.createTempDirectory("genomefiles");
+        Path text = dir.resolve("a_genome.txt");
+        Path fasta = dir.resolve("b_genome.fa");
+        Path compressed = dir.resolve("c_genome.txt.gz");
+        Files.write(text, "\n\r\n\n".getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(fasta, ">chr1\n>chr2\n".getBytes(StandardCharsets.ISO_8859_1));
+        BlockCompressedGenome.compress("", compressed);
+
+        assertEquals(0, GenomeFiles.countBases(text));
+        assertEquals(0, GenomeFiles.countBases(fasta));
+        assertEquals(0, GenomeFiles.countBases(compressed));
+        assertEquals(0, GenomeFiles.countBases(dir.resolve("missing.txt")));
+        Files.write(text, "ACGT\nAC\n".getBytes(StandardCharsets.ISO_8859_1));
+        assertEquals(6, GenomeFiles.countBases(text));
+
+        Files.delete(FastaIndex.indexFileFor(fasta));
+        Files.delete(BlockIndex.indexFileFor(compressed));
+        Files.delete(compressed);
+        Files.delete(fasta);
+        Files.delete(text);
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testFindCompressed() throws IOException {
+        try (TempGenomeDirectory genomes = new TempGenomeDirectory()) {
+            Path compressed = genomes.resolve("1234567890_genome.txt.gz");
+            BlockCompressedGenome.compress("ACGTAC", compressed);
+            assertEquals(compressed.toString(), GenomeFiles.find("1234567890"));
+            assertFalse(GenomeFiles.isFasta(compressed));
+            assertEquals("ACGTAC", GenomeFiles.open(compressed).toString());
+        }
+    }
+
+    @Test
+    public void testChromosomeNames() {
+        assertEquals(Arrays.asList("chr7", "7"), GenomeFiles.chromosomeNames(7));
+        assertEquals(Arrays.asList("chr23", "23", "chrX", "X"), GenomeFiles.chromosomeNames(23));
+        assertEquals(Arrays.asList("chr24", "24", "chrY", "Y"), GenomeFiles.chromosomeNames(24));
+    }
+
+    @Test
+    public void testFindChromosome() throws IOException {
+        Path dir = Files.createTempDirectory("genomefiles");
+        Path text = dir.resolve("a_genome.txt");
+        Path fasta = dir.resolve("b_genome.fa");
+        Files.write(text, "ACGT\n".getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(fasta, ">chr1\nACGT\n>7\nGG\n>chrX\nTT\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        assertEquals(new GenomeSource(fasta, "chr1"), GenomeFiles.findChromosome(fasta, 1));
+        assertEquals(new GenomeSource(fasta, "7"), GenomeFiles.findChromosome(fasta, 7));
+        assertEquals(new GenomeSource(fasta, "chrX"), GenomeFiles.findChromosome(fasta, 23));
+        assertNull(GenomeFiles.findChromosome(fasta, 2));
+        assertNull(GenomeFiles.findChromosome(text, 1));
+        assertNull(GenomeFiles.findChromosome(dir.resolve("missing.fa"), 1));
+
+        Files.delete(FastaIndex.indexFileFor(fasta));
+        Files.delete(fasta);
+        Files.delete(text);
+        Files.delete(dir);
+    }
+}
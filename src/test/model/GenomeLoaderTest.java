@@ -0,0 +1,155 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenomeLoaderTest {
+    private TempGenomeDirectory genomes;
+    private Patient withGenome;
+    private Patient withoutGenome;
+    private Path genomeFile;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        genomes = new TempGenomeDirectory("2310529181");
+        withGenome = new Patient("", "3/16/2020", "2310529181");
+        withoutGenome = new Patient("", "3/16/2020", "1234567890");
+        genomeFile = Paths.get(withGenome.getGenomeFileName());
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        genomes.close();
+    }
+
+    @Test
+    public void testLoadAll() {
+        GenomeCache cache = new GenomeCache(1 << 20);
+        List<GenomeLoad> heard = Collections.synchronizedList(new ArrayList<>());
+        List<GenomeLoad> loads = new GenomeLoader(2, cache)
+                .loadAll(Arrays.asList(withGenome, withoutGenome), heard::add).join();
+
+        assertEquals(1, loads.size());
+        assertEquals(loads, heard);
+        GenomeLoad load = loads.get(0);
+        assertTrue(load.isLoaded());
+        assertEquals("2310529181", load.getPHN());
+        assertEquals(genomeFile, load.getGenomeFile());
+        assertEquals(22, load.getBases());
+        assertNull(load.getError());
+        assertTrue(load.getNanos() >= 0);
+        assertTrue(load.toString().startsWith("2310529181: loaded 22 bases in "));
+
+        assertTrue(cache.contains(genomeFile));
+        assertFalse(withGenome.hasNoGenome());
+        assertTrue(withoutGenome.hasNoGenome());
+    }
+
+    @Test
+    public void testReportsFailures() {
+        GenomeCache failing = new GenomeCache(1 << 20) {
+            @Override
+            public PackedGenome load(Path file) throws IOException {
+                throw new IOException("unreadable");
+            }
+        };
+        List<GenomeLoad> loads = new GenomeLoader(1, failing)
+                .loadAll(Collections.singletonList(withGenome), load -> { }).join();
+
+        assertEquals(1, loads.size());
+        assertFalse(loads.get(0).isLoaded());
+        assertEquals(0, loads.get(0).getBases());
+        assertTrue(loads.get(0).getError().contains("unreadable"));
+        assertTrue(loads.get(0).toString().contains("failed after"));
+    }
+
+    @Test
+    public void testSkipsGenomesBeyondTheCacheBudget() {
+        GenomeCache cache = new GenomeCache(PackedGenome.sizeInBytesFor(40));
+        Patient sameGenome = new Patient("", "3/16/2020", "2310529181");
+        List<GenomeLoad> loads = new GenomeLoader(1, cache)
+                .loadAll(Arrays.asList(withGenome, sameGenome), load -> { }).join();
+
+        assertEquals(2, loads.size());
+        assertTrue(loads.get(0).isLoaded());
+        assertFalse(loads.get(1).isLoaded());
+        assertTrue(loads.get(1).isSkipped());
+        assertNull(loads.get(1).getError());
+        assertEquals("2310529181: not loaded ahead (the genome cache is full)", loads.get(1).toString());
+        assertTrue(cache.contains(genomeFile));
+    }
+
+    @Test
+    public void testFailingListenerDoesNotFailTheLoads() {
+        List<GenomeLoad> loads = new GenomeLoader(2, new GenomeCache(1 << 20))
+                .loadAll(Arrays.asList(withGenome, withoutGenome), load -> {
+                    throw new IllegalStateException("listener failed");
+                }).join();
+
+        assertEquals(1, loads.size());
+        assertTrue(loads.get(0).isLoaded());
+        boolean logged = false;
+        for (Event event : EventLog.getInstance()) {
+            logged |= event.getDescription().contains("listener failed");
+        }
+        assertTrue(logged);
+    }
+
+    @Test
+    public void testLoadsVariantsInTheBackground() throws IOException {
+        Path variantFile = VariantFile.forPatient(withoutGenome.getPHN());
+        Path fallbackFile = VariantFile.forPatient(withGenome.getPHN());
+        VariantFile.write(variantFile, Arrays.asList(new Variant(0, "A", "G")));
+        VariantFile.write(fallbackFile, Arrays.asList(new Variant(0, "A", "G")));
+        try {
+            GenomeCache cache = new GenomeCache(1 << 20);
+            List<GenomeLoad> loads = new GenomeLoader(2, cache)
+                    .loadAll(Arrays.asList(withoutGenome, withGenome), load -> { }).join();
+
+            assertEquals(2, loads.size());
+            assertFalse(loads.get(0).isLoaded());
+            assertEquals(variantFile, loads.get(0).getGenomeFile());
+            assertTrue(loads.get(0).getError().contains("reference genome"));
+            assertTrue(withoutGenome.hasNoGenome());
+
+            assertTrue(loads.get(1).isLoaded());
+            assertEquals(genomeFile, loads.get(1).getGenomeFile());
+            assertTrue(cache.contains(genomeFile));
+        } finally {
+            Files.deleteIfExists(variantFile);
+            Files.deleteIfExists(fallbackFile);
+        }
+    }
+
+    @Test
+    public void testReportsVariantsOnSeveralChromosomes() throws IOException {
+        Files.write(VariantFile.forPatient(withoutGenome.getPHN()),
+                Arrays.asList("chr1\t1\t.\tA\tG", "chr2\t1\t.\tA\tG"));
+        List<GenomeLoad> loads = new GenomeLoader(2, new GenomeCache(1 << 20))
+                .loadAll(Collections.singletonList(withoutGenome), load -> { }).join();
+
+        assertEquals(1, loads.size());
+        assertFalse(loads.get(0).isLoaded());
+        assertTrue(loads.get(0).getError().contains("more than one chromosome"));
+        assertEquals(loads.get(0).getError(), withoutGenome.getGenomeError());
+    }
+
+    @Test
+    public void testNothingToLoad() {
+        GenomeLoader loader = new GenomeLoader();
+        assertEquals(GenomeLoader.DEFAULT_PARALLELISM, loader.getParallelism());
+        assertTrue(loader.loadAll(Collections.singletonList(withoutGenome), load -> { }).join().isEmpty());
+    }
+}
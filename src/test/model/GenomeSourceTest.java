@@ -0,0 +1,58 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenomeSourceTest {
+
+    @Test
+    public void testEquality() {
+        Path file = Paths.get("./data/genomes/1234567890_genome.fa");
+        GenomeSource whole = new GenomeSource(file);
+        GenomeSource chr7 = new GenomeSource(file, "chr7");
+
+        assertEquals(new GenomeSource(file, null), whole);
+        assertEquals(new GenomeSource(file, "chr7"), chr7);
+        assertEquals(new GenomeSource(file, "chr7").hashCode(), chr7.hashCode());
+        assertNotEquals(whole, chr7);
+        assertNotEquals(new GenomeSource(file, "chr8"), chr7);
+        assertNotEquals(null, chr7);
+        assertNotEquals("chr7", chr7);
+
+        assertEquals(file, chr7.getFile());
+        assertEquals("chr7", chr7.getRecord());
+        assertNull(whole.getRecord());
+        assertEquals(file.toString(), whole.toString());
+        assertEquals(file + "#chr7", chr7.toString());
+    }
+
+    @Test
+    public void testGetIndexFile() {
+        Path file = Paths.get("./data/genomes/1234567890_genome.fa");
+        assertEquals(Paths.get("./data/genomes/1234567890_genome.fmi"), new GenomeSource(file).getIndexFile());
+        assertEquals(Paths.get("./data/genomes/1234567890_genome.chr7.fmi"),
+                new GenomeSource(file, "chr7").getIndexFile());
+    }
+
+    @Test
+    public void testOpen() throws IOException {
+        Path dir = Files.createTempDirectory("genomesource");
+        Path fasta = dir.resolve("a_genome.fa");
+        Files.write(fasta, ">chr1\nACGT\n>chr2\nGG\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        assertEquals("ACGTGG", new GenomeSource(fasta).open().toString());
+        assertEquals("GG", new GenomeSource(fasta, "chr2").open().toString());
+        assertThrows(IOException.class, () -> new GenomeSource(fasta, "chr3").open());
+
+        Files.delete(FastaIndex.indexFileFor(fasta));
+        Files.delete(fasta);
+        Files.delete(dir);
+    }
+}
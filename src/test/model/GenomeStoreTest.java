@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenomeStoreTest {
+    private Path dir;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        dir = Files.createTempDirectory("genomestore");
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Object file : files.sorted(Collections.reverseOrder()).toArray()) {
+                Files.delete((Path) file);
+            }
+        }
+    }
+
+    @Test
+    public void testHash() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", GenomeStore.hash(""));
+        assertEquals(GenomeStore.hash("ACGT"), GenomeStore.hash(new PackedGenome("ACGT")));
+        assertNotEquals(GenomeStore.hash("ACGT"), GenomeStore.hash("ACGA"));
+    }
+
+    @Test
+    public void testPutStoresOnce() throws IOException {
+        String hash = GenomeStore.put(dir, "ACGTACGT");
+        Path stored = GenomeStore.getFile(dir, hash);
+        assertEquals(dir.resolve("store").resolve(hash + ".txt.gz"), stored);
+        assertEquals("ACGTACGT", GenomeFiles.open(stored).toString());
+
+        long modified = Files.getLastModifiedTime(stored).toMillis();
+        assertEquals(hash, GenomeStore.put(dir, new PackedGenome("ACGTACGT")));
+        assertEquals(modified, Files.getLastModifiedTime(stored).toMillis());
+        assertEquals(hash, GenomeStore.hashOf(stored));
+        assertNull(GenomeStore.hashOf(dir.resolve("a_genome.txt")));
+        assertNull(GenomeStore.hashOf(dir.resolve("store").resolve("a_genome.txt.gz")));
+    }
+
+    @Test
+    public void testAddReplacesGenomeFilesWithPointers() throws IOException {
+        Path first = dir.resolve("1111111111_genome.txt");
+        Path second = dir.resolve("2222222222_genome.txt");
+        Files.write(first, Arrays.asList("ACGT", "AC"));
+        Files.write(second, Collections.singletonList("ACGTAC"));
+
+        Path pointer = GenomeStore.add(first);
+        assertEquals(dir.resolve("1111111111_genome.ref"), pointer);
+        assertTrue(GenomeStore.isPointer(pointer));
+        assertFalse(Files.exists(first));
+        assertEquals(GenomeStore.resolve(pointer), GenomeStore.resolve(GenomeStore.add(second)));
+        assertEquals("ACGTAC", GenomeFiles.open(GenomeStore.resolve(pointer)).toString());
+        try (Stream<Path> stored = Files.list(dir.resolve("store"))) {
+            assertEquals(2, stored.count());
+        }
+    }
+
+    @Test
+    public void testRejectsFastaAndMalformedPointers() throws IOException {
+        Path fasta = dir.resolve("1111111111_genome.fa");
+        Files.write(fasta, Arrays.asList(">chr1", "ACGT"));
+        assertThrows(IOException.class, () -> GenomeStore.add(fasta));
+        assertTrue(Files.exists(fasta));
+
+        Path pointer = dir.resolve("2222222222_genome.ref");
+        Files.write(pointer, Collections.singletonList("not a hash"));
+        assertThrows(IOException.class, () -> GenomeStore.resolve(pointer));
+        assertThrows(IOException.class, () -> GenomeFiles.open(pointer));
+        assertEquals(Paths.get("a_genome.ref"), GenomeStore.pointerFileFor(Paths.get("a_genome.txt.gz")));
+    }
+}
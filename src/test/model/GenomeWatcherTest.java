@@ -0,0 +1,116 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenomeWatcherTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private TempGenomeDirectory genomes;
+    private Clinic clinic;
+    private Patient patient;
+    private Patient other;
+    private Path genomeFile;
+    private BlockingQueue<List<Patient>> reloads;
+    private GenomeWatcher watcher;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        genomes = new TempGenomeDirectory();
+        clinic = new Clinic(null, null);
+        patient = new Patient("", "3/16/2020", "1234567890");
+        other = new Patient("", "3/16/2020", "2310529181");
+        clinic.addPatient(patient);
+        clinic.addPatient(other);
+        clinic.addCondition(new Condition("Genetic Condition A", "ATGCAATGC", 10));
+        genomeFile = genomes.resolve("1234567890_genome.txt");
+        reloads = new LinkedBlockingQueue<>();
+        watcher = new GenomeWatcher(clinic, 200, reloads::add);
+        watcher.start();
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        watcher.close();
+        genomes.close();
+    }
+
+    @Test
+    public void testPhnOf() {
+        assertEquals("1234567890", GenomeWatcher.phnOf("1234567890_genome.txt"));
+        assertEquals("1234567890", GenomeWatcher.phnOf("1234567890_genome.fasta"));
+        assertEquals("1234567890", GenomeWatcher.phnOf("1234567890_genome.txt.gz"));
+        assertEquals("1234567890", GenomeWatcher.phnOf("1234567890_genome.ref"));
+        assertEquals("1234567890", GenomeWatcher.phnOf("1234567890_genome.vcf"));
+        assertNull(GenomeWatcher.phnOf("1234567890_genome.fmi"));
+        assertNull(GenomeWatcher.phnOf("1234567890_genome.fa.fai"));
+        assertNull(GenomeWatcher.phnOf("1234567890_genome.txt.gz.gzi"));
+        assertNull(GenomeWatcher.phnOf("_genome.txt"));
+        assertNull(GenomeWatcher.phnOf("reference.txt"));
+    }
+
+    @Test
+    public void testReloadsCreatedChangedAndDeletedGenomes() throws IOException, InterruptedException {
+        assertTrue(patient.hasNoGenome());
+        Files.write(genomeFile, Arrays.asList("GTACATGCAA"));
+        Files.write(genomeFile, Arrays.asList("GTACATGCAA", "TGCATGGG"));
+        assertEquals(Arrays.asList(patient), reloads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(4), clinic.diagnoseAll(patient).get(clinic.getConditions().get(0)));
+
+        Files.write(genomeFile, Arrays.asList("GTACATGCTA", "TGCATGGG"));
+        assertEquals(Arrays.asList(patient), reloads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(clinic.diagnoseAll(patient).isEmpty());
+
+        Files.delete(genomeFile);
+        assertEquals(Arrays.asList(patient), reloads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(patient.hasNoGenome());
+        assertTrue(reloads.isEmpty());
+    }
+
+    @Test
+    public void testFailedReloadDoesNotStopTheWatcher() throws IOException, InterruptedException {
+        watcher.close();
+        AtomicBoolean failed = new AtomicBoolean();
+        watcher = new GenomeWatcher(clinic, 200, reloaded -> {
+            reloads.add(reloaded);
+            if (!failed.getAndSet(true)) {
+                throw new IllegalStateException("listener failed");
+            }
+        });
+        watcher.start();
+
+        Files.write(genomeFile, Arrays.asList("ACGT"));
+        assertEquals(Arrays.asList(patient), reloads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Files.delete(genomeFile);
+        assertEquals(Arrays.asList(patient), reloads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        boolean logged = false;
+        for (Event event : EventLog.getInstance()) {
+            logged |= event.getDescription().contains("listener failed");
+        }
+        assertTrue(logged);
+    }
+
+    @Test
+    public void testIgnoresOtherFiles() throws IOException, InterruptedException {
+        Files.write(genomes.resolve("1234567890_genome.fmi"), Arrays.asList("ACGT"));
+        Files.write(genomes.resolve("9999999999_genome.txt"), Arrays.asList("ACGT"));
+        Files.write(genomeFile, Arrays.asList("ACGT"));
+        assertEquals(Arrays.asList(patient), reloads.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertFalse(patient.hasNoGenome());
+        assertTrue(other.hasNoGenome());
+        assertTrue(reloads.isEmpty());
+    }
+}
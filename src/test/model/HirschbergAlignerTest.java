@@ -0,0 +1,89 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HirschbergAlignerTest {
+    private HirschbergAligner aligner;
+
+    @BeforeEach
+    public void runBefore() {
+        aligner = new HirschbergAligner();
+    }
+
+    @Test
+    public void testIdenticalSequences() {
+        GappedAlignment alignment = aligner.align("ATGCAATGC", "ATGCAATGC");
+        assertEquals(18, alignment.getScore());
+        assertEquals("9M", alignment.getCigar());
+        assertEquals(0, alignment.getRefStart());
+        assertEquals(9, alignment.getRefEnd());
+    }
+
+    @Test
+    public void testGapsAreGlobal() {
+        GappedAlignment alignment = aligner.align("ACGTACGT", "TTACGTACGTCC");
+        assertEquals(16 - 4 * 4, alignment.getScore());
+        assertEquals("2D8M2D", alignment.getCigar());
+        assertEquals("--ACGTACGT--", alignment.getAlignedTarget());
+        assertEquals("TTACGTACGTCC", alignment.getAlignedRef());
+    }
+
+    @Test
+    public void testRegion() {
+        GappedAlignment alignment = aligner.align("ACGTTGCAAGCTTAGC", "GGGGACGTTGCAAGTTAGCGGGG", 4, 19);
+        assertEquals(15 * 2 - 4, alignment.getScore());
+        assertEquals("10M1I5M", alignment.getCigar());
+        assertEquals("ACGTTGCAAG-TTAGC", alignment.getAlignedRef());
+        assertEquals(4, alignment.getRefStart());
+        assertEquals(19, alignment.getRefEnd());
+    }
+
+    @Test
+    public void testRegionOfPackedGenome() {
+        PackedGenome genome = new PackedGenome("GGGGACGTTGCAAGTTAGCGGGG");
+        GappedAlignment alignment = aligner.align("ACGTTGCAAGCTTAGC", genome, 4, 19);
+        assertEquals(15 * 2 - 4, alignment.getScore());
+        assertEquals("10M1I5M", alignment.getCigar());
+        assertEquals("ACGTTGCAAG-TTAGC", alignment.getAlignedRef());
+        assertEquals(4, alignment.getRefStart());
+        assertEquals(19, alignment.getRefEnd());
+    }
+
+    @Test
+    public void testEmptySequences() {
+        assertEquals("3I", aligner.align("ACG", "").getCigar());
+        assertEquals("2D", aligner.align("", "AC").getCigar());
+        assertEquals(-8, aligner.align("", "AC").getScore());
+        assertEquals("", aligner.align("", "").getCigar());
+    }
+
+    @Test
+    public void testMatchesFullMatrixScores() {
+        Random random = new Random(15);
+        for (int trial = 0; trial < 20; trial++) {
+            String ref = AlignmentEngineTest.randomSequence(random, 1 + random.nextInt(500));
+            String target = trial % 2 == 0 ? AlignmentEngineTest.mutate(random, ref, ref.length() / 20 + 1, 1)
+                    : AlignmentEngineTest.randomSequence(random, 1 + random.nextInt(500));
+            GappedAlignment alignment = aligner.align(target, ref);
+            assertEquals(AlignmentEngineTest.fullMatrixGlobalScore(target, ref, 2, -3, 4), alignment.getScore());
+            assertEquals(target, alignment.getAlignedTarget().replace("-", ""));
+            assertEquals(ref, alignment.getAlignedRef().replace("-", ""));
+            assertEquals(alignment.getScore(), score(alignment));
+        }
+    }
+
+    private static int score(GappedAlignment alignment) {
+        int score = 0;
+        for (int i = 0; i < alignment.getAlignedTarget().length(); i++) {
+            char t = alignment.getAlignedTarget().charAt(i);
+            char r = alignment.getAlignedRef().charAt(i);
+            score += t == '-' || r == '-' ? -4 : t == r ? 2 : -3;
+        }
+        return score;
+    }
+}
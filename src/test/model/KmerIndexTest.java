@@ -0,0 +1,38 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KmerIndexTest {
+    @Test
+    public void testEncode() {
+        assertEquals(0b00011011L, KmerIndex.encode("ACGT", 0, 4));
+        assertEquals(0b1011L, KmerIndex.encode("ACGT", 2, 2));
+        assertEquals(-1, KmerIndex.encode("ACNT", 0, 4));
+    }
+
+    @Test
+    public void testLookup() {
+        KmerIndex index = new KmerIndex("ATGCATGCATGC", 4);
+        assertEquals(9, index.size());
+        assertArrayEquals(new int[] {0, 4, 8}, index.lookup(KmerIndex.encode("ATGC", 0, 4)));
+        assertArrayEquals(new int[] {1, 5}, index.lookup(KmerIndex.encode("TGCA", 0, 4)));
+        assertArrayEquals(new int[0], index.lookup(KmerIndex.encode("AAAA", 0, 4)));
+    }
+
+    @Test
+    public void testLookupSkipsNonAcgtKmers() {
+        KmerIndex index = new KmerIndex("ACGNACGT", 3);
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[] {0, 4}, index.lookup(KmerIndex.encode("ACG", 0, 3)));
+    }
+
+    @Test
+    public void testLookupMaxLengthKmer() {
+        String seq = "TTTTTTTTTTTTTTTTTAAAAAAAAAAAAAAAAA";
+        KmerIndex index = new KmerIndex(seq, KmerIndex.MAX_K);
+        assertArrayEquals(new int[] {0, 1, 2}, index.lookup(KmerIndex.encode(seq, 0, KmerIndex.MAX_K)));
+        assertArrayEquals(new int[] {17, 18, 19}, index.lookup(KmerIndex.encode(seq, 17, KmerIndex.MAX_K)));
+    }
+}
@@ -0,0 +1,85 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedGenomeTest {
+    private Path file;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        file = Files.createTempFile("mappedgenome", ".txt");
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        Files.delete(file);
+    }
+
+    @Test
+    public void testUniformLines() throws IOException {
+        assertEquals("ACGTACGTTTGC", read("ACGT\nACGT\nTTGC\n"));
+        assertEquals("ACGTACGTTT", read("ACGT\nACGT\nTT"));
+        assertEquals("ACGTACGTTT", read("ACGT\nACGT\nTT\n"));
+        assertEquals("ACGTACGTTT", read("ACGT\r\nACGT\r\nTT\r\n"));
+        assertEquals("ACGTNNGT", read("ACGTNNGT"));
+    }
+
+    @Test
+    public void testLinesOfDifferentWidths() throws IOException {
+        assertEquals("ACGTACGTTGC", read("AC\nGTACG\nTTGC\n"));
+        assertEquals("ACGTACGT", read("ACGT\n\nACGT\n"));
+        assertEquals("ACGTACGTGG", read("ACGT\r\nACGT\nGG"));
+        assertEquals("ACGTAC", read("\nACGT\nAC"));
+        assertEquals("ACGTACG", read("AC\nGT\nACG"));
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        assertEquals("", read(""));
+        assertEquals("", read("\n"));
+        assertEquals(0, MappedGenome.open(file).length());
+    }
+
+    @Test
+    public void testCharAtAndSubSequence() throws IOException {
+        Files.write(file, "TGACAT\nTGGCCA\nAACATG\nCATG\n".getBytes(StandardCharsets.ISO_8859_1));
+        MappedGenome genome = MappedGenome.open(file);
+        assertEquals(22, genome.length());
+        assertEquals('T', genome.charAt(0));
+        assertEquals('T', genome.charAt(6));
+        assertEquals('G', genome.charAt(21));
+        assertEquals("ATTGG", genome.subSequence(4, 9));
+        assertEquals("TGACATTGGCCAAACATGCATG", new PackedGenome(genome).toString());
+    }
+
+    @Test
+    public void testMissingFile() throws IOException {
+        try {
+            MappedGenome.open(file.resolveSibling(file.getFileName() + ".missing"));
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    // EFFECTS: Writes contents to the file and returns the genome read from it
+    private String read(String contents) throws IOException {
+        Files.write(file, contents.getBytes(StandardCharsets.ISO_8859_1));
+        MappedGenome genome = MappedGenome.open(file);
+        StringBuilder bases = new StringBuilder();
+        for (int i = 0; i < genome.length(); i++) {
+            bases.append(genome.charAt(i));
+        }
+        assertEquals(bases.toString(), genome.toString());
+        return bases.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NaiveAlignerTest extends AlignmentEngineTest {
+    @Override
+    protected AlignmentEngine createEngine() {
+        return new NaiveAligner();
+    }
+
+    @Test
+    public void testGetName() {
+        assertEquals("naive", engine.getName());
+    }
+}
@@ -0,0 +1,43 @@
+package model;
+
+import java.util.Random;
+
+// Times PackedAligner.align against PackedAligner.alignWeighted with a transition/transversion matrix and with a
+// full 4x4 matrix, for a 200-base target against a random 4-megabase reference. Run its main method; it isn't a
+// test, so the timings depend on the machine, but the ratios to the unweighted scan are what ScoringMatrix quotes.
+public class PackedAlignerBenchmark {
+    private static final int REFERENCE_LENGTH = 4_000_000;
+    private static final int ROUNDS = 5;
+
+    // EFFECTS: Prints the time each scan takes and its ratio to the unweighted scan, once per round; the first
+    // rounds warm up the JIT
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        String ref = AlignmentEngineTest.randomSequence(random, REFERENCE_LENGTH);
+        String target = ref.substring(1000, 1200).replace('A', 'C');
+        PackedAligner aligner = new PackedAligner();
+        ScoringMatrix tstv = ScoringMatrix.transitionTransversion(2, -1, -3);
+        ScoringMatrix full = new ScoringMatrix(new int[][] {
+            {5, -4, -2, -4},
+            {-4, 5, -4, -1},
+            {-2, -4, 5, -4},
+            {-3, -1, -4, 6}
+        }, -5);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long unweighted = time(() -> aligner.align(target, ref));
+            long transitions = time(() -> aligner.alignWeighted(target, ref, tstv));
+            long weighted = time(() -> aligner.alignWeighted(target, ref, full));
+            System.out.printf("unweighted %d ms, tstv %d ms (%.2fx), full %d ms (%.2fx)%n", unweighted / 1_000_000,
+                    transitions / 1_000_000, (double) transitions / unweighted, weighted / 1_000_000,
+                    (double) weighted / unweighted);
+        }
+    }
+
+    // EFFECTS: Returns the nanoseconds it takes to run scan
+    private static long time(Runnable scan) {
+        long start = System.nanoTime();
+        scan.run();
+        return System.nanoTime() - start;
+    }
+}
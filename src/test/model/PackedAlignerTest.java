@@ -0,0 +1,199 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedAlignerTest extends AlignmentEngineTest {
+    @Override
+    protected AlignmentEngine createEngine() {
+        return new PackedAligner();
+    }
+
+    @Test
+    public void testGetName() {
+        assertEquals("packed", engine.getName());
+    }
+
+    @Test
+    public void testIsPackable() {
+        assertTrue(PackedAligner.isPackable("ACGTTGCA"));
+        assertFalse(PackedAligner.isPackable("ACGNT"));
+        assertFalse(PackedAligner.isPackable("acgt"));
+    }
+
+    @Test
+    public void testPack() {
+        long[] words = PackedAligner.pack("ACGT");
+        assertEquals(2, words.length);
+        assertEquals(0b11100100L, words[0]);
+        assertNull(PackedAligner.pack("ACNT"));
+    }
+
+    @Test
+    public void testReverseComplement() {
+        assertEquals("CATGT", PackedAligner.reverseComplement("ACATG"));
+        assertEquals("ANCG", PackedAligner.reverseComplement("CGNT"));
+        assertEquals("", PackedAligner.reverseComplement(""));
+    }
+
+    @Test
+    public void testAlignBothStrandsReverseMatch() {
+        Alignment alignment = new PackedAligner().alignBothStrands("AAACC", "TTGGTTTCG");
+        assertEquals(5, alignment.getScore());
+        assertEquals(2, alignment.getOffset());
+        assertTrue(alignment.isReverseStrand());
+        assertEquals("-", alignment.getStrand());
+    }
+
+    @Test
+    public void testAlignBothStrandsPrefersForwardOnTies() {
+        Alignment alignment = new PackedAligner().alignBothStrands("ACGT", "GGACGTGG");
+        assertEquals(4, alignment.getScore());
+        assertEquals(2, alignment.getOffset());
+        assertFalse(alignment.isReverseStrand());
+        assertEquals("+", alignment.getStrand());
+    }
+
+    @Test
+    public void testAlignBothStrandsNonAcgt() {
+        Alignment alignment = new PackedAligner().alignBothStrands("NAAC", "CCGTTNCC");
+        assertEquals(4, alignment.getScore());
+        assertEquals(2, alignment.getOffset());
+        assertTrue(alignment.isReverseStrand());
+    }
+
+    @Test
+    public void testAlignBothStrandsMatchesSeparateScans() {
+        Random random = new Random(12);
+        for (int trial = 0; trial < 40; trial++) {
+            String ref = randomSequence(random, 200 + random.nextInt(200));
+            String target = randomSequence(random, 1 + random.nextInt(90));
+            if (trial % 2 == 0) {
+                int start = random.nextInt(ref.length() - target.length());
+                target = PackedAligner.reverseComplement(ref.substring(start, start + target.length()));
+            }
+            Alignment expected = bruteForceBothStrands(target, ref);
+            Alignment actual = new PackedAligner().alignBothStrands(target, ref);
+            assertEquals(expected.getScore(), actual.getScore());
+            assertEquals(expected.getOffset(), actual.getOffset());
+            assertEquals(expected.isReverseStrand(), actual.isReverseStrand());
+        }
+    }
+
+    private static Alignment bruteForceBothStrands(String target, String ref) {
+        String reverse = PackedAligner.reverseComplement(target);
+        Alignment best = new Alignment(0, 0);
+        for (int offset = 0; offset + target.length() <= ref.length(); offset++) {
+            int forwardScore = 0;
+            int reverseScore = 0;
+            for (int i = 0; i < target.length(); i++) {
+                forwardScore += target.charAt(i) == ref.charAt(offset + i) ? 1 : 0;
+                reverseScore += reverse.charAt(i) == ref.charAt(offset + i) ? 1 : 0;
+            }
+            if (forwardScore > best.getScore()) {
+                best = new Alignment(forwardScore, offset);
+            }
+            if (reverseScore > best.getScore()) {
+                best = new Alignment(reverseScore, offset, true);
+            }
+        }
+        return best;
+    }
+
+    @Test
+    public void testAlignWeightedUnitMatchesAlign() {
+        Random random = new Random(17);
+        for (int trial = 0; trial < 20; trial++) {
+            String ref = randomSequence(random, 100 + random.nextInt(300));
+            String target = randomSequence(random, 1 + random.nextInt(100));
+            Alignment expected = new PackedAligner().align(target, ref);
+            Alignment actual = new PackedAligner().alignWeighted(target, ref, ScoringMatrix.unit());
+            assertEquals(expected.getScore(), actual.getScore());
+            assertEquals(expected.getOffset(), actual.getOffset());
+        }
+    }
+
+    @Test
+    public void testAlignWeightedMatchesLookups() {
+        Random random = new Random(18);
+        ScoringMatrix matrix = ScoringMatrix.transitionTransversion(2, -1, -4);
+        for (int trial = 0; trial < 20; trial++) {
+            String ref = randomSequence(random, 100 + random.nextInt(300));
+            String target = randomSequence(random, 1 + random.nextInt(100));
+            int bestScore = Integer.MIN_VALUE;
+            int bestOffset = 0;
+            for (int offset = 0; offset + target.length() <= ref.length(); offset++) {
+                int score = matrix.score(target, 0, ref, offset, target.length());
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestOffset = offset;
+                }
+            }
+            Alignment actual = new PackedAligner().alignWeighted(target, ref, matrix);
+            assertEquals(bestScore, actual.getScore());
+            assertEquals(bestOffset, actual.getOffset());
+        }
+    }
+
+    @Test
+    public void testAlignWeightedNonAcgt() {
+        ScoringMatrix matrix = ScoringMatrix.transitionTransversion(2, 1, -2);
+        Alignment alignment = new PackedAligner().alignWeighted("ANG", "TTAAGTT", matrix);
+        assertEquals(2 - 2 + 2, alignment.getScore());
+        assertEquals(2, alignment.getOffset());
+    }
+
+    @Test
+    public void testPackedGenomeWithExceptionsMatchesBruteForce() {
+        Random random = new Random(19);
+        ScoringMatrix matrix = new ScoringMatrix(new int[][] {{5, -4, -2, -4}, {-4, 5, -4, -1}, {-2, -4, 5, -4},
+            {-3, -1, -4, 6}}, 0);
+        PackedAligner aligner = new PackedAligner();
+        for (int trial = 0; trial < 30; trial++) {
+            String ref = withNs(random, randomSequence(random, 200 + random.nextInt(200)));
+            int start = random.nextInt(ref.length() - 100);
+            String target = substitute(random, ref.replace('N', 'A').substring(start,
+                    start + 1 + random.nextInt(100)), 4);
+            PackedGenome genome = new PackedGenome(ref);
+
+            Alignment bothStrands = aligner.alignBothStrands(target, genome);
+            Alignment expected = bruteForceBothStrands(target, ref);
+            assertEquals(expected.getScore(), bothStrands.getScore());
+            assertEquals(expected.getOffset(), bothStrands.getOffset());
+            assertEquals(expected.isReverseStrand(), bothStrands.isReverseStrand());
+            Alignment weighted = aligner.alignWeighted(target, genome, matrix);
+            expected = bruteForceWeighted(target, ref, matrix);
+            assertEquals(expected.getScore(), weighted.getScore());
+            assertEquals(expected.getOffset(), weighted.getOffset());
+            assertEquals(describe(aligner.alignTop(target, ref, 3)), describe(aligner.alignTop(target, genome, 3)));
+            assertEquals(describe(aligner.alignAtLeast(target, ref, target.length() / 2, false)),
+                    describe(aligner.alignAtLeast(target, genome, target.length() / 2, false)));
+        }
+    }
+
+    private static Alignment bruteForceWeighted(String target, String ref, ScoringMatrix matrix) {
+        int bestScore = Integer.MIN_VALUE;
+        int bestOffset = 0;
+        for (int offset = 0; offset + target.length() <= ref.length(); offset++) {
+            int score = matrix.score(target, 0, ref, offset, target.length());
+            if (score > bestScore) {
+                bestScore = score;
+                bestOffset = offset;
+            }
+        }
+        return new Alignment(bestScore, bestOffset);
+    }
+
+    private static List<String> describe(List<Alignment> alignments) {
+        List<String> described = new ArrayList<>();
+        for (Alignment alignment : alignments) {
+            described.add(alignment.getScore() + "@" + alignment.getOffset());
+        }
+        return described;
+    }
+}
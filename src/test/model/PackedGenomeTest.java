@@ -0,0 +1,118 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedGenomeTest {
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, PackedGenome.EMPTY.length());
+        assertEquals("", PackedGenome.EMPTY.toString());
+        assertFalse(PackedGenome.EMPTY.hasExceptions());
+        assertEquals(0, PackedGenome.EMPTY.indexOf(""));
+        assertEquals(-1, PackedGenome.EMPTY.indexOf("A"));
+    }
+
+    @Test
+    public void testCharAtAcrossWords() {
+        String seq = AlignmentEngineTest.randomSequence(new Random(1), 100);
+        PackedGenome genome = new PackedGenome(seq);
+
+        assertEquals(100, genome.length());
+        assertFalse(genome.hasExceptions());
+        for (int i = 0; i < seq.length(); i++) {
+            assertEquals(seq.charAt(i), genome.charAt(i));
+        }
+        assertEquals(seq, genome.toString());
+    }
+
+    @Test
+    public void testExceptions() {
+        String seq = "NNACGTNNNNACGTRYAC" + AlignmentEngineTest.randomSequence(new Random(2), 40) + "N";
+        PackedGenome genome = new PackedGenome(seq);
+
+        assertTrue(genome.hasExceptions());
+        assertEquals(9, genome.getExceptionCount());
+        assertEquals('N', genome.charAt(0));
+        assertEquals('R', genome.charAt(14));
+        assertEquals('C', genome.charAt(17));
+        assertEquals(seq, genome.toString());
+        assertEquals(seq.substring(5, 16), genome.subSequence(5, 16));
+        assertEquals(seq.substring(2, 6), genome.subSequence(2, 6));
+        assertEquals("", genome.subSequence(7, 7));
+    }
+
+    @Test
+    public void testIndexOf() {
+        String seq = AlignmentEngineTest.randomSequence(new Random(3), 300);
+        PackedGenome genome = new PackedGenome(seq);
+
+        for (int start : Arrays.asList(0, 1, 31, 32, 33, 150, 250)) {
+            String target = seq.substring(start, start + 40);
+            assertEquals(seq.indexOf(target), genome.indexOf(target));
+        }
+        assertEquals(seq.indexOf("ACG"), genome.indexOf("ACG"));
+        assertEquals(seq.indexOf("ACGTACGTAAAACCCC"), genome.indexOf("ACGTACGTAAAACCCC"));
+        assertEquals(-1, genome.indexOf(seq + "A"));
+        assertEquals(-1, genome.indexOf("ACGN"));
+    }
+
+    @Test
+    public void testIndexOfWithExceptions() {
+        PackedGenome genome = new PackedGenome("ACGTNNACGTAAT");
+        assertEquals(4, genome.indexOf("NNA"));
+        assertEquals(6, genome.indexOf("ACGTA"));
+        assertEquals(-1, genome.indexOf("AAACG"));
+    }
+
+    @Test
+    public void testAlignPacked() {
+        String seq = AlignmentEngineTest.randomSequence(new Random(4), 500);
+        String target = seq.substring(200, 240).replace('A', 'C');
+        PackedAligner aligner = new PackedAligner();
+
+        Alignment expected = aligner.align(target, seq);
+        Alignment actual = aligner.align(target, new PackedGenome(seq));
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getOffset(), actual.getOffset());
+
+        Alignment withExceptions = aligner.align("NNACGT", new PackedGenome("ACGTNNACGTCC"));
+        assertEquals(6, withExceptions.getScore());
+        assertEquals(4, withExceptions.getOffset());
+    }
+
+    @Test
+    public void testIndexOfMatchesStringWithExceptions() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 40; trial++) {
+            String seq = AlignmentEngineTest.withNs(random, AlignmentEngineTest.randomSequence(random, 300));
+            PackedGenome genome = new PackedGenome(seq);
+            int start = random.nextInt(250);
+            String target = AlignmentEngineTest.substitute(random, seq.replace('N', 'A').substring(start,
+                    start + 1 + random.nextInt(50)), random.nextInt(2));
+            assertEquals(seq.indexOf(target), genome.indexOf(target));
+        }
+    }
+
+    @Test
+    public void testAlignPackedMatchesStringWithExceptions() {
+        Random random = new Random(6);
+        PackedAligner aligner = new PackedAligner();
+        for (int trial = 0; trial < 40; trial++) {
+            String seq = AlignmentEngineTest.withNs(random, AlignmentEngineTest.randomSequence(random, 400));
+            int start = random.nextInt(300);
+            String target = AlignmentEngineTest.substitute(random, seq.replace('N', 'A').substring(start,
+                    start + 1 + random.nextInt(100)), 3);
+
+            Alignment expected = new SlidingWindowAligner().align(target, seq);
+            Alignment actual = aligner.align(target, new PackedGenome(seq));
+            assertEquals(expected.getScore(), actual.getScore());
+            assertEquals(expected.getOffset(), actual.getOffset());
+        }
+    }
+}
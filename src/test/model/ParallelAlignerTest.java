@@ -0,0 +1,54 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelAlignerTest extends AlignmentEngineTest {
+    // Small threshold and chunks so the conformance tests go through the fork/join path
+    @Override
+    protected AlignmentEngine createEngine() {
+        return new ParallelAligner(1, 64);
+    }
+
+    @Test
+    public void testGetName() {
+        assertEquals("parallel", engine.getName());
+    }
+
+    @Test
+    public void testDefaultAlignerBelowThreshold() {
+        Alignment alignment = new ParallelAligner().align("TGACTG", "ATGCATGCATGC");
+        assertEquals(4, alignment.getScore());
+        assertEquals(1, alignment.getOffset());
+    }
+
+    @Test
+    public void testTiesAcrossChunksReturnFirstOffset() {
+        String ref = "GGGGAAAAAAAAAAAAGGGGAAAAAAAAAAAAGGGG";
+        Alignment alignment = new ParallelAligner(1, 3).align("GGGG", ref);
+        assertEquals(4, alignment.getScore());
+        assertEquals(0, alignment.getOffset());
+
+        alignment = new ParallelAligner(1, 1).align("GGGC", "AAAAGGGAAAAAGGGAAA");
+        assertEquals(3, alignment.getScore());
+        assertEquals(4, alignment.getOffset());
+    }
+
+    @Test
+    public void testMatchesSequentialWithDedicatedPool() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random random = new Random(9);
+        String ref = randomSequence(random, 50000);
+        String target = randomSequence(random, 40);
+
+        Alignment expected = new PackedAligner().align(target, ref);
+        Alignment alignment = new ParallelAligner(1000, 500, pool).align(target, ref);
+        assertEquals(expected.getScore(), alignment.getScore());
+        assertEquals(expected.getOffset(), alignment.getOffset());
+        pool.shutdown();
+    }
+}
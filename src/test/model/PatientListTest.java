@@ -171,4 +171,16 @@ public class PatientListTest {
         Patient p = patients.findPatient("1091239501");
         assertEquals(patient0, p);
     }
+
+    @Test
+    public void testGetPatientsIsUnchangedByLaterChanges() {
+        patients.addPatient(patient0);
+        List<Patient> listPatients = patients.getPatients();
+        patients.addPatient(patient1);
+        patients.removePatient(patient0.getPHN());
+
+        assertEquals(Arrays.asList(patient0), listPatients);
+        assertEquals(Arrays.asList(patient1), patients.getPatients());
+        assertThrows(UnsupportedOperationException.class, () -> listPatients.add(patient2));
+    }
 }
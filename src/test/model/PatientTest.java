@@ -4,14 +4,21 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class PatientTest {
+    private TempGenomeDirectory genomes;
+    private Path fastaFile;
     private Patient testPatient;
     private Patient testPatient2;
     private Patient testPatient3;
@@ -19,7 +26,9 @@ class PatientTest {
     private Condition conditionB;
 
     @BeforeEach
-    public void runBefore() {
+    public void runBefore() throws IOException {
+        genomes = new TempGenomeDirectory("2310529181");
+        fastaFile = genomes.resolve("1234567890_genome.fa");
         testPatient = new Patient("Patient Zero", "11/11/1999", "1091239501");
         testPatient2 = new Patient("", "3/16/2020", "2310529181");
         testPatient3 = new Patient("", "09/23/1950", "2310529181");
@@ -30,6 +39,11 @@ class PatientTest {
         EventLog.getInstance().clear();
     }
 
+    @AfterEach
+    public void runAfter() throws IOException {
+        genomes.close();
+    }
+
     @Test
     public void testConstructor() {
         assertEquals("Patient Zero", testPatient.getFullName());
@@ -82,6 +96,43 @@ class PatientTest {
         assertFalse(result);
     }
 
+    @Test
+    public void testDiagnoseWithMismatches() {
+        testPatient.updateGenome("GTACATGCGATGCATGGG");
+        assertFalse(testPatient.diagnose(conditionA, 0));
+        assertTrue(testPatient.diagnose(conditionA, 1));
+        assertTrue(testPatient.diagnose(new Condition("Empty", "", 1), 0));
+        assertEquals(Arrays.asList(4), testPatient.findCondition(conditionA, 1));
+        assertTrue(testPatient.findCondition(conditionA, 0).isEmpty());
+    }
+
+    @Test
+    public void testDiagnoseBothStrands() {
+        testPatient.updateGenome("GTACATGCGATGCATGGG");
+        Condition reverse = new Condition("Reverse", "CATCGCA", 1);
+        assertFalse(testPatient.diagnose(reverse));
+        assertTrue(testPatient.diagnoseBothStrands(reverse));
+        assertFalse(testPatient.diagnoseBothStrands(new Condition("Missing", "AAAA", 1)));
+    }
+
+    @Test
+    public void testLocateConditionWithMismatches() {
+        testPatient.updateGenome("GTACATGCGATGCATGGG");
+        assertTrue(testPatient.locateCondition(conditionA, 0).isEmpty());
+        assertEquals(Arrays.asList(4), testPatient.locateCondition(conditionA, 1));
+    }
+
+    @Test
+    public void testDiagnoseGenomeFromFileUsesIndex() {
+        testPatient2.readGenome();
+        File indexFile = genomes.resolve(testPatient2.getPHN() + "_genome.fmi").toFile();
+        assertTrue(testPatient2.diagnose(new Condition("Condition", "CCAAACATG", 1)));
+        assertFalse(testPatient2.diagnose(conditionA));
+        assertTrue(indexFile.exists());
+        assertFalse(Files.exists(Paths.get(GenomeFiles.GENOME_DIRECTORY + testPatient2.getPHN() + "_genome.fmi")));
+        assertEquals(Arrays.asList(9), testPatient2.locateCondition(new Condition("Condition", "CCAAACATG", 1), 0));
+    }
+
     @Test
     public void testReadGenomeMissingFile() {
         testPatient.readGenome();
@@ -96,6 +147,146 @@ class PatientTest {
                 + testPatient2.getPHN() + " from the data folder."));
     }
 
+    @Test
+    public void testReloadGenomeWhileDiagnosing() throws InterruptedException {
+        Condition condition = new Condition("Condition", "CCAAACATG", 1);
+        testPatient2.readGenome();
+        Thread reloader = new Thread(() -> {
+            for (int i = 0; i < 500; i++) {
+                testPatient2.reloadGenome();
+            }
+        });
+        reloader.start();
+        while (reloader.isAlive()) {
+            assertFalse(testPatient2.hasNoGenome());
+            assertTrue(testPatient2.diagnose(condition));
+            assertTrue(testPatient2.diagnose(condition, 0));
+        }
+        reloader.join();
+
+        testPatient.updateGenome("ATGC");
+        testPatient.reloadGenome();
+        assertTrue(testPatient.hasNoGenome());
+    }
+
+    @Test
+    public void testReadGenomeLoadsLazily() {
+        GenomeCache cache = GenomeCache.getInstance();
+        Path genomeFile = Paths.get(testPatient2.getGenomeFileName());
+        cache.invalidate(genomeFile);
+
+        testPatient2.readGenome();
+        assertFalse(testPatient2.hasNoGenome());
+        assertFalse(cache.contains(genomeFile));
+
+        assertTrue(testPatient2.diagnose(new Condition("Condition", "CCAAACATG", 1), 0));
+        assertTrue(cache.contains(genomeFile));
+        long hits = cache.getHits();
+        assertEquals("TGACATTGGCCAAACATGCATG", testPatient2.getGenome());
+        assertEquals(hits + 1, cache.getHits());
+    }
+
+    @Test
+    public void testHeaderOnlyFastaHasNoGenome() throws IOException {
+        Patient patient = readFastaGenome(">chr1", "", ">chr2");
+        assertTrue(patient.hasNoGenome());
+        assertEquals("", patient.getDiagnosisReport(conditionA));
+        assertEquals("", patient.getFullDiagnosisReport(Arrays.asList(conditionA)));
+    }
+
+    @Test
+    public void testReadGenomeFromFasta() throws IOException {
+        Patient patient = readFastaGenome(">chr1", "GTACATG", "CGATGC", ">chr2", "ATGGG");
+        assertEquals(fastaFile.toString(), patient.getGenomeFileName());
+        assertFalse(patient.hasNoGenome());
+        assertEquals("GTACATGCGATGCATGGG", patient.getGenome());
+        assertTrue(patient.diagnose(conditionA, 1));
+    }
+
+    @Test
+    public void testSearchesOnlyTheConditionsChromosome() throws IOException {
+        Condition onChr5 = new Condition("Condition on chr5", "ATGCAATGC", 5);
+        Condition onChr7 = new Condition("Condition on chr7", "ATGCAATGC", 7);
+        Patient patient = readFastaGenome(">chr5", "TTTTTTTTTT", ">chr10", "GTACATGCAA", "TGCATGGG");
+        assertEquals(new GenomeSource(fastaFile, "chr10"), patient.getChromosomeSource(conditionA));
+        assertNull(patient.getChromosomeSource(onChr7));
+        assertEquals("GTACATGCAATGCATGGG", patient.getPackedGenome(conditionA).toString());
+        assertEquals(28, patient.getPackedGenome(onChr7).length());
+
+        assertTrue(patient.diagnose(conditionA));
+        assertFalse(patient.diagnose(onChr5));
+        assertTrue(patient.diagnose(onChr7));
+        assertFalse(patient.diagnose(onChr5, 1));
+        assertEquals(Arrays.asList(4), patient.findCondition(conditionA, 0));
+        assertEquals(Arrays.asList(4), patient.locateCondition(conditionA, 0));
+        assertEquals(Arrays.asList(4), patient.locateCondition(onChr7, 0));
+        assertTrue(patient.getDiagnosisReport(conditionA).contains("(Similarity: 100%)"));
+        String report = patient.getFullDiagnosisReport(Arrays.asList(onChr5, conditionA, onChr7));
+        assertEquals(2, report.split("\\(Similarity: 100%\\)").length - 1);
+    }
+
+    @Test
+    public void testSearchesRecordsOneByOne() throws IOException {
+        Condition spanning = new Condition("Across chr5 and chr10", "GGCAGTAC", 7);
+        Condition inBoth = new Condition("In chr5 and chr10", "CATGG", 7);
+        Condition tooLong = new Condition("Longer than chr5", "ATGCAATGCATGG", 7);
+        Patient patient = readFastaGenome(">chr5", "TGCCATGGCA", ">chr10", "GTACATGCAATGCATGGG");
+        assertEquals(Arrays.asList(new GenomeSource(fastaFile, "chr5"), new GenomeSource(fastaFile, "chr10")),
+                patient.getSearchedSources(inBoth));
+        assertEquals(Arrays.asList(new GenomeSource(fastaFile, "chr10")), patient.getSearchedSources(tooLong));
+
+        assertFalse(patient.diagnose(spanning));
+        assertFalse(patient.diagnose(spanning, 1));
+        assertFalse(patient.diagnoseBothStrands(spanning));
+        assertTrue(patient.findCondition(spanning, 1).isEmpty());
+        assertTrue(patient.locateCondition(spanning, 1).isEmpty());
+        assertEquals(Arrays.asList(3, 12), patient.findCondition(inBoth, 0));
+        assertEquals(Arrays.asList(3, 12), patient.locateCondition(inBoth, 0));
+        assertTrue(patient.diagnose(tooLong));
+        assertTrue(patient.getDiagnosisReport(tooLong).contains("(Similarity: 100%)"));
+        assertTrue(patient.getDiagnosisReport(tooLong, true).contains("Offset: 4,"));
+        assertTrue(patient.getFullDiagnosisReport(Arrays.asList(spanning, tooLong))
+                .contains("Patient Genome: ATGCAATGCATGG"));
+    }
+
+    @Test
+    public void testVariantGenome() throws IOException {
+        Patient patient = new Patient("", "3/16/2020", "1234567890");
+        ReferenceGenome reference = new ReferenceGenome("GTACATGCTATGCATGGG");
+        patient.updateVariants(new VariantGenome(reference, Arrays.asList(new Variant(8, "T", "A"),
+                new Variant(14, "TG", "T"))));
+        assertFalse(patient.hasNoGenome());
+        assertNotNull(patient.getVariantGenome());
+        assertEquals("GTACATGCAATGCATGG", patient.getGenome());
+
+        assertTrue(patient.diagnose(conditionA));
+        assertFalse(patient.diagnose(conditionB));
+        assertTrue(patient.diagnose(new Condition("", "ATGCTATGC", 10), 1));
+        assertEquals(Arrays.asList(4), patient.findCondition(conditionA, 0));
+        assertEquals(Arrays.asList(4), patient.locateCondition(conditionA, 0));
+        assertEquals(Arrays.asList(0), patient.locateCondition(new Condition("", "", 1), 0));
+        assertTrue(patient.getDiagnosisReport(conditionA).contains("(Similarity: 100%)"));
+        String report = patient.getFullDiagnosisReport(Arrays.asList(conditionA, conditionB));
+        assertEquals(1, report.split("\\(Similarity: 100%\\)").length - 1);
+
+        patient.updateGenome("ATGC");
+        assertNull(patient.getVariantGenome());
+        assertFalse(patient.diagnose(conditionA));
+    }
+
+    @Test
+    public void testReadGenomeVariantsWithoutReference() throws IOException {
+        Path variantFile = VariantFile.forPatient(testPatient.getPHN());
+        VariantFile.write(variantFile, Arrays.asList(new Variant(8, "T", "A")));
+        try {
+            testPatient.readGenome();
+            assertNull(testPatient.getVariantGenome());
+            assertTrue(testPatient.hasNoGenome());
+        } finally {
+            Files.delete(variantFile);
+        }
+    }
+
     @Test
     public void testHasNoGenome() {
         testPatient.readGenome();
@@ -141,6 +332,37 @@ class PatientTest {
         assertEquals("", testPatient.getFullDiagnosisReport(conditionList));
     }
 
+    @Test
+    public void testGetGappedDiagnosisReport() {
+        Condition condition = new Condition("Condition", "ACGTTGCAAGCTTAGCCATG", 1);
+        testPatient.updateGenome("TTTTACGTTGCAAGTTAGCCATGTTTT");
+        assertEquals("Diagnosis for Condition\n"
+                + "Patient Genome: ACGTTGCAAG-TTAGCCATG\n"
+                + "Condition Seq:  ACGTTGCAAGCTTAGCCATG\n"
+                + "(CIGAR: 10M1I9M, Offset: 4, Score: 31)\n\n",
+                testPatient.getDiagnosisReport(condition, true));
+        assertEquals(testPatient.getDiagnosisReport(condition), testPatient.getDiagnosisReport(condition, false));
+    }
+
+    @Test
+    public void testGetDiagnosisReportWithRegion() {
+        Condition condition = new Condition("Condition", "ACGTTGCAAGCTTAGC", 1, 4, 19);
+        testPatient.updateGenome("GGGGACGTTGCAAGTTAGCGGGG");
+        String expected = "Diagnosis for Condition\n"
+                + "Patient Genome: ACGTTGCAAG-TTAGC\n"
+                + "Condition Seq:  ACGTTGCAAGCTTAGC\n"
+                + "(CIGAR: 10M1I5M, Offset: 4, Score: 26)\n\n";
+        assertEquals(expected, testPatient.getDiagnosisReport(condition));
+        assertEquals(expected, testPatient.getDiagnosisReport(condition, true));
+        assertEquals(expected, testPatient.getFullDiagnosisReport(Arrays.asList(condition)));
+
+        Condition pastGenome = new Condition("Condition", "GGGG", 1, 20, 40);
+        assertEquals("Diagnosis for Condition\n"
+                + "Patient Genome: -GGG\n"
+                + "Condition Seq:  GGGG\n"
+                + "(CIGAR: 1I3M, Offset: 20, Score: 2)\n\n", testPatient.getDiagnosisReport(pastGenome));
+    }
+
     @Test
     public void testGetDiagnosisReportWithNoGenome() {
         assertEquals("",
@@ -171,4 +393,13 @@ class PatientTest {
 
         return events;
     }
-}
\ No newline at end of file
+
+    // EFFECTS: Writes a FASTA genome file with the given lines for a new patient and returns the patient, with
+    // their genome read
+    private Patient readFastaGenome(String... lines) throws IOException {
+        Files.write(fastaFile, Arrays.asList(lines));
+        Patient patient = new Patient("", "3/16/2020", "1234567890");
+        patient.readGenome();
+        return patient;
+    }
+}
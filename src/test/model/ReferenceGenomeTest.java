@@ -0,0 +1,55 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReferenceGenomeTest {
+    @Test
+    public void testGetInstance() {
+        assertSame(ReferenceGenome.getInstance(), ReferenceGenome.getInstance());
+        assertEquals(Paths.get(System.getProperty(ReferenceGenome.REFERENCE_PROPERTY,
+                ReferenceGenome.DEFAULT_REFERENCE_FILE)), ReferenceGenome.getInstance().getFile());
+    }
+
+    @Test
+    public void testInMemory() throws IOException {
+        ReferenceGenome reference = new ReferenceGenome("ACGTACGT");
+        assertNull(reference.getFile());
+        assertEquals("ACGTACGT", reference.getSequence().toString());
+        assertSame(reference.getIndex(), reference.getIndex());
+        assertEquals(Arrays.asList(1, 5), reference.getIndex().locate("CG", 0));
+    }
+
+    @Test
+    public void testFromFile() throws IOException {
+        Path dir = Files.createTempDirectory("reference");
+        Path file = dir.resolve("reference.txt");
+        Files.write(file, Collections.singletonList("TTGCATTG"));
+        try {
+            ReferenceGenome reference = new ReferenceGenome(file);
+            assertEquals(file, reference.getFile());
+            assertEquals("TTGCATTG", reference.getSequence().toString());
+            assertEquals(Arrays.asList(0, 5), reference.getIndex().locate("TTG", 0));
+            assertTrue(Files.exists(FmIndex.indexFileFor(file)));
+        } finally {
+            Files.deleteIfExists(FmIndex.indexFileFor(file));
+            Files.delete(file);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testMissingFile() {
+        ReferenceGenome reference = new ReferenceGenome(Paths.get("./data/genomes/missing_reference.txt"));
+        assertThrows(IOException.class, reference::getSequence);
+        assertThrows(IOException.class, reference::getIndex);
+    }
+}
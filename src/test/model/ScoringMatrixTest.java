@@ -0,0 +1,56 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoringMatrixTest {
+    private static final int[][] BLOSUM_LIKE = {
+        {5, -4, -2, -4},
+        {-4, 5, -4, -1},
+        {-2, -4, 5, -4},
+        {-3, -1, -4, 6}
+    };
+
+    @Test
+    public void testTransitionTransversion() {
+        ScoringMatrix matrix = ScoringMatrix.transitionTransversion(3, -1, -2);
+        assertEquals(3, matrix.score('A', 'A'));
+        assertEquals(-1, matrix.score('A', 'G'));
+        assertEquals(-1, matrix.score('T', 'C'));
+        assertEquals(-2, matrix.score('A', 'C'));
+        assertEquals(-2, matrix.score('G', 'T'));
+        assertEquals(-2, matrix.score('N', 'N'));
+        assertEquals(3, matrix.getMaxScore());
+        assertEquals(3 + 3 - 1 - 2, matrix.score("ACGT", 0, "ACAG", 0, 4));
+    }
+
+    @Test
+    public void testFullMatrix() {
+        ScoringMatrix matrix = new ScoringMatrix(BLOSUM_LIKE, -5);
+        assertEquals(-3, matrix.score('T', 'A'));
+        assertEquals(-4, matrix.score('A', 'T'));
+        assertEquals(-5, matrix.score('A', 'N'));
+        assertEquals(6, matrix.getMaxScore());
+        assertEquals(5 + 6 - 5, matrix.score("xATG", 1, "ATN", 0, 3));
+    }
+
+    @Test
+    public void testScoreWordMatchesLookups() {
+        Random random = new Random(16);
+        ScoringMatrix[] matrices = {new ScoringMatrix(BLOSUM_LIKE, -5),
+                ScoringMatrix.transitionTransversion(2, -1, -3), ScoringMatrix.unit()};
+        for (ScoringMatrix matrix : matrices) {
+            for (int trial = 0; trial < 20; trial++) {
+                int bases = 1 + random.nextInt(32);
+                String a = AlignmentEngineTest.randomSequence(random, bases);
+                String b = AlignmentEngineTest.randomSequence(random, bases);
+                long mask = 0x5555555555555555L >>> (64 - 2 * bases);
+                assertEquals(matrix.score(a, 0, b, 0, bases),
+                        matrix.scoreWord(PackedAligner.pack(a)[0], PackedAligner.pack(b)[0], mask));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeedExtendAlignerTest {
+    @Test
+    public void testGetName() {
+        assertEquals("seed", new SeedExtendAligner().getName());
+        assertEquals("seed", AlignmentEngines.forName("seed").getName());
+    }
+
+    @Test
+    public void testAlignShortTargetIsExhaustive() {
+        Alignment alignment = new SeedExtendAligner().align("TGACTG", "ATGCATGCATGC");
+        assertEquals(4, alignment.getScore());
+        assertEquals(1, alignment.getOffset());
+    }
+
+    @Test
+    public void testAlignFindsMutatedConditionFromSeed() {
+        Random random = new Random(31);
+        String genome = AlignmentEngineTest.randomSequence(random, 200000);
+        StringBuilder mutated = new StringBuilder(genome.substring(150000, 150100));
+        mutated.setCharAt(50, mutated.charAt(50) == 'A' ? 'C' : 'A');
+
+        Alignment alignment = new SeedExtendAligner().align(mutated.toString(), genome);
+        assertEquals(99, alignment.getScore());
+        assertEquals(150000, alignment.getOffset());
+    }
+
+    @Test
+    public void testAlignWithoutSeedsFallsBackToExhaustive() {
+        String target = "ACACACACACACAC";
+        String ref = "TTTTTTTTTTTTTTTTTTTTACAAAAAAAAAAAATTTT";
+        Alignment alignment = new SeedExtendAligner(8, 1, 10).align(target, ref);
+        Alignment expected = new NaiveAligner().align(target, ref);
+        assertEquals(expected.getScore(), alignment.getScore());
+        assertEquals(expected.getOffset(), alignment.getOffset());
+    }
+
+    @Test
+    public void testAlignSkipsRepetitiveSeeds() {
+        String ref = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAACGTACGTTGCA";
+        Alignment alignment = new SeedExtendAligner(4, 1, 2).align("AAAAACGTACGT", ref);
+        assertEquals(12, alignment.getScore());
+        assertEquals(41, alignment.getOffset());
+    }
+
+    @Test
+    public void testGetComparisonReport() {
+        Random random = new Random(8);
+        String genome = AlignmentEngineTest.randomSequence(random, 20000);
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(new Condition("Planted", genome.substring(4000, 4060), 1));
+        conditions.add(new Condition("Short", "ACG", 2));
+
+        String report = new SeedExtendAligner().getComparisonReport(conditions, genome);
+        assertTrue(report.contains("Planted: seeded 60 at 4000"));
+        assertTrue(report.endsWith("Best alignment found for 2 of 2 conditions\n"));
+    }
+}
@@ -3,6 +3,7 @@ package model;
 import org.junit.jupiter.api.Test;
 
 import javax.sound.midi.Sequence;
+import java.io.IOException;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -57,6 +58,46 @@ public class SequenceAlignerTest {
         assertEquals(8, seqAligner.getSimilarityScore());
     }
 
+    @Test
+    public void testGetMostSimilarSequenceOffset() {
+        SequenceAligner seqAligner = new SequenceAligner("TGACTG", "ATGCATGCATGC");
+        assertEquals(-1, seqAligner.getAlignmentOffset());
+        seqAligner.getMostSimilarAlignment();
+        assertEquals(1, seqAligner.getAlignmentOffset());
+    }
+
+    @Test
+    public void testGetMostSimilarSequenceWithEngine() {
+        SequenceAligner seqAligner = new SequenceAligner("TGACTG", "ATGCATGCATGC", new NaiveAligner());
+        assertEquals("naive", seqAligner.getEngine().getName());
+        seqAligner.getMostSimilarAlignment(new ParallelAligner());
+        assertEquals(4, seqAligner.getSimilarityScore());
+        assertEquals(1, seqAligner.getAlignmentOffset());
+        assertEquals("TG--TG", seqAligner.getRedactedSeq());
+    }
+
+    @Test
+    public void testGetMostSimilarSequenceVariantGenome() throws IOException {
+        VariantGenome genome = new VariantGenome(new ReferenceGenome("ATGCATGCATGC"),
+                Arrays.asList(new Variant(3, "C", "CA"), new Variant(8, "A", "T")));
+        SequenceAligner seqAligner = new SequenceAligner("TGCATG", genome);
+        seqAligner.getMostSimilarAlignment();
+        assertEquals(5, seqAligner.getSimilarityScore());
+        assertEquals(6, seqAligner.getAlignmentOffset());
+        assertEquals("ATGCAATGCTTGC", seqAligner.getRefSeq());
+    }
+
+    @Test
+    public void testGetMostSimilarSequenceAboveFftThreshold() {
+        SequenceAligner seqAligner = new SequenceAligner("TGACTG", "ATGCATGCATGC");
+        assertEquals(SequenceAligner.DEFAULT_FFT_THRESHOLD, seqAligner.getFftThreshold());
+        seqAligner.setFftThreshold(4);
+        seqAligner.getMostSimilarAlignment();
+        assertEquals(4, seqAligner.getSimilarityScore());
+        assertEquals(1, seqAligner.getAlignmentOffset());
+        assertEquals("TG--TG", seqAligner.getRedactedSeq());
+    }
+
     @Test
     public void testRedactSequenceNoSimilarity() {
         SequenceAligner seqAligner = new SequenceAligner("ATGC", "GGCG");
@@ -108,4 +149,133 @@ public class SequenceAlignerTest {
         int res = seqAligner.getSimilarityPercentage();
         assertEquals(-1, res);
     }
+
+    @Test
+    public void testGetTopAlignments() {
+        SequenceAligner seqAligner = new SequenceAligner("TGCA", "TGCATGGATTGCT");
+        List<Alignment> top = seqAligner.getTopAlignments(3);
+        assertEquals(3, top.size());
+        assertEquals(4, top.get(0).getScore());
+        assertEquals(0, top.get(0).getOffset());
+        assertEquals(3, top.get(1).getScore());
+        assertEquals(4, top.get(1).getOffset());
+        assertEquals(3, top.get(2).getScore());
+        assertEquals(9, top.get(2).getOffset());
+        assertEquals(-1, seqAligner.getSimilarityScore());
+    }
+
+    @Test
+    public void testGetTopAlignmentsMoreThanWindows() {
+        SequenceAligner seqAligner = new SequenceAligner("ATTC", "AGGCA");
+        List<Alignment> top = seqAligner.getTopAlignments(5);
+        assertEquals(2, top.size());
+        assertEquals(2, top.get(0).getScore());
+        assertEquals(0, top.get(0).getOffset());
+        assertEquals(0, top.get(1).getScore());
+    }
+
+    @Test
+    public void testGetTopAlignmentsMatchesFullSort() {
+        Random random = new Random(4);
+        String target = AlignmentEngineTest.randomSequence(random, 40);
+        String ref = AlignmentEngineTest.randomSequence(random, 2000);
+        SequenceAligner seqAligner = new SequenceAligner(target, ref);
+
+        List<Alignment> expected = new ArrayList<>();
+        for (int offset = 0; offset + target.length() <= ref.length(); offset++) {
+            int score = seqAligner.calculateSimilarityScore(target, ref.substring(offset, offset + target.length()));
+            expected.add(new Alignment(score, offset));
+        }
+        expected.sort((a, b) -> a.getScore() != b.getScore() ? b.getScore() - a.getScore()
+                : a.getOffset() - b.getOffset());
+
+        List<Alignment> top = seqAligner.getTopAlignments(10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected.get(i).getScore(), top.get(i).getScore());
+            assertEquals(expected.get(i).getOffset(), top.get(i).getOffset());
+        }
+    }
+
+    @Test
+    public void testGetAlignmentsWithSimilarity() {
+        SequenceAligner seqAligner = new SequenceAligner("TGCA", "TGCATGGATTGCT");
+        List<Alignment> found = seqAligner.getAlignmentsWithSimilarity(75);
+        assertEquals(3, found.size());
+        assertEquals(0, found.get(0).getOffset());
+        assertEquals(4, found.get(0).getScore());
+        assertEquals(4, found.get(1).getOffset());
+        assertEquals(3, found.get(1).getScore());
+        assertEquals(9, found.get(2).getOffset());
+
+        assertEquals(1, seqAligner.getAlignmentsWithSimilarity(100).size());
+        assertEquals(10, seqAligner.getAlignmentsWithSimilarity(0).size());
+    }
+
+    @Test
+    public void testHasAlignmentWithSimilarity() {
+        SequenceAligner seqAligner = new SequenceAligner("TGACTG", "ATGCATGCATGC");
+        assertTrue(seqAligner.hasAlignmentWithSimilarity(67));
+        assertFalse(seqAligner.hasAlignmentWithSimilarity(68));
+
+        SequenceAligner ambiguous = new SequenceAligner("ANGC", "TTANGCTT");
+        assertTrue(ambiguous.hasAlignmentWithSimilarity(100));
+    }
+
+    @Test
+    public void testGetMostSimilarAlignmentBothStrands() {
+        SequenceAligner seqAligner = new SequenceAligner("AAACC", "TTGGTTTCG");
+        seqAligner.getMostSimilarAlignmentBothStrands();
+        assertEquals(5, seqAligner.getSimilarityScore());
+        assertEquals(2, seqAligner.getAlignmentOffset());
+        assertTrue(seqAligner.isReverseStrand());
+        assertEquals("GGTTT", seqAligner.getRedactedSeq());
+
+        seqAligner.getMostSimilarAlignment();
+        assertFalse(seqAligner.isReverseStrand());
+        assertEquals(1, seqAligner.getSimilarityScore());
+    }
+
+    @Test
+    public void testGetGappedAlignment() {
+        SequenceAligner seqAligner = new SequenceAligner("ACGTTGCAAGTTAGCCATG", "ACGTTGCAAGGGTTAGCCATG");
+        GappedAlignment alignment = seqAligner.getGappedAlignment();
+        assertEquals("9M2D10M", alignment.getCigar());
+        assertEquals(29, alignment.getScore());
+        assertEquals(-1, seqAligner.getSimilarityScore());
+    }
+
+    @Test
+    public void testWeightedScoring() {
+        ScoringMatrix matrix = ScoringMatrix.transitionTransversion(2, 1, -2);
+        SequenceAligner seqAligner = new SequenceAligner("ACGT", "TTGCGTTT");
+        assertEquals(2 + 2 + 1 - 2, seqAligner.calculateSimilarityScore("ACGT", "ACAA", matrix));
+
+        Alignment alignment = seqAligner.getWeightedAlignment(matrix);
+        assertEquals(1 + 2 + 2 + 2, alignment.getScore());
+        assertEquals(2, alignment.getOffset());
+    }
+
+    @Test
+    public void testReferenceShorterThanTarget() {
+        SequenceAligner seqAligner = new SequenceAligner("ACGT", new PackedGenome("AC"), new PackedAligner());
+        seqAligner.getMostSimilarAlignment();
+        assertEquals(-1, seqAligner.getSimilarityPercentage());
+        assertEquals(-1, seqAligner.getAlignmentOffset());
+        assertEquals("", seqAligner.getRedactedSeq());
+
+        seqAligner.getMostSimilarAlignmentBothStrands();
+        seqAligner.recordAlignment(new Alignment(0, 0));
+        assertEquals(-1, seqAligner.getSimilarityScore());
+        assertEquals("", seqAligner.getRedactedSeq());
+    }
+
+    @Test
+    public void testPackedGenome() {
+        SequenceAligner seqAligner = new SequenceAligner("ACGT", new PackedGenome("TTACCTGG"), new PackedAligner());
+        seqAligner.getMostSimilarAlignment();
+        assertEquals(3, seqAligner.getSimilarityScore());
+        assertEquals(2, seqAligner.getAlignmentOffset());
+        assertEquals("AC-T", seqAligner.getRedactedSeq());
+        assertEquals("TTACCTGG", seqAligner.getRefSeq());
+    }
 }
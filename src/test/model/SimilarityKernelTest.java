@@ -0,0 +1,63 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimilarityKernelTest {
+    @Test
+    public void testCountMatchesShortWindow() {
+        byte[] a = "ATGC".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] b = "AGGT".getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(2, SimilarityKernel.countMatches(a, 0, b, 0, 4));
+    }
+
+    @Test
+    public void testCountMatchesIdenticalWideWindow() {
+        byte[] a = "ATGCATGCATGCATGCATGCA".getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(21, SimilarityKernel.countMatches(a, 0, a, 0, 21));
+    }
+
+    @Test
+    public void testCountMatchesNoSimilarityWideWindow() {
+        byte[] a = "AAAAAAAAAAAAAAAAAAAA".getBytes(StandardCharsets.ISO_8859_1);
+        byte[] b = "TTTTTTTTTTTTTTTTTTTT".getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(0, SimilarityKernel.countMatches(a, 0, b, 0, 20));
+    }
+
+    @Test
+    public void testCountMatchesSameAsScalar() {
+        Random random = new Random(3);
+        byte[] a = AlignmentEngineTest.randomSequence(random, 500).getBytes(StandardCharsets.ISO_8859_1);
+        byte[] b = AlignmentEngineTest.randomSequence(random, 500).getBytes(StandardCharsets.ISO_8859_1);
+        b[17] = (byte) 0x80;
+        a[17] = (byte) 0x80;
+        a[18] = (byte) 0xFF;
+
+        for (int len = 0; len < 200; len += 7) {
+            for (int offset = 0; offset < 9; offset++) {
+                assertEquals(SimilarityKernel.countMatchesScalar(a, offset, b, offset + 3, len),
+                        SimilarityKernel.countMatches(a, offset, b, offset + 3, len));
+            }
+        }
+    }
+
+    @Test
+    public void testCalculateSimilarityScoreSameAsScalar() {
+        Random random = new Random(11);
+        String seqA = AlignmentEngineTest.randomSequence(random, 101);
+        String seqB = AlignmentEngineTest.randomSequence(random, 101);
+        SequenceAligner seqAligner = new SequenceAligner(seqA, seqB);
+
+        int expected = 0;
+        for (int i = 0; i < seqA.length(); i++) {
+            if (seqA.charAt(i) == seqB.charAt(i)) {
+                expected++;
+            }
+        }
+        assertEquals(expected, seqAligner.calculateSimilarityScore(seqA, seqB));
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingWindowAlignerTest extends AlignmentEngineTest {
+    @Override
+    protected AlignmentEngine createEngine() {
+        return new SlidingWindowAligner();
+    }
+
+    @Test
+    public void testGetName() {
+        assertEquals("sliding", engine.getName());
+    }
+}
@@ -0,0 +1,137 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmithWatermanAlignerTest {
+    private SmithWatermanAligner aligner;
+
+    @BeforeEach
+    public void runBefore() {
+        aligner = new SmithWatermanAligner();
+    }
+
+    @Test
+    public void testExactMatch() {
+        GappedAlignment alignment = aligner.align("ATGCAATGC", "GTACATGCAATGCATGGG");
+        assertEquals(18, alignment.getScore());
+        assertEquals("9M", alignment.getCigar());
+        assertEquals(4, alignment.getRefStart());
+        assertEquals(13, alignment.getRefEnd());
+        assertEquals(0, alignment.getTargetStart());
+        assertEquals(9, alignment.getTargetEnd());
+        assertEquals("ATGCAATGC", alignment.getAlignedRef());
+    }
+
+    @Test
+    public void testDeletionInReference() {
+        GappedAlignment alignment = aligner.align("ACGTTGCAAGCTTAGCCATG", "TTTTACGTTGCAAGTTAGCCATGTTTT");
+        assertEquals(19 * 2 - 7, alignment.getScore());
+        assertEquals("10M1I9M", alignment.getCigar());
+        assertEquals("ACGTTGCAAGCTTAGCCATG", alignment.getAlignedTarget());
+        assertEquals("ACGTTGCAAG-TTAGCCATG", alignment.getAlignedRef());
+        assertEquals(4, alignment.getRefStart());
+        assertEquals(23, alignment.getRefEnd());
+    }
+
+    @Test
+    public void testInsertionInReference() {
+        GappedAlignment alignment = aligner.align("ACGTTGCAAGTTAGCCATG", "ACGTTGCAAGGGTTAGCCATG");
+        assertEquals(19 * 2 - 9, alignment.getScore());
+        assertEquals("ACGTTGCAA--GTTAGCCATG", alignment.getAlignedTarget());
+        assertEquals("9M2D10M", alignment.getCigar());
+        assertEquals(0, alignment.getRefStart());
+        assertEquals(21, alignment.getRefEnd());
+    }
+
+    @Test
+    public void testNoMatch() {
+        GappedAlignment alignment = aligner.align("AAAA", "CCCCCC");
+        assertEquals(0, alignment.getScore());
+        assertEquals("", alignment.getCigar());
+        assertEquals(0, aligner.align("", "ACGT").getScore());
+    }
+
+    @Test
+    public void testMatchesFullMatrixScores() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 40; trial++) {
+            String ref = AlignmentEngineTest.randomSequence(random, 50 + random.nextInt(200));
+            String target = AlignmentEngineTest.randomSequence(random, 1 + random.nextInt(40));
+            if (trial % 2 == 0) {
+                int start = random.nextInt(ref.length() - 30);
+                target = ref.substring(start, start + 15) + "G" + ref.substring(start + 15, start + 30);
+            }
+            GappedAlignment alignment = aligner.align(target, ref);
+            assertEquals(AlignmentEngineTest.fullMatrixLocalScore(target, ref, 2, -3, 5, 2), alignment.getScore());
+            assertConsistent(target, ref, alignment);
+        }
+    }
+
+    @Test
+    public void testMatchesFullMatrixScoresWithIndels() {
+        Random random = new Random(15);
+        for (int trial = 0; trial < 60; trial++) {
+            String ref = AlignmentEngineTest.randomSequence(random, 60 + random.nextInt(100));
+            int start = random.nextInt(ref.length() - 50);
+            String target = AlignmentEngineTest.mutate(random, ref.substring(start, start + 20 + random.nextInt(30)),
+                    4, 3);
+            GappedAlignment alignment = aligner.align(target, ref);
+            assertEquals(AlignmentEngineTest.fullMatrixLocalScore(target, ref, 2, -3, 5, 2), alignment.getScore());
+            assertConsistent(target, ref, alignment);
+        }
+    }
+
+    @Test
+    public void testLongTarget() {
+        Random random = new Random(16);
+        String ref = AlignmentEngineTest.randomSequence(random, 20000);
+        String target = AlignmentEngineTest.mutate(random, ref.substring(5000, 8000), 30, 3);
+        GappedAlignment alignment = aligner.align(target, ref);
+        assertConsistent(target, ref, alignment);
+        assertTrue(alignment.getScore() > 3000 * 2 - 30 * 20);
+        assertTrue(Math.abs(alignment.getRefStart() - 5000) < 100);
+        assertTrue(Math.abs(alignment.getRefEnd() - 8000) < 100);
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        SmithWatermanAligner parallel = new SmithWatermanAligner(2, -3, 5, 2, 1, 64);
+        Random random = new Random(14);
+        for (int trial = 0; trial < 20; trial++) {
+            String ref = AlignmentEngineTest.randomSequence(random, 500 + random.nextInt(2000));
+            int start = random.nextInt(ref.length() - 40);
+            String target = ref.substring(start, start + 20) + ref.substring(start + 22, start + 40);
+            GappedAlignment expected = aligner.align(target, ref);
+            GappedAlignment actual = parallel.align(target, ref);
+            assertEquals(expected.getScore(), actual.getScore());
+            assertEquals(expected.getRefEnd(), actual.getRefEnd());
+            assertEquals(expected.getCigar(), actual.getCigar());
+        }
+    }
+
+    private static void assertConsistent(String target, String ref, GappedAlignment alignment) {
+        String alignedTarget = alignment.getAlignedTarget();
+        String alignedRef = alignment.getAlignedRef();
+        assertEquals(target.substring(alignment.getTargetStart(), alignment.getTargetEnd()),
+                alignedTarget.replace("-", ""));
+        assertEquals(ref.substring(alignment.getRefStart(), alignment.getRefEnd()), alignedRef.replace("-", ""));
+
+        int score = 0;
+        for (int i = 0; i < alignedTarget.length(); i++) {
+            char t = alignedTarget.charAt(i);
+            char r = alignedRef.charAt(i);
+            if (t == '-' || r == '-') {
+                boolean extended = i > 0 && (t == '-' ? alignedTarget : alignedRef).charAt(i - 1) == '-';
+                score -= extended ? 2 : 7;
+            } else {
+                score += t == r ? 2 : -3;
+            }
+        }
+        assertEquals(alignment.getScore(), score);
+    }
+}
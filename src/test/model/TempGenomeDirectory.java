@@ -0,0 +1,57 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// A temporary genome directory for tests, set as the genome directory (see GenomeFiles.getDirectory) while it
+// is open, so the genome files a test writes, and the indexes and stores built for them, are never in
+// ./data/genomes. Closing it deletes the directory with everything in it and restores the genome directory.
+public class TempGenomeDirectory implements Closeable {
+    private final Path directory;
+    private final String previous;
+
+    // EFFECTS: Creates a temporary genome directory with a copy of the genome file PHN_genome.txt in
+    // ./data/genomes of each of the given PHNs, and sets it as the genome directory
+    public TempGenomeDirectory(String... copiedPhns) throws IOException {
+        directory = Files.createTempDirectory("genomes");
+        for (String phn : copiedPhns) {
+            String name = phn + "_genome.txt";
+            Files.copy(Paths.get(GenomeFiles.GENOME_DIRECTORY + name), directory.resolve(name));
+        }
+        previous = System.setProperty(GenomeFiles.DIRECTORY_PROPERTY, directory.toString());
+    }
+
+    // EFFECTS: Returns the path of the file with the given name in the directory
+    public Path resolve(String fileName) {
+        return directory.resolve(fileName);
+    }
+
+    // EFFECTS: Returns the directory
+    public Path getPath() {
+        return this.directory;
+    }
+
+    // EFFECTS: Deletes the directory with everything in it and sets the genome directory back to what it was
+    @Override
+    public void close() throws IOException {
+        if (previous == null) {
+            System.clearProperty(GenomeFiles.DIRECTORY_PROPERTY);
+        } else {
+            System.setProperty(GenomeFiles.DIRECTORY_PROPERTY, previous);
+        }
+        List<Path> files;
+        try (Stream<Path> walked = Files.walk(directory)) {
+            files = walked.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            Files.delete(file);
+        }
+    }
+}
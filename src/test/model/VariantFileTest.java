@@ -0,0 +1,70 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VariantFileTest {
+    private Path file;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        file = Files.createTempFile("variants", ".vcf");
+    }
+
+    @AfterEach
+    public void runAfter() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testForPatient() {
+        assertEquals(Paths.get("./data/genomes/1234567890_genome.vcf"), VariantFile.forPatient("1234567890"));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        List<Variant> variants = Arrays.asList(new Variant(0, "A", "G"), new Variant(5, "C", "CTT"),
+                new Variant(9, "GA", "G"));
+        VariantFile.write(file, variants);
+        assertTrue(Files.readAllLines(file).contains(".\t6\t.\tC\tCTT"));
+        assertEquals(variants, VariantFile.read(file));
+    }
+
+    @Test
+    public void testReadSortsAndSkips() throws IOException {
+        Files.write(file, Arrays.asList("##fileformat=VCFv4.2", "#CHROM\tPOS\tID\tREF\tALT\tQUAL",
+                "chr1\t10\trs1\tA\tT,C\t50", "", "chr1\t3\t.\tG\t.", "chr1\t2\t.\tG\tGA"));
+        assertEquals(Arrays.asList(new Variant(1, "G", "GA"), new Variant(9, "A", "T")), VariantFile.read(file));
+    }
+
+    @Test
+    public void testReadMalformed() throws IOException {
+        Files.write(file, Arrays.asList("chr1\t2\t.\tG"));
+        assertThrows(IOException.class, () -> VariantFile.read(file));
+        Files.write(file, Arrays.asList("chr1\tx\t.\tG\tA"));
+        assertThrows(IOException.class, () -> VariantFile.read(file));
+        Files.write(file, Arrays.asList("chr1\t0\t.\tG\tA"));
+        assertThrows(IOException.class, () -> VariantFile.read(file));
+        Files.write(file, Arrays.asList("chr1\t1\t.\t\tA"));
+        assertThrows(IOException.class, () -> VariantFile.read(file));
+    }
+
+    @Test
+    public void testReadRejectsSeveralChromosomes() throws IOException {
+        Files.write(file, Arrays.asList("chr1\t2\t.\tG\tA", "chr1\t5\t.\tC\tT"));
+        assertEquals(2, VariantFile.read(file).size());
+        Files.write(file, Arrays.asList("chr1\t2\t.\tG\tA", "chr2\t5\t.\tC\tT"));
+        IOException e = assertThrows(IOException.class, () -> VariantFile.read(file));
+        assertTrue(e.getMessage().contains("chr1 and chr2"));
+    }
+}
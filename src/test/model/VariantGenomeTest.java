@@ -0,0 +1,137 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VariantGenomeTest {
+    private static final String BASES = "ACGT";
+
+    private ReferenceGenome reference;
+    private VariantGenome genome;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        // reference: ACGTACGTAC GTTGCAAGCT
+        reference = new ReferenceGenome("ACGTACGTACGTTGCAAGCT");
+        genome = new VariantGenome(reference, Arrays.asList(new Variant(2, "G", "T"),
+                new Variant(7, "T", "TAAA"), new Variant(12, "TGC", "T")));
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals("ACTTACGTAAAACGTTAAGCT", genome.toString());
+        assertEquals(21, genome.length());
+        assertSame(reference, genome.getReference());
+        assertEquals(3, genome.getVariants().size());
+        assertEquals(new Variant(7, "T", "TAAA"), genome.getVariants().get(1));
+    }
+
+    @Test
+    public void testNoVariants() throws IOException {
+        VariantGenome same = new VariantGenome(reference, Collections.emptyList());
+        assertEquals("ACGTACGTACGTTGCAAGCT", same.toString());
+        assertEquals(Arrays.asList(1, 5, 9), same.locate("CG", 0));
+    }
+
+    @Test
+    public void testInvalidVariants() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new VariantGenome(reference, Collections.singletonList(new Variant(0, "C", "G"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new VariantGenome(reference, Collections.singletonList(new Variant(19, "TA", "G"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new VariantGenome(reference, Collections.singletonList(new Variant(0, "A", ""))));
+        assertThrows(IllegalArgumentException.class, () -> new VariantGenome(reference,
+                Arrays.asList(new Variant(2, "GT", "G"), new Variant(3, "T", "A"))));
+    }
+
+    @Test
+    public void testCharAtAndSubSequence() {
+        String bases = genome.toString();
+        for (int i = 0; i < bases.length(); i++) {
+            assertEquals(bases.charAt(i), genome.charAt(i));
+            for (int j = i; j <= bases.length(); j++) {
+                assertEquals(bases.substring(i, j), genome.subSequence(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testLocate() throws IOException {
+        assertEquals(Arrays.asList(2, 14), genome.locate("TTA", 0));
+        assertEquals(Arrays.asList(8, 9, 10, 16), genome.locate("AA", 0));
+        assertEquals(Collections.singletonList(17), genome.locate("AGCT", 0));
+        assertEquals(Collections.emptyList(), genome.locate("GTAC", 0));
+        assertEquals(Arrays.asList(4, 11), genome.locate("ACGT", 0));
+        assertEquals(Arrays.asList(0, 4, 11), genome.locate("ACGT", 1));
+    }
+
+    @Test
+    public void testLocateMatchesMaterialisedGenome() throws IOException {
+        Random random = new Random(24);
+        for (int trial = 0; trial < 50; trial++) {
+            String ref = AlignmentEngineTest.randomSequence(random, 200);
+            VariantGenome patient = new VariantGenome(new ReferenceGenome(ref), randomVariants(random, ref));
+            String bases = patient.toString();
+            for (int m = 1; m <= 6; m++) {
+                int start = random.nextInt(bases.length() - m + 1);
+                String seq = bases.substring(start, start + m);
+                for (int k = 0; k <= 1; k++) {
+                    assertEquals(new BitapMatcher(seq, k).findAll(bases), patient.locate(seq, k));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAlignMatchesMaterialisedGenome() throws IOException {
+        Random random = new Random(42);
+        AlignmentEngine engine = new PackedAligner();
+        for (int trial = 0; trial < 50; trial++) {
+            String ref = AlignmentEngineTest.randomSequence(random, 120);
+            VariantGenome patient = new VariantGenome(new ReferenceGenome(ref), randomVariants(random, ref));
+            String target = AlignmentEngineTest.randomSequence(random, 1 + random.nextInt(10));
+            Alignment expected = engine.align(target, patient.toString());
+            Alignment found = patient.align(target, engine);
+            assertEquals(expected.getScore(), found.getScore());
+            assertEquals(expected.getOffset(), found.getOffset());
+        }
+    }
+
+    @Test
+    public void testAlign() {
+        Alignment alignment = genome.align("TAAAA", new PackedAligner());
+        assertEquals(5, alignment.getScore());
+        assertEquals(7, alignment.getOffset());
+    }
+
+    // EFFECTS: Returns random substitutions, insertions and deletions from ref, sorted and not overlapping
+    private static List<Variant> randomVariants(Random random, String ref) {
+        List<Variant> variants = new ArrayList<>();
+        int position = random.nextInt(5);
+        while (position + 3 < ref.length()) {
+            int kind = random.nextInt(3);
+            if (kind == 0) {
+                String alt = String.valueOf(BASES.charAt((BASES.indexOf(ref.charAt(position)) + 1) % 4));
+                variants.add(new Variant(position, ref.substring(position, position + 1), alt));
+            } else if (kind == 1) {
+                variants.add(new Variant(position, ref.substring(position, position + 1),
+                        ref.charAt(position) + AlignmentEngineTest.randomSequence(random, 1 + random.nextInt(4))));
+            } else {
+                variants.add(new Variant(position, ref.substring(position, position + 3),
+                        ref.substring(position, position + 1)));
+            }
+            position += 3 + random.nextInt(20);
+        }
+        return variants;
+    }
+}
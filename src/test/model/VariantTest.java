@@ -0,0 +1,29 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VariantTest {
+    @Test
+    public void testConstructor() {
+        Variant v = new Variant(4, "AC", "A");
+        assertEquals(4, v.getPosition());
+        assertEquals(6, v.getEnd());
+        assertEquals("AC", v.getRef());
+        assertEquals("A", v.getAlt());
+        assertEquals("4:AC>A", v.toString());
+    }
+
+    @Test
+    public void testEquals() {
+        Variant v = new Variant(4, "A", "G");
+        assertEquals(v, new Variant(4, "A", "G"));
+        assertEquals(v.hashCode(), new Variant(4, "A", "G").hashCode());
+        assertNotEquals(v, new Variant(5, "A", "G"));
+        assertNotEquals(v, new Variant(4, "C", "G"));
+        assertNotEquals(v, new Variant(4, "A", "T"));
+        assertNotEquals(v, null);
+        assertNotEquals(v, "4:A>G");
+    }
+}
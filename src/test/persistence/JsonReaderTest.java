@@ -74,6 +74,24 @@ public class JsonReaderTest {
         checkCondition(conditions.get(2), "Genetic Condition C", "ATATATATA", 7);
     }
 
+    @Test
+    public void testReadConditionWithoutRegionEnd() {
+        JsonReader jsonReader = new JsonReader("./data/testReaderPartialRegion.json");
+        try {
+            testClinic = jsonReader.read();
+        } catch (IOException e) {
+            fail("Couldn't read the specified file.");
+        }
+        List<Condition> conditions = testClinic.getConditions();
+
+        assertEquals(2, conditions.size());
+        checkCondition(conditions.get(0), "Genetic Condition A", "ACATGCATG", 10);
+        assertFalse(conditions.get(0).hasRegion());
+        checkCondition(conditions.get(1), "Genetic Condition B", "TGACGTTAA", 5);
+        assertEquals(40, conditions.get(1).getRegionStart());
+        assertEquals(90, conditions.get(1).getRegionEnd());
+    }
+
     private void checkPatient(Patient patient, String name, String dob, String phn,
                               int age, String genome, String notes) {
         assertEquals(name, patient.getFullName());
@@ -64,6 +64,28 @@ public class JsonWriterTest {
         }
     }
 
+    @Test
+    public void testWriterConditionWithRegion() {
+        try {
+            Clinic testClinic = new Clinic(null, null);
+            testClinic.addCondition(new Condition("Genetic Condition A", "ATGCATGC", 10, 120, 480));
+            testClinic.addCondition(new Condition("Genetic Condition B", "TTGACA", 2));
+            JsonWriter writer = new JsonWriter("./data/testWriterConditionRegion.json");
+            writer.saveClinicToJson(testClinic);
+
+            JsonReader reader = new JsonReader("./data/testWriterConditionRegion.json");
+            List<Condition> conditions = reader.read().getConditions();
+
+            checkCondition(conditions.get(0), "Genetic Condition A", "ATGCATGC", 10);
+            assertEquals(120, conditions.get(0).getRegionStart());
+            assertEquals(480, conditions.get(0).getRegionEnd());
+            checkCondition(conditions.get(1), "Genetic Condition B", "TTGACA", 2);
+            assertFalse(conditions.get(1).hasRegion());
+        } catch (IOException e) {
+            fail("This shouldn't be possible!");
+        }
+    }
+
     private void checkPatient(Patient patient, String name, String dob, String phn,
                               int age, String genome, String notes) {
         assertEquals(name, patient.getFullName());